@@ -0,0 +1,94 @@
+package ua.kpi.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ua.kpi.entity.Employee;
+import ua.kpi.entity.Payment;
+import ua.kpi.streams.KTStreams;
+import ua.kpi.table.ColumnKernels;
+
+import java.math.BigDecimal;
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Numeric filters and reductions as plain streams over records and as {@link ColumnKernels} scans
+ * over table columns, with vector and scalar kernels. Every parameter combination runs in its own
+ * fork, so the kernels are chosen before the first table scan.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g", "--add-modules", "jdk.incubator.vector"})
+public class ColumnScanBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Kernels {
+
+        @Param({"vector", "scalar"})
+        public String kernels;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            System.setProperty("ua.kpi.vector", String.valueOf(kernels.equals("vector")));
+        }
+
+    }
+
+    @Benchmark
+    public long countApprovedStream(PaymentState state) {
+        return state.payments.stream()
+                .filter(payment -> payment.status() == Payment.PaymentStatus.APPROVED)
+                .count();
+    }
+
+    @Benchmark
+    public int countApprovedTable(PaymentState state, Kernels kernels) {
+        return state.table.selectStatus(Payment.PaymentStatus.APPROVED).cardinality();
+    }
+
+    @Benchmark
+    public long countAboveThresholdStream(PaymentState state) {
+        return state.payments.stream()
+                .filter(payment -> payment.amount().compareTo(state.threshold) > 0)
+                .count();
+    }
+
+    @Benchmark
+    public int countAboveThresholdTable(PaymentState state, Kernels kernels) {
+        BitSet rows = state.table.selectAmountAbove(state.threshold.movePointRight(2).longValueExact());
+        return rows.cardinality();
+    }
+
+    @Benchmark
+    public BigDecimal totalAmountByCurrencyStream(PaymentState state) {
+        return KTStreams.totalAmountByCurrency(state.payments);
+    }
+
+    @Benchmark
+    public BigDecimal totalAmountByCurrencyTable(PaymentState state, Kernels kernels) {
+        return KTStreams.totalAmountByCurrency(state.table);
+    }
+
+    @Benchmark
+    public Employee getHighestPaidEmployeeStream(EmployeeState state) {
+        return KTStreams.getHighestPaidEmployee(state.employees);
+    }
+
+    @Benchmark
+    public Employee getHighestPaidEmployeeTable(EmployeeState state, Kernels kernels) {
+        return KTStreams.getHighestPaidEmployee(state.table);
+    }
+
+}
@@ -0,0 +1,165 @@
+package ua.kpi.bench;
+
+import ua.kpi.entity.Customer;
+import ua.kpi.entity.Employee;
+import ua.kpi.entity.Order;
+import ua.kpi.entity.OrderItem;
+import ua.kpi.entity.Payment;
+import ua.kpi.entity.Product;
+import ua.kpi.sql.SalesDatabase;
+import ua.kpi.sql.SampleSalesData;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded generator of synthetic payments, employees and sales. Customers and departments are drawn from a
+ * Zipf distribution, so a few keys own most of the rows, like in production data.
+ */
+public final class DataGenerator {
+
+    public static final LocalDate BASE_DATE = LocalDate.of(2024, 1, 1);
+    public static final LocalDate SALES_BASE_DATE = LocalDate.of(2020, 1, 1);
+
+    private static final String[] FIRST_NAMES = {
+            "John", "Mary", "Bob", "Alex", "Emily", "Michael", "Linda", "David", "Kate", "Roger", "Sara", "Ann"
+    };
+    private static final String[] LAST_NAMES = {
+            "Doe", "Jane", "Smith", "Johnson", "Davis", "Brown", "White", "Clark", "Taylor", "Moore", "Lee", "King"
+    };
+    private static final String[] PAYMENT_METHODS = {
+            "Credit Card", "Bank Transfer", "PayPal", "Crypto", "Apple Pay", "Google Pay"
+    };
+    private static final String[] STATES = {"MI", "OH", "IN", "AZ", "IL", "CA", "NY", "TX"};
+    private static final int MAX_ITEMS_PER_ORDER = 5;
+    private static final String[] GENDERS = {"Male", "Female"};
+    private static final Payment.PaymentStatus[] STATUSES = Payment.PaymentStatus.values();
+    private static final Payment.Currency[] CURRENCIES = Payment.Currency.values();
+
+    private final SplittableRandom random;
+    private final double skew;
+
+    /**
+     * @param seed seed of the random generator, equal seeds produce equal data
+     * @param skew Zipf exponent of the key distributions; 0 gives uniform keys, around 1 is typical
+     */
+    public DataGenerator(long seed, double skew) {
+        this.random = new SplittableRandom(seed);
+        this.skew = skew;
+    }
+
+    /**
+     * Generates payments spread over the given number of customers and the year after {@link #BASE_DATE}.
+     */
+    public List<Payment> payments(int count, int customers) {
+        String[] customerNames = names(customers);
+        Zipf customerKeys = new Zipf(customers, skew);
+        Zipf methodKeys = new Zipf(PAYMENT_METHODS.length, skew);
+        List<Payment> payments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            BigDecimal amount = BigDecimal.valueOf(random.nextLong(100, 1_000_000), 2);
+            payments.add(new Payment(Integer.toString(i), customerNames[customerKeys.next(random)], amount,
+                    STATUSES[random.nextInt(STATUSES.length)], BASE_DATE.plusDays(random.nextInt(365)),
+                    CURRENCIES[random.nextInt(CURRENCIES.length)], PAYMENT_METHODS[methodKeys.next(random)],
+                    "REF" + i));
+        }
+        return payments;
+    }
+
+    /**
+     * Generates employees spread over the given number of departments.
+     */
+    public List<Employee> employees(int count, int departments) {
+        String[] departmentNames = new String[departments];
+        for (int i = 0; i < departments; i++) {
+            departmentNames[i] = "Department " + (i + 1);
+        }
+        String[] employeeNames = names(FIRST_NAMES.length * LAST_NAMES.length);
+        Zipf departmentKeys = new Zipf(departments, skew);
+        List<Employee> employees = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            employees.add(new Employee(i, employeeNames[random.nextInt(employeeNames.length)],
+                    random.nextInt(18, 70), GENDERS[random.nextInt(GENDERS.length)],
+                    departmentNames[departmentKeys.next(random)], random.nextInt(1990, 2025),
+                    random.nextInt(1_000, 10_000)));
+        }
+        return employees;
+    }
+
+    /**
+     * Scales {@link SampleSalesData} up to the given number of order items. Vendors and products stay the
+     * sample ones; the sample customers, orders and items come first and are followed by generated
+     * customers and by orders of one to {@value #MAX_ITEMS_PER_ORDER} distinct products each, placed
+     * by Zipf-distributed customers during 2020 at up to 1.50 below the list price.
+     */
+    public SalesDatabase sales(int orderItems, int customers) {
+        List<Product> products = SampleSalesData.PRODUCTS;
+        List<Customer> customerRows = new ArrayList<>(SampleSalesData.CUSTOMERS);
+        String[] customerNames = names(customers);
+        for (int i = customerRows.size(); i < customers; i++) {
+            String id = Long.toString(1_000_000_001L + i);
+            customerRows.add(new Customer(id, customerNames[i] + " Toys", (i + 1) + " Market Street", "Springfield",
+                    STATES[random.nextInt(STATES.length)], Integer.toString(10_000 + i % 90_000), "USA",
+                    customerNames[i], i % 3 == 0 ? null : "orders" + i + "@example.com"));
+        }
+        List<Order> orders = new ArrayList<>(SampleSalesData.ORDERS);
+        List<OrderItem> items = new ArrayList<>(orderItems);
+        items.addAll(SampleSalesData.ORDER_ITEMS.subList(0, Math.min(orderItems, SampleSalesData.ORDER_ITEMS.size())));
+        Zipf customerKeys = new Zipf(customerRows.size(), skew);
+        int orderNum = orders.stream().mapToInt(Order::orderNum).max().orElse(0);
+        while (items.size() < orderItems) {
+            orderNum++;
+            orders.add(new Order(orderNum, SALES_BASE_DATE.plusDays(random.nextInt(366)),
+                    customerRows.get(customerKeys.next(random)).custId()));
+            int lines = Math.min(random.nextInt(1, MAX_ITEMS_PER_ORDER + 1), orderItems - items.size());
+            int first = random.nextInt(products.size());
+            for (int line = 0; line < lines; line++) {
+                Product product = products.get((first + line) % products.size());
+                BigDecimal discount = BigDecimal.valueOf(random.nextInt(151), 2);
+                BigDecimal price = product.prodPrice().subtract(discount).max(new BigDecimal("0.01"));
+                items.add(new OrderItem(orderNum, line + 1, product.prodId(), random.nextInt(1, 251), price));
+            }
+        }
+        return SalesDatabase.of(SampleSalesData.VENDORS, products, customerRows, orders, items);
+    }
+
+    private static String[] names(int count) {
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++) {
+            String name = FIRST_NAMES[i % FIRST_NAMES.length] + " " + LAST_NAMES[(i / FIRST_NAMES.length) % LAST_NAMES.length];
+            int generation = i / (FIRST_NAMES.length * LAST_NAMES.length);
+            names[i] = generation == 0 ? name : name + " " + generation;
+        }
+        return names;
+    }
+
+    /**
+     * Samples ranks {@code 0..n-1} with probability proportional to {@code 1 / (rank + 1)^skew}.
+     */
+    private static final class Zipf {
+
+        private final double[] cumulative;
+
+        private Zipf(int n, double skew) {
+            cumulative = new double[n];
+            double total = 0;
+            for (int rank = 0; rank < n; rank++) {
+                total += 1 / Math.pow(rank + 1, skew);
+                cumulative[rank] = total;
+            }
+            for (int rank = 0; rank < n; rank++) {
+                cumulative[rank] /= total;
+            }
+        }
+
+        private int next(SplittableRandom random) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            return Math.min(index < 0 ? -index - 1 : index, cumulative.length - 1);
+        }
+    }
+
+}
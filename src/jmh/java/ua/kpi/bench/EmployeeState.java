@@ -0,0 +1,36 @@
+package ua.kpi.bench;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import ua.kpi.entity.Employee;
+import ua.kpi.table.EmployeeTable;
+
+import java.util.List;
+
+/**
+ * Employees shared by all benchmark threads, spread over a small number of departments.
+ */
+@State(Scope.Benchmark)
+public class EmployeeState {
+
+    public static final int DEPARTMENTS = 50;
+
+    @Param({"10000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"1.1"})
+    public double skew;
+
+    public List<Employee> employees;
+    public EmployeeTable table;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        employees = new DataGenerator(PaymentState.SEED, skew).employees(size, DEPARTMENTS);
+        table = EmployeeTable.of(employees);
+    }
+
+}
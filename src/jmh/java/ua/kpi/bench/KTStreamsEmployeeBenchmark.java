@@ -0,0 +1,93 @@
+package ua.kpi.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import ua.kpi.entity.Employee;
+import ua.kpi.streams.KTStreams;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of every {@link KTStreams} employee operation over generated employees, and of the
+ * {@link ua.kpi.table.EmployeeTable} versions of the grouped aggregations.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class KTStreamsEmployeeBenchmark {
+
+    @Benchmark
+    public Employee getHighestPaidEmployee(EmployeeState state) {
+        return KTStreams.getHighestPaidEmployee(state.employees);
+    }
+
+    @Benchmark
+    public Employee getMostExperiencedEmployee(EmployeeState state) {
+        return KTStreams.getMostExperiencedEmployee(state.employees);
+    }
+
+    @Benchmark
+    public Map<String, Long> countEmployeesInDepartments(EmployeeState state) {
+        return KTStreams.countEmployeesInDepartments(state.employees);
+    }
+
+    @Benchmark
+    public Map<String, Long> countEmployeesByGender(EmployeeState state) {
+        return KTStreams.countEmployeesByGender(state.employees);
+    }
+
+    @Benchmark
+    public Map<String, Double> averageSalaryByGender(EmployeeState state) {
+        return KTStreams.averageSalaryByGender(state.employees);
+    }
+
+    @Benchmark
+    public Map<String, Double> averageAgeInDepartments(EmployeeState state) {
+        return KTStreams.averageAgeInDepartments(state.employees);
+    }
+
+    @Benchmark
+    public Map<String, Double> sumSalariesByDepartment(EmployeeState state) {
+        return KTStreams.sumSalariesByDepartment(state.employees);
+    }
+
+    @Benchmark
+    public Map<String, Employee> oldestEmployeeInDepartment(EmployeeState state) {
+        return KTStreams.oldestEmployeeInDepartment(state.employees);
+    }
+
+    @Benchmark
+    public Map<String, List<Employee>> groupEmployeesByAgeRange(EmployeeState state) {
+        return KTStreams.groupEmployeesByAgeRange(state.employees);
+    }
+
+    @Benchmark
+    public Map<String, Double> averageSalaryByGenderTable(EmployeeState state) {
+        return KTStreams.averageSalaryByGender(state.table);
+    }
+
+    @Benchmark
+    public Map<String, Double> averageAgeInDepartmentsTable(EmployeeState state) {
+        return KTStreams.averageAgeInDepartments(state.table);
+    }
+
+    @Benchmark
+    public Map<String, Double> sumSalariesByDepartmentTable(EmployeeState state) {
+        return KTStreams.sumSalariesByDepartment(state.table);
+    }
+
+    @Benchmark
+    public Map<String, Employee> oldestEmployeeInDepartmentTable(EmployeeState state) {
+        return KTStreams.oldestEmployeeInDepartment(state.table);
+    }
+
+}
@@ -0,0 +1,100 @@
+package ua.kpi.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import ua.kpi.entity.Payment;
+import ua.kpi.streams.KTStreams;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of every {@link KTStreams} payment operation over generated payments.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class KTStreamsPaymentBenchmark {
+
+    @Benchmark
+    public boolean allPaymentsApproved(PaymentState state) {
+        return KTStreams.allPaymentsApproved(state.payments);
+    }
+
+    @Benchmark
+    public List<Payment> filterPaymentsByStatus(PaymentState state) {
+        return KTStreams.filterPaymentsByStatus(state.payments);
+    }
+
+    @Benchmark
+    public BigDecimal totalAmountByCurrency(PaymentState state) {
+        return KTStreams.totalAmountByCurrency(state.payments);
+    }
+
+    @Benchmark
+    public Set<String> findDistinctCustomers(PaymentState state) {
+        return KTStreams.findDistinctCustomers(state.payments, 9);
+    }
+
+    @Benchmark
+    public LocalDate findEarliestPaymentDate(PaymentState state) {
+        return KTStreams.findEarliestPaymentDate(state.payments);
+    }
+
+    @Benchmark
+    public BigDecimal findMaxPaymentAmount(PaymentState state) {
+        return KTStreams.findMaxPaymentAmount(state.payments);
+    }
+
+    @Benchmark
+    public List<String> getReferencesForCustomer(PaymentState state) {
+        return KTStreams.getReferencesForCustomer(state.payments, state.customerName);
+    }
+
+    @Benchmark
+    public Map<String, Long> countByPaymentMethod(PaymentState state) {
+        return KTStreams.countByPaymentMethod(state.payments);
+    }
+
+    @Benchmark
+    public Map<Boolean, List<Payment>> partitionByAmount(PaymentState state) {
+        return KTStreams.partitionByAmount(state.payments, state.threshold);
+    }
+
+    @Benchmark
+    public Map<Payment.Currency, List<String>> groupByCurrencyAndMapToCustomerNames(PaymentState state) {
+        return KTStreams.groupByCurrencyAndMapToCustomerNames(state.payments);
+    }
+
+    @Benchmark
+    public Map<Payment.PaymentStatus, Set<String>> groupByStatusAndMapToPaymentMethods(PaymentState state) {
+        return KTStreams.groupByStatusAndMapToPaymentMethods(state.payments);
+    }
+
+    @Benchmark
+    public Map<LocalDate, List<String>> groupByDateAndMapToReferences(PaymentState state) {
+        return KTStreams.groupByDateAndMapToReferences(state.payments);
+    }
+
+    @Benchmark
+    public Map<Payment.PaymentStatus, String> groupByCustomer(PaymentState state) {
+        return KTStreams.groupByCustomer(state.payments);
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> groupByCustomerAndMapToTotalAmount(PaymentState state) {
+        return KTStreams.groupByCustomerAndMapToTotalAmount(state.payments);
+    }
+
+}
@@ -0,0 +1,101 @@
+package ua.kpi.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ua.kpi.entity.Payment;
+import ua.kpi.io.PaymentFile;
+import ua.kpi.io.PaymentFileWriter;
+import ua.kpi.pipeline.PaymentPipelines;
+import ua.kpi.pipeline.PipelineOptions;
+import ua.kpi.streams.KTStreams;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Loading payment files, keeping the approved payments and totalling them per customer, as a
+ * single-threaded loop and as a {@link PaymentPipelines} pipeline with a varying number of parse workers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class PaymentPipelineBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class PaymentFiles {
+
+        @Param({"8"})
+        public int files;
+
+        @Param({"250000"})
+        public int paymentsPerFile;
+
+        @Param({"1", "4"})
+        public int parseWorkers;
+
+        public Path directory;
+        public List<Path> paths;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("payment-pipeline");
+            paths = new ArrayList<>();
+            DataGenerator generator = new DataGenerator(PaymentState.SEED, 1.1);
+            for (int file = 0; file < files; file++) {
+                Path path = directory.resolve("payments-" + file + ".bin");
+                PaymentFileWriter.write(path, generator.payments(paymentsPerFile, paymentsPerFile / 100));
+                paths.add(path);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            for (Path path : paths) {
+                Files.deleteIfExists(path);
+            }
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> loop(PaymentFiles state) throws IOException {
+        Map<String, BigDecimal> totals = new HashMap<>();
+        for (Path path : state.paths) {
+            try (PaymentFile file = PaymentFile.open(path)) {
+                for (Payment payment : KTStreams.filterPaymentsByStatus(file.readAll())) {
+                    totals.merge(payment.customerName(), payment.amount(), BigDecimal::add);
+                }
+            }
+        }
+        return totals;
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> pipeline(PaymentFiles state) {
+        return PaymentPipelines.approvedPayments(state.paths, state.parseWorkers, PipelineOptions.defaults())
+                .collect(Collectors.groupingBy(Payment::customerName,
+                        Collectors.reducing(BigDecimal.ZERO, Payment::amount, BigDecimal::add)));
+    }
+
+}
@@ -0,0 +1,41 @@
+package ua.kpi.bench;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import ua.kpi.entity.Payment;
+import ua.kpi.table.PaymentTable;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Payments shared by all benchmark threads, with about a hundred rows per customer.
+ */
+@State(Scope.Benchmark)
+public class PaymentState {
+
+    public static final long SEED = 42;
+
+    @Param({"10000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"1.1"})
+    public double skew;
+
+    public List<Payment> payments;
+    public PaymentTable table;
+    public BigDecimal threshold;
+    public String customerName;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        payments = new DataGenerator(SEED, skew).payments(size, Math.max(1, size / 100));
+        table = PaymentTable.of(payments);
+        threshold = new BigDecimal("5000.00");
+        customerName = payments.get(0).customerName();
+    }
+
+}
@@ -0,0 +1,99 @@
+package ua.kpi.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ua.kpi.sql.SalesDatabase;
+import ua.kpi.sql.SalesQueries;
+import ua.kpi.sql.SalesViews;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of representative {@code sql_tasks.txt} queries over the sample sales data scaled up by
+ * {@link DataGenerator#sales}: a scan, hash aggregations with HAVING, a join with aggregation and
+ * nested IN-subqueries, and the aggregates of tasks 21 and 28 as scans and as {@link SalesViews} reads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class SalesQueryBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Sales {
+
+        @Param({"100000", "1000000", "5000000"})
+        public int orderItems;
+
+        @Param({"1.1"})
+        public double skew;
+
+        public SalesDatabase database;
+        public SalesViews views;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            database = new DataGenerator(PaymentState.SEED, skew).sales(orderItems, Math.max(5, orderItems / 100));
+            views = SalesViews.of(database);
+        }
+    }
+
+    @Benchmark
+    public long totalQuantitySold(Sales state) {
+        return SalesQueries.totalQuantitySold(state.database, "BR01");
+    }
+
+    @Benchmark
+    public List<SalesQueries.OrderLines> orderLines(Sales state) {
+        return SalesQueries.orderLines(state.database);
+    }
+
+    @Benchmark
+    public List<Integer> ordersWithTotalPriceAtLeast(Sales state) {
+        return SalesQueries.ordersWithTotalPriceAtLeast(state.database, BigDecimal.valueOf(5000));
+    }
+
+    @Benchmark
+    public List<Integer> ordersWithTotalPriceAtLeastView(Sales state) {
+        return state.views.ordersWithTotalPriceAtLeast(BigDecimal.valueOf(5000));
+    }
+
+    @Benchmark
+    public List<SalesQueries.CustomerOrderTotal> customerOrderTotals(Sales state) {
+        return SalesQueries.customerOrderTotals(state.database);
+    }
+
+    @Benchmark
+    public List<SalesQueries.CustomerContact> customersWhoOrdered(Sales state) {
+        return SalesQueries.customersWhoOrdered(state.database, "RGAN01");
+    }
+
+    @Benchmark
+    public List<String> customerEmailsForProduct(Sales state) {
+        return SalesQueries.customerEmailsForProduct(state.database, "BR01");
+    }
+
+    @Benchmark
+    public List<SalesQueries.ProductQuantitySold> quantitySoldByProduct(Sales state) {
+        return SalesQueries.quantitySoldByProduct(state.database);
+    }
+
+    @Benchmark
+    public List<SalesQueries.ProductQuantitySold> quantitySoldByProductView(Sales state) {
+        return state.views.quantitySoldByProduct();
+    }
+
+}
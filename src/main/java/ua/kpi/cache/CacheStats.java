@@ -0,0 +1,21 @@
+package ua.kpi.cache;
+
+/**
+ * Counters of a {@link LruCache} since it was created.
+ *
+ * @param hits          lookups answered from the cache
+ * @param misses        lookups that had to compute their value
+ * @param evictions     entries dropped to stay within the size bound
+ * @param invalidations entries dropped because the data they were computed from changed
+ */
+public record CacheStats(long hits, long misses, long evictions, long invalidations) {
+
+    /**
+     * @return the fraction of lookups answered from the cache, 0 before the first lookup
+     */
+    public double hitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+}
@@ -0,0 +1,93 @@
+package ua.kpi.cache;
+
+import ua.kpi.entity.Payment;
+import ua.kpi.streams.KTStreams;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * {@link KTStreams} queries over {@link PaymentSnapshot}s with their results kept in an {@link LruCache},
+ * keyed by query, snapshot version and arguments. Querying a snapshot with a version other than the
+ * last one seen invalidates the cache, as results of the previous snapshot will not be asked for again.
+ * Results are unmodifiable, so callers can share them.
+ */
+public final class CachedPaymentQueries {
+
+    public static final int DEFAULT_MAX_ENTRIES = 1_024;
+
+    private enum Query {
+        DISTINCT_CUSTOMERS, PARTITION_BY_AMOUNT, REFERENCES_FOR_CUSTOMER
+    }
+
+    private record Key(Query query, long version, Object argument) {
+    }
+
+    private final LruCache<Key, Object> cache;
+    private long version;
+    private boolean seenSnapshot;
+
+    public CachedPaymentQueries() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public CachedPaymentQueries(int maxEntries) {
+        this.cache = new LruCache<>(maxEntries);
+    }
+
+    /**
+     * @see KTStreams#findDistinctCustomers(List, int)
+     */
+    @SuppressWarnings("unchecked")
+    public Set<String> findDistinctCustomers(PaymentSnapshot snapshot, int nameLength) {
+        return (Set<String>) get(snapshot, Query.DISTINCT_CUSTOMERS, nameLength, () ->
+                Collections.unmodifiableSet(KTStreams.findDistinctCustomers(snapshot.payments(), nameLength)));
+    }
+
+    /**
+     * Amounts equal by {@link BigDecimal#compareTo}, e.g. {@code 100} and {@code 100.00}, share an entry.
+     *
+     * @see KTStreams#partitionByAmount(List, BigDecimal)
+     */
+    @SuppressWarnings("unchecked")
+    public Map<Boolean, List<Payment>> partitionByAmount(PaymentSnapshot snapshot, BigDecimal amount) {
+        return (Map<Boolean, List<Payment>>) get(snapshot, Query.PARTITION_BY_AMOUNT, amount.stripTrailingZeros(), () -> {
+            Map<Boolean, List<Payment>> partitions = KTStreams.partitionByAmount(snapshot.payments(), amount);
+            return Map.of(true, Collections.unmodifiableList(partitions.get(true)),
+                    false, Collections.unmodifiableList(partitions.get(false)));
+        });
+    }
+
+    /**
+     * @see KTStreams#getReferencesForCustomer(List, String)
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> getReferencesForCustomer(PaymentSnapshot snapshot, String customerName) {
+        return (List<String>) get(snapshot, Query.REFERENCES_FOR_CUSTOMER, customerName, () ->
+                Collections.unmodifiableList(KTStreams.getReferencesForCustomer(snapshot.payments(), customerName)));
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    private Object get(PaymentSnapshot snapshot, Query query, Object argument, Supplier<Object> loader) {
+        synchronized (this) {
+            if (!seenSnapshot || snapshot.version() != version) {
+                cache.invalidateAll();
+                version = snapshot.version();
+                seenSnapshot = true;
+            }
+        }
+        return cache.get(new Key(query, snapshot.version(), argument), key -> loader.get());
+    }
+
+}
@@ -0,0 +1,77 @@
+package ua.kpi.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Size-bounded cache evicting the least recently used entry, on top of an access-ordered
+ * {@link LinkedHashMap}. Values are computed outside the lock, so concurrent misses on the same key
+ * may compute it more than once; the last result wins. Instances are thread-safe.
+ */
+public final class LruCache<K, V> {
+
+    private final int maxEntries;
+    private final LinkedHashMap<K, V> entries;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public LruCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Max entries must be positive: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() > LruCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @return the cached value of the key, computing and caching it with the loader on a miss
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        synchronized (this) {
+            V value = entries.get(key);
+            if (value != null) {
+                hits++;
+                return value;
+            }
+            misses++;
+        }
+        V value = loader.apply(key);
+        synchronized (this) {
+            entries.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Drops all entries, counting them as invalidations.
+     */
+    public synchronized void invalidateAll() {
+        invalidations += entries.size();
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int maxEntries() {
+        return maxEntries;
+    }
+
+    public synchronized CacheStats stats() {
+        return new CacheStats(hits, misses, evictions, invalidations);
+    }
+
+}
@@ -0,0 +1,17 @@
+package ua.kpi.cache;
+
+import ua.kpi.entity.Payment;
+
+import java.util.List;
+
+/**
+ * Immutable payments identified by a version, e.g. the day of a daily export. Two snapshots with the
+ * same version are expected to hold the same payments.
+ */
+public record PaymentSnapshot(long version, List<Payment> payments) {
+
+    public PaymentSnapshot {
+        payments = List.copyOf(payments);
+    }
+
+}
@@ -0,0 +1,7 @@
+package ua.kpi.entity;
+
+public record Customer(
+        String custId, String custName, String custAddress, String custCity, String custState,
+        String custZip, String custCountry, String custContact, String custEmail
+) {
+}
@@ -0,0 +1,8 @@
+package ua.kpi.entity;
+
+import java.time.LocalDate;
+
+public record Order(
+        int orderNum, LocalDate orderDate, String custId
+) {
+}
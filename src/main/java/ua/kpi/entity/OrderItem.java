@@ -0,0 +1,8 @@
+package ua.kpi.entity;
+
+import java.math.BigDecimal;
+
+public record OrderItem(
+        int orderNum, int orderItem, String prodId, int quantity, BigDecimal itemPrice
+) {
+}
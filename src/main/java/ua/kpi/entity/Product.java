@@ -0,0 +1,8 @@
+package ua.kpi.entity;
+
+import java.math.BigDecimal;
+
+public record Product(
+        String prodId, String vendId, String prodName, BigDecimal prodPrice, String prodDesc
+) {
+}
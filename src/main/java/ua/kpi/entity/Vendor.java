@@ -0,0 +1,7 @@
+package ua.kpi.entity;
+
+public record Vendor(
+        String vendId, String vendName, String vendAddress, String vendCity,
+        String vendState, String vendZip, String vendCountry
+) {
+}
@@ -0,0 +1,19 @@
+package ua.kpi.exception;
+
+/**
+ * Failure of a stage of a {@link ua.kpi.pipeline.Pipeline}; the cause is what the stage threw.
+ */
+public class PipelineException extends RuntimeException {
+
+    private final String stage;
+
+    public PipelineException(String stage, Throwable cause) {
+        super("Pipeline stage '" + stage + "' failed: " + cause, cause);
+        this.stage = stage;
+    }
+
+    public String stage() {
+        return stage;
+    }
+
+}
@@ -0,0 +1,20 @@
+package ua.kpi.exception;
+
+/**
+ * Failure reported by the worker of a shard of a {@link ua.kpi.shard.LocalShardCluster}; the message is
+ * what the worker process threw.
+ */
+public class ShardException extends RuntimeException {
+
+    private final int shard;
+
+    public ShardException(int shard, String message) {
+        super("Shard " + shard + " failed: " + message);
+        this.shard = shard;
+    }
+
+    public int shard() {
+        return shard;
+    }
+
+}
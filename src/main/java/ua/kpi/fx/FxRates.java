@@ -0,0 +1,188 @@
+package ua.kpi.fx;
+
+import ua.kpi.entity.Payment;
+import ua.kpi.table.PaymentTable;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Daily exchange rates of every {@link Payment.Currency} into one base currency. The rates are kept in
+ * a flat array indexed by {@code (epochDay - firstDay) * currencies + currencyOrdinal}, so a conversion
+ * is a single array read. Days without a quote for a currency reuse its latest earlier quote, including
+ * days after the last quoted date, which read the last row.
+ * <p>
+ * Each rate is stored exactly as a long scaled by 10<sup>{@value #RATE_SCALE}</sup>, so a conversion
+ * multiplies exactly and rounds once.
+ */
+public final class FxRates {
+
+    private static final int CURRENCIES = Payment.Currency.values().length;
+
+    /**
+     * Number of fraction digits a rate may have.
+     */
+    public static final int RATE_SCALE = 9;
+
+    private static final long RATE_UNIT = 1_000_000_000L;
+
+    private final Payment.Currency base;
+    private final int firstEpochDay;
+    private final int days;
+    private final long[] rates;
+
+    private FxRates(Payment.Currency base, int firstEpochDay, int days, long[] rates) {
+        this.base = base;
+        this.firstEpochDay = firstEpochDay;
+        this.days = days;
+        this.rates = rates;
+    }
+
+    /**
+     * @param base the currency all amounts are converted into
+     */
+    public static Builder builder(Payment.Currency base) {
+        return new Builder(base);
+    }
+
+    public Payment.Currency base() {
+        return base;
+    }
+
+    /**
+     * @return how many units of the base currency one unit of the currency was worth on the date
+     * @throws IllegalArgumentException if there is no rate for the currency on or before the date
+     */
+    public double rate(LocalDate date, Payment.Currency currency) {
+        return rate(Math.toIntExact(date.toEpochDay()), currency.ordinal());
+    }
+
+    /**
+     * Same as {@link #rate(LocalDate, Payment.Currency)} for an epoch day and currency ordinal, as
+     * stored by {@link ua.kpi.table.PaymentTable}.
+     */
+    public double rate(int epochDay, int currencyOrdinal) {
+        return (double) scaledRate(epochDay, currencyOrdinal) / RATE_UNIT;
+    }
+
+    /**
+     * Converts an amount in cents into cents of the base currency. The product is exact and is
+     * rounded once, half-even.
+     *
+     * @throws IllegalArgumentException if there is no rate for the currency on or before the day
+     * @throws ArithmeticException if the converted amount does not fit in a long
+     */
+    public long convert(long cents, int epochDay, int currencyOrdinal) {
+        if (currencyOrdinal == base.ordinal()) {
+            return cents;
+        }
+        long rate = scaledRate(epochDay, currencyOrdinal);
+        long product = cents * rate;
+        if (Math.multiplyHigh(cents, rate) != product >> 63) {
+            return BigDecimal.valueOf(cents).multiply(BigDecimal.valueOf(rate, RATE_SCALE))
+                    .setScale(0, RoundingMode.HALF_EVEN).longValueExact();
+        }
+        long quotient = product / RATE_UNIT;
+        long twiceRemainder = Math.abs(product % RATE_UNIT) * 2;
+        if (twiceRemainder > RATE_UNIT || twiceRemainder == RATE_UNIT && (quotient & 1) != 0) {
+            quotient += Long.signum(product);
+        }
+        return quotient;
+    }
+
+    /**
+     * Converts an amount of any scale into cents of the base currency. The product of the amount and
+     * the rate is exact and is rounded once, half-even, so amounts with fractions of a cent are not
+     * rounded before the conversion.
+     *
+     * @throws IllegalArgumentException if there is no rate for the currency on or before the day
+     * @throws ArithmeticException if the converted amount does not fit in a long
+     */
+    public long convert(BigDecimal amount, int epochDay, int currencyOrdinal) {
+        if (amount.scale() <= PaymentTable.AMOUNT_SCALE) {
+            return convert(amount.movePointRight(PaymentTable.AMOUNT_SCALE).longValueExact(), epochDay, currencyOrdinal);
+        }
+        BigDecimal rate = currencyOrdinal == base.ordinal() ? BigDecimal.ONE
+                : BigDecimal.valueOf(scaledRate(epochDay, currencyOrdinal), RATE_SCALE);
+        return amount.multiply(rate).setScale(PaymentTable.AMOUNT_SCALE, RoundingMode.HALF_EVEN)
+                .unscaledValue().longValueExact();
+    }
+
+    private long scaledRate(int epochDay, int currencyOrdinal) {
+        int day = Math.min(epochDay - firstEpochDay, days - 1);
+        long rate = day >= 0 ? rates[day * CURRENCIES + currencyOrdinal] : 0;
+        if (rate == 0) {
+            throw new IllegalArgumentException("No " + Payment.Currency.values()[currencyOrdinal]
+                    + " rate for " + LocalDate.ofEpochDay(epochDay));
+        }
+        return rate;
+    }
+
+    /**
+     * Collects quotes and lays them out per day on {@link #build()}.
+     */
+    public static final class Builder {
+
+        private final Payment.Currency base;
+        private final TreeMap<LocalDate, Map<Payment.Currency, Long>> quotes = new TreeMap<>();
+
+        private Builder(Payment.Currency base) {
+            this.base = base;
+        }
+
+        /**
+         * Sets the rate of a currency on a date.
+         *
+         * @param rate how many units of the base currency one unit of the currency is worth
+         * @throws IllegalArgumentException if the rate is not positive or has more than
+         *                                  {@value #RATE_SCALE} fraction digits
+         */
+        public Builder rate(LocalDate date, Payment.Currency currency, BigDecimal rate) {
+            if (rate.signum() <= 0) {
+                throw new IllegalArgumentException("Rate must be positive: " + rate);
+            }
+            if (rate.stripTrailingZeros().scale() > RATE_SCALE) {
+                throw new IllegalArgumentException("Rate has more than " + RATE_SCALE + " fraction digits: " + rate);
+            }
+            long scaled;
+            try {
+                scaled = rate.movePointRight(RATE_SCALE).longValueExact();
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("Rate is too large: " + rate, e);
+            }
+            quotes.computeIfAbsent(date, d -> new EnumMap<>(Payment.Currency.class)).put(currency, scaled);
+            return this;
+        }
+
+        /**
+         * @throws IllegalStateException if no rate was set
+         */
+        public FxRates build() {
+            if (quotes.isEmpty()) {
+                throw new IllegalStateException("No rates");
+            }
+            int firstEpochDay = Math.toIntExact(quotes.firstKey().toEpochDay());
+            int days = Math.toIntExact(quotes.lastKey().toEpochDay() - firstEpochDay + 1);
+            long[] rates = new long[Math.multiplyExact(days, CURRENCIES)];
+            long[] latest = new long[CURRENCIES];
+            latest[base.ordinal()] = RATE_UNIT;
+            for (int day = 0; day < days; day++) {
+                Map<Payment.Currency, Long> dayQuotes = quotes.get(LocalDate.ofEpochDay(firstEpochDay + day));
+                if (dayQuotes != null) {
+                    dayQuotes.forEach((currency, rate) -> {
+                        if (currency != base) {
+                            latest[currency.ordinal()] = rate;
+                        }
+                    });
+                }
+                System.arraycopy(latest, 0, rates, day * CURRENCIES, CURRENCIES);
+            }
+            return new FxRates(base, firstEpochDay, days, rates);
+        }
+    }
+
+}
@@ -0,0 +1,249 @@
+package ua.kpi.io;
+
+import ua.kpi.entity.Payment;
+import ua.kpi.streams.Money;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static ua.kpi.io.PaymentFileFormat.AMOUNT;
+import static ua.kpi.io.PaymentFileFormat.AMOUNT_SCALE;
+import static ua.kpi.io.PaymentFileFormat.BYTE_ORDER;
+import static ua.kpi.io.PaymentFileFormat.CURRENCY;
+import static ua.kpi.io.PaymentFileFormat.CUSTOMER_NAME;
+import static ua.kpi.io.PaymentFileFormat.CUSTOMER_NAME_DICTIONARY;
+import static ua.kpi.io.PaymentFileFormat.DATE;
+import static ua.kpi.io.PaymentFileFormat.DICTIONARIES;
+import static ua.kpi.io.PaymentFileFormat.HEADER_DICTIONARY_OFFSET;
+import static ua.kpi.io.PaymentFileFormat.HEADER_HEAP_OFFSET;
+import static ua.kpi.io.PaymentFileFormat.HEADER_ROW_COUNT;
+import static ua.kpi.io.PaymentFileFormat.HEADER_SIZE;
+import static ua.kpi.io.PaymentFileFormat.ID;
+import static ua.kpi.io.PaymentFileFormat.MAGIC;
+import static ua.kpi.io.PaymentFileFormat.PAYMENT_METHOD;
+import static ua.kpi.io.PaymentFileFormat.PAYMENT_METHOD_DICTIONARY;
+import static ua.kpi.io.PaymentFileFormat.RECORD_SIZE;
+import static ua.kpi.io.PaymentFileFormat.REFERENCE;
+import static ua.kpi.io.PaymentFileFormat.STATUS;
+import static ua.kpi.io.PaymentFileFormat.VERSION;
+
+/**
+ * Read-only, memory-mapped view of a file written by {@link PaymentFileWriter}. The record section is
+ * mapped in chunks of up to 2 GB and the string heap in chunks of 1 GB; aggregations read the fields
+ * they need straight from the mapping without creating payment records, and ids and references are
+ * only decoded when a payment is materialized. Only the customer name and payment method dictionaries
+ * are loaded onto the Java heap.
+ */
+public class PaymentFile implements AutoCloseable {
+
+    private static final int ROWS_PER_CHUNK = Integer.MAX_VALUE / RECORD_SIZE;
+
+    /**
+     * Most rows {@link #records(long, int)} copies at once.
+     */
+    public static final int MAX_BLOCK_ROWS = Integer.MAX_VALUE / RECORD_SIZE;
+    private static final Payment.PaymentStatus[] STATUSES = Payment.PaymentStatus.values();
+    private static final Payment.Currency[] CURRENCIES = Payment.Currency.values();
+
+    private final FileChannel channel;
+    private final long rowCount;
+    private final MappedByteBuffer[] chunks;
+    private final StringHeap strings;
+    private final String[][] dictionaries;
+
+    private PaymentFile(FileChannel channel, long rowCount, MappedByteBuffer[] chunks, StringHeap strings,
+                        String[][] dictionaries) {
+        this.channel = channel;
+        this.rowCount = rowCount;
+        this.chunks = chunks;
+        this.strings = strings;
+        this.dictionaries = dictionaries;
+    }
+
+    /**
+     * Maps an existing payment file.
+     *
+     * @throws IOException if the file cannot be read or is not a payment file
+     */
+    public static PaymentFile open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(BYTE_ORDER);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    throw new IOException("Truncated payment file header: " + path);
+                }
+            }
+            if (header.getInt(0) != MAGIC || header.getInt(Integer.BYTES) != VERSION) {
+                throw new IOException("Not a payment file or unsupported version: " + path);
+            }
+            long rowCount = header.getLong(HEADER_ROW_COUNT);
+            long dictionaryOffset = header.getLong(HEADER_DICTIONARY_OFFSET);
+            long heapOffset = header.getLong(HEADER_HEAP_OFFSET);
+            if (heapOffset != HEADER_SIZE + rowCount * RECORD_SIZE || dictionaryOffset < heapOffset
+                    || dictionaryOffset > channel.size()) {
+                throw new IOException("Corrupt payment file layout: " + path);
+            }
+            MappedByteBuffer[] chunks = new MappedByteBuffer[(int) ((rowCount + ROWS_PER_CHUNK - 1) / ROWS_PER_CHUNK)];
+            for (int chunk = 0; chunk < chunks.length; chunk++) {
+                long firstRow = (long) chunk * ROWS_PER_CHUNK;
+                long rows = Math.min(ROWS_PER_CHUNK, rowCount - firstRow);
+                chunks[chunk] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        HEADER_SIZE + firstRow * RECORD_SIZE, rows * RECORD_SIZE);
+                chunks[chunk].order(BYTE_ORDER);
+            }
+            StringHeap strings = StringHeap.map(channel, heapOffset, dictionaryOffset - heapOffset);
+            return new PaymentFile(channel, rowCount, chunks, strings, readDictionaries(channel, dictionaryOffset, strings));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Materializes a single record.
+     */
+    public Payment payment(long row) {
+        return decode(chunks[(int) (row / ROWS_PER_CHUNK)], (int) (row % ROWS_PER_CHUNK) * RECORD_SIZE, strings,
+                dictionaries);
+    }
+
+    /**
+     * Copies the raw records of a range of rows onto the heap, to be decoded later, possibly on another
+     * thread and after the file was closed.
+     *
+     * @throws IllegalArgumentException if the block would not fit in one heap buffer of
+     *                                  {@code Integer.MAX_VALUE} bytes
+     * @throws IndexOutOfBoundsException if the range is not within the file
+     */
+    public RecordBlock records(long fromRow, int rows) {
+        if (rows > MAX_BLOCK_ROWS) {
+            throw new IllegalArgumentException("Blocks hold at most " + MAX_BLOCK_ROWS + " rows: " + rows);
+        }
+        if (fromRow < 0 || rows < 0 || fromRow > rowCount - rows) {
+            throw new IndexOutOfBoundsException("Rows " + fromRow + "+" + rows + " out of " + rowCount);
+        }
+        ByteBuffer records = ByteBuffer.allocate(rows * RECORD_SIZE).order(BYTE_ORDER);
+        for (long row = fromRow; row < fromRow + rows; ) {
+            MappedByteBuffer chunk = chunks[(int) (row / ROWS_PER_CHUNK)];
+            int first = (int) (row % ROWS_PER_CHUNK);
+            int count = (int) Math.min(fromRow + rows - row, chunk.limit() / RECORD_SIZE - first);
+            records.put(records.position(), chunk, first * RECORD_SIZE, count * RECORD_SIZE);
+            records.position(records.position() + count * RECORD_SIZE);
+            row += count;
+        }
+        return new RecordBlock(records.flip(), strings, dictionaries);
+    }
+
+    /**
+     * Materializes all records, in file order.
+     */
+    public List<Payment> readAll() {
+        List<Payment> payments = new ArrayList<>(Math.toIntExact(rowCount));
+        for (long row = 0; row < rowCount; row++) {
+            payments.add(payment(row));
+        }
+        return payments;
+    }
+
+    /**
+     * Sums the USD amounts directly from the mapped records.
+     *
+     * @see ua.kpi.streams.KTStreams#totalAmountByCurrency(List)
+     */
+    public BigDecimal totalAmountByCurrency() {
+        byte usd = (byte) Payment.Currency.USD.ordinal();
+        Money total = new Money();
+        for (MappedByteBuffer chunk : chunks) {
+            for (int record = 0; record < chunk.limit(); record += RECORD_SIZE) {
+                if (chunk.get(record + CURRENCY) == usd) {
+                    total.add(chunk.getLong(record + AMOUNT), chunk.get(record + AMOUNT_SCALE));
+                }
+            }
+        }
+        return total.toBigDecimal();
+    }
+
+    /**
+     * Counts records per payment method code and decodes the codes once at the end.
+     *
+     * @see ua.kpi.streams.KTStreams#countByPaymentMethod(List)
+     */
+    public Map<String, Long> countByPaymentMethod() {
+        String[] methods = dictionaries[PAYMENT_METHOD_DICTIONARY];
+        long[] counts = new long[methods.length];
+        for (MappedByteBuffer chunk : chunks) {
+            for (int record = 0; record < chunk.limit(); record += RECORD_SIZE) {
+                counts[chunk.getInt(record + PAYMENT_METHOD)]++;
+            }
+        }
+        Map<String, Long> result = new HashMap<>();
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0) {
+                result.put(methods[code], counts[code]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Closes the file. The mapping itself is released by the garbage collector, so payments must not
+     * be read after closing.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    static Payment decode(ByteBuffer records, int record, StringHeap strings, String[][] dictionaries) {
+        return new Payment(
+                strings.get(records.getLong(record + ID)),
+                dictionaries[CUSTOMER_NAME_DICTIONARY][records.getInt(record + CUSTOMER_NAME)],
+                BigDecimal.valueOf(records.getLong(record + AMOUNT), records.get(record + AMOUNT_SCALE)),
+                STATUSES[records.get(record + STATUS)],
+                LocalDate.ofEpochDay(records.getInt(record + DATE)),
+                CURRENCIES[records.get(record + CURRENCY)],
+                dictionaries[PAYMENT_METHOD_DICTIONARY][records.getInt(record + PAYMENT_METHOD)],
+                strings.get(records.getLong(record + REFERENCE)));
+    }
+
+    private static String[][] readDictionaries(FileChannel channel, long offset, StringHeap strings) throws IOException {
+        String[][] dictionaries = new String[DICTIONARIES][];
+        for (int dictionary = 0; dictionary < DICTIONARIES; dictionary++) {
+            ByteBuffer count = read(channel, offset, Integer.BYTES);
+            String[] values = new String[count.getInt(0)];
+            ByteBuffer offsets = read(channel, offset + Integer.BYTES, (long) values.length * Long.BYTES);
+            for (int code = 0; code < values.length; code++) {
+                values[code] = strings.get(offsets.getLong(code * Long.BYTES));
+            }
+            dictionaries[dictionary] = values;
+            offset += Integer.BYTES + (long) values.length * Long.BYTES;
+        }
+        return dictionaries;
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(size)).order(BYTE_ORDER);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Truncated payment file dictionary");
+            }
+        }
+        return buffer;
+    }
+
+}
@@ -0,0 +1,68 @@
+package ua.kpi.io;
+
+import java.nio.ByteOrder;
+
+/**
+ * Layout of the binary payment file shared by {@link PaymentFileWriter} and {@link PaymentFile}.
+ * All numbers are little-endian.
+ * <pre>
+ * header (32 bytes)
+ *   0  int   magic "KTPY"
+ *   4  int   version
+ *   8  long  number of records
+ *   16 long  offset of the dictionary section
+ *   24 long  offset of the string heap
+ * records (40 bytes each)
+ *   0  long  id, as string heap offset
+ *   8  long  reference, as string heap offset
+ *   16 long  unscaled amount
+ *   24 int   customer name code
+ *   28 int   epoch day
+ *   32 int   payment method code
+ *   36 byte  amount scale
+ *   37 byte  status ordinal
+ *   38 byte  currency ordinal
+ *   39 byte  reserved
+ * string heap
+ *   entries  int length followed by that many UTF-8 bytes; no entry crosses a multiple of
+ *            {@link #HEAP_CHUNK_SIZE} from the heap start, the gap before such a boundary is zeroed
+ * dictionary section, for customer names and payment methods in that order
+ *   int      number of entries
+ *   longs    string heap offset of every entry, the entry index is its code
+ * </pre>
+ * Ids and references are unique per row, so they are stored once in the heap rather than coded; only
+ * the customer names and payment methods, which repeat, go through a dictionary.
+ */
+final class PaymentFileFormat {
+
+    static final int MAGIC = 0x5950544B;
+    static final int VERSION = 2;
+    static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    static final int HEADER_SIZE = 32;
+    static final int HEADER_ROW_COUNT = 8;
+    static final int HEADER_DICTIONARY_OFFSET = 16;
+    static final int HEADER_HEAP_OFFSET = 24;
+
+    static final int RECORD_SIZE = 40;
+    static final int ID = 0;
+    static final int REFERENCE = 8;
+    static final int AMOUNT = 16;
+    static final int CUSTOMER_NAME = 24;
+    static final int DATE = 28;
+    static final int PAYMENT_METHOD = 32;
+    static final int AMOUNT_SCALE = 36;
+    static final int STATUS = 37;
+    static final int CURRENCY = 38;
+
+    static final int HEAP_CHUNK_BITS = 30;
+    static final long HEAP_CHUNK_SIZE = 1L << HEAP_CHUNK_BITS;
+
+    static final int DICTIONARIES = 2;
+    static final int CUSTOMER_NAME_DICTIONARY = 0;
+    static final int PAYMENT_METHOD_DICTIONARY = 1;
+
+    private PaymentFileFormat() {
+    }
+
+}
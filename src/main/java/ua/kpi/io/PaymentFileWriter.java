@@ -0,0 +1,240 @@
+package ua.kpi.io;
+
+import ua.kpi.entity.Payment;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static ua.kpi.io.PaymentFileFormat.AMOUNT;
+import static ua.kpi.io.PaymentFileFormat.AMOUNT_SCALE;
+import static ua.kpi.io.PaymentFileFormat.BYTE_ORDER;
+import static ua.kpi.io.PaymentFileFormat.CURRENCY;
+import static ua.kpi.io.PaymentFileFormat.CUSTOMER_NAME;
+import static ua.kpi.io.PaymentFileFormat.CUSTOMER_NAME_DICTIONARY;
+import static ua.kpi.io.PaymentFileFormat.DATE;
+import static ua.kpi.io.PaymentFileFormat.DICTIONARIES;
+import static ua.kpi.io.PaymentFileFormat.HEADER_SIZE;
+import static ua.kpi.io.PaymentFileFormat.HEAP_CHUNK_SIZE;
+import static ua.kpi.io.PaymentFileFormat.ID;
+import static ua.kpi.io.PaymentFileFormat.MAGIC;
+import static ua.kpi.io.PaymentFileFormat.PAYMENT_METHOD;
+import static ua.kpi.io.PaymentFileFormat.PAYMENT_METHOD_DICTIONARY;
+import static ua.kpi.io.PaymentFileFormat.RECORD_SIZE;
+import static ua.kpi.io.PaymentFileFormat.REFERENCE;
+import static ua.kpi.io.PaymentFileFormat.STATUS;
+import static ua.kpi.io.PaymentFileFormat.VERSION;
+
+/**
+ * Writes payments in the format described by {@link PaymentFileFormat}. Records are streamed to disk
+ * as they are written and their strings to a temp file next to the target, which becomes the string
+ * heap on {@link #close()}. Only the customer names and payment methods are interned in memory; ids and
+ * references are not, so the memory of the writer does not grow with the number of rows.
+ */
+public class PaymentFileWriter implements AutoCloseable {
+
+    private static final int BUFFER_RECORDS = 2_048;
+    private static final int HEAP_BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final FileChannel heap;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_RECORDS * RECORD_SIZE).order(BYTE_ORDER);
+    private final ByteBuffer heapBuffer = ByteBuffer.allocateDirect(HEAP_BUFFER_SIZE).order(BYTE_ORDER);
+    private final List<Map<String, Integer>> dictionaries = new ArrayList<>(DICTIONARIES);
+    private final List<List<Long>> dictionaryOffsets = new ArrayList<>(DICTIONARIES);
+    private long rowCount;
+    private long heapSize;
+    private boolean closed;
+
+    private PaymentFileWriter(FileChannel channel, FileChannel heap) {
+        this.channel = channel;
+        this.heap = heap;
+        for (int i = 0; i < DICTIONARIES; i++) {
+            dictionaries.add(new HashMap<>());
+            dictionaryOffsets.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Creates the file, replacing an existing one.
+     */
+    public static PaymentFileWriter create(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            Path heapPath = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".strings");
+            FileChannel heap = FileChannel.open(heapPath, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE);
+            channel.position(HEADER_SIZE);
+            return new PaymentFileWriter(channel, heap);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes all payments to a new file.
+     */
+    public static void write(Path path, Iterable<Payment> payments) throws IOException {
+        try (PaymentFileWriter writer = create(path)) {
+            for (Payment payment : payments) {
+                writer.write(payment);
+            }
+        }
+    }
+
+    /**
+     * Appends a payment.
+     *
+     * @throws ArithmeticException if the unscaled amount does not fit into a long
+     */
+    public void write(Payment payment) throws IOException {
+        BigDecimal amount = payment.amount();
+        if (amount.scale() < Byte.MIN_VALUE || amount.scale() > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Unsupported amount scale for payment " + payment.id() + ": " + amount);
+        }
+        long unscaledAmount = amount.unscaledValue().longValueExact();
+        if (!buffer.hasRemaining()) {
+            flush();
+        }
+        int record = buffer.position();
+        buffer.putLong(record + ID, putString(payment.id()))
+                .putLong(record + REFERENCE, putString(payment.reference()))
+                .putLong(record + AMOUNT, unscaledAmount)
+                .putInt(record + CUSTOMER_NAME, code(CUSTOMER_NAME_DICTIONARY, payment.customerName()))
+                .putInt(record + DATE, Math.toIntExact(payment.date().toEpochDay()))
+                .putInt(record + PAYMENT_METHOD, code(PAYMENT_METHOD_DICTIONARY, payment.paymentMethod()))
+                .put(record + AMOUNT_SCALE, (byte) amount.scale())
+                .put(record + STATUS, (byte) payment.status().ordinal())
+                .put(record + CURRENCY, (byte) payment.currency().ordinal())
+                .put(record + RECORD_SIZE - 1, (byte) 0);
+        buffer.position(record + RECORD_SIZE);
+        rowCount++;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try (channel; heap) {
+            flush();
+            long heapOffset = channel.position();
+            writeFully(heapBuffer.flip(), heap);
+            for (long copied = 0; copied < heapSize; ) {
+                long transferred = channel.transferFrom(heap.position(copied), heapOffset + copied, heapSize - copied);
+                if (transferred == 0) {
+                    throw new IOException("String heap ended after " + copied + " of " + heapSize + " bytes");
+                }
+                copied += transferred;
+            }
+            long dictionaryOffset = heapOffset + heapSize;
+            channel.position(dictionaryOffset);
+            for (List<Long> offsets : dictionaryOffsets) {
+                writeDictionary(offsets);
+            }
+            flush();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(BYTE_ORDER)
+                    .putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putLong(rowCount)
+                    .putLong(dictionaryOffset)
+                    .putLong(heapOffset);
+            writeFully(header.flip(), 0);
+        }
+    }
+
+    private int code(int dictionary, String value) throws IOException {
+        Map<String, Integer> codes = dictionaries.get(dictionary);
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = codes.size();
+            codes.put(value, code);
+            dictionaryOffsets.get(dictionary).add(putString(value));
+        }
+        return code;
+    }
+
+    /**
+     * Appends a string to the heap, after zeroes up to the next chunk boundary if it would cross it.
+     *
+     * @return the heap offset of the string
+     */
+    private long putString(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        long size = Integer.BYTES + (long) bytes.length;
+        if (size > HEAP_CHUNK_SIZE) {
+            throw new IllegalArgumentException("String of " + bytes.length + " bytes is too long");
+        }
+        long room = HEAP_CHUNK_SIZE - (heapSize & (HEAP_CHUNK_SIZE - 1));
+        if (size > room) {
+            for (long gap = room; gap > 0; gap--) {
+                if (!heapBuffer.hasRemaining()) {
+                    flushHeap();
+                }
+                heapBuffer.put((byte) 0);
+            }
+            heapSize += room;
+        }
+        long offset = heapSize;
+        if (heapBuffer.remaining() < Integer.BYTES) {
+            flushHeap();
+        }
+        heapBuffer.putInt(bytes.length);
+        if (bytes.length > heapBuffer.remaining()) {
+            flushHeap();
+            writeFully(ByteBuffer.wrap(bytes), heap);
+        } else {
+            heapBuffer.put(bytes);
+        }
+        heapSize += size;
+        return offset;
+    }
+
+    private void writeDictionary(List<Long> offsets) throws IOException {
+        if (buffer.remaining() < Integer.BYTES) {
+            flush();
+        }
+        buffer.putInt(offsets.size());
+        for (long offset : offsets) {
+            if (buffer.remaining() < Long.BYTES) {
+                flush();
+            }
+            buffer.putLong(offset);
+        }
+    }
+
+    private void flush() throws IOException {
+        writeFully(buffer.flip(), channel);
+        buffer.clear();
+    }
+
+    private void flushHeap() throws IOException {
+        writeFully(heapBuffer.flip(), heap);
+        heapBuffer.clear();
+    }
+
+    private static void writeFully(ByteBuffer source, FileChannel target) throws IOException {
+        while (source.hasRemaining()) {
+            target.write(source);
+        }
+    }
+
+    private void writeFully(ByteBuffer source, long position) throws IOException {
+        while (source.hasRemaining()) {
+            position += channel.write(source, position);
+        }
+    }
+
+}
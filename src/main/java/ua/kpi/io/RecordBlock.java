@@ -0,0 +1,43 @@
+package ua.kpi.io;
+
+import ua.kpi.entity.Payment;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static ua.kpi.io.PaymentFileFormat.RECORD_SIZE;
+
+/**
+ * Raw records of consecutive rows of a {@link PaymentFile}, copied onto the heap together with the
+ * string heap mapping and dictionaries needed to decode them. Reading a block and decoding it are separate steps, so they can
+ * run on different threads.
+ */
+public final class RecordBlock {
+
+    private final ByteBuffer records;
+    private final StringHeap strings;
+    private final String[][] dictionaries;
+
+    RecordBlock(ByteBuffer records, StringHeap strings, String[][] dictionaries) {
+        this.records = records;
+        this.strings = strings;
+        this.dictionaries = dictionaries;
+    }
+
+    public int size() {
+        return records.limit() / RECORD_SIZE;
+    }
+
+    /**
+     * Decodes the records, in file order.
+     */
+    public List<Payment> payments() {
+        List<Payment> payments = new ArrayList<>(size());
+        for (int record = 0; record < records.limit(); record += RECORD_SIZE) {
+            payments.add(PaymentFile.decode(records, record, strings, dictionaries));
+        }
+        return payments;
+    }
+
+}
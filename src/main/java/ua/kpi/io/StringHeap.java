@@ -0,0 +1,44 @@
+package ua.kpi.io;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+import static ua.kpi.io.PaymentFileFormat.BYTE_ORDER;
+import static ua.kpi.io.PaymentFileFormat.HEAP_CHUNK_BITS;
+import static ua.kpi.io.PaymentFileFormat.HEAP_CHUNK_SIZE;
+
+/**
+ * Memory-mapped string heap of a {@link PaymentFile}. Strings are decoded on demand from their offset,
+ * so the heap costs no Java heap memory however many rows the file has. Like the record mapping, it
+ * stays readable after the file is closed.
+ */
+final class StringHeap {
+
+    private final MappedByteBuffer[] chunks;
+
+    private StringHeap(MappedByteBuffer[] chunks) {
+        this.chunks = chunks;
+    }
+
+    static StringHeap map(FileChannel channel, long offset, long size) throws IOException {
+        MappedByteBuffer[] chunks = new MappedByteBuffer[(int) ((size + HEAP_CHUNK_SIZE - 1) >>> HEAP_CHUNK_BITS)];
+        for (int chunk = 0; chunk < chunks.length; chunk++) {
+            long start = (long) chunk << HEAP_CHUNK_BITS;
+            chunks[chunk] = channel.map(FileChannel.MapMode.READ_ONLY, offset + start,
+                    Math.min(HEAP_CHUNK_SIZE, size - start));
+            chunks[chunk].order(BYTE_ORDER);
+        }
+        return new StringHeap(chunks);
+    }
+
+    String get(long offset) {
+        MappedByteBuffer chunk = chunks[(int) (offset >>> HEAP_CHUNK_BITS)];
+        int position = (int) (offset & (HEAP_CHUNK_SIZE - 1));
+        byte[] bytes = new byte[chunk.getInt(position)];
+        chunk.get(position + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
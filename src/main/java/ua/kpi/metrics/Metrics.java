@@ -0,0 +1,90 @@
+package ua.kpi.metrics;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the {@link OperationMetrics} of instrumented operations.
+ * <p>
+ * Instrumentation is switched on with the system property {@code ua.kpi.metrics=true} at startup. The
+ * flag is a {@code static final} constant, so with the property unset the JIT folds every
+ * {@link OperationMetrics#start()} to a constant and every {@link OperationMetrics.Sample#stop} to
+ * nothing. When enabled, each operation is also registered as an {@link OperationMetricsMXBean} with
+ * the platform MBean server. Allocated bytes are those of the calling thread, as reported by
+ * {@link com.sun.management.ThreadMXBean}; work the operation hands to other threads is not included.
+ */
+public final class Metrics {
+
+    public static final boolean ENABLED = Boolean.getBoolean("ua.kpi.metrics");
+
+    private static final Map<String, OperationMetrics> OPERATIONS = new ConcurrentHashMap<>();
+    private static final com.sun.management.ThreadMXBean THREADS = ENABLED ? threads() : null;
+
+    private Metrics() {
+    }
+
+    /**
+     * @return the metrics of the operation, created and, when enabled, registered with JMX on first use
+     */
+    public static OperationMetrics operation(String name) {
+        return OPERATIONS.computeIfAbsent(name, key -> {
+            OperationMetrics metrics = new OperationMetrics(key);
+            if (ENABLED) {
+                register(metrics);
+            }
+            return metrics;
+        });
+    }
+
+    /**
+     * @return the current metrics of all operations, by name
+     */
+    public static List<OperationSnapshot> snapshot() {
+        List<OperationSnapshot> snapshots = new ArrayList<>();
+        for (OperationMetrics metrics : OPERATIONS.values()) {
+            snapshots.add(metrics.snapshot());
+        }
+        snapshots.sort(Comparator.comparing(OperationSnapshot::operation));
+        return snapshots;
+    }
+
+    public static void exportTo(MetricsExporter exporter) throws IOException {
+        exporter.export(snapshot());
+    }
+
+    /**
+     * @return bytes allocated so far by the current thread, or 0 if the JVM cannot tell
+     */
+    static long allocatedBytes() {
+        return THREADS == null ? 0 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    static ObjectName objectName(String operation) throws JMException {
+        return ObjectName.getInstance("ua.kpi:type=Operation,name=" + ObjectName.quote(operation));
+    }
+
+    private static void register(OperationMetrics metrics) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, objectName(metrics.operation()));
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register metrics of " + metrics.operation(), e);
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean threads() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported()) {
+            threads.setThreadAllocatedMemoryEnabled(true);
+            return threads;
+        }
+        return null;
+    }
+
+}
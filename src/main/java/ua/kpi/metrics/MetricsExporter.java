@@ -0,0 +1,14 @@
+package ua.kpi.metrics;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination of the metrics of all operations, called by {@link Metrics#exportTo}.
+ */
+@FunctionalInterface
+public interface MetricsExporter {
+
+    void export(List<OperationSnapshot> operations) throws IOException;
+
+}
@@ -0,0 +1,133 @@
+package ua.kpi.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and counters of one instrumented operation. Calls are measured with a
+ * {@link Sample} from {@link #start()}; while {@link Metrics#ENABLED} is off, that sample is a constant
+ * whose {@link Sample#stop} does nothing, so instrumented code compiles to the uninstrumented code.
+ */
+public final class OperationMetrics implements OperationMetricsMXBean {
+
+    private final String operation;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+    private final AtomicLong lastGroups = new AtomicLong();
+    private final LongAccumulator maxGroups = new LongAccumulator(Math::max, 0);
+
+    OperationMetrics(String operation) {
+        this.operation = operation;
+    }
+
+    public String operation() {
+        return operation;
+    }
+
+    public Sample start() {
+        return Metrics.ENABLED ? new Sample(this, System.nanoTime(), Metrics.allocatedBytes()) : Sample.DISABLED;
+    }
+
+    /**
+     * Records a completed call.
+     */
+    public void record(long nanos, long rows, long groups, long allocatedBytes) {
+        latencies.record(Math.max(0, nanos));
+        this.rows.add(rows);
+        this.allocatedBytes.add(Math.max(0, allocatedBytes));
+        lastGroups.set(groups);
+        maxGroups.accumulate(groups);
+    }
+
+    public OperationSnapshot snapshot() {
+        return new OperationSnapshot(operation, latencies.count(), rows.sum(), lastGroups.get(), maxGroups.get(),
+                allocatedBytes.sum(), latencies.sum(), latencies.valueAtQuantile(0.5),
+                latencies.valueAtQuantile(0.9), latencies.valueAtQuantile(0.99), latencies.max());
+    }
+
+    @Override
+    public long getCalls() {
+        return latencies.count();
+    }
+
+    @Override
+    public long getRows() {
+        return rows.sum();
+    }
+
+    @Override
+    public double getRowsPerSecond() {
+        return snapshot().rowsPerSecond();
+    }
+
+    @Override
+    public long getLastGroups() {
+        return lastGroups.get();
+    }
+
+    @Override
+    public long getMaxGroups() {
+        return maxGroups.get();
+    }
+
+    @Override
+    public long getAllocatedBytes() {
+        return allocatedBytes.sum();
+    }
+
+    @Override
+    public double getMeanNanos() {
+        return snapshot().meanNanos();
+    }
+
+    @Override
+    public long getP50Nanos() {
+        return latencies.valueAtQuantile(0.5);
+    }
+
+    @Override
+    public long getP90Nanos() {
+        return latencies.valueAtQuantile(0.9);
+    }
+
+    @Override
+    public long getP99Nanos() {
+        return latencies.valueAtQuantile(0.99);
+    }
+
+    @Override
+    public long getMaxNanos() {
+        return latencies.max();
+    }
+
+    /**
+     * One call in progress.
+     */
+    public static final class Sample {
+
+        static final Sample DISABLED = new Sample(null, 0, 0);
+
+        private final OperationMetrics metrics;
+        private final long startNanos;
+        private final long startAllocatedBytes;
+
+        private Sample(OperationMetrics metrics, long startNanos, long startAllocatedBytes) {
+            this.metrics = metrics;
+            this.startNanos = startNanos;
+            this.startAllocatedBytes = startAllocatedBytes;
+        }
+
+        /**
+         * Records the call with the number of rows it processed and groups it produced.
+         */
+        public void stop(long rows, long groups) {
+            if (Metrics.ENABLED) {
+                metrics.record(System.nanoTime() - startNanos, rows, groups,
+                        Metrics.allocatedBytes() - startAllocatedBytes);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,31 @@
+package ua.kpi.metrics;
+
+/**
+ * JMX view of the metrics of one operation, registered as
+ * {@code ua.kpi:type=Operation,name=<operation>}.
+ */
+public interface OperationMetricsMXBean {
+
+    long getCalls();
+
+    long getRows();
+
+    double getRowsPerSecond();
+
+    long getLastGroups();
+
+    long getMaxGroups();
+
+    long getAllocatedBytes();
+
+    double getMeanNanos();
+
+    long getP50Nanos();
+
+    long getP90Nanos();
+
+    long getP99Nanos();
+
+    long getMaxNanos();
+
+}
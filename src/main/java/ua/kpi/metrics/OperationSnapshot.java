@@ -0,0 +1,27 @@
+package ua.kpi.metrics;
+
+/**
+ * Metrics of one operation at a point in time. Latencies are in nanoseconds.
+ *
+ * @param calls          number of completed calls
+ * @param rows           input rows processed by all calls
+ * @param lastGroups     number of groups in the result of the latest call
+ * @param maxGroups      largest number of groups in a result
+ * @param allocatedBytes bytes allocated by the calling threads during all calls
+ */
+public record OperationSnapshot(String operation, long calls, long rows, long lastGroups, long maxGroups,
+                                long allocatedBytes, long totalNanos, long p50Nanos, long p90Nanos,
+                                long p99Nanos, long maxNanos) {
+
+    /**
+     * @return rows processed per second of time spent in the operation, 0 before the first call
+     */
+    public double rowsPerSecond() {
+        return totalNanos == 0 ? 0 : rows * 1e9 / totalNanos;
+    }
+
+    public double meanNanos() {
+        return calls == 0 ? 0 : (double) totalNanos / calls;
+    }
+
+}
@@ -0,0 +1,45 @@
+package ua.kpi.metrics;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes one line per operation and metric in the Prometheus text format, e.g.
+ * {@code ktstreams_rows_total{operation="groupByCustomer"} 1000}.
+ */
+public final class TextMetricsExporter implements MetricsExporter {
+
+    private final Appendable out;
+
+    public TextMetricsExporter(Appendable out) {
+        this.out = out;
+    }
+
+    @Override
+    public void export(List<OperationSnapshot> operations) throws IOException {
+        for (OperationSnapshot operation : operations) {
+            line("ktstreams_calls_total", operation, operation.calls());
+            line("ktstreams_rows_total", operation, operation.rows());
+            line("ktstreams_groups_last", operation, operation.lastGroups());
+            line("ktstreams_groups_max", operation, operation.maxGroups());
+            line("ktstreams_allocated_bytes_total", operation, operation.allocatedBytes());
+            line("ktstreams_latency_nanos_sum", operation, operation.totalNanos());
+            quantile(operation, "0.5", operation.p50Nanos());
+            quantile(operation, "0.9", operation.p90Nanos());
+            quantile(operation, "0.99", operation.p99Nanos());
+            quantile(operation, "1", operation.maxNanos());
+        }
+    }
+
+    private void line(String metric, OperationSnapshot operation, long value) throws IOException {
+        out.append(metric).append("{operation=\"").append(operation.operation()).append("\"} ")
+                .append(Long.toString(value)).append('\n');
+    }
+
+    private void quantile(OperationSnapshot operation, String quantile, long value) throws IOException {
+        out.append("ktstreams_latency_nanos{operation=\"").append(operation.operation())
+                .append("\",quantile=\"").append(quantile).append("\"} ")
+                .append(Long.toString(value)).append('\n');
+    }
+
+}
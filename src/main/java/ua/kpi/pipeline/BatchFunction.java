@@ -0,0 +1,14 @@
+package ua.kpi.pipeline;
+
+import java.util.List;
+
+/**
+ * Intermediate stage of a {@link Pipeline} applied to a whole batch at once, e.g. a {@code KTStreams}
+ * filter taking and returning a list.
+ */
+@FunctionalInterface
+public interface BatchFunction<T, R> {
+
+    List<R> apply(List<T> batch) throws Exception;
+
+}
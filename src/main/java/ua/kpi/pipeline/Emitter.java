@@ -0,0 +1,16 @@
+package ua.kpi.pipeline;
+
+/**
+ * Output of a {@link Source} or {@link Stage}. Records are collected into batches, and a full batch is
+ * put on the queue to the next stage, blocking while that queue is full.
+ */
+public interface Emitter<T> {
+
+    void accept(T record) throws InterruptedException;
+
+    /**
+     * Passes the records accepted so far downstream without waiting for the batch to fill up.
+     */
+    void flush() throws InterruptedException;
+
+}
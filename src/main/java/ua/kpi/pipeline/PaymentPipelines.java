@@ -0,0 +1,80 @@
+package ua.kpi.pipeline;
+
+import ua.kpi.entity.Payment;
+import ua.kpi.io.PaymentFile;
+import ua.kpi.io.RecordBlock;
+import ua.kpi.streams.KTStreams;
+import ua.kpi.streams.PaymentAggregator;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collector;
+
+/**
+ * Pipelines ingesting {@link PaymentFile}s: a read stage copying blocks of raw records out of the
+ * files one after another, a parse stage decoding them into payments on several workers, an optional
+ * filter stage, and whatever aggregation the caller collects with.
+ */
+public final class PaymentPipelines {
+
+    private PaymentPipelines() {
+    }
+
+    /**
+     * @return a source reading the files in order, one block of up to {@code rowsPerBlock} records per batch
+     */
+    public static Source<RecordBlock> read(List<Path> files, int rowsPerBlock) {
+        if (rowsPerBlock < 1 || rowsPerBlock > PaymentFile.MAX_BLOCK_ROWS) {
+            throw new IllegalArgumentException("Rows per block must be between 1 and " + PaymentFile.MAX_BLOCK_ROWS
+                    + ": " + rowsPerBlock);
+        }
+        return out -> {
+            for (Path path : files) {
+                try (PaymentFile file = PaymentFile.open(path)) {
+                    for (long row = 0; row < file.rowCount(); row += rowsPerBlock) {
+                        out.accept(file.records(row, (int) Math.min(rowsPerBlock, file.rowCount() - row)));
+                        out.flush();
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * @return a stage decoding blocks of records into payments
+     */
+    public static Stage<RecordBlock, Payment> parse() {
+        return (block, out) -> {
+            for (Payment payment : block.payments()) {
+                out.accept(payment);
+            }
+        };
+    }
+
+    /**
+     * Reads and parses the files, with blocks as large as the batches of the options.
+     */
+    public static Pipeline<Payment> payments(List<Path> files, int parseWorkers, PipelineOptions options) {
+        return Pipeline.from("read", read(files, options.batchSize()), options)
+                .flatMap("parse", parseWorkers, parse());
+    }
+
+    /**
+     * Reads and parses the files and keeps the approved payments with {@link KTStreams#filterPaymentsByStatus}.
+     */
+    public static Pipeline<Payment> approvedPayments(List<Path> files, int parseWorkers, PipelineOptions options) {
+        return payments(files, parseWorkers, options)
+                .mapBatches("filter", 1, KTStreams::filterPaymentsByStatus);
+    }
+
+    /**
+     * @return a collector inserting the payments into a {@link PaymentAggregator}; it cannot be used in
+     * parallel streams, as aggregators do not merge
+     */
+    public static Collector<Payment, ?, PaymentAggregator> aggregating() {
+        return Collector.of(PaymentAggregator::new, PaymentAggregator::insert, (left, right) -> {
+            throw new UnsupportedOperationException("Payment aggregators cannot be merged");
+        }, Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+}
@@ -0,0 +1,245 @@
+package ua.kpi.pipeline;
+
+import ua.kpi.exception.PipelineException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import java.util.stream.Collector;
+
+/**
+ * Chain of stages running concurrently on virtual threads: a {@link Source}, any number of
+ * intermediate stages, each on one or more workers, and an aggregating {@link Collector} at the end.
+ * Records travel between stages in batches over bounded queues, so a slow stage holds back the ones
+ * before it instead of letting batches pile up in memory, and I/O-bound stages overlap with CPU-bound
+ * ones.
+ * <p>
+ * A pipeline is an immutable description; {@link #collect} runs it. When a stage finishes it puts an
+ * end marker on its output queue, and the workers of the next stage stop when they take it. When a
+ * stage throws, every worker is interrupted and {@link #collect} throws a {@link PipelineException}
+ * with the first failure. Batches keep their order only if every stage has a single worker.
+ */
+public final class Pipeline<T> {
+
+    private static final Object END = new Object();
+
+    private final PipelineOptions options;
+    private final String sourceName;
+    private final Source<?> source;
+    private final List<StageSpec> stages;
+
+    private record StageSpec(String name, int workers, BatchProcessor processor) {
+    }
+
+    @FunctionalInterface
+    private interface BatchProcessor {
+        void process(List<Object> batch, Output out) throws Exception;
+    }
+
+    private Pipeline(PipelineOptions options, String sourceName, Source<?> source, List<StageSpec> stages) {
+        this.options = options;
+        this.sourceName = sourceName;
+        this.source = source;
+        this.stages = stages;
+    }
+
+    public static <T> Pipeline<T> from(String name, Source<T> source, PipelineOptions options) {
+        return new Pipeline<>(options, name, source, List.of());
+    }
+
+    /**
+     * Adds a stage emitting any number of records per input record, run by the given number of workers.
+     */
+    @SuppressWarnings("unchecked")
+    public <R> Pipeline<R> flatMap(String name, int workers, Stage<? super T, ? extends R> stage) {
+        return then(name, workers, (batch, out) -> {
+            for (Object record : batch) {
+                stage.process((T) record, out);
+            }
+        });
+    }
+
+    /**
+     * Adds a stage transforming whole batches, run by the given number of workers.
+     */
+    @SuppressWarnings("unchecked")
+    public <R> Pipeline<R> mapBatches(String name, int workers, BatchFunction<T, ? extends R> function) {
+        return then(name, workers, (batch, out) -> out.put(function.apply((List<T>) (List<?>) batch)));
+    }
+
+    /**
+     * Adds a stage keeping the records matching the predicate.
+     */
+    public Pipeline<T> filter(String name, int workers, Predicate<? super T> predicate) {
+        return flatMap(name, workers, (T record, Emitter<? super T> out) -> {
+            if (predicate.test(record)) {
+                out.accept(record);
+            }
+        });
+    }
+
+    private <R> Pipeline<R> then(String name, int workers, BatchProcessor processor) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Workers of stage " + name + " must be positive: " + workers);
+        }
+        List<StageSpec> next = new ArrayList<>(stages);
+        next.add(new StageSpec(name, workers, processor));
+        return new Pipeline<>(options, sourceName, source, List.copyOf(next));
+    }
+
+    /**
+     * Runs the pipeline, accumulating every record that reaches the end with the collector on a single
+     * thread, and waits for all stages to finish.
+     *
+     * @throws PipelineException if a stage failed or the calling thread was interrupted
+     */
+    @SuppressWarnings("unchecked")
+    public <A, R> R collect(Collector<? super T, A, R> collector) {
+        List<BlockingQueue<Object>> queues = new ArrayList<>();
+        for (int i = 0; i <= stages.size(); i++) {
+            queues.add(new ArrayBlockingQueue<>(options.queueCapacity()));
+        }
+        Run run = new Run();
+        run.start(sourceName + "-0", sourceName, () -> {
+            Output out = new Output(queues.get(0), options.batchSize());
+            ((Source<Object>) source).run(out);
+            out.flush();
+            queues.get(0).put(END);
+        });
+        for (int i = 0; i < stages.size(); i++) {
+            StageSpec stage = stages.get(i);
+            BlockingQueue<Object> input = queues.get(i);
+            BlockingQueue<Object> output = queues.get(i + 1);
+            AtomicInteger running = new AtomicInteger(stage.workers());
+            for (int worker = 0; worker < stage.workers(); worker++) {
+                run.start(stage.name() + "-" + worker, stage.name(), () -> {
+                    Output out = new Output(output, options.batchSize());
+                    for (Object batch = input.take(); batch != END; batch = input.take()) {
+                        stage.processor().process((List<Object>) batch, out);
+                    }
+                    input.put(END);
+                    out.flush();
+                    if (running.decrementAndGet() == 0) {
+                        output.put(END);
+                    }
+                });
+            }
+        }
+        A container = collector.supplier().get();
+        BiConsumer<A, ? super T> accumulator = collector.accumulator();
+        BlockingQueue<Object> last = queues.get(stages.size());
+        run.start("aggregate-0", "aggregate", () -> {
+            for (Object batch = last.take(); batch != END; batch = last.take()) {
+                for (Object record : (List<Object>) batch) {
+                    ((BiConsumer<A, Object>) accumulator).accept(container, record);
+                }
+            }
+        });
+        run.join();
+        return collector.finisher().apply(container);
+    }
+
+    @FunctionalInterface
+    private interface Task {
+        void run() throws Exception;
+    }
+
+    /**
+     * Threads of one execution and its first failure.
+     */
+    private static final class Run {
+
+        private final List<Thread> threads = new CopyOnWriteArrayList<>();
+        private final AtomicReference<PipelineException> failure = new AtomicReference<>();
+
+        void start(String threadName, String stage, Task task) {
+            Thread thread = Thread.ofVirtual().name("pipeline-" + threadName).start(() -> {
+                try {
+                    task.run();
+                } catch (Throwable e) {
+                    fail(stage, e);
+                }
+            });
+            threads.add(thread);
+            if (failure.get() != null) {
+                thread.interrupt();
+            }
+        }
+
+        void fail(String stage, Throwable cause) {
+            if (failure.compareAndSet(null, new PipelineException(stage, cause))) {
+                threads.forEach(Thread::interrupt);
+            }
+        }
+
+        void join() {
+            boolean interrupted = false;
+            for (Thread thread : threads) {
+                while (true) {
+                    try {
+                        thread.join();
+                        break;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                        fail("collect", e);
+                    }
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (failure.get() != null) {
+                throw failure.get();
+            }
+        }
+    }
+
+    /**
+     * Emitter of one worker, collecting records into batches of {@link PipelineOptions#batchSize()}.
+     */
+    private static final class Output implements Emitter<Object> {
+
+        private final BlockingQueue<Object> queue;
+        private final int batchSize;
+        private List<Object> batch;
+
+        private Output(BlockingQueue<Object> queue, int batchSize) {
+            this.queue = queue;
+            this.batchSize = batchSize;
+            this.batch = new ArrayList<>(batchSize);
+        }
+
+        @Override
+        public void accept(Object record) throws InterruptedException {
+            batch.add(record);
+            if (batch.size() == batchSize) {
+                flush();
+            }
+        }
+
+        @Override
+        public void flush() throws InterruptedException {
+            if (!batch.isEmpty()) {
+                queue.put(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+
+        /**
+         * Passes a batch produced as a whole downstream as it is, after the pending records.
+         */
+        void put(List<?> records) throws InterruptedException {
+            flush();
+            if (!records.isEmpty()) {
+                queue.put(records);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,36 @@
+package ua.kpi.pipeline;
+
+/**
+ * Chooses how a {@link Pipeline} hands records between its stages.
+ *
+ * @param batchSize     the number of records a stage collects before passing them downstream
+ * @param queueCapacity the number of batches that may wait between two stages; a stage whose output
+ *                      queue is full blocks until the next stage catches up
+ */
+public record PipelineOptions(int batchSize, int queueCapacity) {
+
+    public static final int DEFAULT_BATCH_SIZE = 4_096;
+    public static final int DEFAULT_QUEUE_CAPACITY = 8;
+
+    private static final PipelineOptions DEFAULTS = new PipelineOptions(DEFAULT_BATCH_SIZE, DEFAULT_QUEUE_CAPACITY);
+
+    public PipelineOptions {
+        if (batchSize < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Batch size and queue capacity must be positive: "
+                    + batchSize + ", " + queueCapacity);
+        }
+    }
+
+    public static PipelineOptions defaults() {
+        return DEFAULTS;
+    }
+
+    public PipelineOptions withBatchSize(int batchSize) {
+        return new PipelineOptions(batchSize, queueCapacity);
+    }
+
+    public PipelineOptions withQueueCapacity(int queueCapacity) {
+        return new PipelineOptions(batchSize, queueCapacity);
+    }
+
+}
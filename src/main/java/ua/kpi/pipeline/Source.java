@@ -0,0 +1,12 @@
+package ua.kpi.pipeline;
+
+/**
+ * First stage of a {@link Pipeline}, producing its records. It owns the resources it reads from and
+ * must release them when it returns or throws, including when interrupted because another stage failed.
+ */
+@FunctionalInterface
+public interface Source<T> {
+
+    void run(Emitter<? super T> out) throws Exception;
+
+}
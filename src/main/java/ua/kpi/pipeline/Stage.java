@@ -0,0 +1,11 @@
+package ua.kpi.pipeline;
+
+/**
+ * Intermediate stage of a {@link Pipeline}, turning each input record into any number of output records.
+ */
+@FunctionalInterface
+public interface Stage<T, R> {
+
+    void process(T record, Emitter<? super R> out) throws Exception;
+
+}
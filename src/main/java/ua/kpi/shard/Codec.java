@@ -0,0 +1,16 @@
+package ua.kpi.shard;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Binary encoding of the rows, keys and partials exchanged with workers.
+ */
+interface Codec<V> {
+
+    void write(DataOutput out, V value) throws IOException;
+
+    V read(DataInput in) throws IOException;
+
+}
@@ -0,0 +1,145 @@
+package ua.kpi.shard;
+
+import ua.kpi.entity.Employee;
+import ua.kpi.entity.Payment;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Codecs of the entities and key types.
+ */
+final class Codecs {
+
+    private static final Payment.PaymentStatus[] STATUSES = Payment.PaymentStatus.values();
+    private static final Payment.Currency[] CURRENCIES = Payment.Currency.values();
+
+    /**
+     * UTF-8 strings of any length; {@code null} is written as length -1.
+     */
+    static final Codec<String> STRING = new Codec<>() {
+        @Override
+        public void write(DataOutput out, String value) throws IOException {
+            if (value == null) {
+                out.writeInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        @Override
+        public String read(DataInput in) throws IOException {
+            int length = in.readInt();
+            if (length < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    static final Codec<BigDecimal> DECIMAL = new Codec<>() {
+        @Override
+        public void write(DataOutput out, BigDecimal value) throws IOException {
+            byte[] unscaled = value.unscaledValue().toByteArray();
+            out.writeInt(value.scale());
+            out.writeInt(unscaled.length);
+            out.write(unscaled);
+        }
+
+        @Override
+        public BigDecimal read(DataInput in) throws IOException {
+            int scale = in.readInt();
+            byte[] unscaled = new byte[in.readInt()];
+            in.readFully(unscaled);
+            return new BigDecimal(new BigInteger(unscaled), scale);
+        }
+    };
+
+    static final Codec<Payment.PaymentStatus> STATUS = new Codec<>() {
+        @Override
+        public void write(DataOutput out, Payment.PaymentStatus status) throws IOException {
+            out.writeByte(status.ordinal());
+        }
+
+        @Override
+        public Payment.PaymentStatus read(DataInput in) throws IOException {
+            return STATUSES[in.readUnsignedByte()];
+        }
+    };
+
+    static final Codec<Payment.Currency> CURRENCY = new Codec<>() {
+        @Override
+        public void write(DataOutput out, Payment.Currency currency) throws IOException {
+            out.writeByte(currency.ordinal());
+        }
+
+        @Override
+        public Payment.Currency read(DataInput in) throws IOException {
+            return CURRENCIES[in.readUnsignedByte()];
+        }
+    };
+
+    static final Codec<LocalDate> DATE = new Codec<>() {
+        @Override
+        public void write(DataOutput out, LocalDate date) throws IOException {
+            out.writeLong(date.toEpochDay());
+        }
+
+        @Override
+        public LocalDate read(DataInput in) throws IOException {
+            return LocalDate.ofEpochDay(in.readLong());
+        }
+    };
+
+    static final Codec<Payment> PAYMENT = new Codec<>() {
+        @Override
+        public void write(DataOutput out, Payment payment) throws IOException {
+            STRING.write(out, payment.id());
+            STRING.write(out, payment.customerName());
+            DECIMAL.write(out, payment.amount());
+            STATUS.write(out, payment.status());
+            DATE.write(out, payment.date());
+            CURRENCY.write(out, payment.currency());
+            STRING.write(out, payment.paymentMethod());
+            STRING.write(out, payment.reference());
+        }
+
+        @Override
+        public Payment read(DataInput in) throws IOException {
+            return new Payment(STRING.read(in), STRING.read(in), DECIMAL.read(in), STATUS.read(in),
+                    DATE.read(in), CURRENCY.read(in), STRING.read(in), STRING.read(in));
+        }
+    };
+
+    static final Codec<Employee> EMPLOYEE = new Codec<>() {
+        @Override
+        public void write(DataOutput out, Employee employee) throws IOException {
+            out.writeInt(employee.id());
+            STRING.write(out, employee.name());
+            out.writeInt(employee.age());
+            STRING.write(out, employee.gender());
+            STRING.write(out, employee.department());
+            out.writeInt(employee.yearOfJoining());
+            out.writeDouble(employee.salary());
+        }
+
+        @Override
+        public Employee read(DataInput in) throws IOException {
+            return new Employee(in.readInt(), STRING.read(in), in.readInt(), STRING.read(in), STRING.read(in),
+                    in.readInt(), in.readDouble());
+        }
+    };
+
+    private Codecs() {
+    }
+
+}
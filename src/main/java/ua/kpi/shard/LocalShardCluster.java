@@ -0,0 +1,224 @@
+package ua.kpi.shard;
+
+import ua.kpi.entity.Payment;
+import ua.kpi.exception.ShardException;
+import ua.kpi.io.PaymentFile;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Runs {@link ShardedAggregation}s across worker JVMs on this machine, to exercise the multi-node
+ * data flow on a single host. Each worker is a {@link ShardWorker} process started with the class path of
+ * this JVM and connected through its standard input and output. An aggregation splits the rows into one
+ * contiguous shard per worker and the workers' partials are shuffled and merged by a
+ * {@link ShardCoordinator} in this JVM. The shards are either streamed to the workers from a list, or
+ * each worker reads its range of rows from a {@link PaymentFile} itself, so the rows never pass through
+ * this JVM.
+ * <p>
+ * A worker that fails exits, leaving the cluster unusable; close it and start a new one.
+ */
+public final class LocalShardCluster implements AutoCloseable {
+
+    private static final long EXIT_TIMEOUT_SECONDS = 10;
+
+    private final List<Worker> workers;
+
+    private LocalShardCluster(List<Worker> workers) {
+        this.workers = workers;
+    }
+
+    /**
+     * Starts the given number of worker processes.
+     *
+     * @throws IllegalArgumentException if the number of workers is not positive
+     */
+    public static LocalShardCluster start(int workers) throws IOException {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Number of workers must be positive: " + workers);
+        }
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        List<Worker> started = new ArrayList<>(workers);
+        try {
+            for (int worker = 0; worker < workers; worker++) {
+                Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                        ShardWorker.class.getName())
+                        .redirectError(ProcessBuilder.Redirect.INHERIT)
+                        .start();
+                started.add(new Worker(process));
+            }
+        } catch (IOException | RuntimeException e) {
+            started.forEach(worker -> worker.process.destroyForcibly());
+            throw e;
+        }
+        return new LocalShardCluster(started);
+    }
+
+    public int workers() {
+        return workers.size();
+    }
+
+    /**
+     * Aggregates the rows across the workers.
+     *
+     * @return the same groups and results as the single-process method the aggregation is named after
+     * @throws ShardException if a worker reports a failure
+     */
+    public synchronized <T, K, R> Map<K, R> aggregate(ShardedAggregation<T, K, R> aggregation, List<? extends T> rows)
+            throws IOException {
+        return aggregate(aggregation, shard -> out -> aggregation.writeRows(out,
+                rows.subList((int) shardStart(rows.size(), shard), (int) shardStart(rows.size(), shard + 1))));
+    }
+
+    /**
+     * Aggregates the payments of a file across the workers. Each worker maps the file and reads its own
+     * range of rows, so the file must be readable by the workers under the same path.
+     *
+     * @return the same groups and results as the single-process method the aggregation is named after,
+     * applied to {@link PaymentFile#readAll()}
+     * @throws ShardException if a worker reports a failure, e.g. because it could not read the file
+     */
+    public synchronized <K, R> Map<K, R> aggregate(ShardedAggregation<Payment, K, R> aggregation, Path paymentFile)
+            throws IOException {
+        long rowCount;
+        try (PaymentFile payments = PaymentFile.open(paymentFile)) {
+            rowCount = payments.rowCount();
+        }
+        return aggregate(aggregation, shard -> out -> ShardedAggregation.writePaymentFileRange(out, paymentFile,
+                shardStart(rowCount, shard), shardStart(rowCount, shard + 1)));
+    }
+
+    private <K, R> Map<K, R> aggregate(ShardedAggregation<?, K, R> aggregation, IntFunction<Request> requests)
+            throws IOException {
+        ShardCoordinator<K, ?, R> coordinator = ShardCoordinator.of(aggregation, workers.size(), workers.size());
+        List<Future<?>> shards = new ArrayList<>(workers.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int shard = 0; shard < workers.size(); shard++) {
+                int index = shard;
+                Request request = requests.apply(shard);
+                shards.add(executor.submit(() -> {
+                    workers.get(index).run(index, aggregation, request, coordinator);
+                    return null;
+                }));
+            }
+            for (Future<?> shard : shards) {
+                shard.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for workers");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException failure) {
+                throw failure;
+            }
+            if (e.getCause() instanceof RuntimeException failure) {
+                throw failure;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return coordinator.merge();
+    }
+
+    private long shardStart(long rows, int shard) {
+        return rows * shard / workers.size();
+    }
+
+    /**
+     * Closes the input of every worker and waits for them to exit, killing those that do not.
+     */
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (Worker worker : workers) {
+            try {
+                worker.out.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        for (Worker worker : workers) {
+            try {
+                if (!worker.process.waitFor(EXIT_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    worker.process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                worker.process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Writes the shard of one worker after the aggregation name.
+     */
+    private interface Request {
+
+        void write(DataOutput out) throws IOException;
+
+    }
+
+    private static final class Worker {
+
+        private final Process process;
+        private final DataOutputStream out;
+        private final DataInputStream in;
+
+        Worker(Process process) {
+            this.process = process;
+            this.out = new DataOutputStream(new BufferedOutputStream(process.getOutputStream(), ShardWorker.BUFFER_SIZE));
+            this.in = new DataInputStream(new BufferedInputStream(process.getInputStream(), ShardWorker.BUFFER_SIZE));
+        }
+
+        void run(int shard, ShardedAggregation<?, ?, ?> aggregation, Request request,
+                 ShardCoordinator<?, ?, ?> coordinator) throws IOException {
+            IOException writeFailure = null;
+            try {
+                out.writeUTF(aggregation.name());
+                request.write(out);
+                out.flush();
+            } catch (IOException e) {
+                // the worker may have failed and exited early; its answer says why
+                writeFailure = e;
+            }
+            byte status;
+            try {
+                status = in.readByte();
+            } catch (IOException e) {
+                if (writeFailure != null) {
+                    e.addSuppressed(writeFailure);
+                }
+                throw e;
+            }
+            if (status == ShardWorker.FAILED) {
+                throw new ShardException(shard, in.readUTF());
+            }
+            if (writeFailure != null) {
+                throw writeFailure;
+            }
+            if (status != ShardWorker.OK) {
+                throw new IOException("Unexpected answer " + status + " from the worker of shard " + shard);
+            }
+            coordinator.read(shard, in);
+        }
+
+    }
+
+}
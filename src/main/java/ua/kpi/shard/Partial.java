@@ -0,0 +1,15 @@
+package ua.kpi.shard;
+
+/**
+ * Partial aggregate of one group over a shard of rows.
+ *
+ * @param <P> the partial type itself
+ */
+interface Partial<P extends Partial<P>> {
+
+    /**
+     * Merges the partial of a later shard into this one, as if its rows had been added after this one's.
+     */
+    void merge(P later);
+
+}
@@ -0,0 +1,12 @@
+package ua.kpi.shard;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * How the rows of a group are accumulated into a partial and how the merged partial becomes the result.
+ */
+record PartialType<T, P extends Partial<P>, R>(Supplier<P> create, BiConsumer<P, ? super T> add, Codec<P> codec,
+                                               Function<? super P, ? extends R> finish) {
+}
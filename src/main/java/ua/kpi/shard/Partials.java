@@ -0,0 +1,366 @@
+package ua.kpi.shard;
+
+import ua.kpi.streams.ExactSum;
+import ua.kpi.streams.Money;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The partial states the sharded aggregations are built from, each with its {@link Codec}.
+ */
+final class Partials {
+
+    private Partials() {
+    }
+
+    /**
+     * Number of rows.
+     */
+    static final class Count implements Partial<Count> {
+
+        static final Codec<Count> CODEC = new Codec<>() {
+            @Override
+            public void write(DataOutput out, Count count) throws IOException {
+                out.writeLong(count.value);
+            }
+
+            @Override
+            public Count read(DataInput in) throws IOException {
+                Count count = new Count();
+                count.value = in.readLong();
+                return count;
+            }
+        };
+
+        private long value;
+
+        void increment() {
+            value++;
+        }
+
+        long value() {
+            return value;
+        }
+
+        @Override
+        public void merge(Count later) {
+            value += later.value;
+        }
+
+    }
+
+    /**
+     * Exact decimal sum with the scale rules of {@link Money}.
+     */
+    static final class MoneySum implements Partial<MoneySum> {
+
+        static final Codec<MoneySum> CODEC = new Codec<>() {
+            @Override
+            public void write(DataOutput out, MoneySum sum) throws IOException {
+                Codecs.DECIMAL.write(out, sum.total.toBigDecimal());
+            }
+
+            @Override
+            public MoneySum read(DataInput in) throws IOException {
+                MoneySum sum = new MoneySum();
+                sum.add(Codecs.DECIMAL.read(in));
+                return sum;
+            }
+        };
+
+        private final Money total = new Money();
+
+        void add(BigDecimal amount) {
+            total.add(amount);
+        }
+
+        BigDecimal value() {
+            return total.toBigDecimal();
+        }
+
+        @Override
+        public void merge(MoneySum later) {
+            total.add(later.total);
+        }
+
+    }
+
+    /**
+     * Sum and count of {@code int} values; the average is computed like {@code Collectors.averagingInt}.
+     */
+    static final class IntSum implements Partial<IntSum> {
+
+        static final Codec<IntSum> CODEC = new Codec<>() {
+            @Override
+            public void write(DataOutput out, IntSum sum) throws IOException {
+                out.writeLong(sum.sum);
+                out.writeLong(sum.count);
+            }
+
+            @Override
+            public IntSum read(DataInput in) throws IOException {
+                IntSum sum = new IntSum();
+                sum.sum = in.readLong();
+                sum.count = in.readLong();
+                return sum;
+            }
+        };
+
+        private long sum;
+        private long count;
+
+        void add(int value) {
+            sum += value;
+            count++;
+        }
+
+        double average() {
+            return count == 0 ? 0.0d : (double) sum / count;
+        }
+
+        @Override
+        public void merge(IntSum later) {
+            sum += later.sum;
+            count += later.count;
+        }
+
+    }
+
+    /**
+     * Exact sum and count of {@code double} values, kept as an {@link ExactSum}; sums and averages
+     * equal the single-process ones however the rows were sharded.
+     */
+    static final class DoubleSum implements Partial<DoubleSum> {
+
+        static final Codec<DoubleSum> CODEC = new Codec<>() {
+            @Override
+            public void write(DataOutput out, DoubleSum sum) throws IOException {
+                double[] partials = sum.total.partials();
+                out.writeInt(partials.length);
+                for (double partial : partials) {
+                    out.writeDouble(partial);
+                }
+                out.writeDouble(sum.total.special());
+                out.writeLong(sum.total.count());
+            }
+
+            @Override
+            public DoubleSum read(DataInput in) throws IOException {
+                double[] partials = new double[in.readInt()];
+                for (int i = 0; i < partials.length; i++) {
+                    partials[i] = in.readDouble();
+                }
+                DoubleSum sum = new DoubleSum();
+                sum.total = ExactSum.of(partials, in.readDouble(), in.readLong());
+                return sum;
+            }
+        };
+
+        private ExactSum total = new ExactSum();
+
+        void add(double value) {
+            total.add(value);
+        }
+
+        double sum() {
+            return total.sum();
+        }
+
+        double average() {
+            return total.average();
+        }
+
+        @Override
+        public void merge(DoubleSum later) {
+            total.add(later.total);
+        }
+
+    }
+
+    /**
+     * Value with the greatest rank; of equal ranks the first one added is kept, like
+     * {@code Collectors.maxBy}.
+     */
+    static final class MaxBy<V> implements Partial<MaxBy<V>> {
+
+        private V value;
+        private long rank;
+
+        void add(V value, long rank) {
+            if (this.value == null || rank > this.rank) {
+                this.value = value;
+                this.rank = rank;
+            }
+        }
+
+        V value() {
+            return value;
+        }
+
+        @Override
+        public void merge(MaxBy<V> later) {
+            if (later.value != null) {
+                add(later.value, later.rank);
+            }
+        }
+
+        static <V> Codec<MaxBy<V>> codec(Codec<V> values) {
+            return new Codec<>() {
+                @Override
+                public void write(DataOutput out, MaxBy<V> max) throws IOException {
+                    out.writeLong(max.rank);
+                    values.write(out, max.value);
+                }
+
+                @Override
+                public MaxBy<V> read(DataInput in) throws IOException {
+                    MaxBy<V> max = new MaxBy<>();
+                    max.rank = in.readLong();
+                    max.value = values.read(in);
+                    return max;
+                }
+            };
+        }
+
+    }
+
+    /**
+     * Value with the smallest rank; of equal ranks the first one added is kept, like
+     * {@code Collectors.minBy}.
+     */
+    static final class MinBy<V> implements Partial<MinBy<V>> {
+
+        private V value;
+        private long rank;
+
+        void add(V value, long rank) {
+            if (this.value == null || rank < this.rank) {
+                this.value = value;
+                this.rank = rank;
+            }
+        }
+
+        V value() {
+            return value;
+        }
+
+        @Override
+        public void merge(MinBy<V> later) {
+            if (later.value != null) {
+                add(later.value, later.rank);
+            }
+        }
+
+        static <V> Codec<MinBy<V>> codec(Codec<V> values) {
+            return new Codec<>() {
+                @Override
+                public void write(DataOutput out, MinBy<V> min) throws IOException {
+                    out.writeLong(min.rank);
+                    values.write(out, min.value);
+                }
+
+                @Override
+                public MinBy<V> read(DataInput in) throws IOException {
+                    MinBy<V> min = new MinBy<>();
+                    min.rank = in.readLong();
+                    min.value = values.read(in);
+                    return min;
+                }
+            };
+        }
+
+    }
+
+    /**
+     * Values in the order they were added; a later shard's values are appended on merge, so the
+     * merged list keeps the order of the rows.
+     */
+    static final class Values<V> implements Partial<Values<V>> {
+
+        private final List<V> values = new ArrayList<>();
+
+        void add(V value) {
+            values.add(value);
+        }
+
+        List<V> values() {
+            return values;
+        }
+
+        @Override
+        public void merge(Values<V> later) {
+            values.addAll(later.values);
+        }
+
+        static <V> Codec<Values<V>> codec(Codec<V> elements) {
+            return new Codec<>() {
+                @Override
+                public void write(DataOutput out, Values<V> list) throws IOException {
+                    out.writeInt(list.values.size());
+                    for (V value : list.values) {
+                        elements.write(out, value);
+                    }
+                }
+
+                @Override
+                public Values<V> read(DataInput in) throws IOException {
+                    Values<V> list = new Values<>();
+                    for (int size = in.readInt(); size > 0; size--) {
+                        list.values.add(elements.read(in));
+                    }
+                    return list;
+                }
+            };
+        }
+
+    }
+
+    /**
+     * Distinct strings.
+     */
+    static final class DistinctSet implements Partial<DistinctSet> {
+
+        static final Codec<DistinctSet> CODEC = new Codec<>() {
+            @Override
+            public void write(DataOutput out, DistinctSet set) throws IOException {
+                out.writeInt(set.values.size());
+                for (String value : set.values) {
+                    Codecs.STRING.write(out, value);
+                }
+            }
+
+            @Override
+            public DistinctSet read(DataInput in) throws IOException {
+                DistinctSet set = new DistinctSet();
+                for (int size = in.readInt(); size > 0; size--) {
+                    set.values.add(Codecs.STRING.read(in));
+                }
+                return set;
+            }
+        };
+
+        private final Set<String> values = new HashSet<>();
+
+        void add(String value) {
+            values.add(value);
+        }
+
+        Set<String> values() {
+            return values;
+        }
+
+        @Override
+        public void merge(DistinctSet later) {
+            values.addAll(later.values);
+        }
+
+    }
+
+}
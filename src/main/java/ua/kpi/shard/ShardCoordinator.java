@@ -0,0 +1,100 @@
+package ua.kpi.shard;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Merges the partials written by the workers of one aggregation. The partials of each shard are
+ * shuffled into {@code partitions} buckets by key hash as they are read, so every key lands in one
+ * partition, and the partitions are then merged independently of each other. Within a partition the
+ * shards are merged in shard order, which keeps order-sensitive partials such as {@link Partials.MaxBy}
+ * and {@link Partials.Values} equal to a single pass over the rows.
+ */
+final class ShardCoordinator<K, P extends Partial<P>, R> {
+
+    private final Codec<K> keys;
+    private final PartialType<?, P, R> type;
+    private final int partitions;
+    private final List<List<List<Map.Entry<K, P>>>> shards;
+
+    private ShardCoordinator(Codec<K> keys, PartialType<?, P, R> type, int shards, int partitions) {
+        if (shards < 1 || partitions < 1) {
+            throw new IllegalArgumentException("Shards and partitions must be positive: " + shards + ", " + partitions);
+        }
+        this.keys = keys;
+        this.type = type;
+        this.partitions = partitions;
+        this.shards = new ArrayList<>(Collections.nCopies(shards, null));
+    }
+
+    static <T, K, R> ShardCoordinator<K, ?, R> of(ShardedAggregation<T, K, R> aggregation, int shards, int partitions) {
+        return create(aggregation.keys(), aggregation.partials(), shards, partitions);
+    }
+
+    private static <K, P extends Partial<P>, R> ShardCoordinator<K, P, R> create(Codec<K> keys, PartialType<?, P, R> type,
+                                                                                int shards, int partitions) {
+        return new ShardCoordinator<>(keys, type, shards, partitions);
+    }
+
+    /**
+     * Reads the partials of a shard written by {@link ShardedAggregation#aggregateShard}. Different
+     * shards may be read concurrently.
+     */
+    void read(int shard, DataInput in) throws IOException {
+        List<List<Map.Entry<K, P>>> buckets = new ArrayList<>(partitions);
+        for (int partition = 0; partition < partitions; partition++) {
+            buckets.add(new ArrayList<>());
+        }
+        while (in.readBoolean()) {
+            K key = keys.read(in);
+            P partial = type.codec().read(in);
+            buckets.get(partition(key, partitions)).add(Map.entry(key, partial));
+        }
+        shards.set(shard, buckets);
+    }
+
+    /**
+     * @return the result per key once every shard has been read
+     */
+    Map<K, R> merge() {
+        for (int shard = 0; shard < shards.size(); shard++) {
+            if (shards.get(shard) == null) {
+                throw new IllegalStateException("Partials of shard " + shard + " have not been read");
+            }
+        }
+        List<Map<K, R>> merged = IntStream.range(0, partitions).parallel()
+                .mapToObj(this::mergePartition)
+                .toList();
+        Map<K, R> result = new HashMap<>();
+        merged.forEach(result::putAll);
+        return result;
+    }
+
+    private Map<K, R> mergePartition(int partition) {
+        Map<K, P> groups = new HashMap<>();
+        for (List<List<Map.Entry<K, P>>> shard : shards) {
+            for (Map.Entry<K, P> group : shard.get(partition)) {
+                P partial = groups.putIfAbsent(group.getKey(), group.getValue());
+                if (partial != null) {
+                    partial.merge(group.getValue());
+                }
+            }
+        }
+        Map<K, R> result = new HashMap<>();
+        groups.forEach((key, partial) -> result.put(key, type.finish().apply(partial)));
+        return result;
+    }
+
+    static int partition(Object key, int partitions) {
+        int hash = Objects.hashCode(key) * 0x9E3779B9;
+        return Math.floorMod(hash ^ (hash >>> 16), partitions);
+    }
+
+}
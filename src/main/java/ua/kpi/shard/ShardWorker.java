@@ -0,0 +1,70 @@
+package ua.kpi.shard;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Worker process of a {@link LocalShardCluster}. Serves jobs from standard input until it is closed:
+ * each job is the name of a {@link ShardedAggregation} followed by a shard, either its rows or a range
+ * of rows of a {@link ua.kpi.io.PaymentFile} the worker reads itself, and is answered
+ * on standard output with {@link #OK} and the partials of the shard, or with {@link #FAILED} and a
+ * message, after which the worker exits.
+ */
+public final class ShardWorker {
+
+    static final byte OK = 0;
+    static final byte FAILED = 1;
+
+    static final int BUFFER_SIZE = 1 << 16;
+
+    private ShardWorker() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(FileDescriptor.in), BUFFER_SIZE));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), BUFFER_SIZE));
+        serve(in, out);
+        out.flush();
+    }
+
+    /**
+     * Answers jobs until the input ends or a job fails.
+     */
+    static void serve(DataInputStream in, DataOutputStream out) throws IOException {
+        while (true) {
+            String name;
+            try {
+                name = in.readUTF();
+            } catch (EOFException e) {
+                return;
+            }
+            ShardedAggregation<?, ?, ?> aggregation = ShardedAggregations.byName(name);
+            if (aggregation == null) {
+                fail(out, "Unknown aggregation: " + name);
+                return;
+            }
+            try {
+                aggregation.aggregateShard(in, out);
+            } catch (IOException | RuntimeException e) {
+                // nothing of the answer has been written yet, so the failure can still be reported
+                fail(out, e.toString());
+                return;
+            }
+            out.flush();
+        }
+    }
+
+    private static void fail(DataOutputStream out, String message) throws IOException {
+        out.writeByte(FAILED);
+        out.writeUTF(message);
+        out.flush();
+    }
+
+}
@@ -0,0 +1,149 @@
+package ua.kpi.shard;
+
+import ua.kpi.entity.Payment;
+import ua.kpi.io.PaymentFile;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Grouping aggregation that can be computed over shards of rows in separate processes: each worker
+ * accumulates its shard into one mergeable {@link Partial} per group key and writes the partials out,
+ * and the {@link ShardCoordinator} merges the partials of all shards by key. See
+ * {@link ShardedAggregations} for the aggregations of {@link ua.kpi.streams.KTStreams} that are available.
+ *
+ * @param <T> row type
+ * @param <K> group key
+ * @param <R> result per group
+ */
+public final class ShardedAggregation<T, K, R> {
+
+    static final byte ROWS = 0;
+    static final byte PAYMENT_FILE = 1;
+
+    private final String name;
+    private final Codec<T> rows;
+    private final Codec<K> keys;
+    private final Function<? super T, ? extends K> key;
+    private final PartialType<T, ?, R> partials;
+
+    ShardedAggregation(String name, Codec<T> rows, Codec<K> keys, Function<? super T, ? extends K> key,
+                       PartialType<T, ?, R> partials) {
+        this.name = name;
+        this.rows = rows;
+        this.keys = keys;
+        this.key = key;
+        this.partials = partials;
+    }
+
+    /**
+     * @return the name workers look the aggregation up by
+     */
+    public String name() {
+        return name;
+    }
+
+    Codec<K> keys() {
+        return keys;
+    }
+
+    PartialType<T, ?, R> partials() {
+        return partials;
+    }
+
+    /**
+     * Writes the rows of a shard after {@link #ROWS}, each preceded by {@code true} and followed by
+     * {@code false}.
+     */
+    void writeRows(DataOutput out, List<? extends T> shard) throws IOException {
+        out.writeByte(ROWS);
+        for (T row : shard) {
+            out.writeBoolean(true);
+            rows.write(out, row);
+        }
+        out.writeBoolean(false);
+    }
+
+    /**
+     * Writes a shard the worker reads from a payment file on its own: {@link #PAYMENT_FILE}, the path and
+     * the range of rows.
+     */
+    static void writePaymentFileRange(DataOutput out, Path file, long fromRow, long toRow) throws IOException {
+        out.writeByte(PAYMENT_FILE);
+        out.writeUTF(file.toAbsolutePath().toString());
+        out.writeLong(fromRow);
+        out.writeLong(toRow);
+    }
+
+    /**
+     * Reads a shard written by {@link #writeRows} or {@link #writePaymentFileRange}, aggregates its rows
+     * and answers {@link ShardWorker#OK} followed by one key and partial per group in the row framing.
+     * Nothing is written if reading or accumulating the rows fails; a payment file that cannot be read
+     * is reported as an {@link UncheckedIOException}.
+     */
+    void aggregateShard(DataInput in, DataOutput out) throws IOException {
+        aggregateShard(partials, in, out);
+    }
+
+    private <P extends Partial<P>> void aggregateShard(PartialType<T, P, R> type, DataInput in, DataOutput out)
+            throws IOException {
+        Map<K, P> groups = new HashMap<>();
+        byte source = in.readByte();
+        if (source == ROWS) {
+            while (in.readBoolean()) {
+                accumulate(type, groups, rows.read(in));
+            }
+        } else if (source == PAYMENT_FILE) {
+            Path file = Path.of(in.readUTF());
+            long fromRow = in.readLong();
+            long toRow = in.readLong();
+            if (rows != Codecs.PAYMENT) {
+                throw new IllegalArgumentException(name + " does not aggregate payments");
+            }
+            try (PaymentFile payments = PaymentFile.open(file)) {
+                if (fromRow < 0 || fromRow > toRow || toRow > payments.rowCount()) {
+                    throw new IndexOutOfBoundsException("Rows " + fromRow + ".." + toRow + " out of " + payments.rowCount());
+                }
+                for (long row = fromRow; row < toRow; row++) {
+                    @SuppressWarnings("unchecked")
+                    T payment = (T) payments.payment(row);
+                    accumulate(type, groups, payment);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        } else {
+            throw new IOException("Unknown shard source " + source);
+        }
+        out.writeByte(ShardWorker.OK);
+        for (Map.Entry<K, P> group : groups.entrySet()) {
+            out.writeBoolean(true);
+            keys.write(out, group.getKey());
+            type.codec().write(out, group.getValue());
+        }
+        out.writeBoolean(false);
+    }
+
+    private <P extends Partial<P>> void accumulate(PartialType<T, P, R> type, Map<K, P> groups, T row) {
+        K group = key.apply(row);
+        P partial = groups.get(group);
+        if (partial == null) {
+            partial = type.create().get();
+            groups.put(group, partial);
+        }
+        type.add().accept(partial, row);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+}
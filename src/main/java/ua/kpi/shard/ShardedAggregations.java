@@ -0,0 +1,129 @@
+package ua.kpi.shard;
+
+import ua.kpi.entity.Employee;
+import ua.kpi.entity.Payment;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The {@link ua.kpi.streams.KTStreams} groupings as {@link ShardedAggregation}s, named after the method
+ * whose result they reproduce. Every aggregation merges to exactly the single-process result: lists and
+ * joined names keep the row order because shards are contiguous and merged in shard order, and
+ * {@code double} sums and averages are summed exactly.
+ */
+public final class ShardedAggregations {
+
+    public static final ShardedAggregation<Payment, String, BigDecimal> GROUP_BY_CUSTOMER_AND_MAP_TO_TOTAL_AMOUNT =
+            new ShardedAggregation<>("groupByCustomerAndMapToTotalAmount", Codecs.PAYMENT, Codecs.STRING,
+                    Payment::customerName, new PartialType<>(Partials.MoneySum::new,
+                    (Partials.MoneySum sum, Payment payment) -> sum.add(payment.amount()),
+                    Partials.MoneySum.CODEC, Partials.MoneySum::value));
+
+    public static final ShardedAggregation<Payment, String, Long> COUNT_BY_PAYMENT_METHOD =
+            new ShardedAggregation<>("countByPaymentMethod", Codecs.PAYMENT, Codecs.STRING,
+                    Payment::paymentMethod, counting());
+
+    public static final ShardedAggregation<Payment, Payment.PaymentStatus, Set<String>> GROUP_BY_STATUS_AND_MAP_TO_PAYMENT_METHODS =
+            new ShardedAggregation<>("groupByStatusAndMapToPaymentMethods", Codecs.PAYMENT, Codecs.STATUS,
+                    Payment::status, new PartialType<>(Partials.DistinctSet::new,
+                    (Partials.DistinctSet methods, Payment payment) -> methods.add(payment.paymentMethod()),
+                    Partials.DistinctSet.CODEC, Partials.DistinctSet::values));
+
+    public static final ShardedAggregation<Payment, Payment.Currency, List<String>> GROUP_BY_CURRENCY_AND_MAP_TO_CUSTOMER_NAMES =
+            new ShardedAggregation<>("groupByCurrencyAndMapToCustomerNames", Codecs.PAYMENT, Codecs.CURRENCY,
+                    Payment::currency, strings(Payment::customerName, Partials.Values::values));
+
+    public static final ShardedAggregation<Payment, LocalDate, List<String>> GROUP_BY_DATE_AND_MAP_TO_REFERENCES =
+            new ShardedAggregation<>("groupByDateAndMapToReferences", Codecs.PAYMENT, Codecs.DATE,
+                    Payment::date, strings(Payment::reference, Partials.Values::values));
+
+    public static final ShardedAggregation<Payment, Payment.PaymentStatus, String> GROUP_BY_CUSTOMER =
+            new ShardedAggregation<>("groupByCustomer", Codecs.PAYMENT, Codecs.STATUS,
+                    Payment::status, strings(Payment::customerName, names -> String.join(", ", names.values())));
+
+    public static final ShardedAggregation<Employee, String, Long> COUNT_EMPLOYEES_IN_DEPARTMENTS =
+            new ShardedAggregation<>("countEmployeesInDepartments", Codecs.EMPLOYEE, Codecs.STRING,
+                    Employee::department, counting());
+
+    public static final ShardedAggregation<Employee, String, Long> COUNT_EMPLOYEES_BY_GENDER =
+            new ShardedAggregation<>("countEmployeesByGender", Codecs.EMPLOYEE, Codecs.STRING,
+                    Employee::gender, counting());
+
+    public static final ShardedAggregation<Employee, String, Double> AVERAGE_SALARY_BY_GENDER =
+            new ShardedAggregation<>("averageSalaryByGender", Codecs.EMPLOYEE, Codecs.STRING,
+                    Employee::gender, salaries(Partials.DoubleSum::average));
+
+    public static final ShardedAggregation<Employee, String, Double> SUM_SALARIES_BY_DEPARTMENT =
+            new ShardedAggregation<>("sumSalariesByDepartment", Codecs.EMPLOYEE, Codecs.STRING,
+                    Employee::department, salaries(Partials.DoubleSum::sum));
+
+    public static final ShardedAggregation<Employee, String, Double> AVERAGE_AGE_IN_DEPARTMENTS =
+            new ShardedAggregation<>("averageAgeInDepartments", Codecs.EMPLOYEE, Codecs.STRING,
+                    Employee::department, new PartialType<>(Partials.IntSum::new,
+                    (Partials.IntSum ages, Employee employee) -> ages.add(employee.age()),
+                    Partials.IntSum.CODEC, Partials.IntSum::average));
+
+    public static final ShardedAggregation<Employee, String, Employee> OLDEST_EMPLOYEE_IN_DEPARTMENT =
+            new ShardedAggregation<>("oldestEmployeeInDepartment", Codecs.EMPLOYEE, Codecs.STRING,
+                    Employee::department, new PartialType<>(Partials.MaxBy<Employee>::new,
+                    (Partials.MaxBy<Employee> oldest, Employee employee) -> oldest.add(employee, employee.age()),
+                    Partials.MaxBy.codec(Codecs.EMPLOYEE), Partials.MaxBy::value));
+
+    public static final ShardedAggregation<Employee, String, List<Employee>> GROUP_EMPLOYEES_BY_AGE_RANGE =
+            new ShardedAggregation<>("groupEmployeesByAgeRange", Codecs.EMPLOYEE, Codecs.STRING,
+                    ShardedAggregations::ageRange, new PartialType<>(Partials.Values<Employee>::new,
+                    Partials.Values<Employee>::add, Partials.Values.codec(Codecs.EMPLOYEE), Partials.Values::values));
+
+    private static final Map<String, ShardedAggregation<?, ?, ?>> BY_NAME = List.of(
+                    GROUP_BY_CUSTOMER_AND_MAP_TO_TOTAL_AMOUNT, COUNT_BY_PAYMENT_METHOD,
+                    GROUP_BY_STATUS_AND_MAP_TO_PAYMENT_METHODS, GROUP_BY_CURRENCY_AND_MAP_TO_CUSTOMER_NAMES,
+                    GROUP_BY_DATE_AND_MAP_TO_REFERENCES, GROUP_BY_CUSTOMER, COUNT_EMPLOYEES_IN_DEPARTMENTS,
+                    COUNT_EMPLOYEES_BY_GENDER, AVERAGE_SALARY_BY_GENDER, SUM_SALARIES_BY_DEPARTMENT,
+                    AVERAGE_AGE_IN_DEPARTMENTS, OLDEST_EMPLOYEE_IN_DEPARTMENT, GROUP_EMPLOYEES_BY_AGE_RANGE).stream()
+            .collect(Collectors.toUnmodifiableMap(ShardedAggregation::name, Function.identity()));
+
+    private ShardedAggregations() {
+    }
+
+    /**
+     * @return the aggregation with the name, {@code null} if there is none
+     */
+    static ShardedAggregation<?, ?, ?> byName(String name) {
+        return BY_NAME.get(name);
+    }
+
+    private static <T> PartialType<T, Partials.Count, Long> counting() {
+        return new PartialType<>(Partials.Count::new, (Partials.Count count, T row) -> count.increment(),
+                Partials.Count.CODEC, Partials.Count::value);
+    }
+
+    private static <R> PartialType<Payment, Partials.Values<String>, R> strings(
+            Function<Payment, String> value, Function<Partials.Values<String>, R> finish) {
+        return new PartialType<>(Partials.Values<String>::new,
+                (Partials.Values<String> values, Payment payment) -> values.add(value.apply(payment)),
+                Partials.Values.codec(Codecs.STRING), finish);
+    }
+
+    /**
+     * The age ranges of {@link ua.kpi.streams.KTStreams#groupEmployeesByAgeRange(List)}.
+     */
+    private static String ageRange(Employee employee) {
+        if (employee.age() <= 20) {
+            return "Under 20";
+        }
+        return employee.age() <= 30 ? "20-30" : "Above 30";
+    }
+
+    private static PartialType<Employee, Partials.DoubleSum, Double> salaries(Function<Partials.DoubleSum, Double> finish) {
+        return new PartialType<>(Partials.DoubleSum::new,
+                (Partials.DoubleSum sum, Employee employee) -> sum.add(employee.salary()),
+                Partials.DoubleSum.CODEC, finish);
+    }
+
+}
@@ -0,0 +1,82 @@
+package ua.kpi.sketch;
+
+/**
+ * Bloom filter of {@code long} keys. Each key sets {@code hashCount} bits of a power-of-two sized bit
+ * array chosen by double hashing; a key that was added is always reported as possibly present, and a
+ * key that was not is reported as present with the configured false positive rate.
+ */
+public final class BloomFilter {
+
+    private static final int MAX_HASHES = 16;
+
+    private final long[] words;
+    private final int mask;
+    private final int hashCount;
+
+    /**
+     * @param bits      the number of bits, rounded up to a power of two of at least 64
+     * @param hashCount the number of bits set per key
+     */
+    public BloomFilter(int bits, int hashCount) {
+        if (bits < 1 || bits > 1 << 30 || hashCount < 1 || hashCount > MAX_HASHES) {
+            throw new IllegalArgumentException("Unsupported bits or hash count: " + bits + ", " + hashCount);
+        }
+        int size = Math.max(64, Integer.highestOneBit(bits - 1) << 1);
+        this.words = new long[size / Long.SIZE];
+        this.mask = size - 1;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * Creates a filter of {@code -n ln(p) / ln(2)^2} bits and {@code (bits / n) ln(2)} hashes.
+     *
+     * @param expectedKeys      the number of keys that will be added
+     * @param falsePositiveRate the probability of reporting an absent key as present
+     */
+    public static BloomFilter withFalsePositiveRate(int expectedKeys, double falsePositiveRate) {
+        if (expectedKeys < 0 || !(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("Unsupported expected keys or false positive rate: "
+                    + expectedKeys + ", " + falsePositiveRate);
+        }
+        int keys = Math.max(1, expectedKeys);
+        double bits = Math.ceil(-keys * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int hashes = (int) Math.round(bits / keys * Math.log(2));
+        return new BloomFilter((int) Math.min(bits, 1 << 30), Math.max(1, Math.min(MAX_HASHES, hashes)));
+    }
+
+    public BloomFilter add(long key) {
+        long hash = Hashing.mix(key);
+        int first = (int) hash;
+        int step = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = (first + i * step) & mask;
+            words[bit >>> 6] |= 1L << bit;
+        }
+        return this;
+    }
+
+    /**
+     * @return false if the key was certainly never added
+     */
+    public boolean mightContain(long key) {
+        long hash = Hashing.mix(key);
+        int first = (int) hash;
+        int step = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = (first + i * step) & mask;
+            if ((words[bit >>> 6] & 1L << bit) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int bitCount() {
+        return words.length * Long.SIZE;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+}
@@ -0,0 +1,115 @@
+package ua.kpi.sketch;
+
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+
+/**
+ * Count-Min sketch of the weights of string keys. A {@code depth x width} table of counters is updated
+ * in one cell per row; the estimate of a key is the smallest of its cells, which never underestimates
+ * and, with probability {@code 1 - delta}, overestimates by at most {@code epsilon * totalWeight}.
+ * Sketches of the same dimensions can be merged by adding their tables.
+ */
+public final class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+    private final long[] table;
+    private long totalWeight;
+
+    public CountMinSketch(int width, int depth) {
+        if (width < 1 || depth < 1) {
+            throw new IllegalArgumentException("Width and depth must be positive: " + width + "x" + depth);
+        }
+        this.width = width;
+        this.depth = depth;
+        this.table = new long[Math.multiplyExact(width, depth)];
+    }
+
+    /**
+     * Creates a sketch of {@code ceil(e / epsilon)} columns and {@code ceil(ln(1 / delta))} rows.
+     *
+     * @param epsilon the overestimate bound as a fraction of the total weight
+     * @param delta   the probability of exceeding the bound
+     */
+    public static CountMinSketch withError(double epsilon, double delta) {
+        if (!(epsilon > 0 && epsilon < 1) || !(delta > 0 && delta < 1)) {
+            throw new IllegalArgumentException("Epsilon and delta must be between 0 and 1: " + epsilon + ", " + delta);
+        }
+        return new CountMinSketch((int) Math.ceil(Math.E / epsilon), (int) Math.ceil(Math.log(1 / delta)));
+    }
+
+    /**
+     * @return a collector adding the mapped keys of its elements with the mapped weights
+     */
+    public static <T> Collector<T, CountMinSketch, CountMinSketch> counting(double epsilon, double delta,
+                                                                           Function<? super T, String> key,
+                                                                           ToLongFunction<? super T> weight) {
+        CountMinSketch prototype = withError(epsilon, delta);
+        return Collector.of(() -> new CountMinSketch(prototype.width, prototype.depth),
+                (sketch, element) -> sketch.add(key.apply(element), weight.applyAsLong(element)),
+                CountMinSketch::merge, Collector.Characteristics.IDENTITY_FINISH, Collector.Characteristics.UNORDERED);
+    }
+
+    public CountMinSketch add(String key) {
+        return add(key, 1);
+    }
+
+    public CountMinSketch add(String key, long weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight must not be negative: " + weight);
+        }
+        long hash = Hashing.hash64(key);
+        long step = Hashing.mix(hash ^ 0x9e3779b97f4a7c15L) | 1;
+        for (int row = 0; row < depth; row++) {
+            table[row * width + column(hash + row * step)] += weight;
+        }
+        totalWeight += weight;
+        return this;
+    }
+
+    /**
+     * @return an upper bound of the weight added for the key
+     */
+    public long estimate(String key) {
+        long hash = Hashing.hash64(key);
+        long step = Hashing.mix(hash ^ 0x9e3779b97f4a7c15L) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, table[row * width + column(hash + row * step)]);
+        }
+        return estimate;
+    }
+
+    public CountMinSketch merge(CountMinSketch other) {
+        if (other.width != width || other.depth != depth) {
+            throw new IllegalArgumentException("Cannot merge sketches of " + width + "x" + depth + " and "
+                    + other.width + "x" + other.depth);
+        }
+        for (int i = 0; i < table.length; i++) {
+            table[i] += other.table[i];
+        }
+        totalWeight += other.totalWeight;
+        return this;
+    }
+
+    /**
+     * @return the sum of all weights added
+     */
+    public long totalWeight() {
+        return totalWeight;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    private int column(long hash) {
+        return (int) Long.remainderUnsigned(hash, width);
+    }
+
+}
@@ -0,0 +1,34 @@
+package ua.kpi.sketch;
+
+/**
+ * 64-bit string hashing shared by the sketches.
+ */
+final class Hashing {
+
+    private Hashing() {
+    }
+
+    /**
+     * FNV-1a over the UTF-16 chars, followed by the MurmurHash3 finalizer to spread the bits.
+     */
+    static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * MurmurHash3 64-bit finalizer.
+     */
+    static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+}
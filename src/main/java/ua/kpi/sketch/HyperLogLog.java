@@ -0,0 +1,142 @@
+package ua.kpi.sketch;
+
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+/**
+ * HyperLogLog estimate of the number of distinct strings added to it. Uses {@code 2^precision}
+ * one-byte registers, so memory does not depend on the number of rows: precision 14 keeps 16 KB for
+ * a relative standard error of about 0.8%. Sketches of the same precision can be merged, so
+ * partitions can be counted separately and combined. Small cardinalities are estimated with linear
+ * counting over the empty registers.
+ */
+public final class HyperLogLog {
+
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 18;
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Precision must be between " + MIN_PRECISION + " and "
+                    + MAX_PRECISION + ": " + precision);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    /**
+     * Creates a sketch with the smallest precision whose relative standard error, {@code 1.04 / sqrt(2^p)},
+     * is at most the given one.
+     */
+    public static HyperLogLog withRelativeError(double relativeError) {
+        return new HyperLogLog(precisionFor(relativeError));
+    }
+
+    /**
+     * @return the precision reaching the given relative standard error
+     */
+    public static int precisionFor(double relativeError) {
+        if (!(relativeError > 0 && relativeError < 1)) {
+            throw new IllegalArgumentException("Relative error must be between 0 and 1: " + relativeError);
+        }
+        double registers = Math.pow(1.04 / relativeError, 2);
+        int precision = 64 - Long.numberOfLeadingZeros((long) Math.ceil(registers) - 1);
+        return Math.max(MIN_PRECISION, Math.min(MAX_PRECISION, precision));
+    }
+
+    /**
+     * @return a collector counting the distinct mapped keys of its elements
+     */
+    public static <T> Collector<T, HyperLogLog, HyperLogLog> counting(double relativeError,
+                                                                     Function<? super T, String> key) {
+        int precision = precisionFor(relativeError);
+        return Collector.of(() -> new HyperLogLog(precision), (sketch, element) -> sketch.add(key.apply(element)),
+                HyperLogLog::merge, Collector.Characteristics.IDENTITY_FINISH, Collector.Characteristics.UNORDERED);
+    }
+
+    public HyperLogLog add(String value) {
+        return addHash(Hashing.hash64(value));
+    }
+
+    /**
+     * Adds a value by its 64-bit hash. The hash must be well mixed in all bits.
+     */
+    public HyperLogLog addHash(long hash) {
+        int register = (int) (hash >>> (64 - precision));
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        if (rank > registers[register]) {
+            registers[register] = (byte) rank;
+        }
+        return this;
+    }
+
+    /**
+     * Adds the values of another sketch of the same precision to this one.
+     */
+    public HyperLogLog merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge sketches of precision " + precision + " and " + other.precision);
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @return the estimated number of distinct values added
+     */
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += Double.longBitsToDouble((1023L - register) << 52);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public int precision() {
+        return precision;
+    }
+
+    /**
+     * @return the relative standard error of the estimates
+     */
+    public double relativeError() {
+        return 1.04 / Math.sqrt(registers.length);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof HyperLogLog other && Arrays.equals(registers, other.registers);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(registers);
+    }
+
+    private static double alpha(int m) {
+        return switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+    }
+
+}
@@ -0,0 +1,231 @@
+package ua.kpi.sketch;
+
+import java.util.Arrays;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collector;
+
+/**
+ * KLL quantile sketch over doubles. Values are kept in levels of compactors where an item at level
+ * {@code h} stands for {@code 2^h} added values; a full level is sorted and every other item, starting
+ * at a random offset, is promoted to the next level. Level capacities shrink geometrically by 2/3
+ * below the top one, so the sketch retains about {@code 3k} values however many are added, and the
+ * rank error of a quantile is roughly {@code 1.7 / k}. Sketches with the same {@code k} can be merged.
+ */
+public final class KllSketch {
+
+    public static final int DEFAULT_K = 200;
+    public static final int MIN_K = 8;
+
+    private static final int MIN_LEVEL_CAPACITY = 2;
+
+    private final int k;
+    private double[][] levels = new double[1][];
+    private int[] levelSizes = new int[1];
+    private long count;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+    private long randomState = 0x9e3779b97f4a7c15L;
+
+    public KllSketch() {
+        this(DEFAULT_K);
+    }
+
+    public KllSketch(int k) {
+        if (k < MIN_K) {
+            throw new IllegalArgumentException("k must be at least " + MIN_K + ": " + k);
+        }
+        this.k = k;
+        this.levels[0] = new double[k];
+    }
+
+    /**
+     * @return a collector sketching the mapped values of its elements
+     */
+    public static <T> Collector<T, KllSketch, KllSketch> sketching(int k, ToDoubleFunction<? super T> value) {
+        return Collector.of(() -> new KllSketch(k), (sketch, element) -> sketch.add(value.applyAsDouble(element)),
+                KllSketch::merge, Collector.Characteristics.IDENTITY_FINISH, Collector.Characteristics.UNORDERED);
+    }
+
+    public KllSketch add(double value) {
+        if (Double.isNaN(value)) {
+            throw new IllegalArgumentException("Cannot add NaN to a quantile sketch");
+        }
+        if (count == 0 || value < min) {
+            min = value;
+        }
+        if (count == 0 || value > max) {
+            max = value;
+        }
+        count++;
+        append(0, value);
+        compressIfNeeded();
+        return this;
+    }
+
+    /**
+     * Adds the values of another sketch with the same {@code k} to this one.
+     */
+    public KllSketch merge(KllSketch other) {
+        if (other.k != k) {
+            throw new IllegalArgumentException("Cannot merge sketches with k " + k + " and " + other.k);
+        }
+        if (other.count == 0) {
+            return this;
+        }
+        for (int level = 0; level < other.levels.length; level++) {
+            for (int i = 0; i < other.levelSizes[level]; i++) {
+                append(level, other.levels[level][i]);
+            }
+        }
+        min = count == 0 ? other.min : Math.min(min, other.min);
+        max = count == 0 ? other.max : Math.max(max, other.max);
+        count += other.count;
+        compressIfNeeded();
+        return this;
+    }
+
+    /**
+     * @param fraction the rank of the quantile as a fraction of the count, between 0 and 1
+     * @return the approximate quantile, the exact minimum and maximum for 0 and 1, or NaN if the sketch is empty
+     */
+    public double quantile(double fraction) {
+        if (!(fraction >= 0 && fraction <= 1)) {
+            throw new IllegalArgumentException("Quantile fraction must be between 0 and 1: " + fraction);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (fraction == 0) {
+            return min;
+        }
+        if (fraction == 1) {
+            return max;
+        }
+        int retained = retained();
+        double[] values = new double[retained];
+        int[] levelOf = new int[retained];
+        Integer[] order = new Integer[retained];
+        int n = 0;
+        for (int level = 0; level < levels.length; level++) {
+            for (int i = 0; i < levelSizes[level]; i++) {
+                values[n] = levels[level][i];
+                levelOf[n] = level;
+                order[n] = n;
+                n++;
+            }
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+        double target = Math.ceil(fraction * count);
+        long weight = 0;
+        for (Integer index : order) {
+            weight += 1L << levelOf[index];
+            if (weight >= target) {
+                return values[index];
+            }
+        }
+        return max;
+    }
+
+    /**
+     * @return the number of values added
+     */
+    public long count() {
+        return count;
+    }
+
+    public double min() {
+        return min;
+    }
+
+    public double max() {
+        return max;
+    }
+
+    public int k() {
+        return k;
+    }
+
+    /**
+     * @return the number of values the sketch currently keeps
+     */
+    public int retained() {
+        int retained = 0;
+        for (int size : levelSizes) {
+            retained += size;
+        }
+        return retained;
+    }
+
+    private void append(int level, double value) {
+        while (level >= levels.length) {
+            addLevel();
+        }
+        double[] items = levels[level];
+        if (levelSizes[level] == items.length) {
+            items = levels[level] = Arrays.copyOf(items, items.length * 2);
+        }
+        items[levelSizes[level]++] = value;
+    }
+
+    private void addLevel() {
+        levels = Arrays.copyOf(levels, levels.length + 1);
+        levelSizes = Arrays.copyOf(levelSizes, levelSizes.length + 1);
+        levels[levels.length - 1] = new double[MIN_LEVEL_CAPACITY * 2];
+    }
+
+    private int capacity(int level) {
+        int depth = levels.length - 1 - level;
+        return Math.max(MIN_LEVEL_CAPACITY, (int) Math.ceil(k * Math.pow(2.0 / 3.0, depth)));
+    }
+
+    private int totalCapacity() {
+        int total = 0;
+        for (int level = 0; level < levels.length; level++) {
+            total += capacity(level);
+        }
+        return total;
+    }
+
+    private void compressIfNeeded() {
+        while (retained() > totalCapacity()) {
+            for (int level = 0; level < levels.length; level++) {
+                if (levelSizes[level] >= capacity(level)) {
+                    compact(level);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Promotes every other sorted item of a level to the next one. With an odd number of items the
+     * largest one stays behind, so the promoted items always come in pairs.
+     */
+    private void compact(int level) {
+        if (level + 1 == levels.length) {
+            addLevel();
+        }
+        double[] items = levels[level];
+        int size = levelSizes[level];
+        Arrays.sort(items, 0, size);
+        int pairs = size / 2;
+        int offset = nextBit();
+        for (int i = 0; i < pairs; i++) {
+            append(level + 1, items[2 * i + offset]);
+        }
+        if (size % 2 == 1) {
+            items[0] = items[size - 1];
+            levelSizes[level] = 1;
+        } else {
+            levelSizes[level] = 0;
+        }
+    }
+
+    private int nextBit() {
+        randomState ^= randomState << 13;
+        randomState ^= randomState >>> 7;
+        randomState ^= randomState << 17;
+        return (int) (randomState >>> 63);
+    }
+
+}
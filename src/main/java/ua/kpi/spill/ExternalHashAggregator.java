@@ -0,0 +1,200 @@
+package ua.kpi.spill;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Hash aggregation that keeps at most {@link SpillOptions#memoryBudgetBytes()} of estimated group state
+ * on the heap. Whenever the table grows past the budget, its partial groups are appended to one of
+ * {@link SpillOptions#partitions()} temp files chosen by key hash and the table is cleared. At the end
+ * every file is aggregated on its own, and a file that still does not fit is partitioned again with a
+ * different hash, up to {@link #MAX_DEPTH} levels. A partition is aggregated in memory regardless of the
+ * budget once that depth is reached, while it holds a single group, or when the spill that produced it
+ * sent every group to that one file, since partitioning it again would not split anything.
+ * <p>
+ * All partials of a key land in the same file in the order they were spilled, so order-sensitive
+ * accumulators see their elements in input order.
+ */
+final class ExternalHashAggregator<T, K, A, R> {
+
+    static final int MAX_DEPTH = 4;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final SpillableAggregation<T, K, A, R> aggregation;
+    private final SpillOptions options;
+    private int spills;
+    private long spilledBytes;
+    private int depth;
+
+    ExternalHashAggregator(SpillableAggregation<T, K, A, R> aggregation, SpillOptions options) {
+        this.aggregation = aggregation;
+        this.options = options;
+    }
+
+    /**
+     * Aggregates the elements and passes each group with its result to the sink, in no particular order.
+     */
+    SpillStats aggregate(Iterable<? extends T> elements, BiConsumer<? super K, ? super R> sink) throws IOException {
+        Map<K, A> groups = new HashMap<>();
+        long bytes = 0;
+        Partitions partitions = null;
+        try {
+            for (T element : elements) {
+                K key = aggregation.key(element);
+                A accumulator = groups.get(key);
+                if (accumulator == null) {
+                    accumulator = aggregation.newAccumulator();
+                    groups.put(key, accumulator);
+                    bytes += aggregation.estimateBytes(key, accumulator);
+                }
+                bytes += aggregation.accumulate(accumulator, element);
+                if (bytes > options.memoryBudgetBytes()) {
+                    if (partitions == null) {
+                        partitions = new Partitions(0);
+                    }
+                    partitions.spill(groups);
+                    bytes = 0;
+                }
+            }
+            finish(groups, partitions, sink);
+        } finally {
+            if (partitions != null) {
+                partitions.delete();
+            }
+        }
+        return new SpillStats(spills, spilledBytes, depth);
+    }
+
+    private void aggregatePartition(Path file, int level, boolean repartition, BiConsumer<? super K, ? super R> sink)
+            throws IOException {
+        Map<K, A> groups = new HashMap<>();
+        long bytes = 0;
+        Partitions partitions = null;
+        try {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE))) {
+                while (in.readBoolean()) {
+                    K key = aggregation.readKey(in);
+                    A partial = aggregation.readAccumulator(in);
+                    A accumulator = groups.get(key);
+                    if (accumulator == null) {
+                        groups.put(key, partial);
+                        bytes += aggregation.estimateBytes(key, partial);
+                    } else {
+                        bytes += aggregation.combine(accumulator, partial);
+                    }
+                    if (bytes > options.memoryBudgetBytes() && repartition && level < MAX_DEPTH && groups.size() > 1) {
+                        if (partitions == null) {
+                            partitions = new Partitions(level);
+                        }
+                        partitions.spill(groups);
+                        bytes = 0;
+                    }
+                }
+            }
+            Files.delete(file);
+            finish(groups, partitions, sink);
+        } finally {
+            if (partitions != null) {
+                partitions.delete();
+            }
+        }
+    }
+
+    private void finish(Map<K, A> groups, Partitions partitions, BiConsumer<? super K, ? super R> sink) throws IOException {
+        if (partitions == null) {
+            groups.forEach((key, accumulator) -> sink.accept(key, aggregation.finish(accumulator)));
+            return;
+        }
+        partitions.spill(groups);
+        partitions.close();
+        int files = 0;
+        for (Path file : partitions.files) {
+            if (file != null) {
+                files++;
+            }
+        }
+        for (Path file : partitions.files) {
+            if (file != null) {
+                aggregatePartition(file, partitions.level + 1, files > 1, sink);
+            }
+        }
+    }
+
+    static int partition(Object key, int level, int partitions) {
+        long hash = key.hashCode() ^ (level + 1) * 0x9E3779B97F4A7C15L;
+        hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+        hash = (hash ^ (hash >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return (int) Math.floorMod(hash ^ (hash >>> 33), (long) partitions);
+    }
+
+    /**
+     * The temp files of one partitioning level, created on first use.
+     */
+    private final class Partitions {
+
+        private final int level;
+        private final Path[] files;
+        private final DataOutputStream[] outputs;
+
+        Partitions(int level) {
+            this.level = level;
+            this.files = new Path[options.partitions()];
+            this.outputs = new DataOutputStream[options.partitions()];
+            depth = Math.max(depth, level + 1);
+        }
+
+        void spill(Map<K, A> groups) throws IOException {
+            spills++;
+            for (Map.Entry<K, A> group : groups.entrySet()) {
+                DataOutputStream out = output(partition(group.getKey(), level, files.length));
+                out.writeBoolean(true);
+                aggregation.writeKey(out, group.getKey());
+                aggregation.writeAccumulator(out, group.getValue());
+            }
+            groups.clear();
+        }
+
+        private DataOutputStream output(int partition) throws IOException {
+            if (outputs[partition] == null) {
+                files[partition] = Files.createTempFile(options.directory(), "ktstreams-spill-", ".bin");
+                outputs[partition] = new DataOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(files[partition]), BUFFER_SIZE));
+            }
+            return outputs[partition];
+        }
+
+        void close() throws IOException {
+            for (int partition = 0; partition < outputs.length; partition++) {
+                if (outputs[partition] != null) {
+                    outputs[partition].writeBoolean(false);
+                    outputs[partition].close();
+                    outputs[partition] = null;
+                    spilledBytes += Files.size(files[partition]);
+                }
+            }
+        }
+
+        void delete() throws IOException {
+            for (int partition = 0; partition < files.length; partition++) {
+                if (outputs[partition] != null) {
+                    outputs[partition].close();
+                    outputs[partition] = null;
+                }
+                if (files[partition] != null) {
+                    Files.deleteIfExists(files[partition]);
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,49 @@
+package ua.kpi.spill;
+
+import java.nio.file.Path;
+
+/**
+ * Configures a spilling aggregation.
+ *
+ * @param directory         where the temp files of spilled partitions are created
+ * @param memoryBudgetBytes estimated heap size of the group table above which it is spilled to disk
+ * @param partitions        number of temp files the groups are hash-partitioned into per spill level
+ */
+public record SpillOptions(Path directory, long memoryBudgetBytes, int partitions) {
+
+    public static final long DEFAULT_MEMORY_BUDGET_BYTES = 64L << 20;
+    public static final int DEFAULT_PARTITIONS = 16;
+
+    public SpillOptions {
+        if (directory == null) {
+            throw new IllegalArgumentException("Spill directory must not be null");
+        }
+        if (memoryBudgetBytes < 1) {
+            throw new IllegalArgumentException("Memory budget must be positive: " + memoryBudgetBytes);
+        }
+        if (partitions < 2) {
+            throw new IllegalArgumentException("At least two partitions are required: " + partitions);
+        }
+    }
+
+    /**
+     * @return options spilling to {@code java.io.tmpdir} with the default budget and partition count
+     */
+    public static SpillOptions defaults() {
+        return new SpillOptions(Path.of(System.getProperty("java.io.tmpdir")), DEFAULT_MEMORY_BUDGET_BYTES,
+                DEFAULT_PARTITIONS);
+    }
+
+    public SpillOptions withDirectory(Path directory) {
+        return new SpillOptions(directory, memoryBudgetBytes, partitions);
+    }
+
+    public SpillOptions withMemoryBudgetBytes(long memoryBudgetBytes) {
+        return new SpillOptions(directory, memoryBudgetBytes, partitions);
+    }
+
+    public SpillOptions withPartitions(int partitions) {
+        return new SpillOptions(directory, memoryBudgetBytes, partitions);
+    }
+
+}
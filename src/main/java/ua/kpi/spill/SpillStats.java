@@ -0,0 +1,16 @@
+package ua.kpi.spill;
+
+/**
+ * What a spilling aggregation wrote to disk.
+ *
+ * @param spills       number of times a group table exceeded the budget and was written out
+ * @param spilledBytes total size of the temp files written
+ * @param depth        number of partitioning levels used, 0 if everything fit in memory
+ */
+public record SpillStats(int spills, long spilledBytes, int depth) {
+
+    public boolean spilled() {
+        return spills > 0;
+    }
+
+}
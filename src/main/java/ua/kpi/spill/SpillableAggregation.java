@@ -0,0 +1,50 @@
+package ua.kpi.spill;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Grouping that {@link ExternalHashAggregator} can spill: a mutable accumulator per key, a way to
+ * append one partial accumulator of a key to an earlier one, a binary codec for keys and accumulators
+ * and an estimate of their heap size.
+ *
+ * @param <T> input element
+ * @param <K> group key
+ * @param <A> accumulator of a group
+ * @param <R> result of a group
+ */
+interface SpillableAggregation<T, K, A, R> {
+
+    K key(T element);
+
+    A newAccumulator();
+
+    /**
+     * @return estimated number of bytes the accumulator grew by
+     */
+    long accumulate(A accumulator, T element);
+
+    /**
+     * Appends a partial accumulator built from elements that came after those of {@code accumulator}.
+     *
+     * @return estimated number of bytes the accumulator grew by
+     */
+    long combine(A accumulator, A later);
+
+    R finish(A accumulator);
+
+    /**
+     * @return estimated heap size of a group table entry with the key and accumulator
+     */
+    long estimateBytes(K key, A accumulator);
+
+    void writeKey(DataOutput out, K key) throws IOException;
+
+    K readKey(DataInput in) throws IOException;
+
+    void writeAccumulator(DataOutput out, A accumulator) throws IOException;
+
+    A readAccumulator(DataInput in) throws IOException;
+
+}
@@ -0,0 +1,253 @@
+package ua.kpi.spill;
+
+import ua.kpi.entity.Payment;
+import ua.kpi.streams.Money;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Memory-budgeted versions of the {@link ua.kpi.streams.KTStreams} groupings whose result grows with the
+ * number of distinct customers or references. The input is read once; whenever the estimated size of the
+ * group table exceeds {@link SpillOptions#memoryBudgetBytes()}, it is hash-partitioned to temp files
+ * that are aggregated one at a time afterwards (see {@link ExternalHashAggregator}). Groups are passed to
+ * the sink as they are completed, so only the groups of one partition are on the heap at once.
+ * <p>
+ * The groups and their values are identical to those of the in-memory methods: names and references
+ * keep input order and totals have the same scale.
+ */
+public final class SpillingGroupings {
+
+    private static final long ENTRY_BYTES = 64;
+    private static final long REFERENCE_BYTES = 8;
+    private static final long MONEY_BYTES = 32;
+
+    private static final Aggregation<Payment.PaymentStatus> CUSTOMER_NAMES_BY_STATUS = new Aggregation<>() {
+
+        @Override
+        public Payment.PaymentStatus key(Payment payment) {
+            return payment.status();
+        }
+
+        @Override
+        String value(Payment payment) {
+            return payment.customerName();
+        }
+
+        @Override
+        public void writeKey(DataOutput out, Payment.PaymentStatus status) throws IOException {
+            out.writeByte(status.ordinal());
+        }
+
+        @Override
+        public Payment.PaymentStatus readKey(DataInput in) throws IOException {
+            return Payment.PaymentStatus.values()[in.readUnsignedByte()];
+        }
+
+    };
+
+    private static final Aggregation<LocalDate> REFERENCES_BY_DATE = new Aggregation<>() {
+
+        @Override
+        public LocalDate key(Payment payment) {
+            return payment.date();
+        }
+
+        @Override
+        String value(Payment payment) {
+            return payment.reference();
+        }
+
+        @Override
+        public void writeKey(DataOutput out, LocalDate date) throws IOException {
+            out.writeLong(date.toEpochDay());
+        }
+
+        @Override
+        public LocalDate readKey(DataInput in) throws IOException {
+            return LocalDate.ofEpochDay(in.readLong());
+        }
+
+    };
+
+    private static final SpillableAggregation<Payment, String, Money, BigDecimal> TOTAL_AMOUNT_BY_CUSTOMER = new SpillableAggregation<>() {
+
+        @Override
+        public String key(Payment payment) {
+            return payment.customerName();
+        }
+
+        @Override
+        public Money newAccumulator() {
+            return new Money();
+        }
+
+        @Override
+        public long accumulate(Money total, Payment payment) {
+            total.add(payment.amount());
+            return 0;
+        }
+
+        @Override
+        public long combine(Money total, Money later) {
+            total.add(later);
+            return 0;
+        }
+
+        @Override
+        public BigDecimal finish(Money total) {
+            return total.toBigDecimal();
+        }
+
+        @Override
+        public long estimateBytes(String customerName, Money total) {
+            return ENTRY_BYTES + stringBytes(customerName) + MONEY_BYTES;
+        }
+
+        @Override
+        public void writeKey(DataOutput out, String customerName) throws IOException {
+            writeString(out, customerName);
+        }
+
+        @Override
+        public String readKey(DataInput in) throws IOException {
+            return readString(in);
+        }
+
+        @Override
+        public void writeAccumulator(DataOutput out, Money total) throws IOException {
+            BigDecimal amount = total.toBigDecimal();
+            byte[] unscaled = amount.unscaledValue().toByteArray();
+            out.writeInt(amount.scale());
+            out.writeInt(unscaled.length);
+            out.write(unscaled);
+        }
+
+        @Override
+        public Money readAccumulator(DataInput in) throws IOException {
+            int scale = in.readInt();
+            byte[] unscaled = new byte[in.readInt()];
+            in.readFully(unscaled);
+            return new Money().add(new BigDecimal(new BigInteger(unscaled), scale));
+        }
+
+    };
+
+    private SpillingGroupings() {
+    }
+
+    /**
+     * Same groups as {@link ua.kpi.streams.KTStreams#groupByCustomer(List)}. There are only as many
+     * groups as statuses, so spilling bounds the partial name lists rather than the number of groups;
+     * each joined string is still built on the heap.
+     */
+    public static SpillStats groupByCustomer(Iterable<Payment> payments, SpillOptions options,
+                                             BiConsumer<? super Payment.PaymentStatus, ? super String> sink) throws IOException {
+        return new ExternalHashAggregator<>(CUSTOMER_NAMES_BY_STATUS, options)
+                .aggregate(payments, (status, names) -> sink.accept(status, String.join(", ", names)));
+    }
+
+    /**
+     * Same groups as {@link ua.kpi.streams.KTStreams#groupByCustomerAndMapToTotalAmount(List)}.
+     */
+    public static SpillStats groupByCustomerAndMapToTotalAmount(Iterable<Payment> payments, SpillOptions options,
+                                                                BiConsumer<? super String, ? super BigDecimal> sink) throws IOException {
+        return new ExternalHashAggregator<>(TOTAL_AMOUNT_BY_CUSTOMER, options).aggregate(payments, sink);
+    }
+
+    /**
+     * Same groups as {@link ua.kpi.streams.KTStreams#groupByDateAndMapToReferences(List)}.
+     */
+    public static SpillStats groupByDateAndMapToReferences(Iterable<Payment> payments, SpillOptions options,
+                                                           BiConsumer<? super LocalDate, ? super List<String>> sink) throws IOException {
+        return new ExternalHashAggregator<>(REFERENCES_BY_DATE, options).aggregate(payments, sink);
+    }
+
+    static long stringBytes(String value) {
+        return 40 + value.length();
+    }
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInput in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Collects one string of each payment into a list per key.
+     */
+    private abstract static class Aggregation<K> implements SpillableAggregation<Payment, K, List<String>, List<String>> {
+
+        abstract String value(Payment payment);
+
+        @Override
+        public List<String> newAccumulator() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public long accumulate(List<String> values, Payment payment) {
+            String value = value(payment);
+            values.add(value);
+            return REFERENCE_BYTES + stringBytes(value);
+        }
+
+        @Override
+        public long combine(List<String> values, List<String> later) {
+            values.addAll(later);
+            return valuesBytes(later);
+        }
+
+        @Override
+        public List<String> finish(List<String> values) {
+            return values;
+        }
+
+        @Override
+        public long estimateBytes(K key, List<String> values) {
+            return ENTRY_BYTES + valuesBytes(values);
+        }
+
+        @Override
+        public void writeAccumulator(DataOutput out, List<String> values) throws IOException {
+            out.writeInt(values.size());
+            for (String value : values) {
+                writeString(out, value);
+            }
+        }
+
+        @Override
+        public List<String> readAccumulator(DataInput in) throws IOException {
+            int size = in.readInt();
+            List<String> values = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                values.add(readString(in));
+            }
+            return values;
+        }
+
+        private static long valuesBytes(List<String> values) {
+            long bytes = 0;
+            for (String value : values) {
+                bytes += REFERENCE_BYTES + stringBytes(value);
+            }
+            return bytes;
+        }
+
+    }
+
+}
@@ -0,0 +1,89 @@
+package ua.kpi.sql;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash table assigning dense ids {@code 0..size-1} to distinct {@code int} keys in
+ * order of first appearance. It is the build side of the hash joins and the group table of the hash
+ * aggregations: per-key state lives in primitive arrays indexed by id, so probing and accumulating do
+ * not box keys.
+ */
+final class IntKeyIndex {
+
+    private int[] slots;
+    private int[] keys;
+    private int size;
+
+    IntKeyIndex(int expectedKeys) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedKeys) * 2 - 1) << 1;
+        this.slots = new int[capacity];
+        this.keys = new int[Math.max(4, expectedKeys)];
+    }
+
+    /**
+     * @return the id of the key, adding it if it is new
+     */
+    int add(int key) {
+        int mask = slots.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if (id < 0) {
+                return insert(slot, key);
+            }
+            if (keys[id] == key) {
+                return id;
+            }
+        }
+    }
+
+    /**
+     * @return the id of the key, or -1 if it was never added
+     */
+    int find(int key) {
+        int mask = slots.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if (id < 0 || keys[id] == key) {
+                return id;
+            }
+        }
+    }
+
+    int key(int id) {
+        return keys[id];
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int insert(int slot, int key) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+        }
+        keys[size] = key;
+        slots[slot] = ++size;
+        if (size * 2 > slots.length) {
+            rehash();
+        }
+        return size - 1;
+    }
+
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        int mask = slots.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hash(keys[id]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id + 1;
+        }
+    }
+
+    private static int hash(int key) {
+        int hash = key * 0x9e3779b9;
+        return hash ^ (hash >>> 16);
+    }
+
+}
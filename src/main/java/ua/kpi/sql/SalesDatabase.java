@@ -0,0 +1,232 @@
+package ua.kpi.sql;
+
+import ua.kpi.entity.Customer;
+import ua.kpi.entity.Order;
+import ua.kpi.entity.OrderItem;
+import ua.kpi.entity.Product;
+import ua.kpi.entity.Vendor;
+import ua.kpi.table.Dictionary;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Column-oriented copy of the Vendors, Products, Customers, Orders and OrderItems tables of the
+ * {@code sql_tasks.txt} schema, queried through {@link SalesQueries}.
+ * <p>
+ * String keys are {@link Dictionary} codes shared between a table and the tables referencing it: the
+ * rows of a table get the codes {@code 0..count-1} of its primary keys, so a foreign key code below that
+ * count is the row it references and a code at or above it is a dangling reference. Resolving foreign
+ * keys while loading is the hash join of the referencing table with the referenced one, done once.
+ * Orders are additionally hashed by {@code order_num} for the join with OrderItems. Prices are stored
+ * as {@code long} cents.
+ */
+public final class SalesDatabase {
+
+    /**
+     * Number of fraction digits kept in price columns.
+     */
+    public static final int PRICE_SCALE = 2;
+
+    final int vendorCount;
+    final Dictionary vendorIds;
+    final String[] vendorNames;
+    final String[] vendorAddresses;
+    final String[] vendorCities;
+    final String[] vendorStates;
+    final String[] vendorZips;
+    final String[] vendorCountries;
+
+    final int productCount;
+    final Dictionary productIds;
+    final int[] productVendors;
+    final String[] productNames;
+    final long[] productPrices;
+    final String[] productDescriptions;
+
+    final int customerCount;
+    final Dictionary customerIds;
+    final String[] customerNames;
+    final String[] customerAddresses;
+    final String[] customerCities;
+    final String[] customerStates;
+    final String[] customerZips;
+    final String[] customerCountries;
+    final String[] customerContacts;
+    final String[] customerEmails;
+
+    final int orderCount;
+    final int[] orderNums;
+    final int[] orderDates;
+    final int[] orderCustomers;
+    final IntKeyIndex orderRows;
+
+    final int itemCount;
+    final int[] itemOrderNums;
+    final int[] itemNumbers;
+    final int[] itemProducts;
+    final int[] itemQuantities;
+    final long[] itemPrices;
+
+    private SalesDatabase(List<Vendor> vendors, List<Product> products, List<Customer> customers,
+                          List<Order> orders, List<OrderItem> orderItems) {
+        Dictionary.Builder vendorCodes = new Dictionary.Builder();
+        vendorCount = vendors.size();
+        vendorNames = new String[vendorCount];
+        vendorAddresses = new String[vendorCount];
+        vendorCities = new String[vendorCount];
+        vendorStates = new String[vendorCount];
+        vendorZips = new String[vendorCount];
+        vendorCountries = new String[vendorCount];
+        for (int row = 0; row < vendorCount; row++) {
+            Vendor vendor = vendors.get(row);
+            requireNewKey(vendorCodes.encode(vendor.vendId()), row, "vend_id", vendor.vendId());
+            vendorNames[row] = vendor.vendName();
+            vendorAddresses[row] = vendor.vendAddress();
+            vendorCities[row] = vendor.vendCity();
+            vendorStates[row] = vendor.vendState();
+            vendorZips[row] = vendor.vendZip();
+            vendorCountries[row] = vendor.vendCountry();
+        }
+
+        Dictionary.Builder productCodes = new Dictionary.Builder();
+        productCount = products.size();
+        productVendors = new int[productCount];
+        productNames = new String[productCount];
+        productPrices = new long[productCount];
+        productDescriptions = new String[productCount];
+        for (int row = 0; row < productCount; row++) {
+            Product product = products.get(row);
+            requireNewKey(productCodes.encode(product.prodId()), row, "prod_id", product.prodId());
+            productVendors[row] = vendorCodes.encode(product.vendId());
+            productNames[row] = product.prodName();
+            productPrices[row] = toCents(product.prodPrice(), product.prodId());
+            productDescriptions[row] = product.prodDesc();
+        }
+
+        Dictionary.Builder customerCodes = new Dictionary.Builder();
+        customerCount = customers.size();
+        customerNames = new String[customerCount];
+        customerAddresses = new String[customerCount];
+        customerCities = new String[customerCount];
+        customerStates = new String[customerCount];
+        customerZips = new String[customerCount];
+        customerCountries = new String[customerCount];
+        customerContacts = new String[customerCount];
+        customerEmails = new String[customerCount];
+        for (int row = 0; row < customerCount; row++) {
+            Customer customer = customers.get(row);
+            requireNewKey(customerCodes.encode(customer.custId()), row, "cust_id", customer.custId());
+            customerNames[row] = customer.custName();
+            customerAddresses[row] = customer.custAddress();
+            customerCities[row] = customer.custCity();
+            customerStates[row] = customer.custState();
+            customerZips[row] = customer.custZip();
+            customerCountries[row] = customer.custCountry();
+            customerContacts[row] = customer.custContact();
+            customerEmails[row] = customer.custEmail();
+        }
+
+        orderCount = orders.size();
+        orderNums = new int[orderCount];
+        orderDates = new int[orderCount];
+        orderCustomers = new int[orderCount];
+        orderRows = new IntKeyIndex(orderCount);
+        for (int row = 0; row < orderCount; row++) {
+            Order order = orders.get(row);
+            requireNewKey(orderRows.add(order.orderNum()), row, "order_num", order.orderNum());
+            orderNums[row] = order.orderNum();
+            orderDates[row] = Math.toIntExact(order.orderDate().toEpochDay());
+            orderCustomers[row] = customerCodes.encode(order.custId());
+        }
+
+        itemCount = orderItems.size();
+        itemOrderNums = new int[itemCount];
+        itemNumbers = new int[itemCount];
+        itemProducts = new int[itemCount];
+        itemQuantities = new int[itemCount];
+        itemPrices = new long[itemCount];
+        for (int row = 0; row < itemCount; row++) {
+            OrderItem item = orderItems.get(row);
+            itemOrderNums[row] = item.orderNum();
+            itemNumbers[row] = item.orderItem();
+            itemProducts[row] = productCodes.encode(item.prodId());
+            itemQuantities[row] = item.quantity();
+            itemPrices[row] = toCents(item.itemPrice(), item.orderNum() + "/" + item.orderItem());
+        }
+
+        vendorIds = vendorCodes.build();
+        productIds = productCodes.build();
+        customerIds = customerCodes.build();
+    }
+
+    /**
+     * Copies the given tables into a new database.
+     *
+     * @throws IllegalArgumentException if a primary key repeats or a price has more than
+     *                                  {@link #PRICE_SCALE} fraction digits
+     */
+    public static SalesDatabase of(List<Vendor> vendors, List<Product> products, List<Customer> customers,
+                                   List<Order> orders, List<OrderItem> orderItems) {
+        return new SalesDatabase(vendors, products, customers, orders, orderItems);
+    }
+
+    public int vendorCount() {
+        return vendorCount;
+    }
+
+    public int productCount() {
+        return productCount;
+    }
+
+    public int customerCount() {
+        return customerCount;
+    }
+
+    public int orderCount() {
+        return orderCount;
+    }
+
+    public int orderItemCount() {
+        return itemCount;
+    }
+
+    /**
+     * @return the order row with the given number, or -1 if there is none
+     */
+    int orderRow(int orderNum) {
+        return orderRows.find(orderNum);
+    }
+
+    Customer customer(int row) {
+        return new Customer(customerIds.decode(row), customerNames[row], customerAddresses[row], customerCities[row],
+                customerStates[row], customerZips[row], customerCountries[row], customerContacts[row],
+                customerEmails[row]);
+    }
+
+    LocalDate orderDate(int row) {
+        return LocalDate.ofEpochDay(orderDates[row]);
+    }
+
+    static BigDecimal toDecimal(long cents) {
+        return BigDecimal.valueOf(cents, PRICE_SCALE);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the price has more than {@link #PRICE_SCALE} fraction digits
+     */
+    static long toCents(BigDecimal price, Object key) {
+        if (price.scale() > PRICE_SCALE) {
+            throw new IllegalArgumentException("Unsupported price scale for " + key + ": " + price);
+        }
+        return price.movePointRight(PRICE_SCALE).longValueExact();
+    }
+
+    private static void requireNewKey(int code, int row, String column, Object key) {
+        if (code != row) {
+            throw new IllegalArgumentException("Duplicate " + column + ": " + key);
+        }
+    }
+
+}
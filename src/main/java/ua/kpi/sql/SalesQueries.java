@@ -0,0 +1,624 @@
+package ua.kpi.sql;
+
+import ua.kpi.entity.Customer;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Typed answers to the 28 tasks of {@code sql_queries/sql_tasks.txt} over a {@link SalesDatabase}.
+ * Joins on {@code order_num} build a hash table over Orders and probe it with OrderItems, grouping by
+ * {@code order_num} aggregates into arrays indexed by the ids of an {@link IntKeyIndex}, and grouping
+ * by a string key aggregates into arrays indexed by its dictionary code. Where a task sorts, ties keep
+ * the order of the rows; where it does not, rows come in table order.
+ * <p>
+ * The nested {@code IN (SELECT ...)} chains of tasks 24 to 27 are decorrelated into semi-joins: each
+ * subquery is evaluated once, innermost first, into a {@link SemiJoin} on {@code order_num} or a flag
+ * per customer code, and the enclosing level probes it in a single scan. The Bloom filter of the
+ * {@code order_num} semi-join carries the innermost {@code prod_id} filter into the Orders scan.
+ */
+public class SalesQueries {
+
+    public record CustomerOrder(String custId, int orderNum) {
+    }
+
+    public record QuantityPrice(int quantity, BigDecimal itemPrice) {
+    }
+
+    public record ProductName(String prodId, String prodName) {
+    }
+
+    public record ProductPrice(String prodName, BigDecimal prodPrice) {
+    }
+
+    public record OrderItemQuantity(int orderNum, String prodId, int quantity) {
+    }
+
+    public record VendorAddress(String vendId, String vname, String vaddress, String vcity) {
+    }
+
+    public record OrderLines(int orderNum, long orderLines) {
+    }
+
+    public record VendorCheapestItem(String vendId, BigDecimal cheapestItem) {
+    }
+
+    public record CustomerOrderNumber(String custName, int orderNum) {
+    }
+
+    public record CustomerOrderTotal(String custName, int orderNum, BigDecimal orderTotal) {
+    }
+
+    public record CustomerContact(String custId, String custName, String custContact) {
+    }
+
+    public record CustomerOrderDate(String custId, LocalDate orderDate) {
+    }
+
+    public record ProductQuantitySold(String prodName, long quantSold) {
+    }
+
+    /**
+     * Task 1: {@code SELECT cust_id FROM Customers}.
+     */
+    public static List<String> customerIds(SalesDatabase db) {
+        List<String> result = new ArrayList<>(db.customerCount);
+        for (int row = 0; row < db.customerCount; row++) {
+            result.add(db.customerIds.decode(row));
+        }
+        return result;
+    }
+
+    /**
+     * Task 2: {@code SELECT DISTINCT prod_id FROM OrderItems}, in order of first appearance.
+     */
+    public static List<String> distinctOrderedProducts(SalesDatabase db) {
+        boolean[] seen = new boolean[db.productIds.size()];
+        List<String> result = new ArrayList<>();
+        for (int row = 0; row < db.itemCount; row++) {
+            int product = db.itemProducts[row];
+            if (!seen[product]) {
+                seen[product] = true;
+                result.add(db.productIds.decode(product));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Task 3: {@code SELECT * FROM Customers}; the alternate {@code SELECT cust_id} is {@link #customerIds}.
+     */
+    public static List<Customer> customers(SalesDatabase db) {
+        List<Customer> result = new ArrayList<>(db.customerCount);
+        for (int row = 0; row < db.customerCount; row++) {
+            result.add(db.customer(row));
+        }
+        return result;
+    }
+
+    /**
+     * Task 4: {@code SELECT cust_name FROM Customers ORDER BY cust_name DESC}.
+     */
+    public static List<String> customerNamesDescending(SalesDatabase db) {
+        String[] names = db.customerNames.clone();
+        Arrays.sort(names, Comparator.reverseOrder());
+        return Arrays.asList(names);
+    }
+
+    /**
+     * Task 5: {@code SELECT cust_id, order_num FROM Orders ORDER BY cust_id, order_date DESC}.
+     */
+    public static List<CustomerOrder> ordersByCustomerAndDate(SalesDatabase db) {
+        Integer[] rows = rows(db.orderCount);
+        Arrays.sort(rows, Comparator.<Integer, String>comparing(row -> db.customerIds.decode(db.orderCustomers[row]))
+                .thenComparing(row -> db.orderDates[row], Comparator.reverseOrder()));
+        List<CustomerOrder> result = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            result.add(new CustomerOrder(db.customerIds.decode(db.orderCustomers[row]), db.orderNums[row]));
+        }
+        return result;
+    }
+
+    /**
+     * Task 6: {@code SELECT quantity, item_price FROM OrderItems ORDER BY quantity DESC, item_price DESC}.
+     */
+    public static List<QuantityPrice> quantitiesAndPrices(SalesDatabase db) {
+        Integer[] rows = rows(db.itemCount);
+        Arrays.sort(rows, Comparator.<Integer>comparingInt(row -> db.itemQuantities[row])
+                .thenComparingLong(row -> db.itemPrices[row])
+                .reversed());
+        List<QuantityPrice> result = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            result.add(new QuantityPrice(db.itemQuantities[row], SalesDatabase.toDecimal(db.itemPrices[row])));
+        }
+        return result;
+    }
+
+    /**
+     * Task 7: {@code SELECT prod_id, prod_name FROM Products WHERE prod_price = :price}.
+     */
+    public static List<ProductName> productsPricedAt(SalesDatabase db, BigDecimal price) {
+        List<ProductName> result = new ArrayList<>();
+        for (int row = 0; row < db.productCount; row++) {
+            if (SalesDatabase.toDecimal(db.productPrices[row]).compareTo(price) == 0) {
+                result.add(new ProductName(db.productIds.decode(row), db.productNames[row]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Task 8: {@code SELECT prod_id, prod_name FROM Products WHERE prod_price >= :price}.
+     */
+    public static List<ProductName> productsPricedAtLeast(SalesDatabase db, BigDecimal price) {
+        long minimum = ceilCents(price);
+        List<ProductName> result = new ArrayList<>();
+        for (int row = 0; row < db.productCount; row++) {
+            if (db.productPrices[row] >= minimum) {
+                result.add(new ProductName(db.productIds.decode(row), db.productNames[row]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Task 9: {@code SELECT DISTINCT order_num FROM OrderItems WHERE quantity >= :quantity}, by order number.
+     */
+    public static List<Integer> ordersWithItemQuantityAtLeast(SalesDatabase db, int quantity) {
+        IntKeyIndex orders = new IntKeyIndex(16);
+        for (int row = 0; row < db.itemCount; row++) {
+            if (db.itemQuantities[row] >= quantity) {
+                orders.add(db.itemOrderNums[row]);
+            }
+        }
+        return sortedKeys(orders);
+    }
+
+    /**
+     * Tasks 10 and 13: {@code SELECT prod_name, prod_price FROM Products WHERE prod_price BETWEEN :low AND :high
+     * ORDER BY prod_price}.
+     */
+    public static List<ProductPrice> productsPricedBetween(SalesDatabase db, BigDecimal low, BigDecimal high) {
+        long minimum = ceilCents(low);
+        long maximum = floorCents(high);
+        List<Integer> rows = new ArrayList<>();
+        for (int row = 0; row < db.productCount; row++) {
+            if (db.productPrices[row] >= minimum && db.productPrices[row] <= maximum) {
+                rows.add(row);
+            }
+        }
+        rows.sort(Comparator.comparingLong(row -> db.productPrices[row]));
+        List<ProductPrice> result = new ArrayList<>(rows.size());
+        for (int row : rows) {
+            result.add(new ProductPrice(db.productNames[row], SalesDatabase.toDecimal(db.productPrices[row])));
+        }
+        return result;
+    }
+
+    /**
+     * Task 11: {@code SELECT vend_name FROM Vendors WHERE vend_country = :country AND vend_state = :state}.
+     */
+    public static List<String> vendorNamesIn(SalesDatabase db, String country, String state) {
+        List<String> result = new ArrayList<>();
+        for (int row = 0; row < db.vendorCount; row++) {
+            if (country.equals(db.vendorCountries[row]) && state.equals(db.vendorStates[row])) {
+                result.add(db.vendorNames[row]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Task 12: {@code SELECT order_num, prod_id, quantity FROM OrderItems WHERE prod_id IN (:prodIds)
+     * AND quantity >= :quantity}.
+     */
+    public static List<OrderItemQuantity> orderItemsWithQuantityAtLeast(SalesDatabase db, Collection<String> prodIds,
+                                                                        int quantity) {
+        boolean[] products = productSet(db, prodIds);
+        List<OrderItemQuantity> result = new ArrayList<>();
+        for (int row = 0; row < db.itemCount; row++) {
+            if (products[db.itemProducts[row]] && db.itemQuantities[row] >= quantity) {
+                result.add(new OrderItemQuantity(db.itemOrderNums[row], db.productIds.decode(db.itemProducts[row]),
+                        db.itemQuantities[row]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Task 14: {@code SELECT vend_id, vend_name AS vname, vend_address AS vaddress, vend_city AS vcity
+     * FROM Vendors ORDER BY vname}.
+     */
+    public static List<VendorAddress> vendorAddresses(SalesDatabase db) {
+        Integer[] rows = rows(db.vendorCount);
+        Arrays.sort(rows, Comparator.comparing(row -> db.vendorNames[row]));
+        List<VendorAddress> result = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            result.add(new VendorAddress(db.vendorIds.decode(row), db.vendorNames[row], db.vendorAddresses[row],
+                    db.vendorCities[row]));
+        }
+        return result;
+    }
+
+    /**
+     * Task 15: {@code SELECT SUM(quantity) FROM OrderItems}.
+     */
+    public static long totalQuantitySold(SalesDatabase db) {
+        long total = 0;
+        for (int row = 0; row < db.itemCount; row++) {
+            total += db.itemQuantities[row];
+        }
+        return total;
+    }
+
+    /**
+     * Task 16: {@code SELECT SUM(quantity) FROM OrderItems WHERE prod_id = :prodId}.
+     */
+    public static long totalQuantitySold(SalesDatabase db, String prodId) {
+        int product = db.productIds.code(prodId);
+        long total = 0;
+        for (int row = 0; row < db.itemCount && product >= 0; row++) {
+            if (db.itemProducts[row] == product) {
+                total += db.itemQuantities[row];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Task 17: {@code SELECT MAX(prod_price) AS max_price FROM Products WHERE prod_price <= :limit}.
+     *
+     * @return the price, or null if no product qualifies
+     */
+    public static BigDecimal maxPriceAtMost(SalesDatabase db, BigDecimal limit) {
+        long maximum = floorCents(limit);
+        long best = Long.MIN_VALUE;
+        boolean found = false;
+        for (int row = 0; row < db.productCount; row++) {
+            if (db.productPrices[row] <= maximum && db.productPrices[row] >= best) {
+                best = db.productPrices[row];
+                found = true;
+            }
+        }
+        return found ? SalesDatabase.toDecimal(best) : null;
+    }
+
+    /**
+     * Task 18: {@code SELECT order_num, COUNT(*) AS order_lines FROM OrderItems GROUP BY order_num
+     * ORDER BY order_lines}.
+     */
+    public static List<OrderLines> orderLines(SalesDatabase db) {
+        IntKeyIndex orders = new IntKeyIndex(db.orderCount);
+        long[] lines = new long[Math.max(16, db.orderCount)];
+        for (int row = 0; row < db.itemCount; row++) {
+            int group = orders.add(db.itemOrderNums[row]);
+            lines = ensureCapacity(lines, group);
+            lines[group]++;
+        }
+        long[] counts = lines;
+        Integer[] groups = rows(orders.size());
+        Arrays.sort(groups, Comparator.comparingLong(group -> counts[group]));
+        List<OrderLines> result = new ArrayList<>(groups.length);
+        for (int group : groups) {
+            result.add(new OrderLines(orders.key(group), counts[group]));
+        }
+        return result;
+    }
+
+    /**
+     * Task 19: {@code SELECT vend_id, MIN(prod_price) AS cheapest_item FROM Products GROUP BY vend_id
+     * ORDER BY cheapest_item}.
+     */
+    public static List<VendorCheapestItem> cheapestItemByVendor(SalesDatabase db) {
+        long[] cheapest = new long[db.vendorIds.size()];
+        Arrays.fill(cheapest, Long.MAX_VALUE);
+        boolean[] present = new boolean[cheapest.length];
+        List<Integer> vendors = new ArrayList<>();
+        for (int row = 0; row < db.productCount; row++) {
+            int vendor = db.productVendors[row];
+            if (!present[vendor]) {
+                present[vendor] = true;
+                vendors.add(vendor);
+            }
+            cheapest[vendor] = Math.min(cheapest[vendor], db.productPrices[row]);
+        }
+        vendors.sort(Comparator.comparingLong(vendor -> cheapest[vendor]));
+        List<VendorCheapestItem> result = new ArrayList<>(vendors.size());
+        for (int vendor : vendors) {
+            result.add(new VendorCheapestItem(db.vendorIds.decode(vendor), SalesDatabase.toDecimal(cheapest[vendor])));
+        }
+        return result;
+    }
+
+    /**
+     * Task 20: {@code SELECT order_num FROM OrderItems GROUP BY order_num HAVING SUM(quantity) >= :quantity},
+     * by order number.
+     */
+    public static List<Integer> ordersWithTotalQuantityAtLeast(SalesDatabase db, long quantity) {
+        IntKeyIndex orders = new IntKeyIndex(db.orderCount);
+        long[] totals = new long[Math.max(16, db.orderCount)];
+        for (int row = 0; row < db.itemCount; row++) {
+            int group = orders.add(db.itemOrderNums[row]);
+            totals = ensureCapacity(totals, group);
+            totals[group] += db.itemQuantities[row];
+        }
+        List<Integer> result = new ArrayList<>();
+        for (int group = 0; group < orders.size(); group++) {
+            if (totals[group] >= quantity) {
+                result.add(orders.key(group));
+            }
+        }
+        result.sort(Comparator.naturalOrder());
+        return result;
+    }
+
+    /**
+     * Task 21: {@code SELECT order_num FROM OrderItems GROUP BY order_num
+     * HAVING SUM(quantity * item_price) >= :total ORDER BY order_num}.
+     */
+    public static List<Integer> ordersWithTotalPriceAtLeast(SalesDatabase db, BigDecimal total) {
+        long minimum = ceilCents(total);
+        IntKeyIndex orders = new IntKeyIndex(db.orderCount);
+        long[] totals = new long[Math.max(16, db.orderCount)];
+        for (int row = 0; row < db.itemCount; row++) {
+            int group = orders.add(db.itemOrderNums[row]);
+            totals = ensureCapacity(totals, group);
+            totals[group] = Math.addExact(totals[group], lineTotal(db, row));
+        }
+        List<Integer> result = new ArrayList<>();
+        for (int group = 0; group < orders.size(); group++) {
+            if (totals[group] >= minimum) {
+                result.add(orders.key(group));
+            }
+        }
+        result.sort(Comparator.naturalOrder());
+        return result;
+    }
+
+    /**
+     * Task 22: {@code SELECT cust_name, order_num FROM Customers INNER JOIN Orders
+     * ON Customers.cust_id = Orders.cust_id ORDER BY cust_name, order_num}.
+     */
+    public static List<CustomerOrderNumber> customerOrders(SalesDatabase db) {
+        List<Integer> rows = new ArrayList<>(db.orderCount);
+        for (int row = 0; row < db.orderCount; row++) {
+            if (db.orderCustomers[row] < db.customerCount) {
+                rows.add(row);
+            }
+        }
+        rows.sort(Comparator.<Integer, String>comparing(row -> db.customerNames[db.orderCustomers[row]])
+                .thenComparingInt(row -> db.orderNums[row]));
+        List<CustomerOrderNumber> result = new ArrayList<>(rows.size());
+        for (int row : rows) {
+            result.add(new CustomerOrderNumber(db.customerNames[db.orderCustomers[row]], db.orderNums[row]));
+        }
+        return result;
+    }
+
+    /**
+     * Task 23: {@code SELECT cust_name, Orders.order_num, SUM(quantity * item_price) AS OrderTotal
+     * FROM Customers, Orders, OrderItems WHERE Customers.cust_id = Orders.cust_id
+     * AND OrderItems.order_num = Orders.order_num GROUP BY cust_name, Orders.order_num
+     * ORDER BY cust_name, order_num}. Orders without items are left out, as with the join.
+     */
+    public static List<CustomerOrderTotal> customerOrderTotals(SalesDatabase db) {
+        long[] totals = orderTotals(db);
+        boolean[] hasItems = new boolean[db.orderCount];
+        for (int row = 0; row < db.itemCount; row++) {
+            int order = db.orderRow(db.itemOrderNums[row]);
+            if (order >= 0) {
+                hasItems[order] = true;
+            }
+        }
+        List<Integer> rows = new ArrayList<>(db.orderCount);
+        for (int row = 0; row < db.orderCount; row++) {
+            if (hasItems[row] && db.orderCustomers[row] < db.customerCount) {
+                rows.add(row);
+            }
+        }
+        rows.sort(Comparator.<Integer, String>comparing(row -> db.customerNames[db.orderCustomers[row]])
+                .thenComparingInt(row -> db.orderNums[row]));
+        List<CustomerOrderTotal> result = new ArrayList<>(rows.size());
+        for (int row : rows) {
+            result.add(new CustomerOrderTotal(db.customerNames[db.orderCustomers[row]], db.orderNums[row],
+                    SalesDatabase.toDecimal(totals[row])));
+        }
+        return result;
+    }
+
+    /**
+     * Task 24: {@code SELECT cust_id, cust_name, cust_contact FROM Customers WHERE cust_id IN
+     * (SELECT cust_id FROM Orders WHERE order_num IN (SELECT order_num FROM OrderItems WHERE prod_id = :prodId))}.
+     */
+    public static List<CustomerContact> customersWhoOrdered(SalesDatabase db, String prodId) {
+        boolean[] customers = customersWithOrders(db, ordersWithProduct(db, prodId));
+        List<CustomerContact> result = new ArrayList<>();
+        for (int row = 0; row < db.customerCount; row++) {
+            if (customers[row]) {
+                result.add(new CustomerContact(db.customerIds.decode(row), db.customerNames[row],
+                        db.customerContacts[row]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Task 25: {@code SELECT cust_id FROM Orders WHERE order_num IN
+     * (SELECT order_num FROM OrderItems WHERE item_price >= :price)}, one row per matching order.
+     */
+    public static List<String> customersWithItemsPricedAtLeast(SalesDatabase db, BigDecimal price) {
+        long minimum = ceilCents(price);
+        IntKeyIndex orders = new IntKeyIndex(16);
+        for (int row = 0; row < db.itemCount; row++) {
+            if (db.itemPrices[row] >= minimum) {
+                orders.add(db.itemOrderNums[row]);
+            }
+        }
+        SemiJoin orderNums = SemiJoin.of(orders);
+        List<String> result = new ArrayList<>();
+        for (int row = 0; row < db.orderCount; row++) {
+            if (orderNums.contains(db.orderNums[row])) {
+                result.add(db.customerIds.decode(db.orderCustomers[row]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Task 26: {@code SELECT cust_id, order_date FROM Orders WHERE order_num IN
+     * (SELECT order_num FROM OrderItems WHERE prod_id = :prodId) ORDER BY order_date}.
+     */
+    public static List<CustomerOrderDate> orderDatesForProduct(SalesDatabase db, String prodId) {
+        SemiJoin orderNums = ordersWithProduct(db, prodId);
+        List<Integer> rows = new ArrayList<>();
+        for (int row = 0; row < db.orderCount; row++) {
+            if (orderNums.contains(db.orderNums[row])) {
+                rows.add(row);
+            }
+        }
+        rows.sort(Comparator.comparingInt(row -> db.orderDates[row]));
+        List<CustomerOrderDate> result = new ArrayList<>(rows.size());
+        for (int row : rows) {
+            result.add(new CustomerOrderDate(db.customerIds.decode(db.orderCustomers[row]), db.orderDate(row)));
+        }
+        return result;
+    }
+
+    /**
+     * Task 27: {@code SELECT cust_email FROM Customers WHERE cust_id IN (SELECT cust_id FROM Orders
+     * WHERE order_num IN (SELECT order_num FROM OrderItems WHERE prod_id = :prodId))}.
+     */
+    public static List<String> customerEmailsForProduct(SalesDatabase db, String prodId) {
+        boolean[] customers = customersWithOrders(db, ordersWithProduct(db, prodId));
+        List<String> result = new ArrayList<>();
+        for (int row = 0; row < db.customerCount; row++) {
+            if (customers[row]) {
+                result.add(db.customerEmails[row]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Task 28: {@code SELECT prod_name, (SELECT SUM(quantity) FROM OrderItems
+     * WHERE Products.prod_id = OrderItems.prod_id) AS quant_sold FROM Products}. Products never ordered,
+     * for which the subquery yields NULL, are reported with zero.
+     */
+    public static List<ProductQuantitySold> quantitySoldByProduct(SalesDatabase db) {
+        long[] sold = new long[db.productIds.size()];
+        for (int row = 0; row < db.itemCount; row++) {
+            sold[db.itemProducts[row]] += db.itemQuantities[row];
+        }
+        List<ProductQuantitySold> result = new ArrayList<>(db.productCount);
+        for (int row = 0; row < db.productCount; row++) {
+            result.add(new ProductQuantitySold(db.productNames[row], sold[row]));
+        }
+        return result;
+    }
+
+    /**
+     * @return {@code SUM(quantity * item_price)} in cents per order row, joining OrderItems to Orders
+     */
+    static long[] orderTotals(SalesDatabase db) {
+        long[] totals = new long[db.orderCount];
+        for (int row = 0; row < db.itemCount; row++) {
+            int order = db.orderRow(db.itemOrderNums[row]);
+            if (order >= 0) {
+                totals[order] = Math.addExact(totals[order], lineTotal(db, row));
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * @return the semi-join on the order numbers of the items of the product,
+     * {@code SELECT order_num FROM OrderItems WHERE prod_id = :prodId}
+     */
+    static SemiJoin ordersWithProduct(SalesDatabase db, String prodId) {
+        int product = db.productIds.code(prodId);
+        IntKeyIndex orders = new IntKeyIndex(16);
+        for (int row = 0; row < db.itemCount && product >= 0; row++) {
+            if (db.itemProducts[row] == product) {
+                orders.add(db.itemOrderNums[row]);
+            }
+        }
+        return SemiJoin.of(orders);
+    }
+
+    /**
+     * @return the semi-join on customer codes, {@code SELECT cust_id FROM Orders WHERE order_num IN (:orderNums)},
+     * as a flag per code
+     */
+    static boolean[] customersWithOrders(SalesDatabase db, SemiJoin orderNums) {
+        boolean[] customers = new boolean[db.customerIds.size()];
+        for (int row = 0; row < db.orderCount && orderNums.size() > 0; row++) {
+            if (orderNums.contains(db.orderNums[row])) {
+                customers[db.orderCustomers[row]] = true;
+            }
+        }
+        return customers;
+    }
+
+    static long lineTotal(SalesDatabase db, int itemRow) {
+        return Math.multiplyExact(db.itemQuantities[itemRow], db.itemPrices[itemRow]);
+    }
+
+    private static boolean[] productSet(SalesDatabase db, Collection<String> prodIds) {
+        boolean[] products = new boolean[db.productIds.size()];
+        for (String prodId : prodIds) {
+            int product = db.productIds.code(prodId);
+            if (product >= 0) {
+                products[product] = true;
+            }
+        }
+        return products;
+    }
+
+    private static int[] sortedKeyArray(IntKeyIndex index) {
+        int[] keys = new int[index.size()];
+        for (int id = 0; id < keys.length; id++) {
+            keys[id] = index.key(id);
+        }
+        Arrays.sort(keys);
+        return keys;
+    }
+
+    private static List<Integer> sortedKeys(IntKeyIndex index) {
+        return Arrays.stream(sortedKeyArray(index)).boxed().toList();
+    }
+
+    private static Integer[] rows(int count) {
+        Integer[] rows = new Integer[count];
+        for (int row = 0; row < count; row++) {
+            rows[row] = row;
+        }
+        return rows;
+    }
+
+    private static long[] ensureCapacity(long[] values, int index) {
+        return index < values.length ? values : Arrays.copyOf(values, Math.max(index + 1, values.length * 2));
+    }
+
+    static long ceilCents(BigDecimal amount) {
+        return saturatedCents(amount.setScale(SalesDatabase.PRICE_SCALE, RoundingMode.CEILING));
+    }
+
+    static long floorCents(BigDecimal amount) {
+        return saturatedCents(amount.setScale(SalesDatabase.PRICE_SCALE, RoundingMode.FLOOR));
+    }
+
+    private static long saturatedCents(BigDecimal amount) {
+        BigDecimal cents = amount.movePointRight(SalesDatabase.PRICE_SCALE);
+        if (cents.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) >= 0) {
+            return Long.MAX_VALUE;
+        }
+        return cents.compareTo(BigDecimal.valueOf(Long.MIN_VALUE)) <= 0 ? Long.MIN_VALUE : cents.longValueExact();
+    }
+
+}
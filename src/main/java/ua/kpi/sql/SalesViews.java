@@ -0,0 +1,201 @@
+package ua.kpi.sql;
+
+import ua.kpi.entity.OrderItem;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Materialized aggregate views over the OrderItems of a {@link SalesDatabase}: the order total
+ * {@code SUM(quantity * item_price)} and line count per {@code order_num}, and {@code SUM(quantity)}
+ * per {@code prod_id}. The views own the OrderItems rows after creation; every insert, update and
+ * delete applies its delta to the affected order and products. Their task 21, 23 and 28 methods answer
+ * from the views what the {@link SalesQueries} methods of the same name compute by scanning the
+ * database's OrderItems; the database itself is not changed, so the two agree until the views are
+ * modified.
+ * <p>
+ * Order totals are additionally kept in a tree ordered by total, so {@code HAVING SUM(...) >= :total}
+ * reads only the qualifying tail. Quantities sold are indexed by the product code of the database, with
+ * a map for product ids the database does not know. An order whose last item is deleted leaves the
+ * views, as it leaves the result of the {@code GROUP BY}. Instances are not thread-safe.
+ */
+public final class SalesViews {
+
+    private record OrderTotal(long cents, int orderNum) {
+    }
+
+    private static final Comparator<OrderTotal> BY_TOTAL =
+            Comparator.comparingLong(OrderTotal::cents).thenComparingInt(OrderTotal::orderNum);
+
+    private final SalesDatabase db;
+    private final Map<Long, OrderItem> items = new HashMap<>();
+    private final IntKeyIndex orders;
+    private long[] orderTotals;
+    private int[] orderLines;
+    private final TreeSet<OrderTotal> ordersByTotal = new TreeSet<>(BY_TOTAL);
+    private final long[] quantitySold;
+    private final Map<String, Long> otherQuantitySold = new HashMap<>();
+
+    private SalesViews(SalesDatabase db) {
+        this.db = db;
+        this.orders = new IntKeyIndex(db.orderCount);
+        this.orderTotals = new long[Math.max(16, db.orderCount)];
+        this.orderLines = new int[orderTotals.length];
+        this.quantitySold = new long[db.productIds.size()];
+        for (int row = 0; row < db.itemCount; row++) {
+            insert(new OrderItem(db.itemOrderNums[row], db.itemNumbers[row], db.productIds.decode(db.itemProducts[row]),
+                    db.itemQuantities[row], SalesDatabase.toDecimal(db.itemPrices[row])));
+        }
+    }
+
+    /**
+     * Materializes the views over the current OrderItems of the database.
+     *
+     * @throws IllegalArgumentException if two items share an order and item number
+     */
+    public static SalesViews of(SalesDatabase db) {
+        return new SalesViews(db);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the order already has an item with the number, or the price
+     *                                  has more than {@link SalesDatabase#PRICE_SCALE} fraction digits
+     */
+    public void insert(OrderItem item) {
+        long cents = SalesDatabase.toCents(item.itemPrice(), item.orderNum() + "/" + item.orderItem());
+        if (items.putIfAbsent(key(item.orderNum(), item.orderItem()), item) != null) {
+            throw new IllegalArgumentException("Duplicate order item: " + item.orderNum() + "/" + item.orderItem());
+        }
+        apply(item, cents, 1);
+    }
+
+    /**
+     * Replaces the item with the same order and item number.
+     *
+     * @return the replaced item
+     * @throws IllegalArgumentException if there is no such item
+     */
+    public OrderItem update(OrderItem item) {
+        long cents = SalesDatabase.toCents(item.itemPrice(), item.orderNum() + "/" + item.orderItem());
+        OrderItem previous = items.replace(key(item.orderNum(), item.orderItem()), item);
+        if (previous == null) {
+            throw new IllegalArgumentException("Unknown order item: " + item.orderNum() + "/" + item.orderItem());
+        }
+        apply(previous, SalesDatabase.toCents(previous.itemPrice(), ""), -1);
+        apply(item, cents, 1);
+        return previous;
+    }
+
+    /**
+     * @return the deleted item
+     * @throws IllegalArgumentException if there is no such item
+     */
+    public OrderItem delete(int orderNum, int orderItem) {
+        OrderItem previous = items.remove(key(orderNum, orderItem));
+        if (previous == null) {
+            throw new IllegalArgumentException("Unknown order item: " + orderNum + "/" + orderItem);
+        }
+        apply(previous, SalesDatabase.toCents(previous.itemPrice(), ""), -1);
+        return previous;
+    }
+
+    public int orderItemCount() {
+        return items.size();
+    }
+
+    /**
+     * @return {@code SUM(quantity * item_price)} of the order, or null if it has no items
+     */
+    public BigDecimal orderTotal(int orderNum) {
+        int id = orders.find(orderNum);
+        return id < 0 || orderLines[id] == 0 ? null : SalesDatabase.toDecimal(orderTotals[id]);
+    }
+
+    /**
+     * Task 21 read from the view: the orders with a total of at least the given one, by order number.
+     */
+    public List<Integer> ordersWithTotalPriceAtLeast(BigDecimal total) {
+        long minimum = SalesQueries.ceilCents(total);
+        int[] orderNums = ordersByTotal.tailSet(new OrderTotal(minimum, Integer.MIN_VALUE)).stream()
+                .mapToInt(OrderTotal::orderNum)
+                .toArray();
+        Arrays.sort(orderNums);
+        return Arrays.stream(orderNums).boxed().toList();
+    }
+
+    /**
+     * Task 23 read from the view: the Orders joined with their customers and materialized totals.
+     */
+    public List<SalesQueries.CustomerOrderTotal> customerOrderTotals() {
+        List<Integer> rows = new ArrayList<>(db.orderCount);
+        for (int row = 0; row < db.orderCount; row++) {
+            int id = orders.find(db.orderNums[row]);
+            if (id >= 0 && orderLines[id] > 0 && db.orderCustomers[row] < db.customerCount) {
+                rows.add(row);
+            }
+        }
+        rows.sort(Comparator.<Integer, String>comparing(row -> db.customerNames[db.orderCustomers[row]])
+                .thenComparingInt(row -> db.orderNums[row]));
+        List<SalesQueries.CustomerOrderTotal> result = new ArrayList<>(rows.size());
+        for (int row : rows) {
+            result.add(new SalesQueries.CustomerOrderTotal(db.customerNames[db.orderCustomers[row]],
+                    db.orderNums[row], orderTotal(db.orderNums[row])));
+        }
+        return result;
+    }
+
+    /**
+     * @return {@code SUM(quantity)} of the items of the product, zero if it has none
+     */
+    public long quantitySold(String prodId) {
+        int code = db.productIds.code(prodId);
+        return code >= 0 ? quantitySold[code] : otherQuantitySold.getOrDefault(prodId, 0L);
+    }
+
+    /**
+     * Task 28 read from the view: every product with its quantity sold.
+     */
+    public List<SalesQueries.ProductQuantitySold> quantitySoldByProduct() {
+        List<SalesQueries.ProductQuantitySold> result = new ArrayList<>(db.productCount);
+        for (int row = 0; row < db.productCount; row++) {
+            result.add(new SalesQueries.ProductQuantitySold(db.productNames[row],
+                    quantitySold[row]));
+        }
+        return result;
+    }
+
+    private void apply(OrderItem item, long priceCents, int sign) {
+        long lineTotal = Math.multiplyExact(item.quantity(), priceCents);
+        int id = orders.add(item.orderNum());
+        if (id == orderTotals.length) {
+            orderTotals = Arrays.copyOf(orderTotals, id * 2);
+            orderLines = Arrays.copyOf(orderLines, id * 2);
+        }
+        if (orderLines[id] > 0) {
+            ordersByTotal.remove(new OrderTotal(orderTotals[id], item.orderNum()));
+        }
+        orderTotals[id] = sign > 0 ? Math.addExact(orderTotals[id], lineTotal)
+                : Math.subtractExact(orderTotals[id], lineTotal);
+        orderLines[id] += sign;
+        if (orderLines[id] > 0) {
+            ordersByTotal.add(new OrderTotal(orderTotals[id], item.orderNum()));
+        }
+        int code = db.productIds.code(item.prodId());
+        if (code >= 0) {
+            quantitySold[code] += (long) sign * item.quantity();
+        } else {
+            otherQuantitySold.merge(item.prodId(), (long) sign * item.quantity(), Long::sum);
+        }
+    }
+
+    private static long key(int orderNum, int orderItem) {
+        return (long) orderNum << 32 | (orderItem & 0xffffffffL);
+    }
+
+}
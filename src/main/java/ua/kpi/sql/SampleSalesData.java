@@ -0,0 +1,97 @@
+package ua.kpi.sql;
+
+import ua.kpi.entity.Customer;
+import ua.kpi.entity.Order;
+import ua.kpi.entity.OrderItem;
+import ua.kpi.entity.Product;
+import ua.kpi.entity.Vendor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * The sample rows the {@code sql_tasks.txt} exercises are written against.
+ */
+public final class SampleSalesData {
+
+    public static final List<Vendor> VENDORS = List.of(
+            new Vendor("BRS01", "Bears R Us", "123 Main Street", "Bear Town", "MI", "44444", "USA"),
+            new Vendor("BRE02", "Bear Emporium", "500 Park Street", "Anytown", "OH", "44333", "USA"),
+            new Vendor("DLL01", "Doll House Inc.", "555 High Street", "Dollsville", "CA", "99999", "USA"),
+            new Vendor("FRB01", "Furball Inc.", "1000 5th Avenue", "New York", "NY", "11111", "USA"),
+            new Vendor("FNG01", "Fun and Games", "42 Galaxy Road", "London", null, "N16 6PS", "England"),
+            new Vendor("JTS01", "Jouets et ours", "1 Rue Amusement", "Paris", null, "45678", "France")
+    );
+
+    public static final List<Product> PRODUCTS = List.of(
+            new Product("BR01", "BRS01", "8 inch teddy bear", new BigDecimal("5.99"),
+                    "8 inch teddy bear, comes with cap and jacket"),
+            new Product("BR02", "BRS01", "12 inch teddy bear", new BigDecimal("8.99"),
+                    "12 inch teddy bear, comes with cap and jacket"),
+            new Product("BR03", "BRS01", "18 inch teddy bear", new BigDecimal("11.99"),
+                    "18 inch teddy bear, comes with cap and jacket"),
+            new Product("BNBG01", "DLL01", "Fish bean bag toy", new BigDecimal("3.49"),
+                    "Fish bean bag toy, complete with bean bag worms with which to feed it"),
+            new Product("BNBG02", "DLL01", "Bird bean bag toy", new BigDecimal("3.49"),
+                    "Bird bean bag toy, eggs are not included"),
+            new Product("BNBG03", "DLL01", "Rabbit bean bag toy", new BigDecimal("3.49"),
+                    "Rabbit bean bag toy, comes with bean bag carrots"),
+            new Product("RGAN01", "DLL01", "Raggedy Ann", new BigDecimal("4.99"),
+                    "18 inch Raggedy Ann doll"),
+            new Product("RYL01", "FNG01", "King doll", new BigDecimal("9.49"),
+                    "12 inch king doll with royal garments and crown"),
+            new Product("RYL02", "FNG01", "Queen doll", new BigDecimal("9.49"),
+                    "12 inch queen doll with royal garments and crown")
+    );
+
+    public static final List<Customer> CUSTOMERS = List.of(
+            new Customer("1000000001", "Village Toys", "200 Maple Lane", "Detroit", "MI", "44444", "USA",
+                    "John Smith", "sales@villagetoys.com"),
+            new Customer("1000000002", "Kids Place", "333 South Lake Drive", "Columbus", "OH", "43333", "USA",
+                    "Michelle Green", null),
+            new Customer("1000000003", "Fun4All", "1 Sunny Place", "Muncie", "IN", "42222", "USA",
+                    "Jim Jones", "jjones@fun4all.com"),
+            new Customer("1000000004", "Fun4All", "829 Riverside Drive", "Phoenix", "AZ", "88888", "USA",
+                    "Denise L. Stephens", "dstephens@fun4all.com"),
+            new Customer("1000000005", "The Toy Store", "4545 53rd Street", "Chicago", "IL", "54545", "USA",
+                    "Kim Howard", null)
+    );
+
+    public static final List<Order> ORDERS = List.of(
+            new Order(20005, LocalDate.of(2020, 5, 1), "1000000001"),
+            new Order(20006, LocalDate.of(2020, 1, 12), "1000000003"),
+            new Order(20007, LocalDate.of(2020, 1, 30), "1000000004"),
+            new Order(20008, LocalDate.of(2020, 2, 3), "1000000005"),
+            new Order(20009, LocalDate.of(2020, 2, 8), "1000000001")
+    );
+
+    public static final List<OrderItem> ORDER_ITEMS = List.of(
+            new OrderItem(20005, 1, "BR01", 100, new BigDecimal("5.49")),
+            new OrderItem(20005, 2, "BR03", 100, new BigDecimal("10.99")),
+            new OrderItem(20006, 1, "BR01", 20, new BigDecimal("5.99")),
+            new OrderItem(20006, 2, "BR02", 10, new BigDecimal("8.99")),
+            new OrderItem(20006, 3, "BR03", 10, new BigDecimal("11.99")),
+            new OrderItem(20007, 1, "BR03", 50, new BigDecimal("11.49")),
+            new OrderItem(20007, 2, "BNBG01", 100, new BigDecimal("2.99")),
+            new OrderItem(20007, 3, "BNBG02", 100, new BigDecimal("2.99")),
+            new OrderItem(20007, 4, "BNBG03", 100, new BigDecimal("2.99")),
+            new OrderItem(20007, 5, "RGAN01", 50, new BigDecimal("4.49")),
+            new OrderItem(20008, 1, "RGAN01", 5, new BigDecimal("4.99")),
+            new OrderItem(20008, 2, "BR03", 5, new BigDecimal("11.99")),
+            new OrderItem(20008, 3, "BNBG01", 10, new BigDecimal("3.49")),
+            new OrderItem(20008, 4, "BNBG02", 10, new BigDecimal("3.49")),
+            new OrderItem(20008, 5, "BNBG03", 10, new BigDecimal("3.49")),
+            new OrderItem(20009, 1, "BNBG01", 250, new BigDecimal("2.49")),
+            new OrderItem(20009, 2, "BNBG02", 250, new BigDecimal("2.49")),
+            new OrderItem(20009, 3, "BNBG03", 250, new BigDecimal("2.49"))
+    );
+
+    private SampleSalesData() {
+    }
+
+    public static SalesDatabase database() {
+        return SalesDatabase.of(VENDORS, PRODUCTS, CUSTOMERS, ORDERS, ORDER_ITEMS);
+    }
+
+}
@@ -0,0 +1,41 @@
+package ua.kpi.sql;
+
+import ua.kpi.sketch.BloomFilter;
+
+/**
+ * Build side of a hash semi-join on an {@code int} key: the distinct keys produced by a subquery,
+ * evaluated once, answering {@code key IN (subquery)} for every row of the outer scan. A Bloom filter
+ * over the same keys is probed first, so outer rows without a match, usually most of them, are rejected
+ * from a small bit array before touching the hash table.
+ */
+final class SemiJoin {
+
+    static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final IntKeyIndex keys;
+    private final BloomFilter filter;
+
+    private SemiJoin(IntKeyIndex keys) {
+        this.keys = keys;
+        this.filter = BloomFilter.withFalsePositiveRate(keys.size(), FALSE_POSITIVE_RATE);
+        for (int id = 0; id < keys.size(); id++) {
+            filter.add(keys.key(id));
+        }
+    }
+
+    /**
+     * @return the semi-join over the distinct keys of the index
+     */
+    static SemiJoin of(IntKeyIndex keys) {
+        return new SemiJoin(keys);
+    }
+
+    boolean contains(int key) {
+        return filter.mightContain(key) && keys.find(key) >= 0;
+    }
+
+    int size() {
+        return keys.size();
+    }
+
+}
@@ -0,0 +1,162 @@
+package ua.kpi.streams;
+
+import java.util.Arrays;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collector;
+
+/**
+ * Mutable exact sum of {@code double} values. The running total is kept as a short array of
+ * non-overlapping partials (Shewchuk's algorithm, as in Python's {@code math.fsum}), so no rounding
+ * happens while adding or combining, and {@link #sum()} rounds the exact total once, half-even. The
+ * result therefore does not depend on the order of the values or on how they were split into partial
+ * sums, which makes sequential, fork/join and sharded sums equal.
+ * <p>
+ * Infinities and NaN are added up separately and take precedence like in plain addition. A total whose
+ * partials overflow the {@code double} range is reported as infinity.
+ */
+public final class ExactSum {
+
+    private double[] partials = new double[4];
+    private int size;
+    private double special;
+    private long count;
+
+    public ExactSum add(double value) {
+        count++;
+        addPartial(value);
+        return this;
+    }
+
+    /**
+     * Adds the values of another sum, e.g. when combining partial sums.
+     */
+    public ExactSum add(ExactSum other) {
+        count += other.count;
+        special += other.special;
+        for (int i = 0; i < other.size; i++) {
+            addPartial(other.partials[i]);
+        }
+        return this;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /**
+     * @return the exact total rounded half-even to the nearest {@code double}
+     */
+    public double sum() {
+        if (special != 0.0d) {
+            return special;
+        }
+        if (size == 0) {
+            return 0.0d;
+        }
+        int n = size - 1;
+        double hi = partials[n];
+        double lo = 0.0d;
+        while (n > 0) {
+            double x = hi;
+            double y = partials[--n];
+            hi = x + y;
+            lo = y - (hi - x);
+            if (lo != 0.0d) {
+                break;
+            }
+        }
+        if (n > 0 && (lo < 0.0d && partials[n - 1] < 0.0d || lo > 0.0d && partials[n - 1] > 0.0d)) {
+            double y = lo * 2;
+            double x = hi + y;
+            if (y == x - hi) {
+                hi = x;
+            }
+        }
+        return hi;
+    }
+
+    /**
+     * @return the rounded sum divided by the count, zero if nothing was added
+     */
+    public double average() {
+        return count == 0 ? 0.0d : sum() / count;
+    }
+
+    /**
+     * @return the partials whose exact total is the sum of the finite values, by increasing magnitude
+     */
+    public double[] partials() {
+        return Arrays.copyOf(partials, size);
+    }
+
+    /**
+     * @return the sum of the infinite and NaN values added, zero if there were none
+     */
+    public double special() {
+        return special;
+    }
+
+    /**
+     * Restores a sum from its {@link #partials()}, {@link #special()} and {@link #count()}.
+     */
+    public static ExactSum of(double[] partials, double special, long count) {
+        ExactSum sum = new ExactSum();
+        for (double partial : partials) {
+            sum.addPartial(partial);
+        }
+        sum.special = special;
+        sum.count = count;
+        return sum;
+    }
+
+    /**
+     * @return a collector of the exact sum of the mapped values, like {@code Collectors.summingDouble}
+     */
+    public static <T> Collector<T, ExactSum, Double> summing(ToDoubleFunction<? super T> value) {
+        return Collector.of(ExactSum::new, (sum, element) -> sum.add(value.applyAsDouble(element)), ExactSum::add,
+                ExactSum::sum);
+    }
+
+    /**
+     * @return a collector of the average of the mapped values from their exact sum, like
+     * {@code Collectors.averagingDouble}
+     */
+    public static <T> Collector<T, ExactSum, Double> averaging(ToDoubleFunction<? super T> value) {
+        return Collector.of(ExactSum::new, (sum, element) -> sum.add(value.applyAsDouble(element)), ExactSum::add,
+                ExactSum::average);
+    }
+
+    private void addPartial(double value) {
+        if (!Double.isFinite(value)) {
+            special += value;
+            return;
+        }
+        double x = value;
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            double y = partials[i];
+            if (Math.abs(x) < Math.abs(y)) {
+                double swap = x;
+                x = y;
+                y = swap;
+            }
+            double hi = x + y;
+            double lo = y - (hi - x);
+            if (lo != 0.0d) {
+                partials[kept++] = lo;
+            }
+            x = hi;
+        }
+        if (!Double.isFinite(x)) {
+            special += x;
+            size = 0;
+            return;
+        }
+        if (kept == partials.length) {
+            partials = Arrays.copyOf(partials, kept * 2);
+        }
+        partials[kept++] = x;
+        size = kept;
+    }
+
+}
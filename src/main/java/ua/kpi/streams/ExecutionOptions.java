@@ -0,0 +1,44 @@
+package ua.kpi.streams;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Chooses how a {@link KTStreams} operation is executed.
+ *
+ * @param pool                the pool the input is split across, or {@code null} to always run sequentially
+ * @param sequentialThreshold inputs of at most this many elements are processed on the calling thread;
+ *                            larger inputs are split into chunks of roughly this size
+ */
+public record ExecutionOptions(ForkJoinPool pool, int sequentialThreshold) {
+
+    public static final int DEFAULT_SEQUENTIAL_THRESHOLD = 8_192;
+
+    private static final ExecutionOptions SEQUENTIAL = new ExecutionOptions(null, Integer.MAX_VALUE);
+
+    public ExecutionOptions {
+        if (sequentialThreshold < 1) {
+            throw new IllegalArgumentException("Sequential threshold must be positive: " + sequentialThreshold);
+        }
+    }
+
+    public static ExecutionOptions sequential() {
+        return SEQUENTIAL;
+    }
+
+    public static ExecutionOptions parallel() {
+        return parallel(ForkJoinPool.commonPool());
+    }
+
+    public static ExecutionOptions parallel(ForkJoinPool pool) {
+        return new ExecutionOptions(pool, DEFAULT_SEQUENTIAL_THRESHOLD);
+    }
+
+    public ExecutionOptions withSequentialThreshold(int sequentialThreshold) {
+        return new ExecutionOptions(pool, sequentialThreshold);
+    }
+
+    boolean runsSequentially(int size) {
+        return pool == null || size <= sequentialThreshold;
+    }
+
+}
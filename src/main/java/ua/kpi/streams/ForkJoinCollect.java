@@ -0,0 +1,68 @@
+package ua.kpi.streams;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import java.util.stream.Collector;
+
+/**
+ * Runs a {@link Collector} over a list by splitting it into index ranges, accumulating every range
+ * into its own container and combining the containers left to right. Since the combination order
+ * follows the list order, collectors that keep encounter order (lists, joining) give the same result
+ * as a sequential {@code stream().collect(...)}. Collectors whose combination is not associative, such
+ * as {@code Collectors.summingDouble}, may differ from the sequential result; {@link KTStreams} sums
+ * doubles with {@link ExactSum}, which does not depend on the split.
+ */
+final class ForkJoinCollect {
+
+    private ForkJoinCollect() {
+    }
+
+    static <T, A, R> R collect(List<T> items, Collector<T, A, R> collector, ExecutionOptions options) {
+        if (options.runsSequentially(items.size())) {
+            return items.stream().collect(collector);
+        }
+        List<T> source = items instanceof RandomAccess ? items : new ArrayList<>(items);
+        int chunkSize = Math.max(options.sequentialThreshold(),
+                source.size() / (options.pool().getParallelism() * 4) + 1);
+        A container = options.pool().invoke(new CollectTask<>(source, 0, source.size(), chunkSize, collector));
+        return collector.finisher().apply(container);
+    }
+
+    private static final class CollectTask<T, A> extends RecursiveTask<A> {
+
+        private final List<T> items;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+        private final Collector<T, A, ?> collector;
+
+        private CollectTask(List<T> items, int from, int to, int chunkSize, Collector<T, A, ?> collector) {
+            this.items = items;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+            this.collector = collector;
+        }
+
+        @Override
+        protected A compute() {
+            if (to - from <= chunkSize) {
+                A container = collector.supplier().get();
+                BiConsumer<A, T> accumulator = collector.accumulator();
+                for (int i = from; i < to; i++) {
+                    accumulator.accept(container, items.get(i));
+                }
+                return container;
+            }
+            int middle = (from + to) >>> 1;
+            CollectTask<T, A> left = new CollectTask<>(items, from, middle, chunkSize, collector);
+            left.fork();
+            A right = new CollectTask<>(items, middle, to, chunkSize, collector).compute();
+            return collector.combiner().apply(left.join(), right);
+        }
+    }
+
+}
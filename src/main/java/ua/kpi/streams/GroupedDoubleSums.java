@@ -0,0 +1,37 @@
+package ua.kpi.streams;
+
+/**
+ * {@link ExactSum}s of doubles per group code, so that sums and averages of a table are equal to those
+ * of {@link ExactSum#summing} and {@link ExactSum#averaging} over the same values.
+ */
+final class GroupedDoubleSums {
+
+    private final ExactSum[] sums;
+
+    GroupedDoubleSums(int groups) {
+        this.sums = new ExactSum[groups];
+        for (int group = 0; group < groups; group++) {
+            sums[group] = new ExactSum();
+        }
+    }
+
+    void add(int group, double value) {
+        sums[group].add(value);
+    }
+
+    long count(int group) {
+        return sums[group].count();
+    }
+
+    double sum(int group) {
+        return sums[group].sum();
+    }
+
+    /**
+     * @return the average of the group, zero if it is empty
+     */
+    double average(int group) {
+        return sums[group].average();
+    }
+
+}
@@ -2,23 +2,86 @@ package ua.kpi.streams;
 
 import ua.kpi.entity.Employee;
 import ua.kpi.entity.Payment;
-import ua.kpi.exception.ExerciseNotCompletedException;
+import ua.kpi.fx.FxRates;
+import ua.kpi.metrics.Metrics;
+import ua.kpi.metrics.OperationMetrics;
+import ua.kpi.sketch.CountMinSketch;
+import ua.kpi.sketch.HyperLogLog;
+import ua.kpi.sketch.KllSketch;
+import ua.kpi.table.Dictionary;
+import ua.kpi.table.EmployeeTable;
+import ua.kpi.table.PaymentTable;
+import ua.kpi.topk.BoundedHeap;
+import ua.kpi.topk.SpaceSaving;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.Set;
+import java.util.StringJoiner;
+import java.util.stream.Collectors;
 
 public class KTStreams {
 
+    private static final String UNDER_20 = "Under 20";
+    private static final String FROM_20_TO_30 = "20-30";
+    private static final String ABOVE_30 = "Above 30";
+
+    private static final OperationMetrics COUNT_BY_PAYMENT_METHOD = Metrics.operation("countByPaymentMethod");
+    private static final OperationMetrics GROUP_BY_CURRENCY_AND_MAP_TO_CUSTOMER_NAMES = Metrics.operation("groupByCurrencyAndMapToCustomerNames");
+    private static final OperationMetrics GROUP_BY_STATUS_AND_MAP_TO_PAYMENT_METHODS = Metrics.operation("groupByStatusAndMapToPaymentMethods");
+    private static final OperationMetrics GROUP_BY_DATE_AND_MAP_TO_REFERENCES = Metrics.operation("groupByDateAndMapToReferences");
+    private static final OperationMetrics GROUP_BY_CUSTOMER = Metrics.operation("groupByCustomer");
+    private static final OperationMetrics GROUP_BY_CUSTOMER_AND_MAP_TO_TOTAL_AMOUNT = Metrics.operation("groupByCustomerAndMapToTotalAmount");
+    private static final OperationMetrics COUNT_EMPLOYEES_IN_DEPARTMENTS = Metrics.operation("countEmployeesInDepartments");
+    private static final OperationMetrics COUNT_EMPLOYEES_BY_GENDER = Metrics.operation("countEmployeesByGender");
+    private static final OperationMetrics AVERAGE_SALARY_BY_GENDER = Metrics.operation("averageSalaryByGender");
+    private static final OperationMetrics AVERAGE_AGE_IN_DEPARTMENTS = Metrics.operation("averageAgeInDepartments");
+    private static final OperationMetrics SUM_SALARIES_BY_DEPARTMENT = Metrics.operation("sumSalariesByDepartment");
+    private static final OperationMetrics OLDEST_EMPLOYEE_IN_DEPARTMENT = Metrics.operation("oldestEmployeeInDepartment");
+    private static final OperationMetrics GROUP_EMPLOYEES_BY_AGE_RANGE = Metrics.operation("groupEmployeesByAgeRange");
+    private static final OperationMetrics PARTITION_BY_AMOUNT = Metrics.operation("partitionByAmount");
+    private static final OperationMetrics FIND_DISTINCT_CUSTOMERS_TABLE = Metrics.operation("findDistinctCustomers[table]");
+    private static final OperationMetrics GROUP_BY_CUSTOMER_TABLE = Metrics.operation("groupByCustomer[table]");
+    private static final OperationMetrics GROUP_BY_CUSTOMER_AND_MAP_TO_TOTAL_AMOUNT_IN_BASE_CURRENCY = Metrics.operation("groupByCustomerAndMapToTotalAmount[fx]");
+    private static final OperationMetrics GROUP_BY_CUSTOMER_AND_MAP_TO_TOTAL_AMOUNT_TABLE = Metrics.operation("groupByCustomerAndMapToTotalAmount[table,fx]");
+    private static final OperationMetrics AVERAGE_SALARY_BY_GENDER_TABLE = Metrics.operation("averageSalaryByGender[table]");
+    private static final OperationMetrics AVERAGE_AGE_IN_DEPARTMENTS_TABLE = Metrics.operation("averageAgeInDepartments[table]");
+    private static final OperationMetrics SUM_SALARIES_BY_DEPARTMENT_TABLE = Metrics.operation("sumSalariesByDepartment[table]");
+    private static final OperationMetrics OLDEST_EMPLOYEE_IN_DEPARTMENT_TABLE = Metrics.operation("oldestEmployeeInDepartment[table]");
+    private static final OperationMetrics GROUP_EMPLOYEES_BY_AGE_RANGE_TABLE = Metrics.operation("groupEmployeesByAgeRange[table]");
+    private static final OperationMetrics COUNT_BY_PAYMENT_METHOD_TABLE = Metrics.operation("countByPaymentMethod[table]");
+    private static final OperationMetrics COUNT_EMPLOYEES_IN_DEPARTMENTS_TABLE = Metrics.operation("countEmployeesInDepartments[table]");
+    private static final OperationMetrics COUNT_EMPLOYEES_BY_GENDER_TABLE = Metrics.operation("countEmployeesByGender[table]");
+    private static final OperationMetrics PARTITION_BY_AMOUNT_TABLE = Metrics.operation("partitionByAmount[table]");
+
     /**
      * Checks if all payments in the list are approved.
      *
      * @return True if all payments are approved, false otherwise.
      */
     public static boolean allPaymentsApproved(List<Payment> payments) {
-        throw new ExerciseNotCompletedException();
+        return payments.stream().allMatch(payment -> payment.status() == Payment.PaymentStatus.APPROVED);
+    }
+
+    /**
+     * Checks if all rows of the payment table are approved.
+     *
+     * @return True if all payments are approved, false otherwise.
+     */
+    public static boolean allPaymentsApproved(PaymentTable payments) {
+        return payments.allHaveStatus(Payment.PaymentStatus.APPROVED);
     }
 
     /**
@@ -27,7 +90,9 @@ public class KTStreams {
      * @return A list of payments with the approved status.
      */
     public static List<Payment> filterPaymentsByStatus(List<Payment> payments) {
-        throw new ExerciseNotCompletedException();
+        return payments.stream()
+                .filter(payment -> payment.status() == Payment.PaymentStatus.APPROVED)
+                .toList();
     }
 
     /**
@@ -36,7 +101,67 @@ public class KTStreams {
      * @return The total amount of payments in USD.
      */
     public static BigDecimal totalAmountByCurrency(List<Payment> payments) {
-        throw new ExerciseNotCompletedException();
+        return payments.stream()
+                .filter(payment -> payment.currency() == Payment.Currency.USD)
+                .collect(Money.summing(Payment::amount));
+    }
+
+    /**
+     * Calculates the total amount of USD payments in the table without leaving the cents column.
+     * Like {@link #totalAmountByCurrency(List)}, the total has the largest scale of the amounts and never
+     * less than zero, so amounts such as {@code 1E+2} sum to {@code 100} in both.
+     *
+     * @return The total amount of payments in USD.
+     */
+    public static BigDecimal totalAmountByCurrency(PaymentTable payments) {
+        OptionalInt uniformScale = payments.uniformAmountScale();
+        if (uniformScale.isPresent()) {
+            BitSet usdRows = payments.selectCurrency(Payment.Currency.USD);
+            if (usdRows.isEmpty()) {
+                return BigDecimal.ZERO;
+            }
+            // Money, which sums the list, never goes below scale zero
+            return payments.sumAmounts(usdRows).setScale(Math.max(0, uniformScale.getAsInt()));
+        }
+        int usd = Payment.Currency.USD.ordinal();
+        Money total = new Money();
+        int scale = 0;
+        for (int row = 0; row < payments.size(); row++) {
+            if (payments.currencyOrdinal(row) == usd) {
+                total.add(payments.amount(row), PaymentTable.AMOUNT_SCALE);
+                scale = Math.max(scale, payments.amountScale(row));
+            }
+        }
+        return total.toBigDecimal().setScale(scale);
+    }
+
+    /**
+     * Calculates the total amount of all payments converted into the base currency of the rates.
+     * Every payment is converted with the rate of its date and the exact product is rounded half-even
+     * to cents once.
+     *
+     * @return The total amount of payments in the base currency.
+     */
+    public static BigDecimal totalAmountInBaseCurrency(List<Payment> payments, FxRates rates) {
+        Money total = new Money();
+        for (Payment payment : payments) {
+            total.add(convertToBaseCents(payment, rates), PaymentTable.AMOUNT_SCALE);
+        }
+        return total.toBigDecimal().setScale(PaymentTable.AMOUNT_SCALE);
+    }
+
+    /**
+     * Same as {@link #totalAmountInBaseCurrency(List, FxRates)} over the primitive columns of the table.
+     *
+     * @return The total amount of payments in the base currency.
+     */
+    public static BigDecimal totalAmountInBaseCurrency(PaymentTable payments, FxRates rates) {
+        Money total = new Money();
+        for (int row = 0; row < payments.size(); row++) {
+            total.add(rates.convert(payments.amount(row), payments.epochDay(row), payments.currencyOrdinal(row)),
+                    PaymentTable.AMOUNT_SCALE);
+        }
+        return total.toBigDecimal().setScale(PaymentTable.AMOUNT_SCALE);
     }
 
     /**
@@ -45,7 +170,49 @@ public class KTStreams {
      * @return A set of unique customer names with .
      */
     public static Set<String> findDistinctCustomers(List<Payment> payments, int nameLength) {
-        throw new ExerciseNotCompletedException();
+        return payments.stream()
+                .map(Payment::customerName)
+                .filter(name -> name.length() <= nameLength)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Retrieve unique customer names which name length is less than requested. Filters the customer
+     * dictionary of the table instead of its rows.
+     *
+     * @return A set of unique customer names with .
+     */
+    public static Set<String> findDistinctCustomers(PaymentTable payments, int nameLength) {
+        OperationMetrics.Sample sample = FIND_DISTINCT_CUSTOMERS_TABLE.start();
+        Dictionary customerNames = payments.customerNames();
+        Set<String> result = new HashSet<>();
+        for (int code = 0; code < customerNames.size(); code++) {
+            if (customerNames.decode(code).length() <= nameLength) {
+                result.add(customerNames.decode(code));
+            }
+        }
+        sample.stop(payments.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Estimates the number of unique customer names with a HyperLogLog sketch, whose memory depends
+     * only on the requested error. Sketches of different partitions can be merged.
+     *
+     * @param relativeError the relative standard error of the estimate
+     * @return a sketch whose {@link HyperLogLog#estimate()} is the approximate number of customers
+     */
+    public static HyperLogLog approximateDistinctCustomers(List<Payment> payments, double relativeError) {
+        return approximateDistinctCustomers(payments, relativeError, ExecutionOptions.sequential());
+    }
+
+    /**
+     * Same as {@link #approximateDistinctCustomers(List, double)}, merging the sketches of the fork/join
+     * pool of the options once the input is larger than their sequential threshold.
+     */
+    public static HyperLogLog approximateDistinctCustomers(List<Payment> payments, double relativeError,
+                                                           ExecutionOptions options) {
+        return ForkJoinCollect.collect(payments, HyperLogLog.counting(relativeError, Payment::customerName), options);
     }
 
     /**
@@ -54,7 +221,26 @@ public class KTStreams {
      * @return The earliest payment date. Otherwise - return null
      */
     public static LocalDate findEarliestPaymentDate(List<Payment> payments) {
-        throw new ExerciseNotCompletedException();
+        return payments.stream()
+                .map(Payment::date)
+                .min(Comparator.naturalOrder())
+                .orElse(null);
+    }
+
+    /**
+     * Finds the earliest payment date in the table.
+     *
+     * @return The earliest payment date. Otherwise - return null
+     */
+    public static LocalDate findEarliestPaymentDate(PaymentTable payments) {
+        if (payments.size() == 0) {
+            return null;
+        }
+        int earliest = Integer.MAX_VALUE;
+        for (int row = 0; row < payments.size(); row++) {
+            earliest = Math.min(earliest, payments.epochDay(row));
+        }
+        return LocalDate.ofEpochDay(earliest);
     }
 
     /**
@@ -63,7 +249,48 @@ public class KTStreams {
      * @return The maximum payment amount.
      */
     public static BigDecimal findMaxPaymentAmount(List<Payment> payments) {
-        throw new ExerciseNotCompletedException();
+        return payments.stream()
+                .map(Payment::amount)
+                .max(Comparator.naturalOrder())
+                .orElse(BigDecimal.ZERO);
+    }
+
+    /**
+     * Finds the maximum payment amount in the table. If no found - return zero
+     *
+     * @return The maximum payment amount, with the scale of the first payment holding it.
+     */
+    public static BigDecimal findMaxPaymentAmount(PaymentTable payments) {
+        if (payments.size() == 0) {
+            return BigDecimal.ZERO;
+        }
+        int maxRow = 0;
+        for (int row = 1; row < payments.size(); row++) {
+            if (payments.amount(row) > payments.amount(maxRow)) {
+                maxRow = row;
+            }
+        }
+        return payments.amountAsDecimal(maxRow);
+    }
+
+    /**
+     * Sketches the distribution of payment amounts with a KLL sketch keeping about {@code 3k} values,
+     * from which approximate percentiles can be read.
+     *
+     * @param k the accuracy parameter of the sketch, see {@link KllSketch}
+     * @return a sketch of the payment amounts as doubles
+     */
+    public static KllSketch approximateAmountQuantiles(List<Payment> payments, int k) {
+        return approximateAmountQuantiles(payments, k, ExecutionOptions.sequential());
+    }
+
+    /**
+     * Same as {@link #approximateAmountQuantiles(List, int)}, merging the sketches of the fork/join
+     * pool of the options once the input is larger than their sequential threshold.
+     */
+    public static KllSketch approximateAmountQuantiles(List<Payment> payments, int k, ExecutionOptions options) {
+        return ForkJoinCollect.collect(payments,
+                KllSketch.sketching(k, (Payment payment) -> payment.amount().doubleValue()), options);
     }
 
     /**
@@ -73,7 +300,10 @@ public class KTStreams {
      * @return A list of payment references for the customer.
      */
     public static List<String> getReferencesForCustomer(List<Payment> payments, String customerName) {
-        throw new ExerciseNotCompletedException();
+        return payments.stream()
+                .filter(payment -> payment.customerName().equals(customerName))
+                .map(Payment::reference)
+                .toList();
     }
 
     /**
@@ -82,7 +312,69 @@ public class KTStreams {
      * @return A map with payment methods as keys and their respective counts as values.
      */
     public static Map<String, Long> countByPaymentMethod(List<Payment> payments) {
-        throw new ExerciseNotCompletedException();
+        return countByPaymentMethod(payments, ExecutionOptions.sequential());
+    }
+
+    /**
+     * Same as {@link #countByPaymentMethod(List)}, split across the fork/join pool of the options
+     * once the input is larger than their sequential threshold.
+     */
+    public static Map<String, Long> countByPaymentMethod(List<Payment> payments, ExecutionOptions options) {
+        OperationMetrics.Sample sample = COUNT_BY_PAYMENT_METHOD.start();
+        Map<String, Long> result = ForkJoinCollect.collect(payments,
+                Collectors.groupingBy(Payment::paymentMethod, Collectors.counting()), options);
+        sample.stop(payments.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Counts the number of payments for each payment method code of the table.
+     *
+     * @return A map with payment methods as keys and their respective counts as values.
+     */
+    public static Map<String, Long> countByPaymentMethod(PaymentTable payments) {
+        OperationMetrics.Sample sample = COUNT_BY_PAYMENT_METHOD_TABLE.start();
+        long[] counts = new long[payments.paymentMethods().size()];
+        for (int row = 0; row < payments.size(); row++) {
+            counts[payments.paymentMethodCode(row)]++;
+        }
+        Map<String, Long> result = decodeCounts(payments.paymentMethods(), counts);
+        sample.stop(payments.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Finds the most frequent payment methods. Equal counts are ordered by payment method.
+     *
+     * @return at most {@code k} payment methods with their counts, most frequent first
+     */
+    public static List<Map.Entry<String, Long>> topPaymentMethods(List<Payment> payments, int k) {
+        return countByPaymentMethod(payments).entrySet().stream()
+                .collect(BoundedHeap.greatest(k, Map.Entry.<String, Long>comparingByValue()
+                        .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder()))));
+    }
+
+    /**
+     * Estimates the most frequent payment methods in a single pass with a Space-Saving summary of
+     * {@code capacity} counters.
+     *
+     * @return at most {@code k} payment methods with their estimated counts, most frequent first
+     */
+    public static List<SpaceSaving.Counter<String>> approximateTopPaymentMethods(List<Payment> payments,
+                                                                                int k, int capacity) {
+        return payments.stream()
+                .collect(SpaceSaving.summarizing(capacity, Payment::paymentMethod, payment -> 1))
+                .top(k);
+    }
+
+    /**
+     * Counts payments per payment method in a Count-Min sketch, whose size depends only on the error bounds.
+     *
+     * @return a sketch estimating the count of any payment method
+     */
+    public static CountMinSketch approximateCountByPaymentMethod(List<Payment> payments, double epsilon, double delta) {
+        return payments.stream()
+                .collect(CountMinSketch.counting(epsilon, delta, Payment::paymentMethod, payment -> 1));
     }
 
     /**
@@ -92,7 +384,40 @@ public class KTStreams {
      * @return A map with two lists: "above" for payments above the amount, and "below" for payments below or equal to the amount.
      */
     public static Map<Boolean, List<Payment>> partitionByAmount(List<Payment> payments, BigDecimal amount) {
-        throw new ExerciseNotCompletedException();
+        return partitionByAmount(payments, amount, ExecutionOptions.sequential());
+    }
+
+    /**
+     * Same as {@link #partitionByAmount(List, BigDecimal)}, split across the fork/join pool of the options
+     * once the input is larger than their sequential threshold.
+     */
+    public static Map<Boolean, List<Payment>> partitionByAmount(List<Payment> payments, BigDecimal amount, ExecutionOptions options) {
+        OperationMetrics.Sample sample = PARTITION_BY_AMOUNT.start();
+        Map<Boolean, List<Payment>> result = ForkJoinCollect.collect(payments,
+                Collectors.partitioningBy(payment -> payment.amount().compareTo(amount) > 0), options);
+        sample.stop(payments.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Partitions the rows of the table into payments above and below or equal to a given amount.
+     * Only the payments that end up in the result are materialized.
+     *
+     * @param amount The threshold amount for partitioning.
+     * @return A map with two lists: "above" for payments above the amount, and "below" for payments below or equal to the amount.
+     */
+    public static Map<Boolean, List<Payment>> partitionByAmount(PaymentTable payments, BigDecimal amount) {
+        OperationMetrics.Sample sample = PARTITION_BY_AMOUNT_TABLE.start();
+        BitSet aboveRows = payments.selectAmountAbove(floorToCents(amount));
+        int aboveCount = aboveRows.cardinality();
+        List<Payment> above = new ArrayList<>(aboveCount);
+        List<Payment> below = new ArrayList<>(payments.size() - aboveCount);
+        for (int row = 0; row < payments.size(); row++) {
+            (aboveRows.get(row) ? above : below).add(payments.payment(row));
+        }
+        Map<Boolean, List<Payment>> result = Map.of(true, above, false, below);
+        sample.stop(payments.size(), result.size());
+        return result;
     }
 
     /**
@@ -101,7 +426,20 @@ public class KTStreams {
      * @return a map where the key is the Currency and the value is a list of customer names who made payments in that currency
      */
     public static Map<Payment.Currency, List<String>> groupByCurrencyAndMapToCustomerNames(List<Payment> payments) {
-        throw new ExerciseNotCompletedException();
+        return groupByCurrencyAndMapToCustomerNames(payments, ExecutionOptions.sequential());
+    }
+
+    /**
+     * Same as {@link #groupByCurrencyAndMapToCustomerNames(List)}, split across the fork/join pool of the options
+     * once the input is larger than their sequential threshold.
+     */
+    public static Map<Payment.Currency, List<String>> groupByCurrencyAndMapToCustomerNames(List<Payment> payments, ExecutionOptions options) {
+        OperationMetrics.Sample sample = GROUP_BY_CURRENCY_AND_MAP_TO_CUSTOMER_NAMES.start();
+        Map<Payment.Currency, List<String>> result = ForkJoinCollect.collect(payments,
+                Collectors.groupingBy(Payment::currency,
+                        Collectors.mapping(Payment::customerName, Collectors.toList())), options);
+        sample.stop(payments.size(), result.size());
+        return result;
     }
 
     /**
@@ -110,7 +448,20 @@ public class KTStreams {
      * @return a map where the key is the PaymentStatus and the value is a set of payment methods used for that status
      */
     public static Map<Payment.PaymentStatus, Set<String>> groupByStatusAndMapToPaymentMethods(List<Payment> payments) {
-        throw new ExerciseNotCompletedException();
+        return groupByStatusAndMapToPaymentMethods(payments, ExecutionOptions.sequential());
+    }
+
+    /**
+     * Same as {@link #groupByStatusAndMapToPaymentMethods(List)}, split across the fork/join pool of the options
+     * once the input is larger than their sequential threshold.
+     */
+    public static Map<Payment.PaymentStatus, Set<String>> groupByStatusAndMapToPaymentMethods(List<Payment> payments, ExecutionOptions options) {
+        OperationMetrics.Sample sample = GROUP_BY_STATUS_AND_MAP_TO_PAYMENT_METHODS.start();
+        Map<Payment.PaymentStatus, Set<String>> result = ForkJoinCollect.collect(payments,
+                Collectors.groupingBy(Payment::status,
+                        Collectors.mapping(Payment::paymentMethod, Collectors.toSet())), options);
+        sample.stop(payments.size(), result.size());
+        return result;
     }
 
     /**
@@ -119,7 +470,20 @@ public class KTStreams {
      * @return a map where the key is the date and the value is a list of references of payments made on that date
      */
     public static Map<LocalDate, List<String>> groupByDateAndMapToReferences(List<Payment> payments) {
-        throw new ExerciseNotCompletedException();
+        return groupByDateAndMapToReferences(payments, ExecutionOptions.sequential());
+    }
+
+    /**
+     * Same as {@link #groupByDateAndMapToReferences(List)}, split across the fork/join pool of the options
+     * once the input is larger than their sequential threshold.
+     */
+    public static Map<LocalDate, List<String>> groupByDateAndMapToReferences(List<Payment> payments, ExecutionOptions options) {
+        OperationMetrics.Sample sample = GROUP_BY_DATE_AND_MAP_TO_REFERENCES.start();
+        Map<LocalDate, List<String>> result = ForkJoinCollect.collect(payments,
+                Collectors.groupingBy(Payment::date,
+                        Collectors.mapping(Payment::reference, Collectors.toList())), options);
+        sample.stop(payments.size(), result.size());
+        return result;
     }
 
     /**
@@ -128,7 +492,46 @@ public class KTStreams {
      * @return a map where a key is a payment status and value is comma-separated customer names
      */
     public static Map<Payment.PaymentStatus, String> groupByCustomer(List<Payment> payments) {
-        throw new ExerciseNotCompletedException();
+        return groupByCustomer(payments, ExecutionOptions.sequential());
+    }
+
+    /**
+     * Same as {@link #groupByCustomer(List)}, split across the fork/join pool of the options
+     * once the input is larger than their sequential threshold.
+     */
+    public static Map<Payment.PaymentStatus, String> groupByCustomer(List<Payment> payments, ExecutionOptions options) {
+        OperationMetrics.Sample sample = GROUP_BY_CUSTOMER.start();
+        Map<Payment.PaymentStatus, String> result = ForkJoinCollect.collect(payments,
+                Collectors.groupingBy(Payment::status,
+                        Collectors.mapping(Payment::customerName, Collectors.joining(", "))), options);
+        sample.stop(payments.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Groups customer names of the table by payment statuses.
+     *
+     * @return a map where a key is a payment status and value is comma-separated customer names
+     */
+    public static Map<Payment.PaymentStatus, String> groupByCustomer(PaymentTable payments) {
+        OperationMetrics.Sample sample = GROUP_BY_CUSTOMER_TABLE.start();
+        Payment.PaymentStatus[] statuses = Payment.PaymentStatus.values();
+        StringJoiner[] names = new StringJoiner[statuses.length];
+        for (int row = 0; row < payments.size(); row++) {
+            int status = payments.statusOrdinal(row);
+            if (names[status] == null) {
+                names[status] = new StringJoiner(", ");
+            }
+            names[status].add(payments.customerNames().decode(payments.customerNameCode(row)));
+        }
+        Map<Payment.PaymentStatus, String> result = new EnumMap<>(Payment.PaymentStatus.class);
+        for (int status = 0; status < names.length; status++) {
+            if (names[status] != null) {
+                result.put(statuses[status], names[status].toString());
+            }
+        }
+        sample.stop(payments.size(), result.size());
+        return result;
     }
 
     /**
@@ -137,7 +540,97 @@ public class KTStreams {
      * @return a map where the key is the customer name and the value is the total amount they paid
      */
     public static Map<String, BigDecimal> groupByCustomerAndMapToTotalAmount(List<Payment> payments) {
-        throw new ExerciseNotCompletedException();
+        return groupByCustomerAndMapToTotalAmount(payments, ExecutionOptions.sequential());
+    }
+
+    /**
+     * Same as {@link #groupByCustomerAndMapToTotalAmount(List)}, split across the fork/join pool of the options
+     * once the input is larger than their sequential threshold.
+     */
+    public static Map<String, BigDecimal> groupByCustomerAndMapToTotalAmount(List<Payment> payments, ExecutionOptions options) {
+        OperationMetrics.Sample sample = GROUP_BY_CUSTOMER_AND_MAP_TO_TOTAL_AMOUNT.start();
+        Map<String, BigDecimal> result = ForkJoinCollect.collect(payments,
+                Money.summingBy(Payment::customerName, Payment::amount), options);
+        sample.stop(payments.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Groups the payments by customer name and maps them to the total amount converted into the base
+     * currency of the rates, so that payments in different currencies can be added up.
+     *
+     * @return a map where the key is the customer name and the value is the total amount they paid in the base currency
+     */
+    public static Map<String, BigDecimal> groupByCustomerAndMapToTotalAmount(List<Payment> payments, FxRates rates) {
+        OperationMetrics.Sample sample = GROUP_BY_CUSTOMER_AND_MAP_TO_TOTAL_AMOUNT_IN_BASE_CURRENCY.start();
+        Map<String, Money> totals = new HashMap<>();
+        for (Payment payment : payments) {
+            Money total = totals.get(payment.customerName());
+            if (total == null) {
+                total = new Money();
+                totals.put(payment.customerName(), total);
+            }
+            total.add(convertToBaseCents(payment, rates), PaymentTable.AMOUNT_SCALE);
+        }
+        Map<String, BigDecimal> result = new HashMap<>();
+        totals.forEach((customerName, total) -> result.put(customerName, total.toBigDecimal()));
+        sample.stop(payments.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Same as {@link #groupByCustomerAndMapToTotalAmount(List, FxRates)}, accumulating into an array
+     * indexed by customer code.
+     *
+     * @return a map where the key is the customer name and the value is the total amount they paid in the base currency
+     */
+    public static Map<String, BigDecimal> groupByCustomerAndMapToTotalAmount(PaymentTable payments, FxRates rates) {
+        OperationMetrics.Sample sample = GROUP_BY_CUSTOMER_AND_MAP_TO_TOTAL_AMOUNT_TABLE.start();
+        Money[] totals = new Money[payments.customerNames().size()];
+        for (int row = 0; row < payments.size(); row++) {
+            int customer = payments.customerNameCode(row);
+            if (totals[customer] == null) {
+                totals[customer] = new Money();
+            }
+            totals[customer].add(rates.convert(payments.amount(row), payments.epochDay(row), payments.currencyOrdinal(row)),
+                    PaymentTable.AMOUNT_SCALE);
+        }
+        Map<String, BigDecimal> result = new HashMap<>();
+        for (int customer = 0; customer < totals.length; customer++) {
+            result.put(payments.customerNames().decode(customer), totals[customer].toBigDecimal());
+        }
+        sample.stop(payments.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Finds the customers with the highest total payment amount, keeping only {@code k} of them in a
+     * bounded heap instead of sorting all totals. Equal totals are ordered by customer name.
+     *
+     * @return at most {@code k} customers with their total amounts, highest first
+     */
+    public static List<Map.Entry<String, BigDecimal>> topCustomersByTotalAmount(List<Payment> payments, int k) {
+        return groupByCustomerAndMapToTotalAmount(payments).entrySet().stream()
+                .collect(BoundedHeap.greatest(k, Map.Entry.<String, BigDecimal>comparingByValue()
+                        .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder()))));
+    }
+
+    /**
+     * Estimates the customers with the highest total payment amount in a single pass with a Space-Saving
+     * summary of {@code capacity} counters, whatever the number of customers. Amounts are weighted in
+     * whole cents, rounded down. Space-Saving cannot take weight away from a counter, so zero and negative
+     * amounts such as refunds are skipped and the estimates bound the customers' totals of positive
+     * payments.
+     *
+     * @return at most {@code k} customers with their estimated totals in cents, highest first
+     */
+    public static List<SpaceSaving.Counter<String>> approximateTopCustomersByTotalAmount(List<Payment> payments,
+                                                                                        int k, int capacity) {
+        return payments.stream()
+                .filter(payment -> payment.amount().signum() > 0)
+                .collect(SpaceSaving.summarizing(capacity, Payment::customerName,
+                        payment -> floorToCents(payment.amount())))
+                .top(k);
     }
 
     /**
@@ -146,7 +639,19 @@ public class KTStreams {
      * @return the employee with the highest salary
      */
     public static Employee getHighestPaidEmployee(List<Employee> employees) {
-        throw new ExerciseNotCompletedException();
+        return employees.stream()
+                .max(Comparator.comparingDouble(Employee::salary))
+                .orElse(null);
+    }
+
+    /**
+     * Gets the details of the highest paid employee in the table.
+     *
+     * @return the first employee with the highest salary
+     */
+    public static Employee getHighestPaidEmployee(EmployeeTable employees) {
+        int row = employees.rowOfHighestSalary();
+        return row < 0 ? null : employees.employee(row);
     }
 
     /**
@@ -155,7 +660,78 @@ public class KTStreams {
      * @return the employee with the earliest year of joining
      */
     public static Employee getMostExperiencedEmployee(List<Employee> employees) {
-        throw new ExerciseNotCompletedException();
+        return employees.stream()
+                .min(Comparator.comparingInt(Employee::yearOfJoining))
+                .orElse(null);
+    }
+
+    /**
+     * Finds the employee of the table who has spent the most years in the organization.
+     *
+     * @return the first employee with the earliest year of joining
+     */
+    public static Employee getMostExperiencedEmployee(EmployeeTable employees) {
+        if (employees.size() == 0) {
+            return null;
+        }
+        int best = 0;
+        for (int row = 1; row < employees.size(); row++) {
+            if (employees.yearOfJoining(row) < employees.yearOfJoining(best)) {
+                best = row;
+            }
+        }
+        return employees.employee(best);
+    }
+
+    /**
+     * Sketches the distribution of salaries with a KLL sketch keeping about {@code 3k} values, from
+     * which approximate percentiles can be read.
+     *
+     * @param k the accuracy parameter of the sketch, see {@link KllSketch}
+     * @return a sketch of the employee salaries
+     */
+    public static KllSketch approximateSalaryQuantiles(List<Employee> employees, int k) {
+        return approximateSalaryQuantiles(employees, k, ExecutionOptions.sequential());
+    }
+
+    /**
+     * Same as {@link #approximateSalaryQuantiles(List, int)}, merging the sketches of the fork/join
+     * pool of the options once the input is larger than their sequential threshold.
+     */
+    public static KllSketch approximateSalaryQuantiles(List<Employee> employees, int k, ExecutionOptions options) {
+        return ForkJoinCollect.collect(employees, KllSketch.sketching(k, Employee::salary), options);
+    }
+
+    /**
+     * Gets the highest paid employees of the organization in {@code O(n log k)} time.
+     *
+     * @return at most {@code k} employees, highest salary first
+     */
+    public static List<Employee> topPaidEmployees(List<Employee> employees, int k) {
+        return employees.stream()
+                .collect(BoundedHeap.greatest(k, Comparator.comparingDouble(Employee::salary)));
+    }
+
+    /**
+     * Gets the highest paid employees of each department.
+     *
+     * @return a map where the key is the department name and the value are at most {@code k} employees, highest salary first
+     */
+    public static Map<String, List<Employee>> topPaidEmployeesInDepartments(List<Employee> employees, int k) {
+        return employees.stream()
+                .collect(Collectors.groupingBy(Employee::department,
+                        BoundedHeap.greatest(k, Comparator.comparingDouble(Employee::salary))));
+    }
+
+    /**
+     * Gets the employees of each department who have spent the most years in the organization.
+     *
+     * @return a map where the key is the department name and the value are at most {@code k} employees, earliest year of joining first
+     */
+    public static Map<String, List<Employee>> mostExperiencedEmployeesInDepartments(List<Employee> employees, int k) {
+        return employees.stream()
+                .collect(Collectors.groupingBy(Employee::department,
+                        BoundedHeap.greatest(k, Comparator.comparingInt(Employee::yearOfJoining).reversed())));
     }
 
     /**
@@ -164,7 +740,35 @@ public class KTStreams {
      * @return a map where the key is the department name and the value is the number of employees in that department
      */
     public static Map<String, Long> countEmployeesInDepartments(List<Employee> employees) {
-        throw new ExerciseNotCompletedException();
+        return countEmployeesInDepartments(employees, ExecutionOptions.sequential());
+    }
+
+    /**
+     * Same as {@link #countEmployeesInDepartments(List)}, split across the fork/join pool of the options
+     * once the input is larger than their sequential threshold.
+     */
+    public static Map<String, Long> countEmployeesInDepartments(List<Employee> employees, ExecutionOptions options) {
+        OperationMetrics.Sample sample = COUNT_EMPLOYEES_IN_DEPARTMENTS.start();
+        Map<String, Long> result = ForkJoinCollect.collect(employees,
+                Collectors.groupingBy(Employee::department, Collectors.counting()), options);
+        sample.stop(employees.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Counts the number of employees in each department code of the table.
+     *
+     * @return a map where the key is the department name and the value is the number of employees in that department
+     */
+    public static Map<String, Long> countEmployeesInDepartments(EmployeeTable employees) {
+        OperationMetrics.Sample sample = COUNT_EMPLOYEES_IN_DEPARTMENTS_TABLE.start();
+        long[] counts = new long[employees.departments().size()];
+        for (int row = 0; row < employees.size(); row++) {
+            counts[employees.departmentCode(row)]++;
+        }
+        Map<String, Long> result = decodeCounts(employees.departments(), counts);
+        sample.stop(employees.size(), result.size());
+        return result;
     }
 
     /**
@@ -173,16 +777,77 @@ public class KTStreams {
      * @return a map where the key is the gender and the value is the number of employees of that gender
      */
     public static Map<String, Long> countEmployeesByGender(List<Employee> employees) {
-        throw new ExerciseNotCompletedException();
+        return countEmployeesByGender(employees, ExecutionOptions.sequential());
+    }
+
+    /**
+     * Same as {@link #countEmployeesByGender(List)}, split across the fork/join pool of the options
+     * once the input is larger than their sequential threshold.
+     */
+    public static Map<String, Long> countEmployeesByGender(List<Employee> employees, ExecutionOptions options) {
+        OperationMetrics.Sample sample = COUNT_EMPLOYEES_BY_GENDER.start();
+        Map<String, Long> result = ForkJoinCollect.collect(employees,
+                Collectors.groupingBy(Employee::gender, Collectors.counting()), options);
+        sample.stop(employees.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Counts the number of employees of each gender code of the table.
+     *
+     * @return a map where the key is the gender and the value is the number of employees of that gender
+     */
+    public static Map<String, Long> countEmployeesByGender(EmployeeTable employees) {
+        OperationMetrics.Sample sample = COUNT_EMPLOYEES_BY_GENDER_TABLE.start();
+        long[] counts = new long[employees.genders().size()];
+        for (int row = 0; row < employees.size(); row++) {
+            counts[employees.genderCode(row)]++;
+        }
+        Map<String, Long> result = decodeCounts(employees.genders(), counts);
+        sample.stop(employees.size(), result.size());
+        return result;
     }
 
     /**
-     * Finds the average salary of employees grouped by gender.
+     * Finds the average salary of employees grouped by gender. Salaries are summed exactly with
+     * {@link ExactSum}, so the parallel overload returns the same averages.
      *
      * @return a map where the key is the gender and the value is the average salary of that gender
      */
     public static Map<String, Double> averageSalaryByGender(List<Employee> employees) {
-        throw new ExerciseNotCompletedException();
+        return averageSalaryByGender(employees, ExecutionOptions.sequential());
+    }
+
+    /**
+     * Same as {@link #averageSalaryByGender(List)}, split across the fork/join pool of the options
+     * once the input is larger than their sequential threshold.
+     */
+    public static Map<String, Double> averageSalaryByGender(List<Employee> employees, ExecutionOptions options) {
+        OperationMetrics.Sample sample = AVERAGE_SALARY_BY_GENDER.start();
+        Map<String, Double> result = ForkJoinCollect.collect(employees,
+                Collectors.groupingBy(Employee::gender, ExactSum.averaging(Employee::salary)), options);
+        sample.stop(employees.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Calculates the average salary of employees by gender code of the table, with the same exact
+     * summation as {@link #averageSalaryByGender(List)}.
+     *
+     * @return a map where the key is the gender and the value is the average salary of employees of that gender
+     */
+    public static Map<String, Double> averageSalaryByGender(EmployeeTable employees) {
+        OperationMetrics.Sample sample = AVERAGE_SALARY_BY_GENDER_TABLE.start();
+        GroupedDoubleSums sums = new GroupedDoubleSums(employees.genders().size());
+        for (int row = 0; row < employees.size(); row++) {
+            sums.add(employees.genderCode(row), employees.salary(row));
+        }
+        Map<String, Double> result = new HashMap<>();
+        for (int code = 0; code < employees.genders().size(); code++) {
+            result.put(employees.genders().decode(code), sums.average(code));
+        }
+        sample.stop(employees.size(), result.size());
+        return result;
     }
 
     /**
@@ -191,16 +856,82 @@ public class KTStreams {
      * @return a map where the key is the department name and the value is the average age in that department
      */
     public static Map<String, Double> averageAgeInDepartments(List<Employee> employees) {
-        throw new ExerciseNotCompletedException();
+        return averageAgeInDepartments(employees, ExecutionOptions.sequential());
+    }
+
+    /**
+     * Same as {@link #averageAgeInDepartments(List)}, split across the fork/join pool of the options
+     * once the input is larger than their sequential threshold.
+     */
+    public static Map<String, Double> averageAgeInDepartments(List<Employee> employees, ExecutionOptions options) {
+        OperationMetrics.Sample sample = AVERAGE_AGE_IN_DEPARTMENTS.start();
+        Map<String, Double> result = ForkJoinCollect.collect(employees,
+                Collectors.groupingBy(Employee::department, Collectors.averagingInt(Employee::age)), options);
+        sample.stop(employees.size(), result.size());
+        return result;
     }
 
     /**
-     * Sums the total salaries of all employees in each department.
+     * Calculates the average age of employees by department code of the table.
+     *
+     * @return a map where the key is the department name and the value is the average age of employees in that department
+     */
+    public static Map<String, Double> averageAgeInDepartments(EmployeeTable employees) {
+        OperationMetrics.Sample sample = AVERAGE_AGE_IN_DEPARTMENTS_TABLE.start();
+        long[] sums = new long[employees.departments().size()];
+        long[] counts = new long[sums.length];
+        for (int row = 0; row < employees.size(); row++) {
+            sums[employees.departmentCode(row)] += employees.age(row);
+            counts[employees.departmentCode(row)]++;
+        }
+        Map<String, Double> result = new HashMap<>();
+        for (int code = 0; code < sums.length; code++) {
+            result.put(employees.departments().decode(code), (double) sums[code] / counts[code]);
+        }
+        sample.stop(employees.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Sums the total salaries of all employees in each department. Salaries are summed exactly with
+     * {@link ExactSum}, so the parallel overload returns the same sums.
      *
      * @return a map where the key is the department and the value is the total salary in that department
      */
     public static Map<String, Double> sumSalariesByDepartment(List<Employee> employees) {
-        throw new ExerciseNotCompletedException();
+        return sumSalariesByDepartment(employees, ExecutionOptions.sequential());
+    }
+
+    /**
+     * Same as {@link #sumSalariesByDepartment(List)}, split across the fork/join pool of the options
+     * once the input is larger than their sequential threshold.
+     */
+    public static Map<String, Double> sumSalariesByDepartment(List<Employee> employees, ExecutionOptions options) {
+        OperationMetrics.Sample sample = SUM_SALARIES_BY_DEPARTMENT.start();
+        Map<String, Double> result = ForkJoinCollect.collect(employees,
+                Collectors.groupingBy(Employee::department, ExactSum.summing(Employee::salary)), options);
+        sample.stop(employees.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Sums the salaries of employees by department code of the table, with the same exact
+     * summation as {@link #sumSalariesByDepartment(List)}.
+     *
+     * @return a map where the key is the department name and the value is the total salary of employees in that department
+     */
+    public static Map<String, Double> sumSalariesByDepartment(EmployeeTable employees) {
+        OperationMetrics.Sample sample = SUM_SALARIES_BY_DEPARTMENT_TABLE.start();
+        GroupedDoubleSums sums = new GroupedDoubleSums(employees.departments().size());
+        for (int row = 0; row < employees.size(); row++) {
+            sums.add(employees.departmentCode(row), employees.salary(row));
+        }
+        Map<String, Double> result = new HashMap<>();
+        for (int code = 0; code < employees.departments().size(); code++) {
+            result.put(employees.departments().decode(code), sums.sum(code));
+        }
+        sample.stop(employees.size(), result.size());
+        return result;
     }
 
     /**
@@ -209,7 +940,44 @@ public class KTStreams {
      * @return a map where the key is the department and the value is the oldest employee in that department
      */
     public static Map<String, Employee> oldestEmployeeInDepartment(List<Employee> employees) {
-        throw new ExerciseNotCompletedException();
+        return oldestEmployeeInDepartment(employees, ExecutionOptions.sequential());
+    }
+
+    /**
+     * Same as {@link #oldestEmployeeInDepartment(List)}, split across the fork/join pool of the options
+     * once the input is larger than their sequential threshold.
+     */
+    public static Map<String, Employee> oldestEmployeeInDepartment(List<Employee> employees, ExecutionOptions options) {
+        OperationMetrics.Sample sample = OLDEST_EMPLOYEE_IN_DEPARTMENT.start();
+        Map<String, Employee> result = ForkJoinCollect.collect(employees,
+                Collectors.groupingBy(Employee::department,
+                        Collectors.collectingAndThen(
+                                Collectors.maxBy(Comparator.comparingInt(Employee::age)), Optional::get)), options);
+        sample.stop(employees.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Finds the oldest employee of each department code of the table.
+     *
+     * @return a map where the key is the department name and the value is the first oldest employee in that department
+     */
+    public static Map<String, Employee> oldestEmployeeInDepartment(EmployeeTable employees) {
+        OperationMetrics.Sample sample = OLDEST_EMPLOYEE_IN_DEPARTMENT_TABLE.start();
+        int[] oldest = new int[employees.departments().size()];
+        Arrays.fill(oldest, -1);
+        for (int row = 0; row < employees.size(); row++) {
+            int code = employees.departmentCode(row);
+            if (oldest[code] < 0 || employees.age(row) > employees.age(oldest[code])) {
+                oldest[code] = row;
+            }
+        }
+        Map<String, Employee> result = new HashMap<>();
+        for (int code = 0; code < oldest.length; code++) {
+            result.put(employees.departments().decode(code), employees.employee(oldest[code]));
+        }
+        sample.stop(employees.size(), result.size());
+        return result;
     }
 
     /**
@@ -218,7 +986,66 @@ public class KTStreams {
      * @return a map where the key is the age range and the value is the list of employees in that age range
      */
     public static Map<String, List<Employee>> groupEmployeesByAgeRange(List<Employee> employees) {
-        throw new ExerciseNotCompletedException();
+        return groupEmployeesByAgeRange(employees, ExecutionOptions.sequential());
+    }
+
+    /**
+     * Same as {@link #groupEmployeesByAgeRange(List)}, split across the fork/join pool of the options
+     * once the input is larger than their sequential threshold.
+     */
+    public static Map<String, List<Employee>> groupEmployeesByAgeRange(List<Employee> employees, ExecutionOptions options) {
+        OperationMetrics.Sample sample = GROUP_EMPLOYEES_BY_AGE_RANGE.start();
+        Map<String, List<Employee>> result = ForkJoinCollect.collect(employees,
+                Collectors.groupingBy(KTStreams::ageRange), options);
+        sample.stop(employees.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Groups the employees of the table by age range, materializing only the employees of the result.
+     *
+     * @return a map where the key is the age range and the value is a list of employees in that age range
+     */
+    public static Map<String, List<Employee>> groupEmployeesByAgeRange(EmployeeTable employees) {
+        OperationMetrics.Sample sample = GROUP_EMPLOYEES_BY_AGE_RANGE_TABLE.start();
+        BitSet under20 = employees.selectAgeAtMost(20);
+        BitSet upTo30 = employees.selectAgeAtMost(30);
+        Map<String, List<Employee>> result = new HashMap<>();
+        for (int row = 0; row < employees.size(); row++) {
+            String range = under20.get(row) ? UNDER_20 : upTo30.get(row) ? FROM_20_TO_30 : ABOVE_30;
+            result.computeIfAbsent(range, key -> new ArrayList<>()).add(employees.employee(row));
+        }
+        sample.stop(employees.size(), result.size());
+        return result;
+    }
+
+    private static Map<String, Long> decodeCounts(Dictionary dictionary, long[] counts) {
+        Map<String, Long> result = new HashMap<>();
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0) {
+                result.put(dictionary.decode(code), counts[code]);
+            }
+        }
+        return result;
+    }
+
+    private static long convertToBaseCents(Payment payment, FxRates rates) {
+        return rates.convert(payment.amount(), Math.toIntExact(payment.date().toEpochDay()), payment.currency().ordinal());
+    }
+
+    private static long floorToCents(BigDecimal amount) {
+        BigDecimal cents = amount.setScale(PaymentTable.AMOUNT_SCALE, RoundingMode.FLOOR).movePointRight(PaymentTable.AMOUNT_SCALE);
+        if (cents.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) >= 0) {
+            return Long.MAX_VALUE;
+        }
+        return cents.compareTo(BigDecimal.valueOf(Long.MIN_VALUE)) <= 0 ? Long.MIN_VALUE : cents.longValueExact();
+    }
+
+    private static String ageRange(Employee employee) {
+        if (employee.age() <= 20) {
+            return UNDER_20;
+        }
+        return employee.age() <= 30 ? FROM_20_TO_30 : ABOVE_30;
     }
 
 }
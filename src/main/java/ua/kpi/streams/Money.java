@@ -0,0 +1,148 @@
+package ua.kpi.streams;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+/**
+ * Mutable fixed-point accumulator for monetary sums. The running total is an unscaled {@code long}
+ * at the largest scale added so far, so adding amounts does not allocate; once the total or a rescale
+ * would overflow, it falls back to {@link BigDecimal} arithmetic for the rest of its life.
+ * <p>
+ * Like {@code BigDecimal.ZERO.add(...)}, the result has the largest scale of the added amounts and
+ * never less than zero.
+ */
+public final class Money {
+
+    private static final int MAX_LONG_DIGITS = 18;
+    private static final long[] POWERS_OF_TEN = new long[MAX_LONG_DIGITS + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private long unscaled;
+    private int scale;
+    private BigDecimal overflow;
+
+    /**
+     * Adds an amount given as unscaled value and scale, i.e. {@code unscaledValue * 10^-scale}.
+     */
+    public Money add(long unscaledValue, int valueScale) {
+        if (overflow == null) {
+            if (valueScale == scale) {
+                long sum = unscaled + unscaledValue;
+                if (((unscaled ^ sum) & (unscaledValue ^ sum)) >= 0) {
+                    unscaled = sum;
+                    return this;
+                }
+            } else if (addRescaled(unscaledValue, valueScale)) {
+                return this;
+            }
+            overflow = BigDecimal.valueOf(unscaled, scale);
+        }
+        overflow = overflow.add(BigDecimal.valueOf(unscaledValue, valueScale));
+        return this;
+    }
+
+    /**
+     * Adds an amount. Amounts with at most 18 digits take the long path.
+     */
+    public Money add(BigDecimal amount) {
+        if (overflow == null && amount.precision() <= MAX_LONG_DIGITS) {
+            return add(amount.movePointRight(amount.scale()).longValue(), amount.scale());
+        }
+        return addOverflowing(amount);
+    }
+
+    /**
+     * Adds the total of another accumulator, e.g. when combining partial sums.
+     */
+    public Money add(Money other) {
+        return other.overflow == null ? add(other.unscaled, other.scale) : addOverflowing(other.overflow);
+    }
+
+    /**
+     * @return a collector summing the mapped amounts of its elements
+     */
+    public static <T> Collector<T, Money, BigDecimal> summing(Function<? super T, BigDecimal> amount) {
+        return Collector.of(Money::new, (money, element) -> money.add(amount.apply(element)), Money::add,
+                Money::toBigDecimal);
+    }
+
+    /**
+     * Same as {@code groupingBy(key, summing(amount))}, but looks groups up without capturing a lambda
+     * per element, so accumulating does not allocate once a group exists.
+     *
+     * @return a collector summing the mapped amounts of its elements per key
+     */
+    public static <T, K> Collector<T, ?, Map<K, BigDecimal>> summingBy(Function<? super T, ? extends K> key,
+                                                                      Function<? super T, BigDecimal> amount) {
+        return Collector.<T, Map<K, Money>, Map<K, BigDecimal>>of(
+                HashMap::new,
+                (totals, element) -> {
+                    K group = key.apply(element);
+                    Money total = totals.get(group);
+                    if (total == null) {
+                        total = new Money();
+                        totals.put(group, total);
+                    }
+                    total.add(amount.apply(element));
+                },
+                (left, right) -> {
+                    right.forEach((group, total) -> {
+                        Money leftTotal = left.get(group);
+                        if (leftTotal == null) {
+                            left.put(group, total);
+                        } else {
+                            leftTotal.add(total);
+                        }
+                    });
+                    return left;
+                },
+                totals -> {
+                    Map<K, BigDecimal> result = new HashMap<>(totals.size() * 4 / 3 + 1);
+                    totals.forEach((group, total) -> result.put(group, total.toBigDecimal()));
+                    return result;
+                });
+    }
+
+    public BigDecimal toBigDecimal() {
+        return overflow != null ? overflow : BigDecimal.valueOf(unscaled, scale);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+
+    private Money addOverflowing(BigDecimal amount) {
+        if (overflow == null) {
+            overflow = BigDecimal.valueOf(unscaled, scale);
+        }
+        overflow = overflow.add(amount);
+        return this;
+    }
+
+    private boolean addRescaled(long unscaledValue, int valueScale) {
+        int targetScale = Math.max(scale, valueScale);
+        if (targetScale - Math.min(scale, valueScale) > MAX_LONG_DIGITS) {
+            return false;
+        }
+        try {
+            long sum = Math.multiplyExact(unscaled, POWERS_OF_TEN[targetScale - scale]);
+            long value = Math.multiplyExact(unscaledValue, POWERS_OF_TEN[targetScale - valueScale]);
+            unscaled = Math.addExact(sum, value);
+            scale = targetScale;
+            return true;
+        } catch (ArithmeticException e) {
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,202 @@
+package ua.kpi.streams;
+
+import ua.kpi.entity.Payment;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Keeps a subset of the {@link KTStreams} payment aggregates up to date while payments are inserted,
+ * change status or are retracted, so that queries never rescan the history. Payments are identified
+ * by their id. Counters and sums are updated in constant time; the maximum amount, the earliest
+ * date and the scales of the summed amounts are kept in sorted multisets and cost a logarithmic update.
+ * <p>
+ * Results are equal to those of {@link KTStreams} over the payments in insertion order, including the
+ * scale of sums after a retraction and which of several equal maximum amounts is returned.
+ * <p>
+ * Instances are not thread-safe.
+ */
+public class PaymentAggregator {
+
+    private final Map<String, Payment> paymentsById = new HashMap<>();
+    private final Map<String, Long> countByPaymentMethod = new HashMap<>();
+    private final Map<String, BigDecimal> totalAmountByCustomer = new HashMap<>();
+    private final Map<String, Scales> customerScales = new HashMap<>();
+    private final NavigableMap<BigDecimal, Map<String, BigDecimal>> amounts = new TreeMap<>();
+    private final NavigableMap<LocalDate, Long> dates = new TreeMap<>();
+    private final Scales usdScales = new Scales();
+    private BigDecimal usdTotal = BigDecimal.ZERO;
+    private long notApprovedPayments;
+
+    /**
+     * Adds a new payment to the aggregates.
+     *
+     * @throws IllegalArgumentException if a payment with the same id was already inserted
+     */
+    public void insert(Payment payment) {
+        if (paymentsById.putIfAbsent(payment.id(), payment) != null) {
+            throw new IllegalArgumentException("Payment already inserted: " + payment.id());
+        }
+        if (payment.currency() == Payment.Currency.USD) {
+            usdTotal = usdTotal.add(payment.amount());
+            usdScales.add(payment.amount().scale());
+        }
+        if (payment.status() != Payment.PaymentStatus.APPROVED) {
+            notApprovedPayments++;
+        }
+        countByPaymentMethod.merge(payment.paymentMethod(), 1L, Long::sum);
+        totalAmountByCustomer.merge(payment.customerName(), BigDecimal.ZERO.add(payment.amount()), BigDecimal::add);
+        customerScales.computeIfAbsent(payment.customerName(), customerName -> new Scales()).add(payment.amount().scale());
+        amounts.computeIfAbsent(payment.amount(), amount -> new LinkedHashMap<>()).put(payment.id(), payment.amount());
+        dates.merge(payment.date(), 1L, Long::sum);
+    }
+
+    /**
+     * Changes the status of an inserted payment, e.g. from PENDING to APPROVED.
+     *
+     * @return the payment with the new status
+     * @throws IllegalArgumentException if no payment with the id is present
+     */
+    public Payment updateStatus(String paymentId, Payment.PaymentStatus status) {
+        Payment previous = get(paymentId);
+        Payment updated = new Payment(previous.id(), previous.customerName(), previous.amount(), status,
+                previous.date(), previous.currency(), previous.paymentMethod(), previous.reference());
+        paymentsById.put(paymentId, updated);
+        if (previous.status() == Payment.PaymentStatus.APPROVED && status != Payment.PaymentStatus.APPROVED) {
+            notApprovedPayments++;
+        } else if (previous.status() != Payment.PaymentStatus.APPROVED && status == Payment.PaymentStatus.APPROVED) {
+            notApprovedPayments--;
+        }
+        return updated;
+    }
+
+    /**
+     * Removes a payment from the aggregates.
+     *
+     * @return the retracted payment
+     * @throws IllegalArgumentException if no payment with the id is present
+     */
+    public Payment retract(String paymentId) {
+        Payment payment = get(paymentId);
+        paymentsById.remove(paymentId);
+        if (payment.currency() == Payment.Currency.USD) {
+            usdTotal = usdScales.remove(payment.amount().scale())
+                    ? BigDecimal.ZERO : usdTotal.subtract(payment.amount()).setScale(usdScales.scale());
+        }
+        if (payment.status() != Payment.PaymentStatus.APPROVED) {
+            notApprovedPayments--;
+        }
+        decrement(countByPaymentMethod, payment.paymentMethod());
+        Scales scales = customerScales.get(payment.customerName());
+        if (scales.remove(payment.amount().scale())) {
+            customerScales.remove(payment.customerName());
+            totalAmountByCustomer.remove(payment.customerName());
+        } else {
+            totalAmountByCustomer.computeIfPresent(payment.customerName(),
+                    (customerName, total) -> total.subtract(payment.amount()).setScale(scales.scale()));
+        }
+        Map<String, BigDecimal> equalAmounts = amounts.get(payment.amount());
+        equalAmounts.remove(payment.id());
+        if (equalAmounts.isEmpty()) {
+            amounts.remove(payment.amount());
+        }
+        decrement(dates, payment.date());
+        return payment;
+    }
+
+    public int size() {
+        return paymentsById.size();
+    }
+
+    /**
+     * @see KTStreams#allPaymentsApproved(java.util.List)
+     */
+    public boolean allPaymentsApproved() {
+        return notApprovedPayments == 0;
+    }
+
+    /**
+     * @see KTStreams#totalAmountByCurrency(java.util.List)
+     */
+    public BigDecimal totalAmountByCurrency() {
+        return usdTotal;
+    }
+
+    /**
+     * @see KTStreams#findMaxPaymentAmount(java.util.List)
+     */
+    public BigDecimal findMaxPaymentAmount() {
+        return amounts.isEmpty() ? BigDecimal.ZERO : amounts.lastEntry().getValue().values().iterator().next();
+    }
+
+    /**
+     * @see KTStreams#findEarliestPaymentDate(java.util.List)
+     */
+    public LocalDate findEarliestPaymentDate() {
+        return dates.isEmpty() ? null : dates.firstKey();
+    }
+
+    /**
+     * @return a read-only view of the counts, kept up to date by later changes
+     * @see KTStreams#countByPaymentMethod(java.util.List)
+     */
+    public Map<String, Long> countByPaymentMethod() {
+        return Collections.unmodifiableMap(countByPaymentMethod);
+    }
+
+    /**
+     * @return a read-only view of the totals, kept up to date by later changes
+     * @see KTStreams#groupByCustomerAndMapToTotalAmount(java.util.List)
+     */
+    public Map<String, BigDecimal> groupByCustomerAndMapToTotalAmount() {
+        return Collections.unmodifiableMap(totalAmountByCustomer);
+    }
+
+    private Payment get(String paymentId) {
+        Payment payment = paymentsById.get(paymentId);
+        if (payment == null) {
+            throw new IllegalArgumentException("Unknown payment: " + paymentId);
+        }
+        return payment;
+    }
+
+    /**
+     * @return true if the key was removed because its count dropped to zero
+     */
+    private static <K> boolean decrement(Map<K, Long> counts, K key) {
+        return counts.computeIfPresent(key, (k, count) -> count == 1 ? null : count - 1) == null;
+    }
+
+    /**
+     * Multiset of the scales of summed amounts. Like {@link Money}, a sum has the largest of them and
+     * never less than zero, so retracting the only amount with the largest scale narrows the sum again.
+     */
+    private static final class Scales {
+
+        private final NavigableMap<Integer, Long> counts = new TreeMap<>();
+
+        void add(int scale) {
+            counts.merge(scale, 1L, Long::sum);
+        }
+
+        /**
+         * @return true if no scale is left
+         */
+        boolean remove(int scale) {
+            decrement(counts, scale);
+            return counts.isEmpty();
+        }
+
+        int scale() {
+            return Math.max(0, counts.lastKey());
+        }
+
+    }
+
+}
@@ -0,0 +1,231 @@
+package ua.kpi.streams;
+
+import ua.kpi.entity.Payment;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Runs several payment aggregations in a single pass over a list. Every registration method returns
+ * a {@link Metric} handle that is later used to read the typed value from the {@link Result}:
+ * <pre>{@code
+ * PaymentQuery query = new PaymentQuery();
+ * PaymentQuery.Metric<BigDecimal> max = query.maxPaymentAmount();
+ * PaymentQuery.Metric<Map<String, Long>> methods = query.countByPaymentMethod();
+ * PaymentQuery.Result result = query.run(payments);
+ * result.get(max);
+ * }</pre>
+ * A query can be run any number of times; every run starts from empty accumulators.
+ */
+public class PaymentQuery {
+
+    private final List<Supplier<? extends Accumulator<?>>> accumulators = new ArrayList<>();
+
+    /**
+     * Sums amounts per currency.
+     *
+     * @see KTStreams#totalAmountByCurrency(List)
+     */
+    public Metric<Map<Payment.Currency, BigDecimal>> sumByCurrency() {
+        return register(SumByCurrency::new);
+    }
+
+    /**
+     * @see KTStreams#countByPaymentMethod(List)
+     */
+    public Metric<Map<String, Long>> countByPaymentMethod() {
+        return register(CountByPaymentMethod::new);
+    }
+
+    /**
+     * @see KTStreams#groupByStatusAndMapToPaymentMethods(List)
+     */
+    public Metric<Map<Payment.PaymentStatus, Set<String>>> groupByStatusAndMapToPaymentMethods() {
+        return register(PaymentMethodsByStatus::new);
+    }
+
+    /**
+     * @see KTStreams#findMaxPaymentAmount(List)
+     */
+    public Metric<BigDecimal> maxPaymentAmount() {
+        return register(MaxPaymentAmount::new);
+    }
+
+    /**
+     * @see KTStreams#findEarliestPaymentDate(List)
+     */
+    public Metric<LocalDate> earliestPaymentDate() {
+        return register(EarliestPaymentDate::new);
+    }
+
+    /**
+     * Computes all registered metrics with one traversal of the payments.
+     */
+    public Result run(List<Payment> payments) {
+        Accumulator<?>[] running = new Accumulator<?>[accumulators.size()];
+        for (int i = 0; i < running.length; i++) {
+            running[i] = accumulators.get(i).get();
+        }
+        for (Payment payment : payments) {
+            for (Accumulator<?> accumulator : running) {
+                accumulator.accept(payment);
+            }
+        }
+        Object[] values = new Object[running.length];
+        for (int i = 0; i < running.length; i++) {
+            values[i] = running[i].result();
+        }
+        return new Result(this, values);
+    }
+
+    private <R> Metric<R> register(Supplier<? extends Accumulator<R>> accumulator) {
+        accumulators.add(accumulator);
+        return new Metric<>(this, accumulators.size() - 1);
+    }
+
+    /**
+     * Handle of a metric registered in a query.
+     *
+     * @param <R> the type of the metric value
+     */
+    public static final class Metric<R> {
+
+        private final PaymentQuery query;
+        private final int index;
+
+        private Metric(PaymentQuery query, int index) {
+            this.query = query;
+            this.index = index;
+        }
+    }
+
+    /**
+     * Values computed by one run of a query.
+     */
+    public static final class Result {
+
+        private final PaymentQuery query;
+        private final Object[] values;
+
+        private Result(PaymentQuery query, Object[] values) {
+            this.query = query;
+            this.values = values;
+        }
+
+        /**
+         * @throws IllegalArgumentException if the metric was registered in another query
+         */
+        @SuppressWarnings("unchecked")
+        public <R> R get(Metric<R> metric) {
+            if (metric.query != query) {
+                throw new IllegalArgumentException("Metric does not belong to this query");
+            }
+            return (R) values[metric.index];
+        }
+    }
+
+    private interface Accumulator<R> {
+
+        void accept(Payment payment);
+
+        R result();
+    }
+
+    private static final class SumByCurrency implements Accumulator<Map<Payment.Currency, BigDecimal>> {
+
+        private final Money[] sums = new Money[Payment.Currency.values().length];
+
+        @Override
+        public void accept(Payment payment) {
+            int currency = payment.currency().ordinal();
+            if (sums[currency] == null) {
+                sums[currency] = new Money();
+            }
+            sums[currency].add(payment.amount());
+        }
+
+        @Override
+        public Map<Payment.Currency, BigDecimal> result() {
+            Map<Payment.Currency, BigDecimal> result = new EnumMap<>(Payment.Currency.class);
+            for (Payment.Currency currency : Payment.Currency.values()) {
+                if (sums[currency.ordinal()] != null) {
+                    result.put(currency, sums[currency.ordinal()].toBigDecimal());
+                }
+            }
+            return result;
+        }
+    }
+
+    private static final class CountByPaymentMethod implements Accumulator<Map<String, Long>> {
+
+        private final Map<String, Long> counts = new HashMap<>();
+
+        @Override
+        public void accept(Payment payment) {
+            counts.merge(payment.paymentMethod(), 1L, Long::sum);
+        }
+
+        @Override
+        public Map<String, Long> result() {
+            return counts;
+        }
+    }
+
+    private static final class PaymentMethodsByStatus implements Accumulator<Map<Payment.PaymentStatus, Set<String>>> {
+
+        private final Map<Payment.PaymentStatus, Set<String>> methods = new EnumMap<>(Payment.PaymentStatus.class);
+
+        @Override
+        public void accept(Payment payment) {
+            methods.computeIfAbsent(payment.status(), status -> new HashSet<>()).add(payment.paymentMethod());
+        }
+
+        @Override
+        public Map<Payment.PaymentStatus, Set<String>> result() {
+            return methods;
+        }
+    }
+
+    private static final class MaxPaymentAmount implements Accumulator<BigDecimal> {
+
+        private BigDecimal max;
+
+        @Override
+        public void accept(Payment payment) {
+            if (max == null || payment.amount().compareTo(max) > 0) {
+                max = payment.amount();
+            }
+        }
+
+        @Override
+        public BigDecimal result() {
+            return max == null ? BigDecimal.ZERO : max;
+        }
+    }
+
+    private static final class EarliestPaymentDate implements Accumulator<LocalDate> {
+
+        private LocalDate earliest;
+
+        @Override
+        public void accept(Payment payment) {
+            if (earliest == null || payment.date().isBefore(earliest)) {
+                earliest = payment.date();
+            }
+        }
+
+        @Override
+        public LocalDate result() {
+            return earliest;
+        }
+    }
+
+}
@@ -0,0 +1,59 @@
+package ua.kpi.table;
+
+/**
+ * Scans over primitive columns that produce selection bitmaps and masked reductions. A selection is
+ * a {@code long[]} of {@code ceil(length / 64)} words where bit {@code row % 64} of word {@code row / 64}
+ * is set for every selected row, the layout of {@link java.util.BitSet#valueOf(long[])}.
+ * <p>
+ * {@link #get()} returns the {@link VectorColumnKernels} when the {@code jdk.incubator.vector} module
+ * is enabled ({@code --add-modules jdk.incubator.vector}) and the {@link ScalarColumnKernels} otherwise.
+ * Setting the {@code ua.kpi.vector} system property to {@code false} forces the scalar ones. Both
+ * return identical results.
+ */
+public interface ColumnKernels {
+
+    /**
+     * @return the kernels used by the tables
+     */
+    static ColumnKernels get() {
+        return KernelSelection.SELECTED;
+    }
+
+    /**
+     * @return a selection of the rows whose value equals the given one
+     */
+    long[] selectEqual(byte[] values, int length, byte value);
+
+    /**
+     * @return whether all of the first {@code length} values equal the given one
+     */
+    boolean allEqual(byte[] values, int length, byte value);
+
+    /**
+     * @return a selection of the rows whose value is greater than the threshold
+     */
+    long[] selectGreaterThan(long[] values, int length, long threshold);
+
+    /**
+     * @return a selection of the rows whose value is less than or equal to the threshold
+     */
+    long[] selectLessOrEqual(int[] values, int length, int threshold);
+
+    /**
+     * Sums the values of the selected rows with wrap-around on overflow, like {@code long} addition.
+     */
+    long maskedSum(long[] values, long[] selection, int length);
+
+    /**
+     * @return the first row holding the greatest value by {@link Double#compare}, or -1 if there are no rows
+     */
+    int indexOfMax(double[] values, int length);
+
+    /**
+     * @return the number of words of a selection of {@code length} rows
+     */
+    static int words(int length) {
+        return (length + Long.SIZE - 1) >>> 6;
+    }
+
+}
@@ -0,0 +1,69 @@
+package ua.kpi.table;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable mapping between distinct strings and dense {@code int} codes {@code 0..size-1}, assigned in
+ * order of first appearance. Columns store the codes, so grouping can index arrays by code and
+ * decode only when the result is built.
+ */
+public final class Dictionary {
+
+    private final String[] values;
+    private final Map<String, Integer> codes;
+
+    private Dictionary(String[] values, Map<String, Integer> codes) {
+        this.values = values;
+        this.codes = codes;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public String decode(int code) {
+        return values[code];
+    }
+
+    /**
+     * @return the code of the value, or -1 if the value is not in the dictionary
+     */
+    public int code(String value) {
+        return codes.getOrDefault(value, -1);
+    }
+
+    public List<String> values() {
+        return Arrays.asList(values.clone());
+    }
+
+    /**
+     * Collects the distinct values of a column while encoding it.
+     */
+    public static final class Builder {
+
+        private final List<String> values = new ArrayList<>();
+        private final Map<String, Integer> codes = new HashMap<>();
+
+        /**
+         * @return the code of the value, adding it to the dictionary if it is new
+         */
+        public int encode(String value) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                values.add(value);
+                codes.put(value, code);
+            }
+            return code;
+        }
+
+        public Dictionary build() {
+            return new Dictionary(values.toArray(String[]::new), new HashMap<>(codes));
+        }
+    }
+
+}
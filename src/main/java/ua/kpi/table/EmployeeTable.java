@@ -0,0 +1,141 @@
+package ua.kpi.table;
+
+import ua.kpi.entity.Employee;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Column-oriented copy of a list of employees. Ages, years of joining and salaries are stored as
+ * primitive arrays and genders and departments as {@link Dictionary} codes, so that aggregations over
+ * a table can accumulate into arrays indexed by code without boxing.
+ */
+public final class EmployeeTable {
+
+    private final int size;
+    private final int[] ids;
+    private final String[] names;
+    private final int[] ages;
+    private final int[] genders;
+    private final int[] departments;
+    private final int[] yearsOfJoining;
+    private final double[] salaries;
+    private final Dictionary genderDictionary;
+    private final Dictionary departmentDictionary;
+
+    private EmployeeTable(List<Employee> employees) {
+        this.size = employees.size();
+        this.ids = new int[size];
+        this.names = new String[size];
+        this.ages = new int[size];
+        this.genders = new int[size];
+        this.departments = new int[size];
+        this.yearsOfJoining = new int[size];
+        this.salaries = new double[size];
+        Dictionary.Builder genderCodes = new Dictionary.Builder();
+        Dictionary.Builder departmentCodes = new Dictionary.Builder();
+        int row = 0;
+        for (Employee employee : employees) {
+            ids[row] = employee.id();
+            names[row] = employee.name();
+            ages[row] = employee.age();
+            genders[row] = genderCodes.encode(employee.gender());
+            departments[row] = departmentCodes.encode(employee.department());
+            yearsOfJoining[row] = employee.yearOfJoining();
+            salaries[row] = employee.salary();
+            row++;
+        }
+        this.genderDictionary = genderCodes.build();
+        this.departmentDictionary = departmentCodes.build();
+    }
+
+    /**
+     * Copies the given employees into a new table.
+     */
+    public static EmployeeTable of(List<Employee> employees) {
+        return new EmployeeTable(employees);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int id(int row) {
+        return ids[row];
+    }
+
+    public String name(int row) {
+        return names[row];
+    }
+
+    public int age(int row) {
+        return ages[row];
+    }
+
+    public String gender(int row) {
+        return genderDictionary.decode(genders[row]);
+    }
+
+    /**
+     * @return the code of the gender in {@link #genders()}
+     */
+    public int genderCode(int row) {
+        return genders[row];
+    }
+
+    public String department(int row) {
+        return departmentDictionary.decode(departments[row]);
+    }
+
+    /**
+     * @return the code of the department in {@link #departments()}
+     */
+    public int departmentCode(int row) {
+        return departments[row];
+    }
+
+    public int yearOfJoining(int row) {
+        return yearsOfJoining[row];
+    }
+
+    public double salary(int row) {
+        return salaries[row];
+    }
+
+    /**
+     * @return the rows of employees aged at most the given age
+     */
+    public BitSet selectAgeAtMost(int age) {
+        return BitSet.valueOf(ColumnKernels.get().selectLessOrEqual(ages, size, age));
+    }
+
+    /**
+     * @return the first row with the highest salary, or -1 if the table is empty
+     */
+    public int rowOfHighestSalary() {
+        return ColumnKernels.get().indexOfMax(salaries, size);
+    }
+
+    /**
+     * @return the distinct genders of the table
+     */
+    public Dictionary genders() {
+        return genderDictionary;
+    }
+
+    /**
+     * @return the distinct departments of the table
+     */
+    public Dictionary departments() {
+        return departmentDictionary;
+    }
+
+    /**
+     * Materializes a single row back into an employee record.
+     */
+    public Employee employee(int row) {
+        return new Employee(ids[row], names[row], ages[row], gender(row), department(row),
+                yearsOfJoining[row], salaries[row]);
+    }
+
+}
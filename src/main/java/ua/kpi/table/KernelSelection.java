@@ -0,0 +1,28 @@
+package ua.kpi.table;
+
+/**
+ * Chooses the {@link ColumnKernels} once, on first use.
+ */
+final class KernelSelection {
+
+    static final String VECTOR_PROPERTY = "ua.kpi.vector";
+    static final ColumnKernels SELECTED = select();
+
+    private KernelSelection() {
+    }
+
+    private static ColumnKernels select() {
+        if (!"false".equals(System.getProperty(VECTOR_PROPERTY))
+                && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                // loaded reflectively so that this class links without the incubator module
+                return (ColumnKernels) Class.forName("ua.kpi.table.VectorColumnKernels")
+                        .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                return new ScalarColumnKernels();
+            }
+        }
+        return new ScalarColumnKernels();
+    }
+
+}
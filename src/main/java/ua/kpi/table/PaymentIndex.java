@@ -0,0 +1,161 @@
+package ua.kpi.table;
+
+import ua.kpi.entity.Payment;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Secondary indexes built once over an immutable snapshot of payments:
+ * <ul>
+ *     <li>customer name to rows, stored as one row array grouped by customer code with start offsets,</li>
+ *     <li>rows sorted by date, so that a date range is found by binary search,</li>
+ *     <li>a bitmap of rows per payment status.</li>
+ * </ul>
+ * Every lookup costs time proportional to the size of its result rather than to the snapshot.
+ */
+public final class PaymentIndex {
+
+    private final List<Payment> payments;
+    private final Dictionary customerNames;
+    private final int[] customerOffsets;
+    private final int[] rowsByCustomer;
+    private final int[] sortedEpochDays;
+    private final int[] rowsByDate;
+    private final BitSet[] rowsByStatus;
+
+    private PaymentIndex(List<Payment> payments) {
+        this.payments = List.copyOf(payments);
+        int size = this.payments.size();
+
+        Dictionary.Builder customerCodes = new Dictionary.Builder();
+        int[] codes = new int[size];
+        for (int row = 0; row < size; row++) {
+            codes[row] = customerCodes.encode(this.payments.get(row).customerName());
+        }
+        this.customerNames = customerCodes.build();
+        this.customerOffsets = new int[customerNames.size() + 1];
+        for (int code : codes) {
+            customerOffsets[code + 1]++;
+        }
+        for (int code = 0; code < customerNames.size(); code++) {
+            customerOffsets[code + 1] += customerOffsets[code];
+        }
+        this.rowsByCustomer = new int[size];
+        int[] next = Arrays.copyOf(customerOffsets, customerNames.size());
+        for (int row = 0; row < size; row++) {
+            rowsByCustomer[next[codes[row]]++] = row;
+        }
+
+        long[] dateKeys = new long[size];
+        for (int row = 0; row < size; row++) {
+            dateKeys[row] = this.payments.get(row).date().toEpochDay() << Integer.SIZE | row;
+        }
+        Arrays.sort(dateKeys);
+        this.sortedEpochDays = new int[size];
+        this.rowsByDate = new int[size];
+        for (int i = 0; i < size; i++) {
+            sortedEpochDays[i] = (int) (dateKeys[i] >> Integer.SIZE);
+            rowsByDate[i] = (int) dateKeys[i];
+        }
+
+        this.rowsByStatus = new BitSet[Payment.PaymentStatus.values().length];
+        for (int status = 0; status < rowsByStatus.length; status++) {
+            rowsByStatus[status] = new BitSet(size);
+        }
+        for (int row = 0; row < size; row++) {
+            rowsByStatus[this.payments.get(row).status().ordinal()].set(row);
+        }
+    }
+
+    /**
+     * Builds the indexes over a copy of the given payments.
+     */
+    public static PaymentIndex of(List<Payment> payments) {
+        return new PaymentIndex(payments);
+    }
+
+    public int size() {
+        return payments.size();
+    }
+
+    /**
+     * Retrieves the payment references of a customer, in list order.
+     *
+     * @see ua.kpi.streams.KTStreams#getReferencesForCustomer(List, String)
+     */
+    public List<String> getReferencesForCustomer(String customerName) {
+        int code = customerNames.code(customerName);
+        if (code < 0) {
+            return List.of();
+        }
+        List<String> references = new ArrayList<>(customerOffsets[code + 1] - customerOffsets[code]);
+        for (int i = customerOffsets[code]; i < customerOffsets[code + 1]; i++) {
+            references.add(payments.get(rowsByCustomer[i]).reference());
+        }
+        return references;
+    }
+
+    /**
+     * Groups the references of payments made between two dates, both inclusive. Dates are iterated in
+     * ascending order and references of one date keep the list order.
+     *
+     * @see ua.kpi.streams.KTStreams#groupByDateAndMapToReferences(List)
+     */
+    public Map<LocalDate, List<String>> groupByDateAndMapToReferences(LocalDate from, LocalDate to) {
+        Map<LocalDate, List<String>> result = new LinkedHashMap<>();
+        if (from.isAfter(to)) {
+            return result;
+        }
+        int end = lowerBound(to.toEpochDay() + 1);
+        for (int i = lowerBound(from.toEpochDay()); i < end; i++) {
+            Payment payment = payments.get(rowsByDate[i]);
+            result.computeIfAbsent(payment.date(), date -> new ArrayList<>()).add(payment.reference());
+        }
+        return result;
+    }
+
+    /**
+     * Filters payments which were approved.
+     *
+     * @see ua.kpi.streams.KTStreams#filterPaymentsByStatus(List)
+     */
+    public List<Payment> filterPaymentsByStatus() {
+        return filterPaymentsByStatus(Payment.PaymentStatus.APPROVED);
+    }
+
+    /**
+     * Filters payments with the given status, in list order.
+     */
+    public List<Payment> filterPaymentsByStatus(Payment.PaymentStatus status) {
+        BitSet rows = rowsByStatus[status.ordinal()];
+        List<Payment> result = new ArrayList<>(rows.cardinality());
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+            result.add(payments.get(row));
+        }
+        return result;
+    }
+
+    /**
+     * @return the first position in the date order whose epoch day is not less than the given one
+     */
+    private int lowerBound(long epochDay) {
+        int low = 0;
+        int high = sortedEpochDays.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sortedEpochDays[middle] < epochDay) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+}
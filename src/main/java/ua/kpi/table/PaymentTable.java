@@ -0,0 +1,247 @@
+package ua.kpi.table;
+
+import ua.kpi.entity.Payment;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.OptionalInt;
+
+/**
+ * Column-oriented copy of a list of payments. Amounts are stored as scaled {@code long} cents,
+ * dates as epoch days, status/currency as enum ordinals and customer names and payment methods as
+ * {@link Dictionary} codes, so that scans over a table touch only primitive arrays.
+ */
+public final class PaymentTable {
+
+    /**
+     * Number of fraction digits kept in the amount column.
+     */
+    public static final int AMOUNT_SCALE = 2;
+
+    private static final Payment.PaymentStatus[] STATUSES = Payment.PaymentStatus.values();
+    private static final Payment.Currency[] CURRENCIES = Payment.Currency.values();
+
+    private final int size;
+    private final String[] ids;
+    private final int[] customerNames;
+    private final long[] amounts;
+    private final byte[] amountScales;
+    private final byte[] statuses;
+    private final int[] dates;
+    private final byte[] currencies;
+    private final int[] paymentMethods;
+    private final String[] references;
+    private final Dictionary customerNameDictionary;
+    private final Dictionary paymentMethodDictionary;
+    private long maxAbsAmount;
+    private int minAmountScale = Integer.MAX_VALUE;
+    private int maxAmountScale = Integer.MIN_VALUE;
+
+    private PaymentTable(List<Payment> payments) {
+        this.size = payments.size();
+        this.ids = new String[size];
+        this.customerNames = new int[size];
+        this.amounts = new long[size];
+        this.amountScales = new byte[size];
+        this.statuses = new byte[size];
+        this.dates = new int[size];
+        this.currencies = new byte[size];
+        this.paymentMethods = new int[size];
+        this.references = new String[size];
+        Dictionary.Builder customerNameCodes = new Dictionary.Builder();
+        Dictionary.Builder paymentMethodCodes = new Dictionary.Builder();
+        int row = 0;
+        for (Payment payment : payments) {
+            set(row++, payment, customerNameCodes, paymentMethodCodes);
+        }
+        this.customerNameDictionary = customerNameCodes.build();
+        this.paymentMethodDictionary = paymentMethodCodes.build();
+    }
+
+    /**
+     * Copies the given payments into a new table.
+     *
+     * @throws IllegalArgumentException if an amount has more than {@link #AMOUNT_SCALE} fraction digits
+     */
+    public static PaymentTable of(List<Payment> payments) {
+        return new PaymentTable(payments);
+    }
+
+    private void set(int row, Payment payment, Dictionary.Builder customerNameCodes, Dictionary.Builder paymentMethodCodes) {
+        BigDecimal amount = payment.amount();
+        if (amount.scale() > AMOUNT_SCALE || amount.scale() < Byte.MIN_VALUE) {
+            throw new IllegalArgumentException("Unsupported amount scale for payment " + payment.id() + ": " + amount);
+        }
+        ids[row] = payment.id();
+        customerNames[row] = customerNameCodes.encode(payment.customerName());
+        amounts[row] = amount.movePointRight(AMOUNT_SCALE).longValueExact();
+        amountScales[row] = (byte) amount.scale();
+        maxAbsAmount = Math.max(maxAbsAmount, amounts[row] == Long.MIN_VALUE ? Long.MAX_VALUE : Math.abs(amounts[row]));
+        minAmountScale = Math.min(minAmountScale, amount.scale());
+        maxAmountScale = Math.max(maxAmountScale, amount.scale());
+        statuses[row] = (byte) payment.status().ordinal();
+        dates[row] = Math.toIntExact(payment.date().toEpochDay());
+        currencies[row] = (byte) payment.currency().ordinal();
+        paymentMethods[row] = paymentMethodCodes.encode(payment.paymentMethod());
+        references[row] = payment.reference();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the amount of the row in cents
+     */
+    public long amount(int row) {
+        return amounts[row];
+    }
+
+    /**
+     * @return the scale of the amount the row was created from
+     */
+    public int amountScale(int row) {
+        return amountScales[row];
+    }
+
+    /**
+     * @return the amount of the row with the scale of the original payment
+     */
+    public BigDecimal amountAsDecimal(int row) {
+        return toDecimal(amounts[row], amountScales[row]);
+    }
+
+    public int statusOrdinal(int row) {
+        return statuses[row];
+    }
+
+    public int epochDay(int row) {
+        return dates[row];
+    }
+
+    public int currencyOrdinal(int row) {
+        return currencies[row];
+    }
+
+    public String customerName(int row) {
+        return customerNameDictionary.decode(customerNames[row]);
+    }
+
+    /**
+     * @return the code of the customer name in {@link #customerNames()}
+     */
+    public int customerNameCode(int row) {
+        return customerNames[row];
+    }
+
+    public String paymentMethod(int row) {
+        return paymentMethodDictionary.decode(paymentMethods[row]);
+    }
+
+    /**
+     * @return the code of the payment method in {@link #paymentMethods()}
+     */
+    public int paymentMethodCode(int row) {
+        return paymentMethods[row];
+    }
+
+    public String reference(int row) {
+        return references[row];
+    }
+
+    /**
+     * @return the scale shared by the amounts of all rows, empty if they differ or the table is empty
+     */
+    public OptionalInt uniformAmountScale() {
+        return size > 0 && minAmountScale == maxAmountScale ? OptionalInt.of(minAmountScale) : OptionalInt.empty();
+    }
+
+    /**
+     * @return the rows whose amount in cents is greater than the threshold
+     */
+    public BitSet selectAmountAbove(long thresholdCents) {
+        return BitSet.valueOf(ColumnKernels.get().selectGreaterThan(amounts, size, thresholdCents));
+    }
+
+    /**
+     * @return the rows with the given status
+     */
+    public BitSet selectStatus(Payment.PaymentStatus status) {
+        return BitSet.valueOf(ColumnKernels.get().selectEqual(statuses, size, (byte) status.ordinal()));
+    }
+
+    /**
+     * @return the rows in the given currency
+     */
+    public BitSet selectCurrency(Payment.Currency currency) {
+        return BitSet.valueOf(ColumnKernels.get().selectEqual(currencies, size, (byte) currency.ordinal()));
+    }
+
+    /**
+     * @return whether every row has the given status, true for an empty table
+     */
+    public boolean allHaveStatus(Payment.PaymentStatus status) {
+        return ColumnKernels.get().allEqual(statuses, size, (byte) status.ordinal());
+    }
+
+    /**
+     * Sums the amounts of the selected rows. Uses the masked sum of the {@link ColumnKernels} unless
+     * the largest amount of the table times its size could overflow a {@code long}.
+     *
+     * @return the exact sum with scale {@link #AMOUNT_SCALE}
+     */
+    public BigDecimal sumAmounts(BitSet rows) {
+        if (rows.length() > size) {
+            throw new IllegalArgumentException("Selection of " + rows.length() + " rows exceeds table of " + size);
+        }
+        if (size == 0 || maxAbsAmount <= Long.MAX_VALUE / size) {
+            long[] selection = Arrays.copyOf(rows.toLongArray(), ColumnKernels.words(size));
+            return BigDecimal.valueOf(ColumnKernels.get().maskedSum(amounts, selection, size), AMOUNT_SCALE);
+        }
+        BigDecimal total = BigDecimal.ZERO;
+        long partial = 0;
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+            long sum = partial + amounts[row];
+            if (((partial ^ sum) & (amounts[row] ^ sum)) < 0) {
+                total = total.add(BigDecimal.valueOf(partial));
+                sum = amounts[row];
+            }
+            partial = sum;
+        }
+        return total.add(BigDecimal.valueOf(partial)).movePointLeft(AMOUNT_SCALE);
+    }
+
+    /**
+     * @return the distinct customer names of the table
+     */
+    public Dictionary customerNames() {
+        return customerNameDictionary;
+    }
+
+    /**
+     * @return the distinct payment methods of the table
+     */
+    public Dictionary paymentMethods() {
+        return paymentMethodDictionary;
+    }
+
+    /**
+     * Materializes a single row back into a payment record.
+     */
+    public Payment payment(int row) {
+        return new Payment(ids[row], customerName(row), amountAsDecimal(row), STATUSES[statuses[row]],
+                LocalDate.ofEpochDay(dates[row]), CURRENCIES[currencies[row]], paymentMethod(row), references[row]);
+    }
+
+    /**
+     * Converts an amount in cents to a decimal with the requested scale. The scale must not be
+     * greater than {@link #AMOUNT_SCALE} and the amount must be representable with it.
+     */
+    public static BigDecimal toDecimal(long cents, int scale) {
+        return BigDecimal.valueOf(cents, AMOUNT_SCALE).setScale(scale);
+    }
+
+}
@@ -0,0 +1,76 @@
+package ua.kpi.table;
+
+/**
+ * One row at a time implementation of the {@link ColumnKernels}, available on every JVM.
+ */
+public final class ScalarColumnKernels implements ColumnKernels {
+
+    @Override
+    public long[] selectEqual(byte[] values, int length, byte value) {
+        long[] selection = new long[ColumnKernels.words(length)];
+        for (int row = 0; row < length; row++) {
+            if (values[row] == value) {
+                selection[row >>> 6] |= 1L << row;
+            }
+        }
+        return selection;
+    }
+
+    @Override
+    public boolean allEqual(byte[] values, int length, byte value) {
+        for (int row = 0; row < length; row++) {
+            if (values[row] != value) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public long[] selectGreaterThan(long[] values, int length, long threshold) {
+        long[] selection = new long[ColumnKernels.words(length)];
+        for (int row = 0; row < length; row++) {
+            if (values[row] > threshold) {
+                selection[row >>> 6] |= 1L << row;
+            }
+        }
+        return selection;
+    }
+
+    @Override
+    public long[] selectLessOrEqual(int[] values, int length, int threshold) {
+        long[] selection = new long[ColumnKernels.words(length)];
+        for (int row = 0; row < length; row++) {
+            if (values[row] <= threshold) {
+                selection[row >>> 6] |= 1L << row;
+            }
+        }
+        return selection;
+    }
+
+    @Override
+    public long maskedSum(long[] values, long[] selection, int length) {
+        long sum = 0;
+        for (int word = 0; word < selection.length; word++) {
+            for (long bits = selection[word]; bits != 0; bits &= bits - 1) {
+                sum += values[(word << 6) + Long.numberOfTrailingZeros(bits)];
+            }
+        }
+        return sum;
+    }
+
+    @Override
+    public int indexOfMax(double[] values, int length) {
+        if (length == 0) {
+            return -1;
+        }
+        int best = 0;
+        for (int row = 1; row < length; row++) {
+            if (Double.compare(values[row], values[best]) > 0) {
+                best = row;
+            }
+        }
+        return best;
+    }
+
+}
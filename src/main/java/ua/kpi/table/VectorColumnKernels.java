@@ -0,0 +1,147 @@
+package ua.kpi.table;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link ColumnKernels} comparing and adding a full SIMD register of values at a time with the
+ * incubating Vector API. Comparison masks are turned into selection bits with
+ * {@link VectorMask#toLong()}; as lane counts are powers of two no larger than 64, the bits of one
+ * vector always fall into a single selection word (byte vectors are capped at 64 lanes). Remaining rows past the last full vector are
+ * handled one at a time. Requires {@code --add-modules jdk.incubator.vector}.
+ */
+public final class VectorColumnKernels implements ColumnKernels {
+
+    private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_PREFERRED.length() <= Long.SIZE
+            ? ByteVector.SPECIES_PREFERRED : ByteVector.SPECIES_512;
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public long[] selectEqual(byte[] values, int length, byte value) {
+        long[] selection = new long[ColumnKernels.words(length)];
+        int row = 0;
+        for (int bound = BYTES.loopBound(length); row < bound; row += BYTES.length()) {
+            long bits = ByteVector.fromArray(BYTES, values, row).eq(value).toLong();
+            selection[row >>> 6] |= bits << row;
+        }
+        for (; row < length; row++) {
+            if (values[row] == value) {
+                selection[row >>> 6] |= 1L << row;
+            }
+        }
+        return selection;
+    }
+
+    @Override
+    public boolean allEqual(byte[] values, int length, byte value) {
+        int row = 0;
+        for (int bound = BYTES.loopBound(length); row < bound; row += BYTES.length()) {
+            if (!ByteVector.fromArray(BYTES, values, row).eq(value).allTrue()) {
+                return false;
+            }
+        }
+        for (; row < length; row++) {
+            if (values[row] != value) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public long[] selectGreaterThan(long[] values, int length, long threshold) {
+        long[] selection = new long[ColumnKernels.words(length)];
+        int row = 0;
+        for (int bound = LONGS.loopBound(length); row < bound; row += LONGS.length()) {
+            long bits = LongVector.fromArray(LONGS, values, row).compare(VectorOperators.GT, threshold).toLong();
+            selection[row >>> 6] |= bits << row;
+        }
+        for (; row < length; row++) {
+            if (values[row] > threshold) {
+                selection[row >>> 6] |= 1L << row;
+            }
+        }
+        return selection;
+    }
+
+    @Override
+    public long[] selectLessOrEqual(int[] values, int length, int threshold) {
+        long[] selection = new long[ColumnKernels.words(length)];
+        int row = 0;
+        for (int bound = INTS.loopBound(length); row < bound; row += INTS.length()) {
+            long bits = IntVector.fromArray(INTS, values, row).compare(VectorOperators.LE, threshold).toLong();
+            selection[row >>> 6] |= bits << row;
+        }
+        for (; row < length; row++) {
+            if (values[row] <= threshold) {
+                selection[row >>> 6] |= 1L << row;
+            }
+        }
+        return selection;
+    }
+
+    @Override
+    public long maskedSum(long[] values, long[] selection, int length) {
+        LongVector sums = LongVector.zero(LONGS);
+        long laneBits = LONGS.length() == Long.SIZE ? -1L : (1L << LONGS.length()) - 1;
+        int row = 0;
+        for (int bound = LONGS.loopBound(length); row < bound; row += LONGS.length()) {
+            long bits = (selection[row >>> 6] >>> row) & laneBits;
+            if (bits != 0) {
+                VectorMask<Long> mask = VectorMask.fromLong(LONGS, bits);
+                sums = sums.add(LongVector.fromArray(LONGS, values, row), mask);
+            }
+        }
+        long sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; row < length; row++) {
+            if ((selection[row >>> 6] & (1L << row)) != 0) {
+                sum += values[row];
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Finds the greatest value with lane-wise {@link Math#max}, which agrees with {@link Double#compare}
+     * on which value is greatest, then looks for its first row. Zero and NaN maxima are looked up one
+     * row at a time, as vector equality does not tell {@code -0.0} from {@code 0.0} or match NaN.
+     */
+    @Override
+    public int indexOfMax(double[] values, int length) {
+        if (length == 0) {
+            return -1;
+        }
+        DoubleVector maxima = DoubleVector.broadcast(DOUBLES, Double.NEGATIVE_INFINITY);
+        int row = 0;
+        for (int bound = DOUBLES.loopBound(length); row < bound; row += DOUBLES.length()) {
+            maxima = maxima.lanewise(VectorOperators.MAX, DoubleVector.fromArray(DOUBLES, values, row));
+        }
+        double max = maxima.reduceLanes(VectorOperators.MAX);
+        for (; row < length; row++) {
+            max = Math.max(max, values[row]);
+        }
+        row = 0;
+        if (max != 0 && !Double.isNaN(max)) {
+            for (int bound = DOUBLES.loopBound(length); row < bound; row += DOUBLES.length()) {
+                VectorMask<Double> equal = DoubleVector.fromArray(DOUBLES, values, row).eq(max);
+                if (equal.anyTrue()) {
+                    return row + equal.firstTrue();
+                }
+            }
+        }
+        for (; row < length; row++) {
+            if (Double.compare(values[row], max) == 0) {
+                return row;
+            }
+        }
+        throw new IllegalStateException("Maximum " + max + " not found");
+    }
+
+}
@@ -0,0 +1,142 @@
+package ua.kpi.topk;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collector;
+
+/**
+ * Keeps the {@code k} greatest elements added to it according to a comparator, in {@code O(log k)}
+ * per element and {@code O(k)} memory. The root of the internal min-heap is the weakest element kept,
+ * so most elements are rejected after a single comparison. Among equal elements the one added first
+ * ranks higher; merging treats the elements of the merged heap as added after the ones of this heap.
+ */
+public final class BoundedHeap<T> {
+
+    private final int k;
+    private final Comparator<? super T> comparator;
+    private final Object[] elements;
+    private final long[] sequences;
+    private int size;
+    private long added;
+
+    public BoundedHeap(int k, Comparator<? super T> comparator) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        this.k = k;
+        this.comparator = comparator;
+        this.elements = new Object[k];
+        this.sequences = new long[k];
+    }
+
+    /**
+     * @return a collector of the {@code k} greatest elements, greatest first
+     */
+    public static <T> Collector<T, BoundedHeap<T>, List<T>> greatest(int k, Comparator<? super T> comparator) {
+        return Collector.of(() -> new BoundedHeap<>(k, comparator), BoundedHeap::add, BoundedHeap::merge,
+                BoundedHeap::toList);
+    }
+
+    public BoundedHeap<T> add(T element) {
+        offer(element, added++);
+        return this;
+    }
+
+    public BoundedHeap<T> merge(BoundedHeap<T> other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.element(i), added + other.sequences[i]);
+        }
+        added += other.added;
+        return this;
+    }
+
+    /**
+     * @return the kept elements, greatest first
+     */
+    public List<T> toList() {
+        List<Integer> order = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            order.add(i);
+        }
+        order.sort((a, b) -> compare(b, a));
+        List<T> result = new ArrayList<>(size);
+        for (int index : order) {
+            result.add(element(index));
+        }
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void offer(T element, long sequence) {
+        if (size < k) {
+            elements[size] = element;
+            sequences[size] = sequence;
+            siftUp(size++);
+        } else if (k > 0 && compare(element, sequence, element(0), sequences[0]) > 0) {
+            elements[0] = element;
+            sequences[0] = sequence;
+            siftDown(0);
+        }
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (compare(index, parent) >= 0) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && compare(left, smallest) < 0) {
+                smallest = left;
+            }
+            if (right < size && compare(right, smallest) < 0) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private int compare(int a, int b) {
+        return compare(element(a), sequences[a], element(b), sequences[b]);
+    }
+
+    /**
+     * Orders by the comparator, then by the reverse of the order of addition.
+     */
+    private int compare(T a, long sequenceA, T b, long sequenceB) {
+        int result = comparator.compare(a, b);
+        return result != 0 ? result : Long.compare(sequenceB, sequenceA);
+    }
+
+    private void swap(int a, int b) {
+        Object element = elements[a];
+        elements[a] = elements[b];
+        elements[b] = element;
+        long sequence = sequences[a];
+        sequences[a] = sequences[b];
+        sequences[b] = sequence;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T element(int index) {
+        return (T) elements[index];
+    }
+
+}
@@ -0,0 +1,199 @@
+package ua.kpi.topk;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+
+/**
+ * Space-Saving summary of the heaviest keys of a stream, in {@code O(capacity)} memory. Every tracked
+ * key has a counter; a key that is not tracked replaces the one with the smallest counter and inherits
+ * its count as error. Counts are therefore upper bounds, {@code count - error} lower bounds, and any
+ * key heavier than {@code totalWeight / capacity} is guaranteed to be tracked. Counters live in an
+ * indexed min-heap, so weighted updates take {@code O(log capacity)}.
+ */
+public final class SpaceSaving<K> {
+
+    /**
+     * An estimated weight of a key; the true weight is between {@code count - error} and {@code count}.
+     */
+    public record Counter<K>(K key, long count, long error) {
+    }
+
+    private final int capacity;
+    private final Map<K, Integer> positions = new HashMap<>();
+    private final Object[] keys;
+    private final long[] counts;
+    private final long[] errors;
+    private int size;
+    private long totalWeight;
+
+    public SpaceSaving(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.keys = new Object[capacity];
+        this.counts = new long[capacity];
+        this.errors = new long[capacity];
+    }
+
+    /**
+     * @return a collector summarizing the mapped keys of its elements, each with the mapped weight
+     */
+    public static <T, K> Collector<T, SpaceSaving<K>, SpaceSaving<K>> summarizing(int capacity,
+                                                                              Function<? super T, ? extends K> key,
+                                                                              ToLongFunction<? super T> weight) {
+        return Collector.of(() -> new SpaceSaving<>(capacity),
+                (summary, element) -> summary.add(key.apply(element), weight.applyAsLong(element)),
+                SpaceSaving::merge, Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    public SpaceSaving<K> add(K key) {
+        return add(key, 1);
+    }
+
+    public SpaceSaving<K> add(K key, long weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight must not be negative: " + weight);
+        }
+        totalWeight += weight;
+        Integer position = positions.get(key);
+        if (position != null) {
+            counts[position] += weight;
+            siftDown(position);
+        } else if (size < capacity) {
+            put(size, key, weight, 0);
+            siftUp(size++);
+        } else {
+            positions.remove(key(0));
+            put(0, key, counts[0] + weight, counts[0]);
+            siftDown(0);
+        }
+        return this;
+    }
+
+    /**
+     * Merges another summary into this one. A key missing from one side is assumed to have the smallest
+     * count of that side if it is full, which keeps counts upper bounds; the heaviest keys are kept.
+     */
+    public SpaceSaving<K> merge(SpaceSaving<K> other) {
+        long minimum = size == capacity ? counts[0] : 0;
+        long otherMinimum = other.size == other.capacity ? other.counts[0] : 0;
+        Map<K, long[]> merged = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            merged.put(key(i), new long[]{counts[i] + otherMinimum, errors[i] + otherMinimum});
+        }
+        for (int i = 0; i < other.size; i++) {
+            long[] counter = merged.get(other.key(i));
+            if (counter == null) {
+                merged.put(other.key(i), new long[]{other.counts[i] + minimum, other.errors[i] + minimum});
+            } else {
+                counter[0] += other.counts[i] - otherMinimum;
+                counter[1] += other.errors[i] - otherMinimum;
+            }
+        }
+        BoundedHeap<Map.Entry<K, long[]>> heaviest = new BoundedHeap<>(capacity,
+                Comparator.comparingLong(entry -> entry.getValue()[0]));
+        merged.entrySet().forEach(heaviest::add);
+        positions.clear();
+        size = 0;
+        for (Map.Entry<K, long[]> entry : heaviest.toList()) {
+            put(size, entry.getKey(), entry.getValue()[0], entry.getValue()[1]);
+            siftUp(size++);
+        }
+        totalWeight += other.totalWeight;
+        return this;
+    }
+
+    /**
+     * @return the tracked keys with the highest counts, highest first, at most {@code k} of them
+     */
+    public List<Counter<K>> top(int k) {
+        BoundedHeap<Counter<K>> top = new BoundedHeap<>(k, Comparator.comparingLong(Counter::count));
+        for (int i = 0; i < size; i++) {
+            top.add(new Counter<>(key(i), counts[i], errors[i]));
+        }
+        return top.toList();
+    }
+
+    /**
+     * @return the upper bound of the weight of the key, zero if it is not tracked
+     */
+    public long count(K key) {
+        Integer position = positions.get(key);
+        return position == null ? 0 : counts[position];
+    }
+
+    /**
+     * @return the sum of all weights added
+     */
+    public long totalWeight() {
+        return totalWeight;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private void put(int index, K key, long count, long error) {
+        keys[index] = key;
+        counts[index] = count;
+        errors[index] = error;
+        positions.put(key, index);
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (counts[index] >= counts[parent]) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && counts[left] < counts[smallest]) {
+                smallest = left;
+            }
+            if (right < size && counts[right] < counts[smallest]) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        Object key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+        long count = counts[a];
+        counts[a] = counts[b];
+        counts[b] = count;
+        long error = errors[a];
+        errors[a] = errors[b];
+        errors[b] = error;
+        positions.put(key(a), a);
+        positions.put(key(b), b);
+    }
+
+    @SuppressWarnings("unchecked")
+    private K key(int index) {
+        return (K) keys[index];
+    }
+
+}
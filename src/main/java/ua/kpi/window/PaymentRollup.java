@@ -0,0 +1,218 @@
+package ua.kpi.window;
+
+import ua.kpi.entity.Payment;
+import ua.kpi.table.PaymentTable;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+/**
+ * Per-day totals and counts of payments by currency and status over a fixed number of most recent
+ * days. Days live in a ring buffer of buckets indexed by {@code epochDay % retentionDays}; every
+ * currency/status cell keeps its buckets in Fenwick trees (prefix sums that can be updated), so any
+ * window of days is answered from two prefix sums per cell instead of a rescan, and a payment for an
+ * already closed day is applied in logarithmic time.
+ * <p>
+ * The newest day seen is the head of the rollup. A payment for a later day advances the head and
+ * evicts the buckets that fall out of retention; a payment for a day older than the retention is
+ * dropped and counted by {@link #droppedPayments()}. Instances are not thread-safe.
+ */
+public class PaymentRollup {
+
+    private static final int CURRENCIES = Payment.Currency.values().length;
+    private static final int STATUSES = Payment.PaymentStatus.values().length;
+    private static final int CELLS = CURRENCIES * STATUSES;
+
+    private final int retentionDays;
+    private final long[][] bucketCents;
+    private final long[][] bucketCounts;
+    private final long[][] centsTrees;
+    private final long[][] countTrees;
+    private long headEpochDay = Long.MIN_VALUE;
+    private long latePayments;
+    private long droppedPayments;
+
+    /**
+     * @param retentionDays how many days, counting back from the newest one, are kept
+     */
+    public PaymentRollup(int retentionDays) {
+        if (retentionDays < 1) {
+            throw new IllegalArgumentException("Retention must be at least one day: " + retentionDays);
+        }
+        this.retentionDays = retentionDays;
+        this.bucketCents = new long[CELLS][retentionDays];
+        this.bucketCounts = new long[CELLS][retentionDays];
+        this.centsTrees = new long[CELLS][retentionDays + 1];
+        this.countTrees = new long[CELLS][retentionDays + 1];
+    }
+
+    /**
+     * Adds a payment to the bucket of its date.
+     *
+     * @return false if the payment was dropped because its date is older than the retention
+     * @throws IllegalArgumentException if the amount has more than {@link PaymentTable#AMOUNT_SCALE} fraction digits
+     */
+    public boolean add(Payment payment) {
+        BigDecimal amount = payment.amount();
+        if (amount.scale() > PaymentTable.AMOUNT_SCALE) {
+            throw new IllegalArgumentException("Unsupported amount scale for payment " + payment.id() + ": " + amount);
+        }
+        long cents = amount.movePointRight(PaymentTable.AMOUNT_SCALE).longValueExact();
+        long epochDay = payment.date().toEpochDay();
+        if (headEpochDay == Long.MIN_VALUE || epochDay > headEpochDay) {
+            advanceTo(epochDay);
+        } else if (epochDay <= headEpochDay - retentionDays) {
+            droppedPayments++;
+            return false;
+        } else if (epochDay < headEpochDay) {
+            latePayments++;
+        }
+        int cell = cell(payment.currency(), payment.status());
+        int slot = slot(epochDay);
+        bucketCents[cell][slot] += cents;
+        bucketCounts[cell][slot]++;
+        update(centsTrees[cell], slot, cents);
+        update(countTrees[cell], slot, 1);
+        return true;
+    }
+
+    /**
+     * Adds the payments in list order.
+     *
+     * @return the number of payments that were dropped
+     */
+    public int addAll(List<Payment> payments) {
+        int dropped = 0;
+        for (Payment payment : payments) {
+            if (!add(payment)) {
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    /**
+     * @return the newest day seen, or null if nothing was added yet
+     */
+    public LocalDate head() {
+        return headEpochDay == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(headEpochDay);
+    }
+
+    /**
+     * @return how many payments were applied to a day older than the head at the time they arrived
+     */
+    public long latePayments() {
+        return latePayments;
+    }
+
+    /**
+     * @return how many payments were ignored because their day was already out of retention
+     */
+    public long droppedPayments() {
+        return droppedPayments;
+    }
+
+    /**
+     * Totals of a single day.
+     */
+    public WindowTotals daily(LocalDate day) {
+        return window(day, day);
+    }
+
+    /**
+     * Totals of the ISO week, Monday to Sunday, containing the given day.
+     */
+    public WindowTotals weekly(LocalDate day) {
+        LocalDate monday = day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        return window(monday, monday.plusDays(6));
+    }
+
+    /**
+     * Totals of a sliding window of the given number of days ending with, and including, {@code end}.
+     */
+    public WindowTotals rolling(LocalDate end, int days) {
+        if (days < 1) {
+            throw new IllegalArgumentException("Window must be at least one day: " + days);
+        }
+        return window(end.minusDays(days - 1), end);
+    }
+
+    /**
+     * Totals of the days between two dates, both inclusive. Days outside of the retention count as empty.
+     */
+    public WindowTotals window(LocalDate from, LocalDate to) {
+        long[] cents = new long[CELLS];
+        long[] counts = new long[CELLS];
+        if (headEpochDay != Long.MIN_VALUE) {
+            long first = Math.max(from.toEpochDay(), headEpochDay - retentionDays + 1);
+            long last = Math.min(to.toEpochDay(), headEpochDay);
+            if (first <= last) {
+                int firstSlot = slot(first);
+                int lastSlot = slot(last);
+                for (int cell = 0; cell < CELLS; cell++) {
+                    cents[cell] = rangeSum(centsTrees[cell], firstSlot, lastSlot);
+                    counts[cell] = rangeSum(countTrees[cell], firstSlot, lastSlot);
+                }
+            }
+        }
+        return new WindowTotals(from, to, cents, counts);
+    }
+
+    static int cell(Payment.Currency currency, Payment.PaymentStatus status) {
+        return currency.ordinal() * STATUSES + status.ordinal();
+    }
+
+    private void advanceTo(long epochDay) {
+        if (headEpochDay != Long.MIN_VALUE) {
+            long evictions = Math.min(epochDay - headEpochDay, retentionDays);
+            for (long day = epochDay - evictions + 1; day <= epochDay; day++) {
+                evict(slot(day));
+            }
+        }
+        headEpochDay = epochDay;
+    }
+
+    private void evict(int slot) {
+        for (int cell = 0; cell < CELLS; cell++) {
+            update(centsTrees[cell], slot, -bucketCents[cell][slot]);
+            update(countTrees[cell], slot, -bucketCounts[cell][slot]);
+            bucketCents[cell][slot] = 0;
+            bucketCounts[cell][slot] = 0;
+        }
+    }
+
+    private int slot(long epochDay) {
+        return (int) Math.floorMod(epochDay, (long) retentionDays);
+    }
+
+    /**
+     * Sums the slots from {@code first} to {@code last}, wrapping around the end of the ring.
+     */
+    private long rangeSum(long[] tree, int first, int last) {
+        if (first <= last) {
+            return prefixSum(tree, last) - prefixSum(tree, first - 1);
+        }
+        return prefixSum(tree, retentionDays - 1) - prefixSum(tree, first - 1) + prefixSum(tree, last);
+    }
+
+    private static void update(long[] tree, int slot, long delta) {
+        for (int i = slot + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * @return the sum of slots {@code 0..slot}, zero for a negative slot
+     */
+    private static long prefixSum(long[] tree, int slot) {
+        long sum = 0;
+        for (int i = slot + 1; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+}
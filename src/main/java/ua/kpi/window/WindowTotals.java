@@ -0,0 +1,72 @@
+package ua.kpi.window;
+
+import ua.kpi.entity.Payment;
+import ua.kpi.table.PaymentTable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Amounts and payment counts of one window of a {@link PaymentRollup}, by currency and status.
+ */
+public final class WindowTotals {
+
+    private final LocalDate from;
+    private final LocalDate to;
+    private final long[] cents;
+    private final long[] counts;
+
+    WindowTotals(LocalDate from, LocalDate to, long[] cents, long[] counts) {
+        this.from = from;
+        this.to = to;
+        this.cents = cents;
+        this.counts = counts;
+    }
+
+    public LocalDate from() {
+        return from;
+    }
+
+    public LocalDate to() {
+        return to;
+    }
+
+    public BigDecimal amount(Payment.Currency currency, Payment.PaymentStatus status) {
+        return BigDecimal.valueOf(cents[PaymentRollup.cell(currency, status)], PaymentTable.AMOUNT_SCALE);
+    }
+
+    /**
+     * @return the amount of all statuses in the currency
+     */
+    public BigDecimal amount(Payment.Currency currency) {
+        long total = 0;
+        for (Payment.PaymentStatus status : Payment.PaymentStatus.values()) {
+            total += cents[PaymentRollup.cell(currency, status)];
+        }
+        return BigDecimal.valueOf(total, PaymentTable.AMOUNT_SCALE);
+    }
+
+    public long count(Payment.Currency currency, Payment.PaymentStatus status) {
+        return counts[PaymentRollup.cell(currency, status)];
+    }
+
+    /**
+     * @return the number of payments with the status in all currencies
+     */
+    public long count(Payment.PaymentStatus status) {
+        long total = 0;
+        for (Payment.Currency currency : Payment.Currency.values()) {
+            total += counts[PaymentRollup.cell(currency, status)];
+        }
+        return total;
+    }
+
+    public long count() {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+}
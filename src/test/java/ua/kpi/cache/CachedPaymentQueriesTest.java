@@ -0,0 +1,81 @@
+package ua.kpi.cache;
+
+import org.junit.jupiter.api.Test;
+import ua.kpi.entity.Payment;
+import ua.kpi.streams.KTStreams;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CachedPaymentQueriesTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 1);
+
+    private static final List<Payment> payments = List.of(
+            new Payment("1", "John Doe", new BigDecimal("100.50"),
+                    Payment.PaymentStatus.APPROVED, TODAY,
+                    Payment.Currency.USD, "Credit Card", "REF1"),
+            new Payment("2", "Mary Jane", new BigDecimal("200.75"),
+                    Payment.PaymentStatus.PENDING, TODAY,
+                    Payment.Currency.EUR, "Bank Transfer", "REF2"),
+            new Payment("3", "John Doe", new BigDecimal("50.00"),
+                    Payment.PaymentStatus.APPROVED, TODAY,
+                    Payment.Currency.USD, "Credit Card", "REF3")
+    );
+
+    @Test
+    void testHitsReturnTheSameImmutableResults() {
+        CachedPaymentQueries queries = new CachedPaymentQueries();
+        PaymentSnapshot snapshot = new PaymentSnapshot(1, payments);
+
+        Set<String> customers = queries.findDistinctCustomers(snapshot, 8);
+        assertEquals(KTStreams.findDistinctCustomers(payments, 8), customers);
+        assertSame(customers, queries.findDistinctCustomers(snapshot, 8));
+        assertThrows(UnsupportedOperationException.class, () -> customers.add("Bob"));
+
+        Map<Boolean, List<Payment>> partitions = queries.partitionByAmount(snapshot, new BigDecimal("100"));
+        assertEquals(KTStreams.partitionByAmount(payments, new BigDecimal("100")), partitions);
+        assertSame(partitions, queries.partitionByAmount(snapshot, new BigDecimal("100.00")));
+        assertThrows(UnsupportedOperationException.class, () -> partitions.get(true).clear());
+
+        List<String> references = queries.getReferencesForCustomer(snapshot, "John Doe");
+        assertEquals(List.of("REF1", "REF3"), references);
+        assertSame(references, queries.getReferencesForCustomer(new PaymentSnapshot(1, payments), "John Doe"));
+
+        assertEquals(new CacheStats(3, 3, 0, 0), queries.stats());
+        assertEquals(0.5, queries.stats().hitRate());
+    }
+
+    @Test
+    void testNewSnapshotInvalidatesResults() {
+        CachedPaymentQueries queries = new CachedPaymentQueries();
+        assertEquals(List.of("REF1", "REF3"), queries.getReferencesForCustomer(new PaymentSnapshot(1, payments), "John Doe"));
+        queries.findDistinctCustomers(new PaymentSnapshot(1, payments), 20);
+
+        PaymentSnapshot next = new PaymentSnapshot(2, payments.subList(0, 1));
+        assertEquals(List.of("REF1"), queries.getReferencesForCustomer(next, "John Doe"));
+        assertEquals(1, queries.size());
+        assertEquals(new CacheStats(0, 3, 0, 2), queries.stats());
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() {
+        LruCache<String, Integer> cache = new LruCache<>(2);
+        assertEquals(1, cache.get("a", key -> 1));
+        assertEquals(2, cache.get("b", key -> 2));
+        assertEquals(1, cache.get("a", key -> -1));
+        assertEquals(3, cache.get("c", key -> 3));
+        assertEquals(20, cache.get("b", key -> 20));
+        assertEquals(3, cache.get("c", key -> -3));
+        assertEquals(new CacheStats(2, 4, 2, 0), cache.stats());
+        assertThrows(IllegalArgumentException.class, () -> new LruCache<>(0));
+    }
+
+}
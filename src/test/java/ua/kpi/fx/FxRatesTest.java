@@ -0,0 +1,154 @@
+package ua.kpi.fx;
+
+import org.junit.jupiter.api.Test;
+import ua.kpi.entity.Payment;
+import ua.kpi.streams.KTStreams;
+import ua.kpi.table.PaymentTable;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class FxRatesTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 6, 1);
+
+    private static final FxRates rates = FxRates.builder(Payment.Currency.USD)
+            .rate(DAY, Payment.Currency.EUR, new BigDecimal("1.10"))
+            .rate(DAY, Payment.Currency.JPY, new BigDecimal("0.0065"))
+            .rate(DAY, Payment.Currency.GBP, new BigDecimal("1.25"))
+            .rate(DAY.plusDays(2), Payment.Currency.EUR, new BigDecimal("1.20"))
+            .build();
+
+    private static final List<Payment> payments = List.of(
+            new Payment("1", "John Doe", new BigDecimal("100.50"),
+                    Payment.PaymentStatus.APPROVED, DAY,
+                    Payment.Currency.USD, "Credit Card", "REF1"),
+            new Payment("2", "John Doe", new BigDecimal("200.00"),
+                    Payment.PaymentStatus.PENDING, DAY,
+                    Payment.Currency.EUR, "Bank Transfer", "REF2"),
+            new Payment("3", "Mary Jane", new BigDecimal("10000"),
+                    Payment.PaymentStatus.APPROVED, DAY.plusDays(1),
+                    Payment.Currency.JPY, "Credit Card", "REF3"),
+            new Payment("4", "Mary Jane", new BigDecimal("10.00"),
+                    Payment.PaymentStatus.APPROVED, DAY.plusDays(2),
+                    Payment.Currency.EUR, "PayPal", "REF4")
+    );
+
+    @Test
+    void testRatesCarryForward() {
+        assertEquals(1.10, rates.rate(DAY.plusDays(1), Payment.Currency.EUR));
+        assertEquals(1.20, rates.rate(DAY.plusDays(2), Payment.Currency.EUR));
+        assertEquals(1.25, rates.rate(DAY.plusDays(2), Payment.Currency.GBP));
+        assertEquals(1.0, rates.rate(DAY, Payment.Currency.USD));
+    }
+
+    @Test
+    void testMissingRates() {
+        assertThrows(IllegalArgumentException.class, () -> rates.rate(DAY, Payment.Currency.CAD));
+        assertThrows(IllegalArgumentException.class, () -> rates.rate(DAY.minusDays(1), Payment.Currency.EUR));
+    }
+
+    @Test
+    void testRatesAfterTheLastQuote() {
+        assertEquals(1.20, rates.rate(DAY.plusDays(30), Payment.Currency.EUR));
+        assertEquals(1.0, rates.rate(DAY.plusDays(30), Payment.Currency.USD));
+        FxRates single = FxRates.builder(Payment.Currency.EUR)
+                .rate(LocalDate.of(2024, 1, 1), Payment.Currency.USD, new BigDecimal("1.5"))
+                .build();
+        int nextDay = Math.toIntExact(LocalDate.of(2024, 1, 2).toEpochDay());
+        assertEquals(150, single.convert(100, nextDay, Payment.Currency.USD.ordinal()));
+        assertThrows(IllegalArgumentException.class,
+                () -> single.convert(100, nextDay - 2, Payment.Currency.USD.ordinal()));
+    }
+
+    @Test
+    void testFractionsOfACentAreRoundedOnce() {
+        FxRates single = FxRates.builder(Payment.Currency.EUR)
+                .rate(DAY, Payment.Currency.USD, new BigDecimal("1.5"))
+                .build();
+        int day = Math.toIntExact(DAY.toEpochDay());
+        assertEquals(1, single.convert(new BigDecimal("0.005"), day, Payment.Currency.USD.ordinal()));
+        assertEquals(0, single.convert(new BigDecimal("0.005"), day, Payment.Currency.EUR.ordinal()));
+        assertEquals(2, single.convert(new BigDecimal("0.015"), day, Payment.Currency.EUR.ordinal()));
+        assertEquals(15, single.convert(new BigDecimal("0.1"), day, Payment.Currency.USD.ordinal()));
+
+        List<Payment> fractional = List.of(new Payment("1", "John Doe", new BigDecimal("0.005"),
+                Payment.PaymentStatus.APPROVED, DAY, Payment.Currency.USD, "Card", "REF1"));
+        assertEquals(new BigDecimal("0.01"), KTStreams.totalAmountInBaseCurrency(fractional, single));
+        assertEquals(Map.of("John Doe", new BigDecimal("0.01")),
+                KTStreams.groupByCustomerAndMapToTotalAmount(fractional, single));
+    }
+
+    @Test
+    void testListAndTableConversionsAgree() {
+        Random random = new Random(5);
+        Payment.Currency[] currencies = {Payment.Currency.USD, Payment.Currency.EUR, Payment.Currency.JPY,
+                Payment.Currency.GBP};
+        List<Payment> sweep = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            sweep.add(new Payment(String.valueOf(i), "Customer " + random.nextInt(50),
+                    BigDecimal.valueOf(random.nextInt(2_000_000) - 1_000_000, random.nextInt(3)),
+                    Payment.PaymentStatus.APPROVED, DAY.plusDays(random.nextInt(10)),
+                    currencies[random.nextInt(currencies.length)], "Card", "REF" + i));
+        }
+        PaymentTable table = PaymentTable.of(sweep);
+        assertEquals(KTStreams.totalAmountInBaseCurrency(sweep, rates), KTStreams.totalAmountInBaseCurrency(table, rates));
+        assertEquals(KTStreams.groupByCustomerAndMapToTotalAmount(sweep, rates),
+                KTStreams.groupByCustomerAndMapToTotalAmount(table, rates));
+    }
+
+    @Test
+    void testConvertRoundsHalfEven() {
+        int day = Math.toIntExact(DAY.toEpochDay());
+        int eur = Payment.Currency.EUR.ordinal();
+        assertEquals(60, rates.convert(55, day, eur));
+        assertEquals(-60, rates.convert(-55, day, eur));
+        assertEquals(Long.MAX_VALUE, rates.convert(Long.MAX_VALUE, day, Payment.Currency.USD.ordinal()));
+        assertThrows(ArithmeticException.class, () -> rates.convert(Long.MAX_VALUE, day, eur));
+        assertThrows(IllegalArgumentException.class, () -> FxRates.builder(Payment.Currency.USD)
+                .rate(DAY, Payment.Currency.EUR, new BigDecimal("1.0000000001")));
+    }
+
+    @Test
+    void testConvertMatchesBigDecimal() {
+        String[] sweep = {"1.10", "1.15", "0.0065", "1.25", "0.5", "0.000000001", "3.333333333", "149.875", "1"};
+        for (String quote : sweep) {
+            BigDecimal rate = new BigDecimal(quote);
+            FxRates single = FxRates.builder(Payment.Currency.USD).rate(DAY, Payment.Currency.EUR, rate).build();
+            int day = Math.toIntExact(DAY.toEpochDay());
+            for (long cents = -200_000; cents <= 200_000; cents++) {
+                long expected = BigDecimal.valueOf(cents).multiply(rate)
+                        .setScale(0, RoundingMode.HALF_EVEN).longValueExact();
+                assertEquals(expected, single.convert(cents, day, Payment.Currency.EUR.ordinal()),
+                        "rate " + quote);
+            }
+            long large = 9_000_000_000_000L;
+            assertEquals(BigDecimal.valueOf(large).multiply(rate).setScale(0, RoundingMode.HALF_EVEN).longValueExact(),
+                    single.convert(large, day, Payment.Currency.EUR.ordinal()));
+        }
+    }
+
+    @Test
+    void testNormalizedTotals() {
+        BigDecimal expected = new BigDecimal("100.50").add(new BigDecimal("220.00"))
+                .add(new BigDecimal("65.00")).add(new BigDecimal("12.00"));
+
+        assertEquals(expected, KTStreams.totalAmountInBaseCurrency(payments, rates));
+        assertEquals(expected, KTStreams.totalAmountInBaseCurrency(PaymentTable.of(payments), rates));
+        assertEquals(new BigDecimal("0.00"), KTStreams.totalAmountInBaseCurrency(List.of(), rates));
+
+        Map<String, BigDecimal> byCustomer = KTStreams.groupByCustomerAndMapToTotalAmount(payments, rates);
+        assertEquals(new BigDecimal("320.50"), byCustomer.get("John Doe"));
+        assertEquals(new BigDecimal("77.00"), byCustomer.get("Mary Jane"));
+        assertEquals(byCustomer, KTStreams.groupByCustomerAndMapToTotalAmount(PaymentTable.of(payments), rates));
+    }
+
+}
@@ -0,0 +1,139 @@
+package ua.kpi.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ua.kpi.entity.Payment;
+import ua.kpi.streams.KTStreams;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PaymentFileTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 1);
+
+    private static final List<Payment> payments = List.of(
+            new Payment("1", "John Doe", new BigDecimal("100.50"),
+                    Payment.PaymentStatus.APPROVED, TODAY,
+                    Payment.Currency.USD, "Credit Card", "REF123456"),
+            new Payment("2", "Mary Jane", new BigDecimal("200.75"),
+                    Payment.PaymentStatus.PENDING, TODAY.minusDays(60),
+                    Payment.Currency.EUR, "Bank Transfer", "REF654321"),
+            new Payment("3", "John Doe", new BigDecimal("50.005"),
+                    Payment.PaymentStatus.APPROVED, TODAY,
+                    Payment.Currency.USD, "Credit Card", "REF789012"),
+            new Payment("4", "Bob Smith", new BigDecimal("150"),
+                    Payment.PaymentStatus.REJECTED, TODAY.minusDays(10),
+                    Payment.Currency.GBP, "PayPal", "REF345678"),
+            new Payment("5", "Mary Jane", new BigDecimal("75.00"),
+                    Payment.PaymentStatus.PENDING, TODAY.minusDays(15),
+                    Payment.Currency.USD, "Crédit Carte", "REF987654")
+    );
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRoundTrip() throws IOException {
+        Path path = directory.resolve("payments.bin");
+        PaymentFileWriter.write(path, payments);
+
+        try (PaymentFile file = PaymentFile.open(path)) {
+            assertEquals(payments.size(), file.rowCount());
+            assertEquals(payments, file.readAll());
+            assertEquals(payments.get(3), file.payment(3));
+        }
+    }
+
+    @Test
+    void testRecordBlocksDecodeAfterClose() throws IOException {
+        Path path = directory.resolve("payments.bin");
+        PaymentFileWriter.write(path, payments);
+
+        RecordBlock block;
+        try (PaymentFile file = PaymentFile.open(path)) {
+            block = file.records(1, 3);
+            assertEquals(List.of(), file.records(5, 0).payments());
+            assertThrows(IndexOutOfBoundsException.class, () -> file.records(3, 3));
+            assertThrows(IllegalArgumentException.class, () -> file.records(0, PaymentFile.MAX_BLOCK_ROWS + 1));
+        }
+        assertEquals(3, block.size());
+        assertEquals(payments.subList(1, 4), block.payments());
+    }
+
+    @Test
+    void testAggregationsOverMappedFile() throws IOException {
+        Path path = directory.resolve("payments.bin");
+        PaymentFileWriter.write(path, payments);
+
+        try (PaymentFile file = PaymentFile.open(path)) {
+            assertEquals(KTStreams.totalAmountByCurrency(payments), file.totalAmountByCurrency());
+            assertEquals(KTStreams.countByPaymentMethod(payments), file.countByPaymentMethod());
+        }
+    }
+
+    @Test
+    void testUniqueIdsAndReferencesRoundTripThroughTheStringHeap() throws IOException {
+        Path path = directory.resolve("unique.bin");
+        List<Payment> unique = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            Payment payment = payments.get(i % payments.size());
+            unique.add(new Payment("id-" + i, payment.customerName(), payment.amount(), payment.status(),
+                    payment.date(), payment.currency(), payment.paymentMethod(), "référence " + i));
+        }
+        PaymentFileWriter.write(path, unique);
+
+        try (PaymentFile file = PaymentFile.open(path)) {
+            assertEquals(unique, file.readAll());
+            assertEquals(unique.get(9_999), file.payment(9_999));
+            assertEquals(KTStreams.countByPaymentMethod(unique), file.countByPaymentMethod());
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of(path), files.toList());
+        }
+    }
+
+    @Test
+    void testRejectsCorruptLayout() throws IOException {
+        Path path = directory.resolve("corrupt.bin");
+        PaymentFileWriter.write(path, payments);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).putLong(0, 7), 24);
+        }
+
+        assertThrows(IOException.class, () -> PaymentFile.open(path));
+    }
+
+    @Test
+    void testEmptyFile() throws IOException {
+        Path path = directory.resolve("empty.bin");
+        PaymentFileWriter.write(path, List.of());
+
+        try (PaymentFile file = PaymentFile.open(path)) {
+            assertEquals(0, file.rowCount());
+            assertEquals(BigDecimal.ZERO, file.totalAmountByCurrency());
+        }
+    }
+
+    @Test
+    void testRejectsForeignFile() throws IOException {
+        Path path = directory.resolve("foreign.bin");
+        Files.write(path, new byte[64]);
+
+        assertThrows(IOException.class, () -> PaymentFile.open(path));
+    }
+
+}
@@ -0,0 +1,49 @@
+package ua.kpi.metrics;
+
+import org.junit.jupiter.api.Test;
+import ua.kpi.entity.Payment;
+import ua.kpi.streams.KTStreams;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs in its own surefire execution with {@code -Dua.kpi.metrics=true}.
+ */
+public class EnabledMetricsTest {
+
+    @Test
+    void instrumentedOperationsRecordAndRegister() throws Exception {
+        assertTrue(Metrics.ENABLED, "run with -Dua.kpi.metrics=true");
+        List<Payment> payments = List.of(
+                new Payment("1", "John Doe", new BigDecimal("100.50"), Payment.PaymentStatus.APPROVED,
+                        LocalDate.of(2024, 6, 1), Payment.Currency.USD, "Credit Card", "REF1"),
+                new Payment("2", "Mary Jane", new BigDecimal("20.00"), Payment.PaymentStatus.PENDING,
+                        LocalDate.of(2024, 6, 2), Payment.Currency.USD, "PayPal", "REF2"),
+                new Payment("3", "John Doe", new BigDecimal("5.25"), Payment.PaymentStatus.APPROVED,
+                        LocalDate.of(2024, 6, 3), Payment.Currency.EUR, "Credit Card", "REF3"));
+
+        KTStreams.groupByCustomerAndMapToTotalAmount(payments);
+
+        OperationMetrics metrics = Metrics.operation("groupByCustomerAndMapToTotalAmount");
+        assertEquals(1, metrics.getCalls());
+        assertEquals(3, metrics.getRows());
+        assertEquals(2, metrics.getLastGroups());
+        assertTrue(metrics.getMaxNanos() > 0);
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = Metrics.objectName("groupByCustomerAndMapToTotalAmount");
+        assertTrue(server.isRegistered(name));
+        assertEquals(1L, server.getAttribute(name, "Calls"));
+        assertEquals(3L, server.getAttribute(name, "Rows"));
+        assertTrue(server.isRegistered(Metrics.objectName("groupByCustomerAndMapToTotalAmount[table,fx]")));
+    }
+
+}
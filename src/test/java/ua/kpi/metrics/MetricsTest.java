@@ -0,0 +1,109 @@
+package ua.kpi.metrics;
+
+import org.junit.jupiter.api.Test;
+import ua.kpi.entity.Payment;
+import ua.kpi.streams.KTStreams;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MetricsTest {
+
+    @Test
+    void bucketsRoundTripToTheirHighestEquivalentValue() {
+        long[] values = {0, 1, 63, 64, 65, 127, 128, 1000, 123_456_789L, Long.MAX_VALUE};
+        for (long value : values) {
+            long highest = LatencyHistogram.highestEquivalentValue(LatencyHistogram.bucket(value));
+            assertTrue(highest >= value, "bucket of " + value);
+            assertTrue(highest - value <= value / LatencyHistogram.SUB_BUCKETS, "bucket of " + value);
+            assertEquals(LatencyHistogram.bucket(value), LatencyHistogram.bucket(highest));
+        }
+    }
+
+    @Test
+    void quantilesAreWithinTheBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value * 1000);
+        }
+        assertEquals(10_000, histogram.count());
+        assertEquals(10_000_000, histogram.max());
+        assertWithin(5_000_000, histogram.valueAtQuantile(0.5));
+        assertWithin(9_000_000, histogram.valueAtQuantile(0.9));
+        assertWithin(9_900_000, histogram.valueAtQuantile(0.99));
+        assertEquals(10_000_000, histogram.valueAtQuantile(1));
+    }
+
+    @Test
+    void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.valueAtQuantile(0.99));
+        assertThrows(IllegalArgumentException.class, () -> histogram.record(-1));
+    }
+
+    @Test
+    void recordsCallsRowsAndGroups() {
+        OperationMetrics metrics = new OperationMetrics("test");
+        metrics.record(2_000, 100, 5, 4096);
+        metrics.record(4_000, 300, 3, 1024);
+
+        OperationSnapshot snapshot = metrics.snapshot();
+        assertEquals("test", snapshot.operation());
+        assertEquals(2, snapshot.calls());
+        assertEquals(400, snapshot.rows());
+        assertEquals(3, snapshot.lastGroups());
+        assertEquals(5, snapshot.maxGroups());
+        assertEquals(5120, snapshot.allocatedBytes());
+        assertEquals(6_000, snapshot.totalNanos());
+        assertEquals(4_000, snapshot.maxNanos());
+        assertEquals(3_000, snapshot.meanNanos());
+        assertEquals(400 / 6e-6, snapshot.rowsPerSecond(), 1e-3);
+    }
+
+    @Test
+    void exportsPrometheusText() throws Exception {
+        OperationMetrics metrics = new OperationMetrics("groupByCustomer");
+        metrics.record(1_000, 10, 2, 0);
+        StringBuilder out = new StringBuilder();
+
+        new TextMetricsExporter(out).export(List.of(metrics.snapshot()));
+
+        String text = out.toString();
+        assertTrue(text.contains("ktstreams_calls_total{operation=\"groupByCustomer\"} 1\n"), text);
+        assertTrue(text.contains("ktstreams_rows_total{operation=\"groupByCustomer\"} 10\n"), text);
+        assertTrue(text.contains("ktstreams_groups_last{operation=\"groupByCustomer\"} 2\n"), text);
+        assertTrue(text.contains("ktstreams_latency_nanos{operation=\"groupByCustomer\",quantile=\"1\"} 1000\n"), text);
+    }
+
+    @Test
+    void disabledInstrumentationRecordsNothing() {
+        assertFalse(Metrics.ENABLED);
+        List<Payment> payments = List.of(new Payment("1", "John Doe", new BigDecimal("100.50"),
+                Payment.PaymentStatus.APPROVED, LocalDate.of(2024, 6, 1),
+                Payment.Currency.USD, "Credit Card", "REF1"));
+
+        KTStreams.groupByCustomerAndMapToTotalAmount(payments);
+
+        assertEquals(0, Metrics.operation("groupByCustomerAndMapToTotalAmount").getCalls());
+        assertTrue(Metrics.snapshot().stream()
+                .anyMatch(operation -> operation.operation().equals("groupByCustomerAndMapToTotalAmount")));
+    }
+
+    @Test
+    void quotesOperationNamesInObjectNames() throws Exception {
+        assertEquals("ua.kpi:type=Operation,name=\"groupByCustomer[table]\"",
+                Metrics.objectName("groupByCustomer[table]").toString());
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected / LatencyHistogram.SUB_BUCKETS,
+                "expected about " + expected + " but was " + actual);
+    }
+
+}
@@ -0,0 +1,138 @@
+package ua.kpi.pipeline;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ua.kpi.entity.Payment;
+import ua.kpi.exception.PipelineException;
+import ua.kpi.io.PaymentFileWriter;
+import ua.kpi.streams.KTStreams;
+import ua.kpi.streams.PaymentAggregator;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PipelineTest {
+
+    private static final Payment.PaymentStatus[] STATUSES = Payment.PaymentStatus.values();
+    private static final Payment.Currency[] CURRENCIES = Payment.Currency.values();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testSingleWorkerStagesKeepOrder() {
+        List<Integer> result = Pipeline.from("numbers", (Emitter<? super Integer> out) -> {
+                    for (int i = 0; i < 1_000; i++) {
+                        out.accept(i);
+                    }
+                }, PipelineOptions.defaults().withBatchSize(7).withQueueCapacity(2))
+                .filter("even", 1, i -> i % 2 == 0)
+                .flatMap("twice", 1, (Integer i, Emitter<? super Integer> out) -> {
+                    out.accept(i);
+                    out.accept(i);
+                })
+                .mapBatches("negate", 1, batch -> batch.stream().map(i -> -i).toList())
+                .collect(Collectors.toList());
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 1_000; i += 2) {
+            expected.add(-i);
+            expected.add(-i);
+        }
+        assertEquals(expected, result);
+    }
+
+    @Test
+    void testBoundedQueuesHoldBackTheSource() {
+        AtomicInteger produced = new AtomicInteger();
+        AtomicInteger consumed = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        long sum = Pipeline.from("numbers", (Emitter<? super Integer> out) -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        produced.incrementAndGet();
+                        out.accept(i);
+                    }
+                }, new PipelineOptions(10, 2))
+                .flatMap("slow", 4, (Integer i, Emitter<? super Integer> out) -> {
+                    maxInFlight.accumulateAndGet(produced.get() - consumed.incrementAndGet(), Math::max);
+                    out.accept(i);
+                })
+                .collect(Collectors.summingLong(i -> i));
+        assertEquals(49_995_000, sum);
+        // two queued batches, a batch per worker and one being filled by the source
+        assertTrue(maxInFlight.get() <= 10 * (2 + 4 + 1), "In flight: " + maxInFlight.get());
+    }
+
+    @Test
+    void testFailureStopsAllStagesAndReleasesTheSource() {
+        AtomicBoolean released = new AtomicBoolean();
+        PipelineException failure = assertThrows(PipelineException.class, () -> Pipeline.from("endless",
+                        (Emitter<? super Integer> out) -> {
+                            try {
+                                for (int i = 0; ; i++) {
+                                    out.accept(i);
+                                }
+                            } finally {
+                                released.set(true);
+                            }
+                        }, new PipelineOptions(16, 2))
+                .flatMap("parse", 3, (Integer i, Emitter<? super Integer> out) -> {
+                    if (i == 5_000) {
+                        throw new IOException("Corrupt record " + i);
+                    }
+                    out.accept(i);
+                })
+                .collect(Collectors.counting()));
+        assertEquals("parse", failure.stage());
+        assertInstanceOf(IOException.class, failure.getCause());
+        assertTrue(released.get());
+    }
+
+    @Test
+    void testPaymentFilesMatchSingleThreadedLoop() throws IOException {
+        List<Path> files = new ArrayList<>();
+        List<Payment> all = new ArrayList<>();
+        for (int file = 0; file < 4; file++) {
+            List<Payment> payments = new ArrayList<>();
+            for (int i = 0; i < 2_500; i++) {
+                int id = file * 10_000 + i;
+                payments.add(new Payment(Integer.toString(id), "Customer " + id % 37,
+                        BigDecimal.valueOf(id % 9_973, 2), STATUSES[id % STATUSES.length],
+                        LocalDate.of(2024, 1, 1).plusDays(id % 365), CURRENCIES[id % CURRENCIES.length],
+                        "Method " + id % 5, "REF" + id));
+            }
+            Path path = directory.resolve("payments-" + file + ".bin");
+            PaymentFileWriter.write(path, payments);
+            files.add(path);
+            all.addAll(payments);
+        }
+        PipelineOptions options = new PipelineOptions(256, 4);
+
+        assertEquals(KTStreams.filterPaymentsByStatus(all),
+                PaymentPipelines.approvedPayments(files, 1, options).collect(Collectors.toList()));
+
+        PaymentAggregator aggregator = PaymentPipelines.approvedPayments(files, 4, options)
+                .collect(PaymentPipelines.aggregating());
+        List<Payment> approved = KTStreams.filterPaymentsByStatus(all);
+        assertEquals(approved.size(), aggregator.size());
+        assertEquals(KTStreams.totalAmountByCurrency(approved), aggregator.totalAmountByCurrency());
+        assertEquals(KTStreams.countByPaymentMethod(approved), aggregator.countByPaymentMethod());
+
+        PipelineException missing = assertThrows(PipelineException.class, () -> PaymentPipelines
+                .payments(List.of(directory.resolve("missing.bin")), 2, options)
+                .collect(Collectors.counting()));
+        assertEquals("read", missing.stage());
+    }
+
+}
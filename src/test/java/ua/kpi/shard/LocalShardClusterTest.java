@@ -0,0 +1,111 @@
+package ua.kpi.shard;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ua.kpi.entity.Payment;
+import ua.kpi.exception.ShardException;
+import ua.kpi.io.PaymentFileWriter;
+import ua.kpi.streams.KTStreams;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ua.kpi.shard.ShardedAggregationsTest.employees;
+import static ua.kpi.shard.ShardedAggregationsTest.payments;
+
+public class LocalShardClusterTest {
+
+    private static LocalShardCluster cluster;
+
+    @BeforeAll
+    static void startWorkers() throws IOException {
+        cluster = LocalShardCluster.start(2);
+    }
+
+    @AfterAll
+    static void stopWorkers() throws IOException {
+        cluster.close();
+    }
+
+    @Test
+    void aggregatesAcrossWorkerProcesses() throws IOException {
+        assertEquals(2, cluster.workers());
+        assertEquals(KTStreams.groupByCustomerAndMapToTotalAmount(payments),
+                cluster.aggregate(ShardedAggregations.GROUP_BY_CUSTOMER_AND_MAP_TO_TOTAL_AMOUNT, payments));
+        assertEquals(KTStreams.groupByStatusAndMapToPaymentMethods(payments),
+                cluster.aggregate(ShardedAggregations.GROUP_BY_STATUS_AND_MAP_TO_PAYMENT_METHODS, payments));
+        assertEquals(KTStreams.oldestEmployeeInDepartment(employees),
+                cluster.aggregate(ShardedAggregations.OLDEST_EMPLOYEE_IN_DEPARTMENT, employees));
+        assertEquals(KTStreams.averageSalaryByGender(employees),
+                cluster.aggregate(ShardedAggregations.AVERAGE_SALARY_BY_GENDER, employees));
+    }
+
+    @Test
+    void workersReadTheirShardsFromAPaymentFile(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("payments.bin");
+        PaymentFileWriter.write(file, payments);
+
+        assertEquals(KTStreams.groupByCustomerAndMapToTotalAmount(payments),
+                cluster.aggregate(ShardedAggregations.GROUP_BY_CUSTOMER_AND_MAP_TO_TOTAL_AMOUNT, file));
+        assertEquals(KTStreams.groupByDateAndMapToReferences(payments),
+                cluster.aggregate(ShardedAggregations.GROUP_BY_DATE_AND_MAP_TO_REFERENCES, file));
+    }
+
+    @Test
+    void reportsWhatAWorkerThrew() throws IOException {
+        ShardedAggregation<Payment, String, Long> unknown = new ShardedAggregation<>("unknown", Codecs.PAYMENT,
+                Codecs.STRING, Payment::paymentMethod, ShardedAggregations.COUNT_BY_PAYMENT_METHOD.partials());
+
+        try (LocalShardCluster failing = LocalShardCluster.start(1)) {
+            ShardException failure = assertThrows(ShardException.class,
+                    () -> failing.aggregate(unknown, payments.subList(0, 10)));
+            assertEquals(0, failure.shard());
+            assertEquals("Shard 0 failed: Unknown aggregation: unknown", failure.getMessage());
+        }
+    }
+
+    @Test
+    void workerAnswersFailuresToReadAShard() throws IOException {
+        ByteArrayOutputStream unknownSource = new ByteArrayOutputStream();
+        DataOutputStream request = new DataOutputStream(unknownSource);
+        request.writeUTF(ShardedAggregations.COUNT_BY_PAYMENT_METHOD.name());
+        request.writeByte(7);
+        assertEquals("java.io.IOException: Unknown shard source 7", serve(unknownSource));
+
+        ByteArrayOutputStream truncated = new ByteArrayOutputStream();
+        request = new DataOutputStream(truncated);
+        request.writeUTF(ShardedAggregations.COUNT_BY_PAYMENT_METHOD.name());
+        request.writeByte(ShardedAggregation.ROWS);
+        request.writeBoolean(true);
+        request.writeInt(10);
+        assertTrue(serve(truncated).startsWith("java.io.EOFException"));
+    }
+
+    /**
+     * Serves the request in this JVM and returns the message of the {@link ShardWorker#FAILED} answer.
+     */
+    private static String serve(ByteArrayOutputStream request) throws IOException {
+        ByteArrayOutputStream answer = new ByteArrayOutputStream();
+        ShardWorker.serve(new DataInputStream(new ByteArrayInputStream(request.toByteArray())),
+                new DataOutputStream(answer));
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(answer.toByteArray()));
+        assertEquals(ShardWorker.FAILED, in.readByte());
+        return in.readUTF();
+    }
+
+    @Test
+    void rejectsNonPositiveWorkerCount() {
+        assertThrows(IllegalArgumentException.class, () -> LocalShardCluster.start(0));
+    }
+
+}
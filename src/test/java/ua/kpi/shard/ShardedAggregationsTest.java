@@ -0,0 +1,219 @@
+package ua.kpi.shard;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ua.kpi.entity.Employee;
+import ua.kpi.entity.Payment;
+import ua.kpi.io.PaymentFileWriter;
+import ua.kpi.streams.KTStreams;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ShardedAggregationsTest {
+
+    static final List<Payment> payments = payments(10_000);
+    static final List<Employee> employees = employees(5_000);
+
+    @Test
+    void paymentAggregationsMatchSingleProcess() throws IOException {
+        assertEquals(KTStreams.groupByCustomerAndMapToTotalAmount(payments),
+                aggregate(ShardedAggregations.GROUP_BY_CUSTOMER_AND_MAP_TO_TOTAL_AMOUNT, payments, 3));
+        assertEquals(KTStreams.countByPaymentMethod(payments),
+                aggregate(ShardedAggregations.COUNT_BY_PAYMENT_METHOD, payments, 3));
+        assertEquals(KTStreams.groupByStatusAndMapToPaymentMethods(payments),
+                aggregate(ShardedAggregations.GROUP_BY_STATUS_AND_MAP_TO_PAYMENT_METHODS, payments, 3));
+        assertEquals(KTStreams.groupByCurrencyAndMapToCustomerNames(payments),
+                aggregate(ShardedAggregations.GROUP_BY_CURRENCY_AND_MAP_TO_CUSTOMER_NAMES, payments, 3));
+        assertEquals(KTStreams.groupByDateAndMapToReferences(payments),
+                aggregate(ShardedAggregations.GROUP_BY_DATE_AND_MAP_TO_REFERENCES, payments, 3));
+        assertEquals(KTStreams.groupByCustomer(payments),
+                aggregate(ShardedAggregations.GROUP_BY_CUSTOMER, payments, 3));
+    }
+
+    @Test
+    void workersReadTheirShardFromAPaymentFile(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("payments.bin");
+        PaymentFileWriter.write(file, payments);
+        ShardCoordinator<String, ?, BigDecimal> coordinator =
+                ShardCoordinator.of(ShardedAggregations.GROUP_BY_CUSTOMER_AND_MAP_TO_TOTAL_AMOUNT, 2, 3);
+        for (int shard = 0; shard < 2; shard++) {
+            ByteArrayOutputStream request = new ByteArrayOutputStream();
+            ShardedAggregation.writePaymentFileRange(new DataOutputStream(request), file,
+                    payments.size() * shard / 2, payments.size() * (shard + 1) / 2);
+            coordinator.read(shard, answer(ShardedAggregations.GROUP_BY_CUSTOMER_AND_MAP_TO_TOTAL_AMOUNT, request));
+        }
+
+        assertEquals(KTStreams.groupByCustomerAndMapToTotalAmount(payments), coordinator.merge());
+    }
+
+    @Test
+    void rejectsPaymentFileShardsOfOtherRows(@TempDir Path directory) throws IOException {
+        ByteArrayOutputStream request = new ByteArrayOutputStream();
+        ShardedAggregation.writePaymentFileRange(new DataOutputStream(request), directory.resolve("payments.bin"), 0, 1);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> answer(ShardedAggregations.COUNT_EMPLOYEES_BY_GENDER, request));
+        assertThrows(UncheckedIOException.class,
+                () -> answer(ShardedAggregations.COUNT_BY_PAYMENT_METHOD, request));
+    }
+
+    @Test
+    void employeeAggregationsMatchSingleProcess() throws IOException {
+        assertEquals(KTStreams.countEmployeesInDepartments(employees),
+                aggregate(ShardedAggregations.COUNT_EMPLOYEES_IN_DEPARTMENTS, employees, 4));
+        assertEquals(KTStreams.averageAgeInDepartments(employees),
+                aggregate(ShardedAggregations.AVERAGE_AGE_IN_DEPARTMENTS, employees, 4));
+        assertEquals(KTStreams.oldestEmployeeInDepartment(employees),
+                aggregate(ShardedAggregations.OLDEST_EMPLOYEE_IN_DEPARTMENT, employees, 4));
+        assertEquals(KTStreams.averageSalaryByGender(employees),
+                aggregate(ShardedAggregations.AVERAGE_SALARY_BY_GENDER, employees, 4));
+        assertEquals(KTStreams.sumSalariesByDepartment(employees),
+                aggregate(ShardedAggregations.SUM_SALARIES_BY_DEPARTMENT, employees, 4));
+        assertEquals(KTStreams.countEmployeesByGender(employees),
+                aggregate(ShardedAggregations.COUNT_EMPLOYEES_BY_GENDER, employees, 4));
+        assertEquals(KTStreams.groupEmployeesByAgeRange(employees),
+                aggregate(ShardedAggregations.GROUP_EMPLOYEES_BY_AGE_RANGE, employees, 4));
+    }
+
+    @Test
+    void singleShardAndEmptyShardsMatchSingleProcess() throws IOException {
+        List<Payment> few = payments.subList(0, 2);
+        assertEquals(KTStreams.groupByCustomerAndMapToTotalAmount(few),
+                aggregate(ShardedAggregations.GROUP_BY_CUSTOMER_AND_MAP_TO_TOTAL_AMOUNT, few, 5));
+        assertEquals(KTStreams.countByPaymentMethod(payments),
+                aggregate(ShardedAggregations.COUNT_BY_PAYMENT_METHOD, payments, 1));
+    }
+
+    @Test
+    void mergedDoubleSumsEqualTheUnsplitSum() throws IOException {
+        double[] values = {1e16, 1.0, -1e16, 3.5, 0.1, 0.2};
+        Partials.DoubleSum all = new Partials.DoubleSum();
+        Partials.DoubleSum left = new Partials.DoubleSum();
+        Partials.DoubleSum right = new Partials.DoubleSum();
+        for (int i = 0; i < values.length; i++) {
+            all.add(values[i]);
+            (i < 3 ? left : right).add(values[i]);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Partials.DoubleSum.CODEC.write(new DataOutputStream(bytes), right);
+        left.merge(Partials.DoubleSum.CODEC.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+        assertEquals(4.8, all.sum());
+        assertEquals(all.sum(), left.sum());
+        assertEquals(all.average(), left.average());
+    }
+
+    @Test
+    void maxByKeepsTheFirstOfEqualRanks() {
+        Partials.MaxBy<String> first = new Partials.MaxBy<>();
+        first.add("a", 40);
+        Partials.MaxBy<String> later = new Partials.MaxBy<>();
+        later.add("b", 40);
+        first.merge(later);
+        assertEquals("a", first.value());
+
+        later.add("c", 41);
+        first.merge(later);
+        assertEquals("c", first.value());
+    }
+
+    @Test
+    void minByKeepsTheFirstOfEqualRanks() {
+        Partials.MinBy<String> first = new Partials.MinBy<>();
+        first.add("a", 40);
+        Partials.MinBy<String> later = new Partials.MinBy<>();
+        later.add("b", 40);
+        first.merge(later);
+        assertEquals("a", first.value());
+
+        later.add("c", 39);
+        first.merge(later);
+        assertEquals("c", first.value());
+    }
+
+    @Test
+    void looksAggregationsUpByName() {
+        assertSame(ShardedAggregations.AVERAGE_SALARY_BY_GENDER, ShardedAggregations.byName("averageSalaryByGender"));
+        assertNull(ShardedAggregations.byName("unknown"));
+    }
+
+    @Test
+    void refusesToMergeBeforeEveryShardIsRead() {
+        ShardCoordinator<String, ?, Long> coordinator =
+                ShardCoordinator.of(ShardedAggregations.COUNT_BY_PAYMENT_METHOD, 2, 2);
+        assertThrows(IllegalStateException.class, coordinator::merge);
+    }
+
+    /**
+     * Runs the worker side of every shard in this JVM over byte streams, in the wire format.
+     */
+    static <T, K, R> Map<K, R> aggregate(ShardedAggregation<T, K, R> aggregation, List<T> rows, int shards)
+            throws IOException {
+        ShardCoordinator<K, ?, R> coordinator = ShardCoordinator.of(aggregation, shards, 3);
+        for (int shard = 0; shard < shards; shard++) {
+            ByteArrayOutputStream request = new ByteArrayOutputStream();
+            aggregation.writeRows(new DataOutputStream(request),
+                    rows.subList(rows.size() * shard / shards, rows.size() * (shard + 1) / shards));
+            coordinator.read(shard, answer(aggregation, request));
+        }
+        return coordinator.merge();
+    }
+
+    /**
+     * Answers a request like a worker and returns the partials that follow {@link ShardWorker#OK}.
+     */
+    private static DataInputStream answer(ShardedAggregation<?, ?, ?> aggregation, ByteArrayOutputStream request)
+            throws IOException {
+        ByteArrayOutputStream answer = new ByteArrayOutputStream();
+        aggregation.aggregateShard(new DataInputStream(new ByteArrayInputStream(request.toByteArray())),
+                new DataOutputStream(answer));
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(answer.toByteArray()));
+        assertEquals(ShardWorker.OK, in.readByte());
+        return in;
+    }
+
+    static List<Payment> payments(int size) {
+        Random random = new Random(7);
+        Payment.PaymentStatus[] statuses = Payment.PaymentStatus.values();
+        Payment.Currency[] currencies = Payment.Currency.values();
+        String[] methods = {"Credit Card", "Bank Transfer", "PayPal", "Cash"};
+        List<Payment> payments = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            payments.add(new Payment(String.valueOf(i), "Customer " + random.nextInt(1_000),
+                    BigDecimal.valueOf(random.nextInt(1_000_000), random.nextInt(3)),
+                    statuses[random.nextInt(statuses.length)], LocalDate.of(2024, 1, 1).plusDays(random.nextInt(365)),
+                    currencies[random.nextInt(currencies.length)], methods[random.nextInt(methods.length)], "REF" + i));
+        }
+        return payments;
+    }
+
+    static List<Employee> employees(int size) {
+        Random random = new Random(11);
+        String[] genders = {"Male", "Female"};
+        String[] departments = {"HR", "IT", "Sales", "Finance", "Legal"};
+        List<Employee> employees = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            employees.add(new Employee(i, "Employee " + i, 20 + random.nextInt(45), genders[random.nextInt(2)],
+                    departments[random.nextInt(departments.length)], 1990 + random.nextInt(35),
+                    30_000 + random.nextDouble() * 90_000));
+        }
+        return employees;
+    }
+
+}
@@ -0,0 +1,44 @@
+package ua.kpi.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BloomFilterTest {
+
+    @Test
+    void testDimensionsFromFalsePositiveRate() {
+        BloomFilter filter = BloomFilter.withFalsePositiveRate(10_000, 0.01);
+        assertEquals(131_072, filter.bitCount());
+        assertEquals(7, filter.hashCount());
+        assertEquals(64, BloomFilter.withFalsePositiveRate(0, 0.01).bitCount());
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.withFalsePositiveRate(10, 1));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(64, 0));
+    }
+
+    @Test
+    void testNoFalseNegativesAndBoundedFalsePositives() {
+        Random random = new Random(17);
+        BloomFilter filter = BloomFilter.withFalsePositiveRate(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(i * 2L);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain(i * 2L));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(random.nextLong(1, Long.MAX_VALUE / 2) * 2 + 1)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 1_000, "False positives: " + falsePositives);
+        assertFalse(new BloomFilter(64, 3).mightContain(42));
+    }
+
+}
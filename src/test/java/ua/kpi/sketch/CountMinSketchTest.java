@@ -0,0 +1,51 @@
+package ua.kpi.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CountMinSketchTest {
+
+    @Test
+    void testDimensionsFromError() {
+        CountMinSketch sketch = CountMinSketch.withError(0.001, 0.01);
+        assertEquals(2719, sketch.width());
+        assertEquals(5, sketch.depth());
+        assertThrows(IllegalArgumentException.class, () -> CountMinSketch.withError(0, 0.01));
+    }
+
+    @Test
+    void testEstimatesWithinBound() {
+        Random random = new Random(9);
+        Map<String, Long> exact = new HashMap<>();
+        CountMinSketch sketch = CountMinSketch.withError(0.001, 0.01);
+        CountMinSketch left = CountMinSketch.withError(0.001, 0.01);
+        CountMinSketch right = CountMinSketch.withError(0.001, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            String key = "Customer " + random.nextInt(20_000);
+            exact.merge(key, 1L, Long::sum);
+            sketch.add(key);
+            (i % 2 == 0 ? left : right).add(key);
+        }
+        left.merge(right);
+        long bound = (long) (0.001 * sketch.totalWeight());
+        int exceeded = 0;
+        for (Map.Entry<String, Long> entry : exact.entrySet()) {
+            long estimate = sketch.estimate(entry.getKey());
+            assertTrue(estimate >= entry.getValue());
+            assertEquals(estimate, left.estimate(entry.getKey()));
+            if (estimate - entry.getValue() > bound) {
+                exceeded++;
+            }
+        }
+        assertTrue(exceeded < exact.size() * 0.01, "exceeded " + exceeded);
+        assertThrows(IllegalArgumentException.class, () -> sketch.merge(new CountMinSketch(10, 5)));
+    }
+
+}
@@ -0,0 +1,58 @@
+package ua.kpi.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HyperLogLogTest {
+
+    @Test
+    void testPrecisionForError() {
+        assertEquals(14, HyperLogLog.precisionFor(0.01));
+        assertEquals(11, HyperLogLog.precisionFor(0.023));
+        assertEquals(HyperLogLog.MAX_PRECISION, HyperLogLog.precisionFor(0.0001));
+        assertEquals(HyperLogLog.MIN_PRECISION, HyperLogLog.precisionFor(0.5));
+        assertTrue(HyperLogLog.withRelativeError(0.01).relativeError() <= 0.01);
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.precisionFor(0));
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(3));
+    }
+
+    @Test
+    void testSmallCardinalitiesAreExact() {
+        HyperLogLog sketch = new HyperLogLog(14);
+        assertEquals(0, sketch.estimate());
+        for (int i = 0; i < 100; i++) {
+            sketch.add("Customer " + i % 50);
+        }
+        assertEquals(50, sketch.estimate());
+    }
+
+    @Test
+    void testLargeCardinalityWithinError() {
+        HyperLogLog sketch = HyperLogLog.withRelativeError(0.01);
+        int distinct = 1_000_000;
+        for (int i = 0; i < distinct; i++) {
+            sketch.add("Customer " + i);
+        }
+        double error = Math.abs(sketch.estimate() - distinct) / (double) distinct;
+        assertTrue(error < 3 * sketch.relativeError(), "error " + error);
+    }
+
+    @Test
+    void testMergeEqualsSingleSketch() {
+        HyperLogLog all = new HyperLogLog(12);
+        HyperLogLog left = new HyperLogLog(12);
+        HyperLogLog right = new HyperLogLog(12);
+        for (int i = 0; i < 50_000; i++) {
+            all.add("Customer " + i);
+            (i % 3 == 0 ? left : right).add("Customer " + i);
+            right.add("Customer " + i / 2);
+        }
+        assertEquals(all, left.merge(right));
+        assertEquals(all.estimate(), left.estimate());
+        assertThrows(IllegalArgumentException.class, () -> left.merge(new HyperLogLog(13)));
+    }
+
+}
@@ -0,0 +1,76 @@
+package ua.kpi.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class KllSketchTest {
+
+    @Test
+    void testSmallInputIsExact() {
+        KllSketch sketch = new KllSketch();
+        assertTrue(Double.isNaN(sketch.quantile(0.5)));
+        for (int i = 1; i <= 100; i++) {
+            sketch.add(i);
+        }
+        assertEquals(1, sketch.quantile(0));
+        assertEquals(50, sketch.quantile(0.5));
+        assertEquals(90, sketch.quantile(0.9));
+        assertEquals(100, sketch.quantile(1));
+    }
+
+    @Test
+    void testRankErrorAndBoundedMemory() {
+        Random random = new Random(7);
+        int n = 1_000_000;
+        double[] values = new double[n];
+        KllSketch sketch = new KllSketch(200);
+        for (int i = 0; i < n; i++) {
+            values[i] = Math.exp(random.nextGaussian() * 2);
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+        assertEquals(n, sketch.count());
+        assertTrue(sketch.retained() < 1_000, "retained " + sketch.retained());
+        for (double fraction : new double[]{0.01, 0.25, 0.5, 0.9, 0.99}) {
+            assertRankError(values, sketch.quantile(fraction), fraction, 0.02);
+        }
+    }
+
+    @Test
+    void testMergedPartitions() {
+        Random random = new Random(11);
+        int n = 200_000;
+        double[] values = new double[n];
+        KllSketch merged = new KllSketch(100);
+        for (int partition = 0; partition < 8; partition++) {
+            KllSketch sketch = new KllSketch(100);
+            for (int i = partition; i < n; i += 8) {
+                values[i] = random.nextDouble() * 1_000;
+                sketch.add(values[i]);
+            }
+            merged.merge(sketch);
+        }
+        Arrays.sort(values);
+        assertEquals(n, merged.count());
+        assertEquals(values[0], merged.min());
+        assertEquals(values[n - 1], merged.max());
+        for (double fraction : new double[]{0.1, 0.5, 0.95}) {
+            assertRankError(values, merged.quantile(fraction), fraction, 0.04);
+        }
+        assertThrows(IllegalArgumentException.class, () -> merged.merge(new KllSketch(200)));
+    }
+
+    private static void assertRankError(double[] sorted, double quantile, double fraction, double tolerance) {
+        int index = Arrays.binarySearch(sorted, quantile);
+        assertTrue(index >= 0, "quantile is not one of the added values");
+        double rank = (double) index / sorted.length;
+        assertTrue(Math.abs(rank - fraction) < tolerance, "rank " + rank + " for " + fraction);
+    }
+
+}
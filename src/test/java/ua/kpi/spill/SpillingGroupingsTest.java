@@ -0,0 +1,159 @@
+package ua.kpi.spill;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ua.kpi.entity.Payment;
+import ua.kpi.streams.KTStreams;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SpillingGroupingsTest {
+
+    @TempDir
+    Path directory;
+
+    private static final List<Payment> payments = payments(20_000, 5_000);
+
+    @Test
+    void totalsMatchInMemoryGroupingWhenSpilling() throws IOException {
+        Map<String, BigDecimal> totals = new HashMap<>();
+
+        SpillStats stats = SpillingGroupings.groupByCustomerAndMapToTotalAmount(payments, tinyBudget(), totals::put);
+
+        assertEquals(KTStreams.groupByCustomerAndMapToTotalAmount(payments), totals);
+        assertTrue(stats.spilled());
+        assertTrue(stats.spilledBytes() > 0);
+        assertNoTempFiles();
+    }
+
+    @Test
+    void referencesKeepInputOrderWhenSpilling() throws IOException {
+        Map<LocalDate, List<String>> references = new HashMap<>();
+
+        SpillStats stats = SpillingGroupings.groupByDateAndMapToReferences(payments, tinyBudget(), references::put);
+
+        assertEquals(KTStreams.groupByDateAndMapToReferences(payments), references);
+        assertTrue(stats.spilled());
+        assertNoTempFiles();
+    }
+
+    @Test
+    void customerNamesAreJoinedInInputOrderWhenSpilling() throws IOException {
+        Map<Payment.PaymentStatus, String> names = new HashMap<>();
+
+        SpillStats stats = SpillingGroupings.groupByCustomer(payments, tinyBudget(), names::put);
+
+        assertEquals(KTStreams.groupByCustomer(payments), names);
+        assertTrue(stats.spilled());
+        assertNoTempFiles();
+    }
+
+    @Test
+    void repartitionsPartitionsThatDoNotFit() throws IOException {
+        Map<String, BigDecimal> totals = new HashMap<>();
+        SpillOptions options = tinyBudget().withPartitions(2);
+
+        SpillStats stats = SpillingGroupings.groupByCustomerAndMapToTotalAmount(payments, options, totals::put);
+
+        assertEquals(KTStreams.groupByCustomerAndMapToTotalAmount(payments), totals);
+        assertTrue(stats.depth() > 1, "depth " + stats.depth());
+        assertNoTempFiles();
+    }
+
+    @Test
+    void doesNotRepartitionASingleOversizedGroup() throws IOException {
+        List<Payment> approved = payments.stream()
+                .map(payment -> new Payment(payment.id(), payment.customerName(), payment.amount(),
+                        Payment.PaymentStatus.APPROVED, payment.date(), payment.currency(),
+                        payment.paymentMethod(), payment.reference()))
+                .toList();
+        Map<Payment.PaymentStatus, String> names = new HashMap<>();
+
+        SpillStats stats = SpillingGroupings.groupByCustomer(approved, tinyBudget(), names::put);
+
+        assertEquals(KTStreams.groupByCustomer(approved), names);
+        assertTrue(stats.spilled());
+        assertEquals(1, stats.depth());
+        assertNoTempFiles();
+    }
+
+    @Test
+    void staysInMemoryWithinBudget() throws IOException {
+        Map<String, BigDecimal> totals = new HashMap<>();
+
+        SpillStats stats = SpillingGroupings.groupByCustomerAndMapToTotalAmount(payments,
+                SpillOptions.defaults().withDirectory(directory), totals::put);
+
+        assertEquals(KTStreams.groupByCustomerAndMapToTotalAmount(payments), totals);
+        assertFalse(stats.spilled());
+        assertEquals(0, stats.depth());
+    }
+
+    @Test
+    void deletesTempFilesWhenTheSinkFails() throws IOException {
+        assertThrows(IllegalStateException.class, () -> SpillingGroupings.groupByCustomerAndMapToTotalAmount(
+                payments, tinyBudget(), (customerName, total) -> {
+                    throw new IllegalStateException(customerName);
+                }));
+        assertNoTempFiles();
+    }
+
+    @Test
+    void partitionDependsOnLevel() {
+        int[] counts = new int[4];
+        for (int key = 0; key < 1000; key++) {
+            if (ExternalHashAggregator.partition(key, 0, 2) == 0) {
+                counts[ExternalHashAggregator.partition(key, 1, 2)]++;
+            }
+        }
+        assertTrue(counts[0] > 100 && counts[1] > 100, counts[0] + " / " + counts[1]);
+    }
+
+    @Test
+    void rejectsInvalidOptions() {
+        assertThrows(IllegalArgumentException.class, () -> SpillOptions.defaults().withMemoryBudgetBytes(0));
+        assertThrows(IllegalArgumentException.class, () -> SpillOptions.defaults().withPartitions(1));
+        assertThrows(IllegalArgumentException.class, () -> SpillOptions.defaults().withDirectory(null));
+    }
+
+    private SpillOptions tinyBudget() {
+        return SpillOptions.defaults().withDirectory(directory).withMemoryBudgetBytes(16 * 1024).withPartitions(4);
+    }
+
+    private void assertNoTempFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of(), files.toList());
+        }
+    }
+
+    private static List<Payment> payments(int size, int customers) {
+        Random random = new Random(42);
+        Payment.PaymentStatus[] statuses = Payment.PaymentStatus.values();
+        Payment.Currency[] currencies = Payment.Currency.values();
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        List<Payment> payments = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            BigDecimal amount = BigDecimal.valueOf(random.nextInt(1_000_000), random.nextInt(3));
+            payments.add(new Payment(String.valueOf(i), "Customer " + random.nextInt(customers), amount,
+                    statuses[random.nextInt(statuses.length)], start.plusDays(random.nextInt(3_000)),
+                    currencies[random.nextInt(currencies.length)], "Card", "REF" + i));
+        }
+        return payments;
+    }
+
+}
@@ -0,0 +1,208 @@
+package ua.kpi.sql;
+
+import org.junit.jupiter.api.Test;
+import ua.kpi.entity.Customer;
+import ua.kpi.entity.Order;
+import ua.kpi.entity.OrderItem;
+import ua.kpi.entity.Product;
+import ua.kpi.entity.Vendor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SalesQueriesTest {
+
+    private static final SalesDatabase db = SampleSalesData.database();
+
+    @Test
+    void testSingleTableQueries() {
+        assertEquals(List.of("1000000001", "1000000002", "1000000003", "1000000004", "1000000005"),
+                SalesQueries.customerIds(db));
+        assertEquals(List.of("BR01", "BR03", "BR02", "BNBG01", "BNBG02", "BNBG03", "RGAN01"),
+                SalesQueries.distinctOrderedProducts(db));
+        assertEquals(SampleSalesData.CUSTOMERS, SalesQueries.customers(db));
+        assertEquals(List.of("Village Toys", "The Toy Store", "Kids Place", "Fun4All", "Fun4All"),
+                SalesQueries.customerNamesDescending(db));
+        assertEquals(List.of(new SalesQueries.CustomerOrder("1000000001", 20005),
+                        new SalesQueries.CustomerOrder("1000000001", 20009),
+                        new SalesQueries.CustomerOrder("1000000003", 20006),
+                        new SalesQueries.CustomerOrder("1000000004", 20007),
+                        new SalesQueries.CustomerOrder("1000000005", 20008)),
+                SalesQueries.ordersByCustomerAndDate(db));
+
+        List<SalesQueries.QuantityPrice> quantities = SalesQueries.quantitiesAndPrices(db);
+        assertEquals(18, quantities.size());
+        assertEquals(new SalesQueries.QuantityPrice(250, new BigDecimal("2.49")), quantities.get(0));
+        assertEquals(new SalesQueries.QuantityPrice(100, new BigDecimal("10.99")), quantities.get(3));
+        assertEquals(new SalesQueries.QuantityPrice(5, new BigDecimal("4.99")), quantities.get(17));
+
+        assertEquals(List.of(new SalesQueries.ProductName("RYL01", "King doll"),
+                        new SalesQueries.ProductName("RYL02", "Queen doll")),
+                SalesQueries.productsPricedAt(db, new BigDecimal("9.490")));
+        assertEquals(List.of("BR03", "RYL01", "RYL02"),
+                SalesQueries.productsPricedAtLeast(db, BigDecimal.valueOf(9)).stream()
+                        .map(SalesQueries.ProductName::prodId).toList());
+        assertEquals(List.of(20005, 20007, 20009), SalesQueries.ordersWithItemQuantityAtLeast(db, 100));
+        assertEquals(List.of(new SalesQueries.ProductPrice("Fish bean bag toy", new BigDecimal("3.49")),
+                        new SalesQueries.ProductPrice("Bird bean bag toy", new BigDecimal("3.49")),
+                        new SalesQueries.ProductPrice("Rabbit bean bag toy", new BigDecimal("3.49")),
+                        new SalesQueries.ProductPrice("Raggedy Ann", new BigDecimal("4.99")),
+                        new SalesQueries.ProductPrice("8 inch teddy bear", new BigDecimal("5.99"))),
+                SalesQueries.productsPricedBetween(db, BigDecimal.valueOf(3), BigDecimal.valueOf(6)));
+        assertEquals(List.of("Doll House Inc."), SalesQueries.vendorNamesIn(db, "USA", "CA"));
+        assertEquals(List.of(new SalesQueries.OrderItemQuantity(20005, "BR01", 100),
+                        new SalesQueries.OrderItemQuantity(20005, "BR03", 100)),
+                SalesQueries.orderItemsWithQuantityAtLeast(db, Set.of("BR01", "BR02", "BR03"), 100));
+        assertEquals(List.of("Bear Emporium", "Bears R Us", "Doll House Inc.", "Fun and Games", "Furball Inc.",
+                        "Jouets et ours"),
+                SalesQueries.vendorAddresses(db).stream().map(SalesQueries.VendorAddress::vname).toList());
+    }
+
+    @Test
+    void testAggregates() {
+        assertEquals(1430, SalesQueries.totalQuantitySold(db));
+        assertEquals(120, SalesQueries.totalQuantitySold(db, "BR01"));
+        assertEquals(0, SalesQueries.totalQuantitySold(db, "NONE"));
+        assertEquals(new BigDecimal("9.49"), SalesQueries.maxPriceAtMost(db, BigDecimal.TEN));
+        assertNull(SalesQueries.maxPriceAtMost(db, BigDecimal.ONE));
+        assertEquals(List.of(new SalesQueries.OrderLines(20005, 2), new SalesQueries.OrderLines(20006, 3),
+                        new SalesQueries.OrderLines(20009, 3), new SalesQueries.OrderLines(20007, 5),
+                        new SalesQueries.OrderLines(20008, 5)),
+                SalesQueries.orderLines(db));
+        assertEquals(List.of(new SalesQueries.VendorCheapestItem("DLL01", new BigDecimal("3.49")),
+                        new SalesQueries.VendorCheapestItem("BRS01", new BigDecimal("5.99")),
+                        new SalesQueries.VendorCheapestItem("FNG01", new BigDecimal("9.49"))),
+                SalesQueries.cheapestItemByVendor(db));
+        assertEquals(List.of(20005, 20007, 20009), SalesQueries.ordersWithTotalQuantityAtLeast(db, 100));
+        assertEquals(List.of(20005, 20007, 20009),
+                SalesQueries.ordersWithTotalPriceAtLeast(db, BigDecimal.valueOf(1000)));
+        assertEquals(List.of(20007, 20009), SalesQueries.ordersWithTotalPriceAtLeast(db, new BigDecimal("1696.00")));
+        assertEquals(List.of(20009), SalesQueries.ordersWithTotalPriceAtLeast(db, new BigDecimal("1696.01")));
+        assertEquals(List.of(), SalesQueries.ordersWithTotalPriceAtLeast(db, new BigDecimal("1867.501")));
+    }
+
+    @Test
+    void testJoins() {
+        assertEquals(List.of(new SalesQueries.CustomerOrderNumber("Fun4All", 20006),
+                        new SalesQueries.CustomerOrderNumber("Fun4All", 20007),
+                        new SalesQueries.CustomerOrderNumber("The Toy Store", 20008),
+                        new SalesQueries.CustomerOrderNumber("Village Toys", 20005),
+                        new SalesQueries.CustomerOrderNumber("Village Toys", 20009)),
+                SalesQueries.customerOrders(db));
+        assertEquals(List.of(new SalesQueries.CustomerOrderTotal("Fun4All", 20006, new BigDecimal("329.60")),
+                        new SalesQueries.CustomerOrderTotal("Fun4All", 20007, new BigDecimal("1696.00")),
+                        new SalesQueries.CustomerOrderTotal("The Toy Store", 20008, new BigDecimal("189.60")),
+                        new SalesQueries.CustomerOrderTotal("Village Toys", 20005, new BigDecimal("1648.00")),
+                        new SalesQueries.CustomerOrderTotal("Village Toys", 20009, new BigDecimal("1867.50"))),
+                SalesQueries.customerOrderTotals(db));
+    }
+
+    @Test
+    void testSubqueries() {
+        assertEquals(List.of(new SalesQueries.CustomerContact("1000000004", "Fun4All", "Denise L. Stephens"),
+                        new SalesQueries.CustomerContact("1000000005", "The Toy Store", "Kim Howard")),
+                SalesQueries.customersWhoOrdered(db, "RGAN01"));
+        assertEquals(List.of("1000000001", "1000000003", "1000000004", "1000000005"),
+                SalesQueries.customersWithItemsPricedAtLeast(db, BigDecimal.TEN));
+        assertEquals(List.of(new SalesQueries.CustomerOrderDate("1000000003", LocalDate.of(2020, 1, 12)),
+                        new SalesQueries.CustomerOrderDate("1000000001", LocalDate.of(2020, 5, 1))),
+                SalesQueries.orderDatesForProduct(db, "BR01"));
+        assertEquals(List.of("sales@villagetoys.com", "jjones@fun4all.com"),
+                SalesQueries.customerEmailsForProduct(db, "BR01"));
+        assertEquals(List.of(), SalesQueries.customerEmailsForProduct(db, "RYL01"));
+        assertEquals(List.of(new SalesQueries.ProductQuantitySold("8 inch teddy bear", 120),
+                        new SalesQueries.ProductQuantitySold("12 inch teddy bear", 10),
+                        new SalesQueries.ProductQuantitySold("18 inch teddy bear", 165),
+                        new SalesQueries.ProductQuantitySold("Fish bean bag toy", 360),
+                        new SalesQueries.ProductQuantitySold("Bird bean bag toy", 360),
+                        new SalesQueries.ProductQuantitySold("Rabbit bean bag toy", 360),
+                        new SalesQueries.ProductQuantitySold("Raggedy Ann", 55),
+                        new SalesQueries.ProductQuantitySold("King doll", 0),
+                        new SalesQueries.ProductQuantitySold("Queen doll", 0)),
+                SalesQueries.quantitySoldByProduct(db));
+    }
+
+    @Test
+    void testDanglingKeysAreLeftOutOfJoins() {
+        SalesDatabase dangling = SalesDatabase.of(List.of(), List.of(),
+                List.of(new Customer("C1", "Alpha", null, null, null, null, null, null, "a@example.com")),
+                List.of(new Order(1, LocalDate.of(2020, 1, 1), "C1"), new Order(2, LocalDate.of(2020, 1, 2), "C2")),
+                List.of(new OrderItem(1, 1, "P1", 3, new BigDecimal("1.50")),
+                        new OrderItem(2, 1, "P1", 1, new BigDecimal("2.00")),
+                        new OrderItem(3, 1, "P1", 1, new BigDecimal("4.00"))));
+        assertEquals(List.of(new SalesQueries.CustomerOrderNumber("Alpha", 1)), SalesQueries.customerOrders(dangling));
+        assertEquals(List.of(new SalesQueries.CustomerOrderTotal("Alpha", 1, new BigDecimal("4.50"))),
+                SalesQueries.customerOrderTotals(dangling));
+        assertEquals(List.of("a@example.com"), SalesQueries.customerEmailsForProduct(dangling, "P1"));
+        assertEquals(List.of(1, 2, 3), SalesQueries.ordersWithTotalQuantityAtLeast(dangling, 1));
+        assertEquals(List.of(), SalesQueries.quantitySoldByProduct(dangling));
+    }
+
+    @Test
+    void testSemiJoinsMatchCorrelatedSubqueries() {
+        Random random = new Random(23);
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            customers.add(new Customer("C" + i, "Customer " + i, null, null, null, null, null, "Contact " + i,
+                    "c" + i + "@example.com"));
+        }
+        List<Order> orders = new ArrayList<>();
+        List<OrderItem> items = new ArrayList<>();
+        for (int orderNum = 1; orderNum <= 2_000; orderNum++) {
+            orders.add(new Order(orderNum, LocalDate.of(2020, 1, 1).plusDays(random.nextInt(366)),
+                    "C" + random.nextInt(210)));
+            for (int line = 1; line <= random.nextInt(4); line++) {
+                items.add(new OrderItem(orderNum + random.nextInt(2) * 5_000, line,
+                        SampleSalesData.PRODUCTS.get(random.nextInt(9)).prodId(), 1, BigDecimal.ONE));
+            }
+        }
+        SalesDatabase sales = SalesDatabase.of(SampleSalesData.VENDORS, SampleSalesData.PRODUCTS, customers,
+                orders, items);
+        for (String prodId : List.of("BR01", "RGAN01", "RYL02", "NONE")) {
+            List<String> expectedEmails = new ArrayList<>();
+            List<SalesQueries.CustomerContact> expectedContacts = new ArrayList<>();
+            for (Customer customer : customers) {
+                boolean ordered = orders.stream().anyMatch(order -> order.custId().equals(customer.custId())
+                        && items.stream().anyMatch(item -> item.orderNum() == order.orderNum()
+                        && item.prodId().equals(prodId)));
+                if (ordered) {
+                    expectedEmails.add(customer.custEmail());
+                    expectedContacts.add(new SalesQueries.CustomerContact(customer.custId(), customer.custName(),
+                            customer.custContact()));
+                }
+            }
+            assertEquals(expectedEmails, SalesQueries.customerEmailsForProduct(sales, prodId));
+            assertEquals(expectedContacts, SalesQueries.customersWhoOrdered(sales, prodId));
+            assertEquals(orders.stream()
+                            .filter(order -> items.stream().anyMatch(item -> item.orderNum() == order.orderNum()
+                                    && item.prodId().equals(prodId)))
+                            .map(order -> new SalesQueries.CustomerOrderDate(order.custId(), order.orderDate()))
+                            .sorted(Comparator.comparing(SalesQueries.CustomerOrderDate::orderDate))
+                            .toList(),
+                    SalesQueries.orderDatesForProduct(sales, prodId));
+        }
+    }
+
+    @Test
+    void testRejectsDuplicateKeysAndFinePrices() {
+        Vendor vendor = SampleSalesData.VENDORS.get(0);
+        assertThrows(IllegalArgumentException.class, () -> SalesDatabase.of(List.of(vendor, vendor),
+                List.of(), List.of(), List.of(), List.of()));
+        Order order = SampleSalesData.ORDERS.get(0);
+        assertThrows(IllegalArgumentException.class, () -> SalesDatabase.of(List.of(), List.of(), List.of(),
+                List.of(order, order), List.of()));
+        assertThrows(IllegalArgumentException.class, () -> SalesDatabase.of(List.of(),
+                List.of(new Product("P1", "V1", "Thing", new BigDecimal("1.005"), null)),
+                List.of(), List.of(), List.of()));
+    }
+
+}
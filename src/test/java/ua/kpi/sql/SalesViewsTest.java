@@ -0,0 +1,120 @@
+package ua.kpi.sql;
+
+import org.junit.jupiter.api.Test;
+import ua.kpi.entity.OrderItem;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SalesViewsTest {
+
+    @Test
+    void testViewsMatchQueriesOnSampleData() {
+        SalesDatabase db = SampleSalesData.database();
+        SalesViews views = SalesViews.of(db);
+        assertEquals(18, views.orderItemCount());
+        assertEquals(new BigDecimal("1867.50"), views.orderTotal(20009));
+        assertNull(views.orderTotal(1));
+        assertEquals(List.of(20005, 20007, 20009), views.ordersWithTotalPriceAtLeast(BigDecimal.valueOf(1000)));
+        assertEquals(SalesQueries.customerOrderTotals(db), views.customerOrderTotals());
+        assertEquals(SalesQueries.quantitySoldByProduct(db), views.quantitySoldByProduct());
+        assertEquals(120, views.quantitySold("BR01"));
+    }
+
+    @Test
+    void testInsertUpdateAndDelete() {
+        SalesViews views = SalesViews.of(SampleSalesData.database());
+        views.insert(new OrderItem(20006, 4, "RYL01", 100, new BigDecimal("9.49")));
+        assertEquals(new BigDecimal("1278.60"), views.orderTotal(20006));
+        assertEquals(List.of(20005, 20006, 20007, 20009), views.ordersWithTotalPriceAtLeast(BigDecimal.valueOf(1000)));
+        assertEquals(100, views.quantitySold("RYL01"));
+
+        OrderItem previous = views.update(new OrderItem(20009, 1, "BR01", 1, new BigDecimal("5.99")));
+        assertEquals(new OrderItem(20009, 1, "BNBG01", 250, new BigDecimal("2.49")), previous);
+        assertEquals(new BigDecimal("1250.99"), views.orderTotal(20009));
+        assertEquals(110, views.quantitySold("BNBG01"));
+        assertEquals(121, views.quantitySold("BR01"));
+
+        views.insert(new OrderItem(20008, 9, "NEW01", 7, new BigDecimal("1.00")));
+        assertEquals(7, views.quantitySold("NEW01"));
+        assertEquals(0, views.quantitySold("NONE01"));
+        views.delete(20008, 9);
+        assertEquals(0, views.quantitySold("NEW01"));
+
+        views.delete(20005, 1);
+        views.delete(20005, 2);
+        assertNull(views.orderTotal(20005));
+        assertEquals(List.of(20006, 20007, 20009), views.ordersWithTotalPriceAtLeast(BigDecimal.valueOf(1000)));
+        assertEquals(List.of(20006, 20007, 20008, 20009), views.ordersWithTotalPriceAtLeast(BigDecimal.ZERO));
+        assertEquals(17, views.orderItemCount());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> views.insert(new OrderItem(20006, 1, "BR01", 1, BigDecimal.ONE)));
+        assertThrows(IllegalArgumentException.class,
+                () -> views.update(new OrderItem(20005, 1, "BR01", 1, BigDecimal.ONE)));
+        assertThrows(IllegalArgumentException.class, () -> views.delete(20005, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> views.insert(new OrderItem(20006, 9, "BR01", 1, new BigDecimal("0.001"))));
+        assertEquals(17, views.orderItemCount());
+    }
+
+    @Test
+    void testRandomChangesMatchRecomputation() {
+        Random random = new Random(31);
+        Map<Long, OrderItem> items = new LinkedHashMap<>();
+        for (OrderItem item : SampleSalesData.ORDER_ITEMS) {
+            items.put(key(item), item);
+        }
+        SalesViews views = SalesViews.of(SampleSalesData.database());
+        for (int step = 0; step < 2_000; step++) {
+            int orderNum = 20005 + random.nextInt(8);
+            int orderItem = 1 + random.nextInt(6);
+            OrderItem item = new OrderItem(orderNum, orderItem,
+                    SampleSalesData.PRODUCTS.get(random.nextInt(SampleSalesData.PRODUCTS.size())).prodId(),
+                    random.nextInt(1, 300), BigDecimal.valueOf(random.nextInt(1, 2_000), 2));
+            boolean present = items.containsKey(key(item));
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    if (!present) {
+                        views.insert(item);
+                        items.put(key(item), item);
+                    }
+                }
+                case 1 -> {
+                    if (present) {
+                        views.update(item);
+                        items.put(key(item), item);
+                    }
+                }
+                default -> {
+                    if (present) {
+                        views.delete(orderNum, orderItem);
+                        items.remove(key(item));
+                    }
+                }
+            }
+            if (step % 100 == 0) {
+                SalesDatabase recomputed = SalesDatabase.of(SampleSalesData.VENDORS, SampleSalesData.PRODUCTS,
+                        SampleSalesData.CUSTOMERS, SampleSalesData.ORDERS, new ArrayList<>(items.values()));
+                BigDecimal threshold = BigDecimal.valueOf(random.nextInt(3_000));
+                assertEquals(SalesQueries.ordersWithTotalPriceAtLeast(recomputed, threshold),
+                        views.ordersWithTotalPriceAtLeast(threshold));
+                assertEquals(SalesQueries.customerOrderTotals(recomputed), views.customerOrderTotals());
+                assertEquals(SalesQueries.quantitySoldByProduct(recomputed), views.quantitySoldByProduct());
+            }
+        }
+    }
+
+    private static long key(OrderItem item) {
+        return (long) item.orderNum() << 32 | item.orderItem();
+    }
+
+}
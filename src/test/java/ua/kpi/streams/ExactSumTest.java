@@ -0,0 +1,81 @@
+package ua.kpi.streams;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ExactSumTest {
+
+    @Test
+    void sumIsTheCorrectlyRoundedExactTotal() {
+        Random random = new Random(3);
+        for (int round = 0; round < 200; round++) {
+            List<Double> values = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                values.add((random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(40) - 20));
+            }
+            BigDecimal exact = BigDecimal.ZERO;
+            ExactSum sum = new ExactSum();
+            for (double value : values) {
+                exact = exact.add(new BigDecimal(value));
+                sum.add(value);
+            }
+            assertEquals(exact.doubleValue(), sum.sum());
+            assertEquals(50, sum.count());
+        }
+    }
+
+    @Test
+    void sumDoesNotDependOnOrderOrSplit() {
+        Random random = new Random(5);
+        List<Double> values = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            values.add(random.nextInt(10_000_000) / 100.0 + 0.1);
+        }
+        double expected = sum(values);
+        for (int round = 0; round < 20; round++) {
+            Collections.shuffle(values, random);
+            int split = random.nextInt(values.size());
+            ExactSum left = new ExactSum();
+            ExactSum right = new ExactSum();
+            values.subList(0, split).forEach(left::add);
+            values.subList(split, values.size()).forEach(right::add);
+            assertEquals(expected, right.add(left).sum());
+        }
+    }
+
+    @Test
+    void cancellationIsExact() {
+        assertEquals(1.0, sum(List.of(1e100, 1.0, -1e100)));
+        assertEquals(0.30000000000000004, sum(List.of(0.1, 0.2)));
+        assertEquals(0.0, sum(List.of()));
+    }
+
+    @Test
+    void restoresFromPartials() {
+        ExactSum sum = new ExactSum().add(1e16).add(1.0).add(0.5);
+        ExactSum restored = ExactSum.of(sum.partials(), sum.special(), sum.count());
+        assertEquals(sum.sum(), restored.sum());
+        assertEquals(3, restored.count());
+    }
+
+    @Test
+    void infinitiesAndNaNTakePrecedence() {
+        assertEquals(Double.POSITIVE_INFINITY, sum(List.of(1.0, Double.POSITIVE_INFINITY)));
+        assertEquals(Double.NaN, sum(List.of(Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY)));
+        assertEquals(Double.POSITIVE_INFINITY, sum(List.of(Double.MAX_VALUE, Double.MAX_VALUE)));
+    }
+
+    private static double sum(List<Double> values) {
+        ExactSum sum = new ExactSum();
+        values.forEach(sum::add);
+        return sum.sum();
+    }
+
+}
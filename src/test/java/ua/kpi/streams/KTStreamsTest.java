@@ -6,6 +6,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 import ua.kpi.entity.Employee;
 import ua.kpi.entity.Payment;
+import ua.kpi.sketch.KllSketch;
+import ua.kpi.table.EmployeeTable;
+import ua.kpi.table.PaymentTable;
+import ua.kpi.topk.SpaceSaving;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -13,7 +17,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -21,6 +27,12 @@ import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static ua.kpi.streams.KTStreams.allPaymentsApproved;
+import static ua.kpi.streams.KTStreams.approximateAmountQuantiles;
+import static ua.kpi.streams.KTStreams.approximateCountByPaymentMethod;
+import static ua.kpi.streams.KTStreams.approximateDistinctCustomers;
+import static ua.kpi.streams.KTStreams.approximateSalaryQuantiles;
+import static ua.kpi.streams.KTStreams.approximateTopCustomersByTotalAmount;
+import static ua.kpi.streams.KTStreams.approximateTopPaymentMethods;
 import static ua.kpi.streams.KTStreams.averageAgeInDepartments;
 import static ua.kpi.streams.KTStreams.averageSalaryByGender;
 import static ua.kpi.streams.KTStreams.countByPaymentMethod;
@@ -39,9 +51,14 @@ import static ua.kpi.streams.KTStreams.groupByCustomerAndMapToTotalAmount;
 import static ua.kpi.streams.KTStreams.groupByDateAndMapToReferences;
 import static ua.kpi.streams.KTStreams.groupByStatusAndMapToPaymentMethods;
 import static ua.kpi.streams.KTStreams.groupEmployeesByAgeRange;
+import static ua.kpi.streams.KTStreams.mostExperiencedEmployeesInDepartments;
 import static ua.kpi.streams.KTStreams.oldestEmployeeInDepartment;
 import static ua.kpi.streams.KTStreams.partitionByAmount;
 import static ua.kpi.streams.KTStreams.sumSalariesByDepartment;
+import static ua.kpi.streams.KTStreams.topCustomersByTotalAmount;
+import static ua.kpi.streams.KTStreams.topPaidEmployees;
+import static ua.kpi.streams.KTStreams.topPaidEmployeesInDepartments;
+import static ua.kpi.streams.KTStreams.topPaymentMethods;
 import static ua.kpi.streams.KTStreams.totalAmountByCurrency;
 
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
@@ -95,6 +112,8 @@ public class KTStreamsTest {
             )
     );
 
+    private static final PaymentTable paymentTable = PaymentTable.of(payments);
+
     @Test
     @Order(1)
     void testAllPaymentsApproved() {
@@ -309,4 +328,225 @@ public class KTStreamsTest {
         assertEquals(3, result.get("Above 30").size());
     }
 
-}
\ No newline at end of file
+    @Test
+    @Order(24)
+    void testPaymentTableMatchesListAggregations() {
+        assertEquals(allPaymentsApproved(payments), allPaymentsApproved(paymentTable));
+        assertEquals(totalAmountByCurrency(payments), totalAmountByCurrency(paymentTable));
+        assertEquals(findEarliestPaymentDate(payments), findEarliestPaymentDate(paymentTable));
+        assertEquals(findMaxPaymentAmount(payments), findMaxPaymentAmount(paymentTable));
+        assertEquals(partitionByAmount(payments, new BigDecimal("100.00")),
+                partitionByAmount(paymentTable, new BigDecimal("100.00")));
+        assertEquals(partitionByAmount(payments, new BigDecimal("100.505")),
+                partitionByAmount(paymentTable, new BigDecimal("100.505")));
+    }
+
+    @Test
+    @Order(25)
+    void testPaymentTableKeepsAmountScale() {
+        List<Payment> mixedScale = List.of(
+                new Payment("1", "John Doe", new BigDecimal("100"),
+                        Payment.PaymentStatus.APPROVED, LocalDate.now(),
+                        Payment.Currency.USD, "Credit Card", "REF1"),
+                new Payment("2", "John Doe", new BigDecimal("20.5"),
+                        Payment.PaymentStatus.APPROVED, LocalDate.now(),
+                        Payment.Currency.USD, "Credit Card", "REF2"));
+        PaymentTable table = PaymentTable.of(mixedScale);
+
+        assertEquals(new BigDecimal("120.5"), totalAmountByCurrency(table));
+        assertEquals(new BigDecimal("100"), findMaxPaymentAmount(table));
+        assertEquals(mixedScale, partitionByAmount(table, BigDecimal.ZERO).get(true));
+        assertEquals(BigDecimal.ZERO, totalAmountByCurrency(PaymentTable.of(List.of())));
+        assertNull(findEarliestPaymentDate(PaymentTable.of(List.of())));
+    }
+
+    @Test
+    @Order(26)
+    void testParallelGroupingMatchesSequential() {
+        List<Payment> manyPayments = new ArrayList<>();
+        List<Employee> manyEmployees = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            for (Payment payment : payments) {
+                manyPayments.add(new Payment(payment.id() + "-" + i, payment.customerName(), payment.amount(),
+                        payment.status(), payment.date().minusDays(i % 7), payment.currency(),
+                        payment.paymentMethod(), payment.reference() + "-" + i));
+            }
+            manyEmployees.addAll(employees);
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ExecutionOptions options = ExecutionOptions.parallel(pool).withSequentialThreshold(64);
+
+            assertEquals(countByPaymentMethod(manyPayments), countByPaymentMethod(manyPayments, options));
+            assertEquals(partitionByAmount(manyPayments, new BigDecimal("100.00")),
+                    partitionByAmount(manyPayments, new BigDecimal("100.00"), options));
+            assertEquals(groupByCurrencyAndMapToCustomerNames(manyPayments),
+                    groupByCurrencyAndMapToCustomerNames(manyPayments, options));
+            assertEquals(groupByStatusAndMapToPaymentMethods(manyPayments),
+                    groupByStatusAndMapToPaymentMethods(manyPayments, options));
+            assertEquals(groupByDateAndMapToReferences(manyPayments), groupByDateAndMapToReferences(manyPayments, options));
+            assertEquals(groupByCustomer(manyPayments), groupByCustomer(manyPayments, options));
+            assertEquals(groupByCustomerAndMapToTotalAmount(manyPayments),
+                    groupByCustomerAndMapToTotalAmount(manyPayments, options));
+            assertEquals(countEmployeesInDepartments(manyEmployees), countEmployeesInDepartments(manyEmployees, options));
+            assertEquals(countEmployeesByGender(manyEmployees), countEmployeesByGender(manyEmployees, options));
+            assertEquals(averageSalaryByGender(manyEmployees), averageSalaryByGender(manyEmployees, options));
+            assertEquals(averageAgeInDepartments(manyEmployees), averageAgeInDepartments(manyEmployees, options));
+            assertEquals(sumSalariesByDepartment(manyEmployees), sumSalariesByDepartment(manyEmployees, options));
+            assertEquals(oldestEmployeeInDepartment(manyEmployees), oldestEmployeeInDepartment(manyEmployees, options));
+            assertEquals(groupEmployeesByAgeRange(manyEmployees), groupEmployeesByAgeRange(manyEmployees, options));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @Order(27)
+    void testDictionaryEncodedGroupingMatchesLists() {
+        assertEquals(findDistinctCustomers(payments, 9), findDistinctCustomers(paymentTable, 9));
+        assertEquals(findDistinctCustomers(payments, 0), findDistinctCustomers(paymentTable, 0));
+        assertEquals(countByPaymentMethod(payments), countByPaymentMethod(paymentTable));
+        assertEquals(groupByCustomer(payments), groupByCustomer(paymentTable));
+        assertEquals(countEmployeesInDepartments(employees), countEmployeesInDepartments(EmployeeTable.of(employees)));
+        assertEquals(8, paymentTable.customerNames().size());
+        assertEquals(payments, partitionByAmount(paymentTable, BigDecimal.ZERO).get(true));
+    }
+
+    @Test
+    @Order(28)
+    void testApproximateAnalytics() {
+        assertEquals(8, approximateDistinctCustomers(payments, 0.01).estimate());
+        assertEquals(8, approximateDistinctCustomers(payments, 0.01,
+                ExecutionOptions.parallel().withSequentialThreshold(2)).estimate());
+
+        KllSketch amounts = approximateAmountQuantiles(payments, KllSketch.DEFAULT_K);
+        assertEquals(payments.size(), amounts.count());
+        assertEquals(findMaxPaymentAmount(payments).doubleValue(), amounts.quantile(1));
+
+        KllSketch salaries = approximateSalaryQuantiles(employees, KllSketch.DEFAULT_K);
+        assertEquals(getHighestPaidEmployee(employees).salary(), salaries.quantile(1));
+        assertEquals(1300, salaries.quantile(0));
+        assertEquals(2100, salaries.quantile(0.5));
+    }
+
+    @Test
+    @Order(29)
+    void testTopK() {
+        assertEquals(List.of(Map.entry("Mary Jane", new BigDecimal("275.75")),
+                        Map.entry("John Doe", new BigDecimal("150.50")),
+                        Map.entry("Bob Smith", new BigDecimal("150.25"))),
+                topCustomersByTotalAmount(payments, 3));
+        assertEquals(List.of(Map.entry("Credit Card", 4L), Map.entry("Bank Transfer", 3L)),
+                topPaymentMethods(payments, 2));
+        assertEquals(List.of(new SpaceSaving.Counter<>("Credit Card", 4L, 0L)),
+                approximateTopPaymentMethods(payments, 1, 8));
+        assertEquals("Mary Jane", approximateTopCustomersByTotalAmount(payments, 1, 8).get(0).key());
+        assertEquals(27575, approximateTopCustomersByTotalAmount(payments, 1, 8).get(0).count());
+        assertEquals(3, approximateCountByPaymentMethod(payments, 0.01, 0.01).estimate("Bank Transfer"));
+
+        List<Employee> top = topPaidEmployees(employees, 3);
+        assertEquals(List.of("Kate", "Roger", "Mary"), top.stream().map(Employee::name).toList());
+        assertEquals(getHighestPaidEmployee(employees), top.get(0));
+
+        Map<String, List<Employee>> topPaid = topPaidEmployeesInDepartments(employees, 2);
+        assertEquals(List.of("Mary", "Bob"), topPaid.get("First Department").stream().map(Employee::name).toList());
+        assertEquals(List.of("Sara", "Tom"), topPaid.get("Third Department").stream().map(Employee::name).toList());
+
+        Map<String, List<Employee>> experienced = mostExperiencedEmployeesInDepartments(employees, 1);
+        assertEquals("Roger", experienced.get("Fifth Department").get(0).name());
+        assertEquals("Jack", experienced.get("Second Department").get(0).name());
+    }
+
+    @Test
+    @Order(30)
+    void testEmployeeTableMatchesLists() {
+        List<Employee> manyEmployees = new ArrayList<>();
+        Random random = new Random(17);
+        for (int i = 0; i < 10_000; i++) {
+            Employee employee = employees.get(random.nextInt(employees.size()));
+            manyEmployees.add(new Employee(i, employee.name(), 18 + random.nextInt(50), employee.gender(),
+                    employee.department(), 2000 + random.nextInt(24), random.nextDouble() * 10_000));
+        }
+        for (List<Employee> list : List.of(employees, manyEmployees, List.<Employee>of())) {
+            EmployeeTable table = EmployeeTable.of(list);
+            assertEquals(getHighestPaidEmployee(list), getHighestPaidEmployee(table));
+            assertEquals(getMostExperiencedEmployee(list), getMostExperiencedEmployee(table));
+            assertEquals(countEmployeesByGender(list), countEmployeesByGender(table));
+            assertEquals(averageSalaryByGender(list), averageSalaryByGender(table));
+            assertEquals(averageAgeInDepartments(list), averageAgeInDepartments(table));
+            assertEquals(sumSalariesByDepartment(list), sumSalariesByDepartment(table));
+            assertEquals(oldestEmployeeInDepartment(list), oldestEmployeeInDepartment(table));
+            assertEquals(groupEmployeesByAgeRange(list), groupEmployeesByAgeRange(table));
+        }
+        assertEquals(Set.of("Under 20", "20-30", "Above 30"),
+                groupEmployeesByAgeRange(EmployeeTable.of(employees)).keySet());
+    }
+
+    @Test
+    @Order(31)
+    void testPaymentTableMatchesListWithNegativeScales() {
+        List<Payment> uniform = List.of(
+                new Payment("1", "John Doe", new BigDecimal("1E+2"),
+                        Payment.PaymentStatus.APPROVED, LocalDate.now(),
+                        Payment.Currency.USD, "Credit Card", "REF1"),
+                new Payment("2", "Mary Jane", new BigDecimal("3E+2"),
+                        Payment.PaymentStatus.APPROVED, LocalDate.now(),
+                        Payment.Currency.USD, "Credit Card", "REF2"));
+        List<Payment> mixed = List.of(uniform.get(0),
+                new Payment("3", "Mary Jane", new BigDecimal("5"),
+                        Payment.PaymentStatus.APPROVED, LocalDate.now(),
+                        Payment.Currency.USD, "Credit Card", "REF3"));
+
+        for (List<Payment> amounts : List.of(uniform, mixed)) {
+            BigDecimal expected = totalAmountByCurrency(amounts);
+            BigDecimal actual = totalAmountByCurrency(PaymentTable.of(amounts));
+            assertEquals(expected, actual);
+            assertEquals(expected.scale(), actual.scale());
+        }
+        assertEquals(new BigDecimal("400"), totalAmountByCurrency(PaymentTable.of(uniform)));
+        assertEquals(findMaxPaymentAmount(uniform), findMaxPaymentAmount(PaymentTable.of(uniform)));
+    }
+
+    @Test
+    @Order(32)
+    void testParallelSalarySumsMatchSequentialWithFractionalSalaries() {
+        Random random = new Random(17);
+        String[] departments = {"First Department", "Second Department", "Third Department"};
+        List<Employee> fractional = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            fractional.add(new Employee(i, "Employee " + i, 20 + random.nextInt(40), i % 3 == 0 ? "Female" : "Male",
+                    departments[random.nextInt(departments.length)], 2000 + random.nextInt(24),
+                    1_000 + random.nextDouble() * 9_000 + 0.1));
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ExecutionOptions options = ExecutionOptions.parallel(pool).withSequentialThreshold(64);
+
+            assertEquals(averageSalaryByGender(fractional), averageSalaryByGender(fractional, options));
+            assertEquals(sumSalariesByDepartment(fractional), sumSalariesByDepartment(fractional, options));
+            assertEquals(averageSalaryByGender(fractional), averageSalaryByGender(EmployeeTable.of(fractional)));
+            assertEquals(sumSalariesByDepartment(fractional), sumSalariesByDepartment(EmployeeTable.of(fractional)));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @Order(33)
+    void testApproximateTopCustomersSkipsRefunds() {
+        List<Payment> withRefunds = List.of(
+                new Payment("1", "John Doe", new BigDecimal("100.50"), Payment.PaymentStatus.APPROVED,
+                        LocalDate.of(2024, 6, 1), Payment.Currency.USD, "Credit Card", "REF1"),
+                new Payment("2", "John Doe", new BigDecimal("-100.50"), Payment.PaymentStatus.APPROVED,
+                        LocalDate.of(2024, 6, 2), Payment.Currency.USD, "Credit Card", "REF2"),
+                new Payment("3", "Mary Jane", new BigDecimal("20.009"), Payment.PaymentStatus.APPROVED,
+                        LocalDate.of(2024, 6, 3), Payment.Currency.USD, "PayPal", "REF3"),
+                new Payment("4", "Bob Smith", BigDecimal.ZERO, Payment.PaymentStatus.APPROVED,
+                        LocalDate.of(2024, 6, 4), Payment.Currency.USD, "PayPal", "REF4"));
+
+        assertEquals(List.of(new SpaceSaving.Counter<>("John Doe", 10050L, 0L),
+                        new SpaceSaving.Counter<>("Mary Jane", 2000L, 0L)),
+                approximateTopCustomersByTotalAmount(withRefunds, 3, 8));
+    }
+
+}
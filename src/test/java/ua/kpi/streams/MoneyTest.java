@@ -0,0 +1,48 @@
+package ua.kpi.streams;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class MoneyTest {
+
+    @Test
+    void testKeepsScaleOfBigDecimalSum() {
+        List<BigDecimal> amounts = List.of(new BigDecimal("100.50"), new BigDecimal("50"), new BigDecimal("0.125"),
+                new BigDecimal("-20.1"), new BigDecimal("1E+3"));
+
+        assertEquals(amounts.stream().reduce(BigDecimal.ZERO, BigDecimal::add),
+                amounts.stream().collect(Money.summing(amount -> amount)));
+        assertEquals(new BigDecimal("100.50"), new Money().add(new BigDecimal("100.50")).toBigDecimal());
+        assertEquals(BigDecimal.ZERO, new Money().toBigDecimal());
+    }
+
+    @Test
+    void testFallsBackToBigDecimalOnOverflow() {
+        Money money = new Money()
+                .add(Long.MAX_VALUE, 2)
+                .add(Long.MAX_VALUE, 2)
+                .add(new BigDecimal("0.001"));
+
+        assertEquals(BigDecimal.valueOf(Long.MAX_VALUE, 2).multiply(BigDecimal.TWO).add(new BigDecimal("0.001")),
+                money.toBigDecimal());
+        assertEquals(BigDecimal.ZERO.add(new BigDecimal("1E+30")), new Money().add(new BigDecimal("1E+30")).toBigDecimal());
+        assertEquals(new BigDecimal("1E-30"), new Money().add(new BigDecimal("1E-30")).toBigDecimal());
+    }
+
+    @Test
+    void testCombinesPartialSums() {
+        Money left = new Money().add(new BigDecimal("10.25"));
+        Money right = new Money().add(Long.MAX_VALUE, 0).add(1, 0);
+
+        assertEquals(new BigDecimal("10.25").add(BigDecimal.valueOf(Long.MAX_VALUE)).add(BigDecimal.ONE),
+                left.add(right).toBigDecimal());
+        assertEquals(new BigDecimal("3.00"), Stream.of("1.00", "2").map(BigDecimal::new)
+                .parallel().collect(Money.summing(amount -> amount)));
+    }
+
+}
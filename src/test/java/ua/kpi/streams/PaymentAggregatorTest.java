@@ -0,0 +1,149 @@
+package ua.kpi.streams;
+
+import org.junit.jupiter.api.Test;
+import ua.kpi.entity.Payment;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PaymentAggregatorTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 1);
+
+    private static final List<Payment> payments = List.of(
+            new Payment("1", "John Doe", new BigDecimal("100.50"),
+                    Payment.PaymentStatus.APPROVED, TODAY,
+                    Payment.Currency.USD, "Credit Card", "REF123456"),
+            new Payment("2", "Mary Jane", new BigDecimal("200.75"),
+                    Payment.PaymentStatus.PENDING, TODAY.minusDays(60),
+                    Payment.Currency.EUR, "Bank Transfer", "REF654321"),
+            new Payment("3", "John Doe", new BigDecimal("50.00"),
+                    Payment.PaymentStatus.APPROVED, TODAY,
+                    Payment.Currency.USD, "Credit Card", "REF789012"),
+            new Payment("4", "Bob Smith", new BigDecimal("150.25"),
+                    Payment.PaymentStatus.REJECTED, TODAY.minusDays(10),
+                    Payment.Currency.GBP, "PayPal", "REF345678"),
+            new Payment("5", "Mary Jane", new BigDecimal("75.00"),
+                    Payment.PaymentStatus.PENDING, TODAY.minusDays(15),
+                    Payment.Currency.USD, "Credit Card", "REF987654")
+    );
+
+    @Test
+    void testInsertMatchesKTStreams() {
+        PaymentAggregator aggregator = aggregatorOf(payments);
+
+        assertAggregatesMatch(payments, aggregator);
+        assertEquals(new BigDecimal("225.50"), aggregator.totalAmountByCurrency());
+    }
+
+    @Test
+    void testStatusUpdates() {
+        PaymentAggregator aggregator = aggregatorOf(payments);
+
+        aggregator.updateStatus("2", Payment.PaymentStatus.APPROVED);
+        aggregator.updateStatus("4", Payment.PaymentStatus.APPROVED);
+        assertFalse(aggregator.allPaymentsApproved());
+        aggregator.updateStatus("5", Payment.PaymentStatus.APPROVED);
+        assertTrue(aggregator.allPaymentsApproved());
+        aggregator.updateStatus("1", Payment.PaymentStatus.FAILED);
+        assertFalse(aggregator.allPaymentsApproved());
+    }
+
+    @Test
+    void testRetractionKeepsMaxAndEarliestDate() {
+        PaymentAggregator aggregator = aggregatorOf(payments);
+        List<Payment> remaining = new ArrayList<>(payments);
+
+        aggregator.retract("2");
+        remaining.remove(payments.get(1));
+        assertAggregatesMatch(remaining, aggregator);
+        assertEquals(new BigDecimal("150.25"), aggregator.findMaxPaymentAmount());
+        assertEquals(TODAY.minusDays(15), aggregator.findEarliestPaymentDate());
+
+        aggregator.retract("1");
+        aggregator.retract("3");
+        remaining.remove(payments.get(0));
+        remaining.remove(payments.get(2));
+        assertAggregatesMatch(remaining, aggregator);
+        assertNull(aggregator.groupByCustomerAndMapToTotalAmount().get("John Doe"));
+    }
+
+    @Test
+    void testEmptyAndUnknownPayments() {
+        PaymentAggregator aggregator = new PaymentAggregator();
+
+        assertAggregatesMatch(List.of(), aggregator);
+        assertThrows(IllegalArgumentException.class, () -> aggregator.retract("1"));
+        aggregator.insert(payments.get(0));
+        assertThrows(IllegalArgumentException.class, () -> aggregator.insert(payments.get(0)));
+    }
+
+    @Test
+    void testRetractionNarrowsScaleAgain() {
+        List<Payment> mixedScale = new ArrayList<>(List.of(
+                usd("a", "John Doe", "100"),
+                usd("b", "John Doe", "20.50"),
+                usd("c", "Mary Jane", "1E+2"),
+                usd("d", "Mary Jane", "100.0")));
+        PaymentAggregator aggregator = aggregatorOf(mixedScale);
+        assertAggregatesMatch(mixedScale, aggregator);
+
+        aggregator.retract("b");
+        mixedScale.remove(1);
+        assertAggregatesMatch(mixedScale, aggregator);
+        assertEquals(new BigDecimal("300.0"), aggregator.totalAmountByCurrency());
+        assertEquals(new BigDecimal("100"), aggregator.groupByCustomerAndMapToTotalAmount().get("John Doe"));
+
+        aggregator.retract("d");
+        mixedScale.remove(2);
+        assertAggregatesMatch(mixedScale, aggregator);
+        assertEquals(new BigDecimal("200"), aggregator.totalAmountByCurrency());
+        assertEquals(new BigDecimal("100"), aggregator.groupByCustomerAndMapToTotalAmount().get("Mary Jane"));
+    }
+
+    @Test
+    void testEqualMaximumAmountsKeepTheirScale() {
+        List<Payment> equalAmounts = new ArrayList<>(List.of(
+                usd("a", "John Doe", "100.00"),
+                usd("b", "John Doe", "100"),
+                usd("c", "Mary Jane", "100.0")));
+        PaymentAggregator aggregator = aggregatorOf(equalAmounts);
+        assertEquals(new BigDecimal("100.00"), aggregator.findMaxPaymentAmount());
+
+        aggregator.retract("a");
+        equalAmounts.remove(0);
+        assertAggregatesMatch(equalAmounts, aggregator);
+        assertEquals(new BigDecimal("100"), aggregator.findMaxPaymentAmount());
+    }
+
+    private static Payment usd(String id, String customerName, String amount) {
+        return new Payment(id, customerName, new BigDecimal(amount), Payment.PaymentStatus.APPROVED, TODAY,
+                Payment.Currency.USD, "Credit Card", "REF" + id);
+    }
+
+    private static PaymentAggregator aggregatorOf(List<Payment> payments) {
+        PaymentAggregator aggregator = new PaymentAggregator();
+        payments.forEach(aggregator::insert);
+        return aggregator;
+    }
+
+    private static void assertAggregatesMatch(List<Payment> payments, PaymentAggregator aggregator) {
+        assertEquals(payments.size(), aggregator.size());
+        assertEquals(KTStreams.allPaymentsApproved(payments), aggregator.allPaymentsApproved());
+        assertEquals(KTStreams.totalAmountByCurrency(payments), aggregator.totalAmountByCurrency());
+        assertEquals(KTStreams.findMaxPaymentAmount(payments), aggregator.findMaxPaymentAmount());
+        assertEquals(KTStreams.findEarliestPaymentDate(payments), aggregator.findEarliestPaymentDate());
+        assertEquals(KTStreams.countByPaymentMethod(payments), aggregator.countByPaymentMethod());
+        assertEquals(KTStreams.groupByCustomerAndMapToTotalAmount(payments),
+                aggregator.groupByCustomerAndMapToTotalAmount());
+    }
+
+}
@@ -0,0 +1,77 @@
+package ua.kpi.streams;
+
+import org.junit.jupiter.api.Test;
+import ua.kpi.entity.Payment;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PaymentQueryTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 1);
+
+    private static final List<Payment> payments = List.of(
+            new Payment("1", "John Doe", new BigDecimal("100.50"),
+                    Payment.PaymentStatus.APPROVED, TODAY,
+                    Payment.Currency.USD, "Credit Card", "REF123456"),
+            new Payment("2", "Mary Jane", new BigDecimal("200.75"),
+                    Payment.PaymentStatus.PENDING, TODAY.minusDays(60),
+                    Payment.Currency.EUR, "Bank Transfer", "REF654321"),
+            new Payment("3", "John Doe", new BigDecimal("50.00"),
+                    Payment.PaymentStatus.APPROVED, TODAY,
+                    Payment.Currency.USD, "Credit Card", "REF789012"),
+            new Payment("4", "Bob Smith", new BigDecimal("150.25"),
+                    Payment.PaymentStatus.REJECTED, TODAY.minusDays(10),
+                    Payment.Currency.GBP, "PayPal", "REF345678"),
+            new Payment("5", "Mary Jane", new BigDecimal("75.00"),
+                    Payment.PaymentStatus.PENDING, TODAY.minusDays(15),
+                    Payment.Currency.USD, "Credit Card", "REF987654")
+    );
+
+    @Test
+    void testFusedQueryMatchesKTStreams() {
+        PaymentQuery query = new PaymentQuery();
+        PaymentQuery.Metric<Map<Payment.Currency, BigDecimal>> sums = query.sumByCurrency();
+        PaymentQuery.Metric<Map<String, Long>> methods = query.countByPaymentMethod();
+        PaymentQuery.Metric<Map<Payment.PaymentStatus, Set<String>>> methodsByStatus =
+                query.groupByStatusAndMapToPaymentMethods();
+        PaymentQuery.Metric<BigDecimal> max = query.maxPaymentAmount();
+        PaymentQuery.Metric<LocalDate> earliest = query.earliestPaymentDate();
+
+        PaymentQuery.Result result = query.run(payments);
+
+        assertEquals(KTStreams.totalAmountByCurrency(payments), result.get(sums).get(Payment.Currency.USD));
+        assertEquals(new BigDecimal("200.75"), result.get(sums).get(Payment.Currency.EUR));
+        assertEquals(KTStreams.countByPaymentMethod(payments), result.get(methods));
+        assertEquals(KTStreams.groupByStatusAndMapToPaymentMethods(payments), result.get(methodsByStatus));
+        assertEquals(KTStreams.findMaxPaymentAmount(payments), result.get(max));
+        assertEquals(KTStreams.findEarliestPaymentDate(payments), result.get(earliest));
+    }
+
+    @Test
+    void testRunsAreIndependent() {
+        PaymentQuery query = new PaymentQuery();
+        PaymentQuery.Metric<BigDecimal> max = query.maxPaymentAmount();
+        PaymentQuery.Metric<LocalDate> earliest = query.earliestPaymentDate();
+
+        assertEquals(new BigDecimal("200.75"), query.run(payments).get(max));
+        PaymentQuery.Result empty = query.run(List.of());
+        assertEquals(BigDecimal.ZERO, empty.get(max));
+        assertNull(empty.get(earliest));
+    }
+
+    @Test
+    void testForeignMetricIsRejected() {
+        PaymentQuery.Metric<BigDecimal> foreign = new PaymentQuery().maxPaymentAmount();
+
+        assertThrows(IllegalArgumentException.class, () -> new PaymentQuery().run(payments).get(foreign));
+    }
+
+}
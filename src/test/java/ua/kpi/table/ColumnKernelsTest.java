@@ -0,0 +1,82 @@
+package ua.kpi.table;
+
+import org.junit.jupiter.api.Test;
+import ua.kpi.entity.Payment;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+public class ColumnKernelsTest {
+
+    private static final ColumnKernels scalar = new ScalarColumnKernels();
+    private static final ColumnKernels vector = new VectorColumnKernels();
+
+    @Test
+    void testVectorKernelsSelectedWithModule() {
+        assertInstanceOf(VectorColumnKernels.class, ColumnKernels.get());
+    }
+
+    @Test
+    void testVectorMatchesScalar() {
+        Random random = new Random(21);
+        for (int length = 0; length < 300; length += 1 + length / 10) {
+            byte[] bytes = new byte[length];
+            long[] longs = new long[length];
+            int[] ints = new int[length];
+            double[] doubles = new double[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = (byte) random.nextInt(4);
+                longs[i] = random.nextLong(-1_000, 1_000);
+                ints[i] = random.nextInt(100);
+                doubles[i] = random.nextInt(50);
+            }
+            assertArrayEquals(scalar.selectEqual(bytes, length, (byte) 1), vector.selectEqual(bytes, length, (byte) 1));
+            assertEquals(scalar.allEqual(bytes, length, (byte) 1), vector.allEqual(bytes, length, (byte) 1));
+            long[] selection = scalar.selectGreaterThan(longs, length, 0);
+            assertArrayEquals(selection, vector.selectGreaterThan(longs, length, 0));
+            assertArrayEquals(scalar.selectLessOrEqual(ints, length, 30), vector.selectLessOrEqual(ints, length, 30));
+            assertEquals(scalar.maskedSum(longs, selection, length), vector.maskedSum(longs, selection, length));
+            assertEquals(scalar.indexOfMax(doubles, length), vector.indexOfMax(doubles, length));
+        }
+        byte[] same = new byte[100];
+        assertEquals(true, vector.allEqual(same, same.length, (byte) 0));
+        same[97] = 1;
+        assertEquals(false, vector.allEqual(same, same.length, (byte) 0));
+    }
+
+    @Test
+    void testIndexOfMaxSpecialValues() {
+        double[][] cases = {
+                {-0.0, 0.0, 0.0, -1, -2, -3, -4, -5, -6},
+                {-0.0, -0.0, -1, -2, -3, -4, -5, -6, -7},
+                {1, 2, Double.NaN, 3, 4, 5, 6, 7, Double.NaN},
+                {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY,
+                        Double.NEGATIVE_INFINITY},
+                {1, 9, 3, 9, 5, 6, 7, 8, 9, 9}
+        };
+        for (double[] values : cases) {
+            assertEquals(scalar.indexOfMax(values, values.length), vector.indexOfMax(values, values.length));
+        }
+        assertEquals(-1, vector.indexOfMax(new double[0], 0));
+    }
+
+    @Test
+    void testSumAmountsBeyondLongRange() {
+        Payment large = new Payment("1", "John Doe", new BigDecimal("90000000000000000.00"),
+                Payment.PaymentStatus.APPROVED, LocalDate.of(2024, 6, 1), Payment.Currency.USD, "PayPal", "REF1");
+        PaymentTable table = PaymentTable.of(List.of(large, large, large));
+        BitSet rows = new BitSet();
+        rows.set(0, 3);
+        assertEquals(new BigDecimal("270000000000000000.00"), table.sumAmounts(rows));
+        rows.clear(1);
+        assertEquals(new BigDecimal("180000000000000000.00"), table.sumAmounts(rows));
+    }
+
+}
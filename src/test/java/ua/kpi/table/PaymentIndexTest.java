@@ -0,0 +1,69 @@
+package ua.kpi.table;
+
+import org.junit.jupiter.api.Test;
+import ua.kpi.entity.Payment;
+import ua.kpi.streams.KTStreams;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PaymentIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 1);
+
+    private static final List<Payment> payments = List.of(
+            new Payment("1", "John Doe", new BigDecimal("100.50"),
+                    Payment.PaymentStatus.APPROVED, TODAY,
+                    Payment.Currency.USD, "Credit Card", "REF123456"),
+            new Payment("2", "Mary Jane", new BigDecimal("200.75"),
+                    Payment.PaymentStatus.PENDING, TODAY.minusDays(60),
+                    Payment.Currency.EUR, "Bank Transfer", "REF654321"),
+            new Payment("3", "John Doe", new BigDecimal("50.00"),
+                    Payment.PaymentStatus.APPROVED, TODAY,
+                    Payment.Currency.USD, "Credit Card", "REF789012"),
+            new Payment("4", "Bob Smith", new BigDecimal("150.25"),
+                    Payment.PaymentStatus.REJECTED, TODAY.minusDays(10),
+                    Payment.Currency.GBP, "PayPal", "REF345678"),
+            new Payment("5", "Mary Jane", new BigDecimal("75.00"),
+                    Payment.PaymentStatus.PENDING, TODAY.minusDays(15),
+                    Payment.Currency.USD, "Credit Card", "REF987654"),
+            new Payment("6", "Alex Johnson", new BigDecimal("60.00"),
+                    Payment.PaymentStatus.APPROVED, TODAY.minusDays(10),
+                    Payment.Currency.JPY, "Bank Transfer", "REF543210")
+    );
+
+    private static final PaymentIndex index = PaymentIndex.of(payments);
+
+    @Test
+    void testReferencesForCustomer() {
+        for (String customer : List.of("John Doe", "Mary Jane", "Bob Smith", "Chuck Norris")) {
+            assertEquals(KTStreams.getReferencesForCustomer(payments, customer), index.getReferencesForCustomer(customer));
+        }
+    }
+
+    @Test
+    void testDateRange() {
+        assertEquals(KTStreams.groupByDateAndMapToReferences(payments),
+                index.groupByDateAndMapToReferences(LocalDate.MIN, LocalDate.MAX));
+
+        Map<LocalDate, List<String>> lastTwoWeeks = index.groupByDateAndMapToReferences(TODAY.minusDays(14), TODAY);
+        assertEquals(List.of(TODAY.minusDays(10), TODAY), List.copyOf(lastTwoWeeks.keySet()));
+        assertEquals(List.of("REF345678", "REF543210"), lastTwoWeeks.get(TODAY.minusDays(10)));
+        assertEquals(List.of("REF123456", "REF789012"), lastTwoWeeks.get(TODAY));
+        assertTrue(index.groupByDateAndMapToReferences(TODAY, TODAY.minusDays(1)).isEmpty());
+        assertTrue(index.groupByDateAndMapToReferences(TODAY.plusDays(1), TODAY.plusDays(9)).isEmpty());
+    }
+
+    @Test
+    void testStatusBitmaps() {
+        assertEquals(KTStreams.filterPaymentsByStatus(payments), index.filterPaymentsByStatus());
+        assertEquals(List.of(payments.get(1), payments.get(4)), index.filterPaymentsByStatus(Payment.PaymentStatus.PENDING));
+        assertTrue(index.filterPaymentsByStatus(Payment.PaymentStatus.FAILED).isEmpty());
+    }
+
+}
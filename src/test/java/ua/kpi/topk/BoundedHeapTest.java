@@ -0,0 +1,45 @@
+package ua.kpi.topk;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BoundedHeapTest {
+
+    @Test
+    void testMatchesSortedPrefix() {
+        Random random = new Random(3);
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            values.add(random.nextInt(1_000));
+        }
+        List<Integer> expected = values.stream().sorted(Comparator.reverseOrder()).limit(100).toList();
+        assertEquals(expected, values.stream().collect(BoundedHeap.greatest(100, Comparator.naturalOrder())));
+        assertEquals(expected, values.parallelStream().collect(BoundedHeap.greatest(100, Comparator.naturalOrder())));
+        assertEquals(List.of(), values.stream().collect(BoundedHeap.greatest(0, Comparator.naturalOrder())));
+        assertEquals(List.of(3, 2, 1), IntStream.rangeClosed(1, 3).boxed()
+                .collect(BoundedHeap.greatest(10, Comparator.naturalOrder())));
+        assertThrows(IllegalArgumentException.class, () -> new BoundedHeap<>(-1, Comparator.naturalOrder()));
+    }
+
+    @Test
+    void testEarlierElementsWinTies() {
+        List<String> words = List.of("bb", "a", "cc", "dd", "e", "ff");
+        Comparator<String> byLength = Comparator.comparingInt(String::length);
+        assertEquals(List.of("bb", "cc"), words.stream().collect(BoundedHeap.greatest(2, byLength)));
+
+        BoundedHeap<String> left = new BoundedHeap<>(3, byLength);
+        BoundedHeap<String> right = new BoundedHeap<>(3, byLength);
+        words.subList(0, 3).forEach(left::add);
+        words.subList(3, 6).forEach(right::add);
+        assertEquals(List.of("bb", "cc", "dd"), left.merge(right).toList());
+    }
+
+}
@@ -0,0 +1,57 @@
+package ua.kpi.topk;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SpaceSavingTest {
+
+    @Test
+    void testExactBelowCapacity() {
+        SpaceSaving<String> summary = new SpaceSaving<>(10);
+        summary.add("a", 5).add("b").add("a", 2).add("c", 3);
+        assertEquals(List.of(new SpaceSaving.Counter<>("a", 7L, 0L), new SpaceSaving.Counter<>("c", 3L, 0L)),
+                summary.top(2));
+        assertEquals(11, summary.totalWeight());
+        assertEquals(0, summary.count("d"));
+        assertThrows(IllegalArgumentException.class, () -> summary.add("a", -1));
+    }
+
+    @Test
+    void testHeavyHittersOfSkewedStream() {
+        Random random = new Random(5);
+        Map<Integer, Long> exact = new HashMap<>();
+        SpaceSaving<Integer> summary = new SpaceSaving<>(100);
+        SpaceSaving<Integer> left = new SpaceSaving<>(100);
+        SpaceSaving<Integer> right = new SpaceSaving<>(100);
+        for (int i = 0; i < 200_000; i++) {
+            int key = (int) Math.floor(Math.pow(random.nextDouble(), 4) * 10_000);
+            long weight = 1 + random.nextInt(10);
+            exact.merge(key, weight, Long::sum);
+            summary.add(key, weight);
+            (i % 2 == 0 ? left : right).add(key, weight);
+        }
+        left.merge(right);
+        List<Map.Entry<Integer, Long>> expected = exact.entrySet().stream()
+                .sorted(Map.Entry.<Integer, Long>comparingByValue().reversed())
+                .limit(10)
+                .toList();
+        for (SpaceSaving<Integer> candidate : List.of(summary, left)) {
+            List<Integer> keys = candidate.top(10).stream().map(SpaceSaving.Counter::key).toList();
+            for (SpaceSaving.Counter<Integer> counter : candidate.top(100)) {
+                long actual = exact.get(counter.key());
+                assertTrue(counter.count() >= actual && counter.count() - counter.error() <= actual);
+            }
+            assertEquals(expected.get(0).getKey(), keys.get(0));
+            assertTrue(keys.containsAll(expected.subList(0, 5).stream().map(Map.Entry::getKey).toList()));
+        }
+    }
+
+}
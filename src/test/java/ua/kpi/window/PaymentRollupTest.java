@@ -0,0 +1,134 @@
+package ua.kpi.window;
+
+import org.junit.jupiter.api.Test;
+import ua.kpi.entity.Payment;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PaymentRollupTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 1);
+
+    private static final List<Payment> payments = List.of(
+            new Payment("1", "John Doe", new BigDecimal("100.50"),
+                    Payment.PaymentStatus.APPROVED, TODAY.minusDays(10),
+                    Payment.Currency.USD, "Credit Card", "REF1"),
+            new Payment("2", "John Doe", new BigDecimal("200.00"),
+                    Payment.PaymentStatus.PENDING, TODAY.minusDays(3),
+                    Payment.Currency.USD, "Bank Transfer", "REF2"),
+            new Payment("3", "Mary Jane", new BigDecimal("50"),
+                    Payment.PaymentStatus.APPROVED, TODAY.minusDays(3),
+                    Payment.Currency.EUR, "Credit Card", "REF3"),
+            new Payment("4", "Mary Jane", new BigDecimal("10.25"),
+                    Payment.PaymentStatus.APPROVED, TODAY,
+                    Payment.Currency.USD, "PayPal", "REF4")
+    );
+
+    @Test
+    void testDailyWeeklyAndRollingWindows() {
+        PaymentRollup rollup = new PaymentRollup(30);
+        assertNull(rollup.head());
+        assertEquals(0, rollup.addAll(payments));
+        assertEquals(TODAY, rollup.head());
+
+        WindowTotals day = rollup.daily(TODAY.minusDays(3));
+        assertEquals(new BigDecimal("200.00"), day.amount(Payment.Currency.USD));
+        assertEquals(new BigDecimal("50.00"), day.amount(Payment.Currency.EUR, Payment.PaymentStatus.APPROVED));
+        assertEquals(2, day.count());
+
+        // 2024-06-01 is a Saturday, so its ISO week starts on 2024-05-27
+        WindowTotals week = rollup.weekly(TODAY);
+        assertEquals(LocalDate.of(2024, 5, 27), week.from());
+        assertEquals(LocalDate.of(2024, 6, 2), week.to());
+        assertEquals(new BigDecimal("210.25"), week.amount(Payment.Currency.USD));
+        assertEquals(2, week.count(Payment.PaymentStatus.APPROVED));
+
+        WindowTotals rolling = rollup.rolling(TODAY, 14);
+        assertEquals(new BigDecimal("310.75"), rolling.amount(Payment.Currency.USD));
+        assertEquals(1, rolling.count(Payment.Currency.USD, Payment.PaymentStatus.PENDING));
+        assertEquals(4, rolling.count());
+        assertEquals(0, rollup.daily(TODAY.plusDays(1)).count());
+    }
+
+    @Test
+    void testLateAndExpiredPayments() {
+        PaymentRollup rollup = new PaymentRollup(7);
+        rollup.add(payments.get(3));
+        assertTrue(rollup.add(payments.get(1)));
+        assertEquals(1, rollup.latePayments());
+        assertFalse(rollup.add(payments.get(0)));
+        assertEquals(1, rollup.droppedPayments());
+        assertEquals(2, rollup.rolling(TODAY, 30).count());
+
+        // advancing the head past the retention evicts the old days
+        rollup.add(new Payment("5", "John Doe", BigDecimal.ONE, Payment.PaymentStatus.FAILED,
+                TODAY.plusDays(4), Payment.Currency.GBP, "PayPal", "REF5"));
+        WindowTotals totals = rollup.rolling(TODAY.plusDays(4), 7);
+        assertEquals(2, totals.count());
+        assertEquals(new BigDecimal("10.25"), totals.amount(Payment.Currency.USD));
+        assertEquals(0, rollup.daily(TODAY.minusDays(3)).count());
+    }
+
+    @Test
+    void testWindowsMatchRescan() {
+        Random random = new Random(42);
+        Payment.PaymentStatus[] statuses = Payment.PaymentStatus.values();
+        Payment.Currency[] currencies = Payment.Currency.values();
+        List<Payment> generated = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            LocalDate date = TODAY.plusDays(i / 10 - random.nextInt(20));
+            generated.add(new Payment(String.valueOf(i), "Customer", BigDecimal.valueOf(random.nextInt(100_000), 2),
+                    statuses[random.nextInt(statuses.length)], date,
+                    currencies[random.nextInt(currencies.length)], "Credit Card", "REF" + i));
+        }
+        int retention = 45;
+        PaymentRollup rollup = new PaymentRollup(retention);
+        List<Payment> retained = new ArrayList<>();
+        long head = Long.MIN_VALUE;
+        for (Payment payment : generated) {
+            head = Math.max(head, payment.date().toEpochDay());
+            if (rollup.add(payment)) {
+                retained.add(payment);
+            }
+        }
+        long oldest = head - retention + 1;
+        for (int days : new int[]{1, 7, 30, 45, 60}) {
+            for (long last = head; last > head - 50; last -= 3) {
+                long end = last;
+                LocalDate to = LocalDate.ofEpochDay(end);
+                WindowTotals totals = rollup.rolling(to, days);
+                long from = Math.max(end - days + 1, oldest);
+                BigDecimal expected = retained.stream()
+                        .filter(p -> p.date().toEpochDay() >= from && p.date().toEpochDay() <= end)
+                        .filter(p -> p.currency() == Payment.Currency.EUR)
+                        .map(Payment::amount)
+                        .reduce(BigDecimal.ZERO.setScale(2), BigDecimal::add);
+                long count = retained.stream()
+                        .filter(p -> p.date().toEpochDay() >= from && p.date().toEpochDay() <= end)
+                        .filter(p -> p.status() == Payment.PaymentStatus.REJECTED)
+                        .count();
+                assertEquals(expected, totals.amount(Payment.Currency.EUR));
+                assertEquals(count, totals.count(Payment.PaymentStatus.REJECTED));
+            }
+        }
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new PaymentRollup(0));
+        assertThrows(IllegalArgumentException.class, () -> new PaymentRollup(7).rolling(TODAY, 0));
+        assertThrows(IllegalArgumentException.class, () -> new PaymentRollup(7).add(new Payment("1", "John Doe",
+                new BigDecimal("1.005"), Payment.PaymentStatus.APPROVED, TODAY, Payment.Currency.USD, "PayPal", "REF1")));
+    }
+
+}